@@ -0,0 +1,145 @@
+package com.automation.selenium_template.benchmark;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Serves the HTML fixtures bundled under 'fixtures' on the class path at '/fixtures/' with the HTTP server of the JDK, on the loopback address.
+ * A 'serverDelayMs' query parameter delays the response, to model a slow backend next to the client side delays of the fixtures themselves.
+ */
+public class FixtureServer implements AutoCloseable {
+
+	public static final String FIXTURES_PATH = "/fixtures/";
+	private static final String RESOURCE_ROOT = "fixtures/";
+	private static final long MAX_SERVER_DELAY_MILLIS = 60_000;
+	private static final Map<String, String> CONTENT_TYPES = Map.of(
+			"html", "text/html; charset=utf-8",
+			"js", "text/javascript; charset=utf-8",
+			"css", "text/css; charset=utf-8");
+	private static Logger logger = LoggerFactory.getLogger(FixtureServer.class);
+
+	private HttpServer httpServer;
+	private ExecutorService executor;
+
+
+	// getters
+
+	/**
+	 * @return the port the server listens on, -1 if it is not started
+	 */
+	public synchronized int getPort() {
+		return httpServer != null ? httpServer.getAddress().getPort() : -1;
+	}
+
+	/**
+	 * @param fixture file name of the fixture, optionally with a query string, e.g. large-table.html?rows=5000
+	 * @return url of the fixture
+	 */
+	public String getUrl(String fixture) {
+		return "http://127.0.0.1:" + getPort() + FIXTURES_PATH + fixture;
+	}
+
+
+	// operations
+
+	/**
+	 * Start listening on a free port. Does nothing if already started.
+	 * @return true if operation is successful otherwise false
+	 */
+	public synchronized boolean start() {
+		if(httpServer != null) {
+			return true;
+		}
+		try {
+			httpServer = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+			httpServer.createContext(FIXTURES_PATH, this::handle);
+			// delayed responses must not hold up the other sessions
+			executor = Executors.newCachedThreadPool(runnable -> {
+				Thread thread = new Thread(runnable, "fixture-server");
+				thread.setDaemon(true);
+				return thread;
+			});
+			httpServer.setExecutor(executor);
+			httpServer.start();
+			logger.info("Serving fixtures at {}", getUrl(""));
+			return true;
+		}catch (IOException e) {
+			//logging and reporting
+			logger.error("Exception occurred while starting fixture server", e);
+			httpServer = null;
+		}
+		return false;
+	}
+
+	@Override
+	public synchronized void close() {
+		if(httpServer != null) {
+			httpServer.stop(0);
+			executor.shutdownNow();
+			httpServer = null;
+			executor = null;
+		}
+	}
+
+	private void handle(HttpExchange exchange) throws IOException {
+		try(exchange) {
+			String fixture = exchange.getRequestURI().getPath().substring(FIXTURES_PATH.length());
+			if(!"GET".equals(exchange.getRequestMethod()) || fixture.isEmpty() || fixture.contains("..")) {
+				exchange.sendResponseHeaders(404, -1);
+				return;
+			}
+			byte[] body;
+			try(InputStream inputStream = FixtureServer.class.getClassLoader().getResourceAsStream(RESOURCE_ROOT + fixture)) {
+				if(inputStream == null) {
+					exchange.sendResponseHeaders(404, -1);
+					return;
+				}
+				body = inputStream.readAllBytes();
+			}
+			long serverDelayMillis = getServerDelayMillis(exchange.getRequestURI().getQuery());
+			if(serverDelayMillis > 0) {
+				Thread.sleep(serverDelayMillis);
+			}
+			String extension = fixture.substring(fixture.lastIndexOf('.') + 1);
+			exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPES.getOrDefault(extension, "application/octet-stream"));
+			exchange.getResponseHeaders().set("Cache-Control", "no-store");
+			exchange.sendResponseHeaders(200, body.length);
+			try(OutputStream responseBody = exchange.getResponseBody()) {
+				responseBody.write(body);
+			}
+		}catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}catch (Exception e) {
+			//logging and reporting
+			logger.error("Exception occurred while serving fixture: {}", exchange.getRequestURI(), e);
+		}
+	}
+
+	private static long getServerDelayMillis(String query) {
+		if(query != null) {
+			for(String parameter : query.split("&")) {
+				if(parameter.startsWith("serverDelayMs=")) {
+					try {
+						return Math.min(MAX_SERVER_DELAY_MILLIS, Long.parseLong(parameter.substring("serverDelayMs=".length())));
+					}catch (NumberFormatException e) {
+						//logging and reporting
+						logger.warn("Invalid server delay: {}", parameter);
+					}
+				}
+			}
+		}
+		return 0;
+	}
+}
@@ -0,0 +1,125 @@
+package com.automation.selenium_template.benchmark;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * CPU time and resident memory of the processes a browser session started, the driver server and the browser with its helper processes.
+ * The session's processes are the descendants of this JVM that appeared while the session was created, so sessions must be created one at a time.
+ * Resident memory is read from '/proc' and is only available on Linux.
+ */
+public class ProcessTreeSampler {
+
+	private static Logger logger = LoggerFactory.getLogger(ProcessTreeSampler.class);
+
+	private final List<ProcessHandle> rootProcesses;
+	private long peakRssBytes = -1;
+
+	private ProcessTreeSampler(List<ProcessHandle> rootProcesses) {
+		this.rootProcesses = rootProcesses;
+	}
+
+	/**
+	 * @return the pids of the processes this JVM started, directly or indirectly
+	 */
+	public static Set<Long> getDescendantPids() {
+		return ProcessHandle.current().descendants().map(ProcessHandle::pid).collect(Collectors.toSet());
+	}
+
+	/**
+	 * @param pidsBefore result of {@link #getDescendantPids()} taken right before the session was created
+	 * @return sampler of the processes started since
+	 */
+	public static ProcessTreeSampler ofNewDescendants(Set<Long> pidsBefore) {
+		List<ProcessHandle> rootProcesses = ProcessHandle.current().descendants()
+				.filter(processHandle -> !pidsBefore.contains(processHandle.pid()))
+				.toList();
+		if(rootProcesses.isEmpty()) {
+			logger.warn("No new processes found for the session, CPU and memory will not be reported");
+		}
+		return new ProcessTreeSampler(rootProcesses);
+	}
+
+
+	// getters
+
+	public int getRootProcessCount() {
+		return rootProcesses.size();
+	}
+
+	/**
+	 * @return highest resident memory of the process tree over all samples, -1 if not available
+	 */
+	public long getPeakRssBytes() {
+		return peakRssBytes;
+	}
+
+
+	// operations
+
+	/**
+	 * @return total CPU time of the live processes of the tree, processes that already exited are not counted
+	 */
+	public Duration getCpuTime() {
+		Duration cpuTime = Duration.ZERO;
+		for(ProcessHandle processHandle : getLiveProcesses()) {
+			cpuTime = cpuTime.plus(processHandle.info().totalCpuDuration().orElse(Duration.ZERO));
+		}
+		return cpuTime;
+	}
+
+	/**
+	 * Sample the resident memory of the process tree and update the peak.
+	 * @return current resident memory of the tree, -1 if not available
+	 */
+	public long sampleRssBytes() {
+		long rssBytes = -1;
+		for(ProcessHandle processHandle : getLiveProcesses()) {
+			long processRssBytes = readRssBytes(processHandle.pid());
+			if(processRssBytes >= 0) {
+				rssBytes = Math.max(rssBytes, 0) + processRssBytes;
+			}
+		}
+		peakRssBytes = Math.max(peakRssBytes, rssBytes);
+		return rssBytes;
+	}
+
+	private Set<ProcessHandle> getLiveProcesses() {
+		Set<ProcessHandle> processes = new LinkedHashSet<>();
+		for(ProcessHandle rootProcess : rootProcesses) {
+			if(rootProcess.isAlive()) {
+				processes.add(rootProcess);
+				rootProcess.descendants().forEach(processes::add);
+			}
+		}
+		return processes;
+	}
+
+	private static long readRssBytes(long pid) {
+		Path status = Path.of("/proc", String.valueOf(pid), "status");
+		if(!Files.isReadable(status)) {
+			return -1;
+		}
+		try {
+			for(String line : Files.readAllLines(status)) {
+				if(line.startsWith("VmRSS:")) {
+					// e.g. 'VmRSS:	  123456 kB'
+					return Long.parseLong(line.substring("VmRSS:".length()).replace("kB", "").trim()) * 1024;
+				}
+			}
+		}catch (IOException | NumberFormatException e) {
+			// the process exited while being read
+			logger.debug("Could not read resident memory of process: {}", pid, e);
+		}
+		return -1;
+	}
+}
@@ -0,0 +1,430 @@
+package com.automation.selenium_template.benchmark;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chrome.ChromeDriver;
+import org.openqa.selenium.chrome.ChromeOptions;
+import org.openqa.selenium.edge.EdgeDriver;
+import org.openqa.selenium.edge.EdgeOptions;
+import org.openqa.selenium.firefox.FirefoxDriver;
+import org.openqa.selenium.firefox.FirefoxOptions;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.automation.selenium_template.driver.DriverControllerV3;
+import com.automation.selenium_template.driver.LatencyHistogram;
+import com.automation.selenium_template.driver.OperationMetrics;
+import com.automation.selenium_template.driver.StepEvent;
+import com.automation.selenium_template.driver.StepListener;
+
+/**
+ * End to end throughput of {@link DriverControllerV3} flows against a headless browser and the bundled fixtures served by a {@link FixtureServer}.
+ * Every session runs the configured flows round robin on its own thread, first for the warm up and then for the measured duration,
+ * all sessions measuring over the same period. Reported are the top level steps per second, the step latency percentiles and,
+ * per session, the CPU time of the session thread and of the browser processes and their peak resident memory.
+ * Configured with system properties, see {@link #fromSystemProperties()}, and run with 'mvn -P throughput verify'.
+ * Exits with status 1 if a session failed or a configured threshold is not met, so a regression fails the build.
+ */
+public class ThroughputBenchmark {
+
+	private static final Object SESSION_CREATION_LOCK = new Object();
+	private static Logger logger = LoggerFactory.getLogger(ThroughputBenchmark.class);
+
+	private final String browser;
+	private final boolean headless;
+	private final int parallelism;
+	private final Duration warmupDuration;
+	private final Duration measurementDuration;
+	private final List<Flow> flows;
+	private final Path outputFile;
+	private final double minStepsPerSecond;
+	private final double maxP99Millis;
+	private final OperationMetrics operationMetrics = new OperationMetrics();
+	private final LatencyHistogram stepLatencies = new LatencyHistogram();
+
+	/**
+	 * @param browser chrome, firefox or edge
+	 * @param headless true to run the browser without a window
+	 * @param parallelism number of concurrent browser sessions
+	 * @param warmupDuration time the flows run before measuring
+	 * @param measurementDuration time the flows are measured
+	 * @param flows flows each session runs round robin
+	 * @param outputFile JSON file to write the result to, null to only log it
+	 * @param minStepsPerSecond least total steps per second accepted, 0 for no threshold
+	 * @param maxP99Millis highest 99th percentile step latency accepted, 0 for no threshold
+	 */
+	public ThroughputBenchmark(String browser, boolean headless, int parallelism, Duration warmupDuration, Duration measurementDuration,
+			List<Flow> flows, Path outputFile, double minStepsPerSecond, double maxP99Millis) {
+		super();
+		this.browser = browser;
+		this.headless = headless;
+		this.parallelism = Math.max(1, parallelism);
+		this.warmupDuration = warmupDuration;
+		this.measurementDuration = measurementDuration;
+		this.flows = List.copyOf(flows);
+		this.outputFile = outputFile;
+		this.minStepsPerSecond = minStepsPerSecond;
+		this.maxP99Millis = maxP99Millis;
+	}
+
+	/**
+	 * Benchmark configured with the system properties 'throughput.browser' (chrome), 'throughput.headless' (true),
+	 * 'throughput.parallelism' (2), 'throughput.warmupSeconds' (10), 'throughput.durationSeconds' (60),
+	 * 'throughput.flows' (table,spinner,iframes,dropdown), 'throughput.output' (target/throughput-result.json),
+	 * 'throughput.minStepsPerSecond' (0) and 'throughput.maxP99Millis' (0), defaults in brackets.
+	 * @return the configured benchmark
+	 */
+	public static ThroughputBenchmark fromSystemProperties() {
+		List<Flow> flows = new ArrayList<>();
+		for(String flowName : System.getProperty("throughput.flows", "table,spinner,iframes,dropdown").split(",")) {
+			if(!flowName.isBlank()) {
+				flows.add(Flow.valueOf(flowName.trim().toUpperCase(Locale.ROOT)));
+			}
+		}
+		String output = System.getProperty("throughput.output", "target/throughput-result.json");
+		return new ThroughputBenchmark(System.getProperty("throughput.browser", "chrome"),
+				Boolean.parseBoolean(System.getProperty("throughput.headless", "true")),
+				Integer.getInteger("throughput.parallelism", 2),
+				Duration.ofSeconds(Long.getLong("throughput.warmupSeconds", 10)),
+				Duration.ofSeconds(Long.getLong("throughput.durationSeconds", 60)),
+				flows, output.isBlank() ? null : Path.of(output),
+				Double.parseDouble(System.getProperty("throughput.minStepsPerSecond", "0")),
+				Double.parseDouble(System.getProperty("throughput.maxP99Millis", "0")));
+	}
+
+	public static void main(String[] args) {
+		System.exit(fromSystemProperties().run() ? 0 : 1);
+	}
+
+
+	// flows
+
+	/**
+	 * A user flow over one of the fixtures.
+	 */
+	public enum Flow {
+
+		/** Load a 2000 row table and read all its rows. */
+		TABLE {
+			@Override
+			boolean run(DriverControllerV3 driverController, FixtureServer fixtureServer) {
+				return driverController.get("Open large table", fixtureServer.getUrl("large-table.html?rows=2000"))
+						&& driverController.waitForPresenceOfElement("Wait for last row", "css~#data-table tbody tr[data-row='1999']", FLOW_WAIT) != null
+						&& driverController.streamTableRows("Read table", "css~#data-table").count() > 2000;
+			}
+		},
+
+		/** Wait out a spinner, click and wait for the asynchronous status update. */
+		SPINNER {
+			@Override
+			boolean run(DriverControllerV3 driverController, FixtureServer fixtureServer) {
+				return driverController.get("Open slow page", fixtureServer.getUrl("slow-spinner.html?delayMs=1500&serverDelayMs=200"))
+						&& driverController.waitForInvisibilityOfElement("Wait for spinner", "css~#spinner", FLOW_WAIT)
+						&& driverController.click("Continue", "css~#continue")
+						&& driverController.waitForAttributeToBe("Wait for status", "css~#status", "data-state", "done", FLOW_WAIT);
+			}
+		},
+
+		/** Work inside an iframe nested in an iframe and find an element across frames. */
+		IFRAMES {
+			@Override
+			boolean run(DriverControllerV3 driverController, FixtureServer fixtureServer) {
+				return driverController.get("Open nested frames", fixtureServer.getUrl("nested-iframes.html"))
+						&& driverController.switchToFramePath("Enter inner frame", List.of("level-1", "level-2"))
+						&& driverController.sendKeys("Type in inner frame", "css~#deep-input", "throughput")
+						&& driverController.click("Click in inner frame", "css~#deep-button")
+						&& driverController.waitForAttributeToBe("Wait for click", "css~#deep-button", "data-clicks", "1", FLOW_WAIT)
+						&& driverController.switchToDefaultContent("Leave frames")
+						&& driverController.findElementAcrossFrames("Find across frames", "css~#level-1-text") != null
+						&& driverController.switchToDefaultContent("Leave frames");
+			}
+		},
+
+		/** Select near the end of a 5000 option dropdown. */
+		DROPDOWN {
+			@Override
+			boolean run(DriverControllerV3 driverController, FixtureServer fixtureServer) {
+				return driverController.get("Open big dropdown", fixtureServer.getUrl("big-dropdown.html?options=5000"))
+						&& driverController.selectByVisibleText("Select option", "css~#big-select", "Option 4321")
+						&& "value-4321".equals(driverController.getAttribute("Read selection", "css~#big-select", "value"));
+			}
+		};
+
+		private static final Duration FLOW_WAIT = Duration.ofSeconds(10);
+
+		abstract boolean run(DriverControllerV3 driverController, FixtureServer fixtureServer);
+	}
+
+
+	// operations
+
+	/**
+	 * Run the benchmark, log the result and write it to the output file.
+	 * @return true if all sessions ran and the thresholds are met otherwise false
+	 */
+	public boolean run() {
+		try(FixtureServer fixtureServer = new FixtureServer()) {
+			if(!fixtureServer.start()) {
+				return false;
+			}
+			logger.info("Running flows {} on {} {} sessions, {} s warm up, {} s measured", flows, parallelism, browser,
+					warmupDuration.toSeconds(), measurementDuration.toSeconds());
+			CountDownLatch sessionsCreated = new CountDownLatch(parallelism);
+			ExecutorService executor = Executors.newFixedThreadPool(parallelism);
+			List<Future<SessionResult>> futures = new ArrayList<>();
+			List<SessionResult> sessionResults = new ArrayList<>();
+			try {
+				for(int i = 0; i < parallelism; i++) {
+					int sessionIndex = i;
+					futures.add(executor.submit(() -> runSession(sessionIndex, fixtureServer, sessionsCreated)));
+				}
+				for(Future<SessionResult> future : futures) {
+					sessionResults.add(future.get());
+				}
+			}catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return false;
+			}catch (ExecutionException e) {
+				//logging and reporting
+				logger.error("Exception occurred while running benchmark session", e.getCause());
+				return false;
+			}finally {
+				executor.shutdownNow();
+			}
+			return report(sessionResults);
+		}
+	}
+
+	private SessionResult runSession(int sessionIndex, FixtureServer fixtureServer, CountDownLatch sessionsCreated) throws InterruptedException {
+		WebDriver webDriver = null;
+		ProcessTreeSampler processTreeSampler = null;
+		try {
+			// sessions are created one at a time to attribute the new browser processes to their session
+			synchronized (SESSION_CREATION_LOCK) {
+				Set<Long> pidsBefore = ProcessTreeSampler.getDescendantPids();
+				webDriver = createWebDriver();
+				processTreeSampler = ProcessTreeSampler.ofNewDescendants(pidsBefore);
+			}
+		}catch (Exception e) {
+			//logging and reporting
+			logger.error("Exception occurred while creating {} session {}", browser, sessionIndex, e);
+		}finally {
+			sessionsCreated.countDown();
+		}
+		if(webDriver == null) {
+			return SessionResult.failed(sessionIndex);
+		}
+		ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+		SessionListener sessionListener = new SessionListener();
+		DriverControllerV3 driverController = new DriverControllerV3(webDriver);
+		driverController.addStepListener(sessionListener);
+		long measurementStartNanos = 0;
+		long threadCpuStartNanos = 0;
+		Duration browserCpuStart = Duration.ZERO;
+		long flowRuns = 0;
+		long failedFlowRuns = 0;
+		try {
+			// all sessions warm up and measure over the same period
+			sessionsCreated.await();
+			long warmupEndNanos = System.nanoTime() + warmupDuration.toNanos();
+			long endNanos = warmupEndNanos + measurementDuration.toNanos();
+			for(int i = 0; System.nanoTime() < endNanos; i++) {
+				if(!sessionListener.measuring && System.nanoTime() >= warmupEndNanos) {
+					measurementStartNanos = System.nanoTime();
+					threadCpuStartNanos = threadMXBean.getCurrentThreadCpuTime();
+					browserCpuStart = processTreeSampler.getCpuTime();
+					sessionListener.measuring = true;
+				}
+				Flow flow = flows.get(i % flows.size());
+				boolean successful = flow.run(driverController, fixtureServer);
+				if(sessionListener.measuring) {
+					flowRuns++;
+					if(!successful) {
+						failedFlowRuns++;
+						logger.warn("Session {} failed flow {}", sessionIndex, flow);
+					}
+				}
+				processTreeSampler.sampleRssBytes();
+			}
+			if(!sessionListener.measuring) {
+				logger.warn("Session {} did not finish its warm up within the benchmark duration", sessionIndex);
+				return SessionResult.failed(sessionIndex);
+			}
+			return new SessionResult(sessionIndex, sessionListener.steps.sum(), sessionListener.failedSteps.sum(), flowRuns, failedFlowRuns,
+					(System.nanoTime() - measurementStartNanos) / 1e9, sessionListener.stepLatencies,
+					Duration.ofNanos(threadMXBean.getCurrentThreadCpuTime() - threadCpuStartNanos),
+					processTreeSampler.getCpuTime().minus(browserCpuStart), processTreeSampler.getPeakRssBytes());
+		}finally {
+			driverController.quit("Quit benchmark session");
+		}
+	}
+
+	private WebDriver createWebDriver() {
+		switch(browser.toLowerCase(Locale.ROOT)) {
+			case "firefox":
+				FirefoxOptions firefoxOptions = new FirefoxOptions();
+				if(headless) {
+					firefoxOptions.addArguments("-headless");
+				}
+				firefoxOptions.addArguments("--width=1280", "--height=800");
+				return new FirefoxDriver(firefoxOptions);
+			case "edge":
+				EdgeOptions edgeOptions = new EdgeOptions();
+				if(headless) {
+					edgeOptions.addArguments("--headless=new");
+				}
+				edgeOptions.addArguments("--window-size=1280,800", "--disable-gpu");
+				return new EdgeDriver(edgeOptions);
+			case "chrome":
+				ChromeOptions chromeOptions = new ChromeOptions();
+				if(headless) {
+					chromeOptions.addArguments("--headless=new");
+				}
+				chromeOptions.addArguments("--window-size=1280,800", "--disable-gpu", "--disable-dev-shm-usage");
+				return new ChromeDriver(chromeOptions);
+			default:
+				throw new IllegalArgumentException("Unsupported browser: " + browser);
+		}
+	}
+
+
+	// reporting
+
+	private boolean report(List<SessionResult> sessionResults) {
+		boolean successful = true;
+		double stepsPerSecond = 0;
+		long steps = 0;
+		long failedSteps = 0;
+		StringBuilder summary = new StringBuilder(String.format("%n%-8s %8s %8s %10s %10s %10s %8s %12s %14s %12s%n",
+				"session", "steps", "failed", "steps/s", "p50 ms", "p99 ms", "flows", "jvm cpu ms", "browser cpu ms", "peak rss MB"));
+		for(SessionResult sessionResult : sessionResults) {
+			if(sessionResult.seconds() <= 0) {
+				successful = false;
+				summary.append(String.format("%-8d failed%n", sessionResult.sessionIndex()));
+				continue;
+			}
+			stepsPerSecond += sessionResult.getStepsPerSecond();
+			steps += sessionResult.steps();
+			failedSteps += sessionResult.failedSteps();
+			summary.append(String.format("%-8d %8d %8d %10.2f %10.1f %10.1f %8d %12d %14d %12.1f%n", sessionResult.sessionIndex(),
+					sessionResult.steps(), sessionResult.failedSteps(), sessionResult.getStepsPerSecond(),
+					toMillis(sessionResult.stepLatencies().getValueAtPercentile(50)), toMillis(sessionResult.stepLatencies().getValueAtPercentile(99)),
+					sessionResult.flowRuns(), sessionResult.jvmCpuTime().toMillis(), sessionResult.browserCpuTime().toMillis(),
+					toMegabytes(sessionResult.peakRssBytes())));
+		}
+		double p50Millis = toMillis(stepLatencies.getValueAtPercentile(50));
+		double p99Millis = toMillis(stepLatencies.getValueAtPercentile(99));
+		summary.append(String.format("%-8s %8d %8d %10.2f %10.1f %10.1f%n%n", "total", steps, failedSteps, stepsPerSecond, p50Millis, p99Millis));
+		summary.append(operationMetrics.getSummary());
+		logger.info("Throughput benchmark result:{}", summary);
+		if(outputFile != null) {
+			writeJson(sessionResults, stepsPerSecond, steps, failedSteps, p50Millis, p99Millis);
+		}
+		if(minStepsPerSecond > 0 && stepsPerSecond < minStepsPerSecond) {
+			logger.error("Throughput of {} steps/s is below the threshold of {} steps/s", String.format("%.2f", stepsPerSecond), minStepsPerSecond);
+			successful = false;
+		}
+		if(maxP99Millis > 0 && p99Millis > maxP99Millis) {
+			logger.error("p99 step latency of {} ms is above the threshold of {} ms", String.format("%.1f", p99Millis), maxP99Millis);
+			successful = false;
+		}
+		return successful;
+	}
+
+	private void writeJson(List<SessionResult> sessionResults, double stepsPerSecond, long steps, long failedSteps, double p50Millis, double p99Millis) {
+		try {
+			Path parent = outputFile.toAbsolutePath().getParent();
+			if(parent != null) {
+				Files.createDirectories(parent);
+			}
+			try(BufferedWriter writer = Files.newBufferedWriter(outputFile, StandardCharsets.UTF_8)) {
+				writer.write(String.format(Locale.ROOT, "{\"browser\":\"%s\",\"parallelism\":%d,\"flows\":\"%s\",\"durationSeconds\":%d,"
+						+ "\"stepsPerSecond\":%.3f,\"steps\":%d,\"failedSteps\":%d,\"p50Millis\":%.3f,\"p99Millis\":%.3f,\"sessions\":[",
+						browser, parallelism, flows, measurementDuration.toSeconds(), stepsPerSecond, steps, failedSteps, p50Millis, p99Millis));
+				for(int i = 0; i < sessionResults.size(); i++) {
+					SessionResult sessionResult = sessionResults.get(i);
+					writer.write(String.format(Locale.ROOT, "%s{\"session\":%d,\"steps\":%d,\"failedSteps\":%d,\"flows\":%d,\"failedFlows\":%d,"
+							+ "\"stepsPerSecond\":%.3f,\"p50Millis\":%.3f,\"p99Millis\":%.3f,\"jvmCpuMillis\":%d,\"browserCpuMillis\":%d,\"peakRssBytes\":%d}",
+							i > 0 ? "," : "", sessionResult.sessionIndex(), sessionResult.steps(), sessionResult.failedSteps(), sessionResult.flowRuns(),
+							sessionResult.failedFlowRuns(), sessionResult.getStepsPerSecond(), toMillis(sessionResult.stepLatencies().getValueAtPercentile(50)),
+							toMillis(sessionResult.stepLatencies().getValueAtPercentile(99)), sessionResult.jvmCpuTime().toMillis(),
+							sessionResult.browserCpuTime().toMillis(), sessionResult.peakRssBytes()));
+				}
+				writer.write("]}");
+				writer.newLine();
+			}
+			logger.info("Wrote throughput benchmark result: {}", outputFile.toAbsolutePath());
+		}catch (IOException e) {
+			//logging and reporting
+			logger.error("Exception occurred while writing throughput benchmark result: {}", outputFile, e);
+		}
+	}
+
+	private static double toMillis(long nanos) {
+		return nanos / 1_000_000.0;
+	}
+
+	private static double toMegabytes(long bytes) {
+		return bytes >= 0 ? bytes / (1024.0 * 1024.0) : -1;
+	}
+
+	/**
+	 * Counts the top level steps of one session, once the warm up is over.
+	 */
+	private class SessionListener implements StepListener {
+
+		private final LatencyHistogram stepLatencies = new LatencyHistogram();
+		private final LongAdder steps = new LongAdder();
+		private final LongAdder failedSteps = new LongAdder();
+		private volatile boolean measuring;
+
+		@Override
+		public void stepFinished(StepEvent stepEvent) {
+			if(!measuring) {
+				return;
+			}
+			operationMetrics.stepFinished(stepEvent);
+			if(stepEvent.depth() == 0) {
+				steps.increment();
+				if(!stepEvent.successful()) {
+					failedSteps.increment();
+				}
+				stepLatencies.record(stepEvent.durationNanos());
+				ThroughputBenchmark.this.stepLatencies.record(stepEvent.durationNanos());
+			}
+		}
+	}
+
+	/**
+	 * Measured result of one session, a duration of 0 seconds if the session failed.
+	 */
+	private record SessionResult(int sessionIndex, long steps, long failedSteps, long flowRuns, long failedFlowRuns, double seconds,
+			LatencyHistogram stepLatencies, Duration jvmCpuTime, Duration browserCpuTime, long peakRssBytes) {
+
+		private static SessionResult failed(int sessionIndex) {
+			return new SessionResult(sessionIndex, 0, 0, 0, 0, 0, new LatencyHistogram(), Duration.ZERO, Duration.ZERO, -1);
+		}
+
+		private double getStepsPerSecond() {
+			return seconds > 0 ? steps / seconds : 0;
+		}
+	}
+}
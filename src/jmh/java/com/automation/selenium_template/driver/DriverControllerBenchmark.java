@@ -0,0 +1,75 @@
+package com.automation.selenium_template.driver;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebElement;
+
+import com.automation.selenium_template.driver.fake.FakeWebDriver;
+import com.automation.selenium_template.driver.fake.FakeWebElement;
+import com.automation.selenium_template.metrics.RuntimeMetrics;
+
+/**
+ * Per call overhead of {@link DriverControllerV3} operations against a driver that answers instantly, with logging off.
+ * The step wrapper, locator parsing, the first wait poll and the metrics updates are all that is measured.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Dorg.slf4j.simpleLogger.defaultLogLevel=off")
+@State(Scope.Thread)
+public class DriverControllerBenchmark {
+
+	private DriverControllerV3 driverController;
+	private DriverControllerV3 driverControllerWithListener;
+	private FakeWebElement webElement;
+
+	@Setup
+	public void setUp() {
+		webElement = new FakeWebElement("button").setId("submit").setText("Submit");
+		FakeWebDriver fakeWebDriver = new FakeWebDriver().addElement(webElement);
+		driverController = new DriverControllerV3(fakeWebDriver);
+		driverController.setDefaultExplicitWaitDuration(Duration.ZERO);
+		driverControllerWithListener = new DriverControllerV3(fakeWebDriver);
+		driverControllerWithListener.setDefaultExplicitWaitDuration(Duration.ZERO);
+		driverControllerWithListener.setRuntimeMetrics(new RuntimeMetrics());
+		driverControllerWithListener.addStepListener(new OperationMetrics());
+	}
+
+	@Benchmark
+	public boolean clickByLocatorString() {
+		return driverController.click("Click submit", "css~#submit");
+	}
+
+	@Benchmark
+	public boolean clickByLocator() {
+		return driverController.click("Click submit", By.cssSelector("#submit"));
+	}
+
+	@Benchmark
+	public boolean clickWebElement() {
+		return driverController.click("Click submit", webElement);
+	}
+
+	@Benchmark
+	public WebElement findElement() {
+		return driverController.findElement("css~#submit");
+	}
+
+	@Benchmark
+	public boolean clickWithOperationMetrics() {
+		return driverControllerWithListener.click("Click submit", "css~#submit");
+	}
+}
@@ -0,0 +1,52 @@
+package com.automation.selenium_template.driver;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openqa.selenium.By;
+
+import com.automation.selenium_template.driver.fake.FakeWebDriver;
+
+/**
+ * Cost of turning locator strings into locators, paid by every operation taking a locator string.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Dorg.slf4j.simpleLogger.defaultLogLevel=off")
+@State(Scope.Thread)
+public class LocatorParsingBenchmark {
+
+	@Param({"css~#submit", "css~#submit;xpath~//button[@type='submit'];id~submit"})
+	public String locatorString;
+
+	private DriverControllerV3 driverController;
+
+	@Setup
+	public void setUp() {
+		driverController = new DriverControllerV3(new FakeWebDriver());
+		driverController.setRuntimeMetrics(null);
+	}
+
+	@Benchmark
+	public List<By> getLocators() {
+		return driverController.getLocators(locatorString);
+	}
+
+	@Benchmark
+	public By getLocator() {
+		return driverController.getLocator("css", "#submit");
+	}
+}
@@ -0,0 +1,69 @@
+package com.automation.selenium_template.driver;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openqa.selenium.WebElement;
+
+import com.automation.selenium_template.driver.fake.FakeWebDriver;
+import com.automation.selenium_template.driver.fake.FakeWebElement;
+
+/**
+ * Overhead of the wait loop without its sleeps: waits satisfied on the first poll, waits timing out after a single poll
+ * and waits falling back to a later locator. Sleeping between polls is excluded by waiting with a zero duration.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Dorg.slf4j.simpleLogger.defaultLogLevel=off")
+@State(Scope.Thread)
+public class WaitEngineBenchmark {
+
+	private DriverControllerV3 driverController;
+
+	@Setup
+	public void setUp() {
+		FakeWebDriver fakeWebDriver = new FakeWebDriver().addElement(
+				new FakeWebElement("div").setId("visible"),
+				new FakeWebElement("div").setId("hidden").setDisplayed(false),
+				new FakeWebElement("div").setId("fallback"));
+		driverController = new DriverControllerV3(fakeWebDriver);
+		driverController.setRuntimeMetrics(null);
+	}
+
+	@Benchmark
+	public WebElement presenceSatisfied() {
+		return driverController.waitForPresenceOfElement("Wait", "css~#visible", Duration.ZERO);
+	}
+
+	@Benchmark
+	public WebElement visibilitySatisfied() {
+		return driverController.waitForVisibilityOfElement("Wait", "css~#visible", Duration.ZERO);
+	}
+
+	@Benchmark
+	public WebElement visibilityTimedOut() {
+		return driverController.waitForVisibilityOfElement("Wait", "css~#hidden", Duration.ZERO);
+	}
+
+	@Benchmark
+	public WebElement presenceAfterFallback() {
+		return driverController.waitForPresenceOfElement("Wait", "css~#missing;xpath~//div[@id='fallback']", Duration.ZERO);
+	}
+
+	@Benchmark
+	public boolean invisibilitySatisfied() {
+		return driverController.waitForInvisibilityOfElement("Wait", "css~#hidden", Duration.ZERO);
+	}
+}
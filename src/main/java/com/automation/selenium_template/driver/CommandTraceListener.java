@@ -0,0 +1,79 @@
+package com.automation.selenium_template.driver;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+import org.testng.ITestListener;
+import org.testng.ITestResult;
+
+/**
+ * TestNG listener counting the commands of each test with the {@link CommandTracer} of the run and logging its summary when the run finishes.
+ * Enable the tracer on each controller with 'driverController.enableCommandTracing(CommandTraceListener.getCommandTracer())',
+ * commands are attributed to the test running on the same thread.
+ */
+public class CommandTraceListener implements ISuiteListener, ITestListener {
+
+	private static final Object suiteLock = new Object();
+	private static volatile CommandTracer commandTracer = new CommandTracer();
+	private static int runningSuites;
+	private static Logger logger = LoggerFactory.getLogger(CommandTraceListener.class);
+
+	/**
+	 * @return the tracer of the run
+	 */
+	public static CommandTracer getCommandTracer() {
+		return commandTracer;
+	}
+
+	/**
+	 * Replace the tracer of the run, e.g. with one of a different command budget. Call before the suite starts.
+	 * @param commandTracer the tracer to count the commands of the tests with
+	 */
+	public static void setCommandTracer(CommandTracer commandTracer) {
+		if(commandTracer != null) {
+			CommandTraceListener.commandTracer = commandTracer;
+		}
+	}
+
+	@Override
+	public void onStart(ISuite suite) {
+		synchronized (suiteLock) {
+			runningSuites++;
+		}
+	}
+
+	@Override
+	public void onFinish(ISuite suite) {
+		synchronized (suiteLock) {
+			if(--runningSuites == 0) {
+				logger.info("Commands sent to the browser:{}{}", System.lineSeparator(), commandTracer.getSummary());
+			}
+		}
+	}
+
+	@Override
+	public void onTestStart(ITestResult result) {
+		commandTracer.startTest(result.getMethod().getQualifiedName());
+	}
+
+	@Override
+	public void onTestSuccess(ITestResult result) {
+		commandTracer.finishTest();
+	}
+
+	@Override
+	public void onTestFailure(ITestResult result) {
+		commandTracer.finishTest();
+	}
+
+	@Override
+	public void onTestSkipped(ITestResult result) {
+		commandTracer.finishTest();
+	}
+
+	@Override
+	public void onTestFailedButWithinSuccessPercentage(ITestResult result) {
+		commandTracer.finishTest();
+	}
+}
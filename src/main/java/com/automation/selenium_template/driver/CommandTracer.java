@@ -0,0 +1,322 @@
+package com.automation.selenium_template.driver;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.openqa.selenium.Alert;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.events.EventFiringDecorator;
+import org.openqa.selenium.support.events.WebDriverListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Opt in tracer of the commands a {@link DriverControllerV3} sends to the browser. It wraps the web driver with an
+ * {@link EventFiringDecorator} and, as a step listener of the controller, links every command to the step that issued it.
+ * Commands of a test are counted between {@link #startTest(String)} and {@link #finishTest()} on the thread running the steps,
+ * and a warning lists the steps with the most commands when a test goes over the command budget.
+ * Enable it with {@link DriverControllerV3#enableCommandTracing(CommandTracer)}, {@link CommandTraceListener} starts and finishes
+ * the tests of a TestNG run and logs the {@link #getSummary() summary} at its end.
+ */
+public class CommandTracer implements WebDriverListener, StepListener {
+
+	public static final int DEFAULT_COMMAND_BUDGET_PER_TEST = 500;
+	private static final int MAX_COMMANDS_KEPT_PER_TEST = 10_000;
+	// calls answered by the decorator or the driver object itself, without a command to the browser
+	private static final Set<String> LOCAL_METHODS = Set.of("manage", "navigate", "switchTo", "getWrappedDriver", "getWrappedElement",
+			"toString", "hashCode", "equals");
+	private static Logger logger = LoggerFactory.getLogger(CommandTracer.class);
+
+	private final int commandBudgetPerTest;
+	private final ThreadLocal<ThreadState> threadState = ThreadLocal.withInitial(ThreadState::new);
+	private final Map<String, LatencyHistogram> commandLatencies = new ConcurrentHashMap<>();
+	private final Map<String, LongAdder> commandsPerOperation = new ConcurrentHashMap<>();
+	private final Map<String, LongAdder> stepsPerOperation = new ConcurrentHashMap<>();
+	private final List<TestCommands> testsOverBudget = new CopyOnWriteArrayList<>();
+
+	public CommandTracer() {
+		this(DEFAULT_COMMAND_BUDGET_PER_TEST);
+	}
+
+	/**
+	 * @param commandBudgetPerTest number of commands a test may send before it is reported as over budget, 0 for no budget
+	 */
+	public CommandTracer(int commandBudgetPerTest) {
+		super();
+		this.commandBudgetPerTest = Math.max(0, commandBudgetPerTest);
+	}
+
+	/**
+	 * @param webDriver the web driver to trace
+	 * @return the web driver wrapped to report its commands to this tracer
+	 */
+	public WebDriver decorate(WebDriver webDriver) {
+		return new EventFiringDecorator<WebDriver>(this).decorate(webDriver);
+	}
+
+
+	// tests
+
+	/**
+	 * Start counting the commands of a test on the current thread.
+	 * @param testName name of the test
+	 */
+	public void startTest(String testName) {
+		threadState.get().test = new TestCommands(testName);
+	}
+
+	/**
+	 * Stop counting the commands of the test on the current thread and check it against the command budget.
+	 * @return the commands of the test, null if no test was started on this thread
+	 */
+	public TestCommands finishTest() {
+		ThreadState state = threadState.get();
+		TestCommands test = state.test;
+		state.test = null;
+		if(test != null && commandBudgetPerTest > 0 && test.getCommandCount() > commandBudgetPerTest) {
+			testsOverBudget.add(test);
+			logger.warn("Test {} sent {} commands, over the budget of {}. Steps with most commands: {}", test.getTestName(),
+					test.getCommandCount(), commandBudgetPerTest, test.getTopSteps(5));
+		}
+		return test;
+	}
+
+	public List<TestCommands> getTestsOverBudget() {
+		return List.copyOf(testsOverBudget);
+	}
+
+
+	// steps
+
+	@Override
+	public void stepStarted(String operation, String stepDescription, int depth) {
+		threadState.get().steps.push(new StepFrame(operation, stepDescription, depth));
+	}
+
+	@Override
+	public void stepFinished(StepEvent stepEvent) {
+		ThreadState state = threadState.get();
+		StepFrame step = state.steps.poll();
+		if(step == null) {
+			return;
+		}
+		if(step.depth == 0) {
+			stepsPerOperation.computeIfAbsent(step.operation, key -> new LongAdder()).increment();
+			commandsPerOperation.computeIfAbsent(step.operation, key -> new LongAdder()).add(step.commandCount);
+			if(state.test != null) {
+				state.test.stepFinished(step);
+			}
+		}
+	}
+
+
+	/**
+	 * The test of the calling thread, so commands of operations it hands to another thread are counted for it.
+	 */
+	@Override
+	public Object captureContext() {
+		return threadState.get().test;
+	}
+
+	@Override
+	public Object restoreContext(Object context) {
+		ThreadState state = threadState.get();
+		TestCommands previousTest = state.test;
+		state.test = context instanceof TestCommands test ? test : null;
+		return previousTest;
+	}
+
+
+	// commands
+
+	@Override
+	public void beforeAnyCall(Object target, Method method, Object[] args) {
+		if(!LOCAL_METHODS.contains(method.getName())) {
+			threadState.get().commandStarts.push(System.nanoTime());
+		}
+	}
+
+	@Override
+	public void afterAnyCall(Object target, Method method, Object[] args, Object result) {
+		commandFinished(target, method, true);
+	}
+
+	@Override
+	public void onError(Object target, Method method, Object[] args, InvocationTargetException e) {
+		commandFinished(target, method, false);
+	}
+
+	private void commandFinished(Object target, Method method, boolean successful) {
+		if(LOCAL_METHODS.contains(method.getName())) {
+			return;
+		}
+		ThreadState state = threadState.get();
+		Long startNanos = state.commandStarts.poll();
+		if(startNanos == null) {
+			return;
+		}
+		long durationNanos = System.nanoTime() - startNanos;
+		String command = getTargetType(target) + "." + method.getName();
+		commandLatencies.computeIfAbsent(command, key -> new LatencyHistogram()).record(durationNanos);
+		StepFrame step = state.steps.peek();
+		// commands of nested operations are counted for the top level step
+		StepFrame topLevelStep = state.steps.peekLast();
+		if(topLevelStep != null) {
+			topLevelStep.commandCount++;
+		}
+		if(state.test != null) {
+			state.test.commandFinished(new TracedCommand(command, step != null ? step.operation : null, step != null ? step.stepDescription : null,
+					durationNanos, successful));
+		}
+		if(logger.isTraceEnabled()) {
+			logger.trace("{} {} in {} us during step: {}", command, successful ? "succeeded" : "failed", durationNanos / 1000, step != null ? step.operation : null);
+		}
+	}
+
+	private static String getTargetType(Object target) {
+		for(Class<?> type : new Class<?>[] {WebElement.class, WebDriver.Navigation.class, WebDriver.Options.class,
+				WebDriver.TargetLocator.class, WebDriver.Timeouts.class, WebDriver.Window.class, Alert.class}) {
+			if(type.isInstance(target)) {
+				return type.getSimpleName();
+			}
+		}
+		return "WebDriver";
+	}
+
+
+	// export
+
+	/**
+	 * Plain text summary of the commands per step operation and the latency of each command, in milliseconds.
+	 * @return the summary
+	 */
+	public String getSummary() {
+		StringBuilder summary = new StringBuilder();
+		summary.append(String.format("%-32s %8s %10s %14s%n", "operation", "steps", "commands", "commands/step"));
+		List<String> operations = new ArrayList<>(stepsPerOperation.keySet());
+		operations.sort(Comparator.comparingLong((String operation) -> commandsPerOperation.get(operation).sum()).reversed());
+		for(String operation : operations) {
+			long steps = stepsPerOperation.get(operation).sum();
+			long commands = commandsPerOperation.get(operation).sum();
+			summary.append(String.format("%-32s %8d %10d %14.1f%n", operation, steps, commands, steps > 0 ? (double) commands / steps : 0));
+		}
+		summary.append(String.format("%n%-40s %8s %10s %10s %10s%n", "command", "count", "p50 ms", "p99 ms", "total ms"));
+		commandLatencies.entrySet().stream()
+				.sorted(Comparator.comparingLong((Map.Entry<String, LatencyHistogram> entry) -> entry.getValue().getTotalNanos()).reversed())
+				.forEach(entry -> summary.append(String.format("%-40s %8d %10.2f %10.2f %10.1f%n", entry.getKey(), entry.getValue().getCount(),
+						entry.getValue().getValueAtPercentile(50) / 1e6, entry.getValue().getValueAtPercentile(99) / 1e6, entry.getValue().getTotalNanos() / 1e6)));
+		if(!testsOverBudget.isEmpty()) {
+			summary.append(String.format("%nTests over the budget of %d commands:%n", commandBudgetPerTest));
+			for(TestCommands test : testsOverBudget) {
+				summary.append(String.format("%-40s %8d %s%n", test.getTestName(), test.getCommandCount(), test.getTopSteps(3)));
+			}
+		}
+		return summary.toString();
+	}
+
+	private static class ThreadState {
+		private final Deque<StepFrame> steps = new ArrayDeque<>();
+		private final Deque<Long> commandStarts = new ArrayDeque<>();
+		private TestCommands test;
+	}
+
+	private static class StepFrame {
+		private final String operation;
+		private final String stepDescription;
+		private final int depth;
+		private int commandCount;
+
+		private StepFrame(String operation, String stepDescription, int depth) {
+			this.operation = operation;
+			this.stepDescription = stepDescription;
+			this.depth = depth;
+		}
+	}
+
+	/**
+	 * A command sent to the browser.
+	 * @param command the command, e.g. WebElement.click
+	 * @param operation the innermost step operation it was sent by, null if sent outside a step
+	 * @param stepDescription step description of that step
+	 * @param durationNanos round trip time of the command
+	 * @param successful false if the command threw
+	 */
+	public record TracedCommand(String command, String operation, String stepDescription, long durationNanos, boolean successful) {
+	}
+
+	/**
+	 * The commands of one test.
+	 */
+	public static class TestCommands {
+
+		private final String testName;
+		private final List<TracedCommand> commands = new ArrayList<>();
+		private final Map<String, Integer> commandsPerStep = new LinkedHashMap<>();
+		private int commandCount;
+		private long commandNanos;
+
+		private TestCommands(String testName) {
+			this.testName = testName;
+		}
+
+		private void commandFinished(TracedCommand tracedCommand) {
+			commandCount++;
+			commandNanos += tracedCommand.durationNanos();
+			if(commands.size() < MAX_COMMANDS_KEPT_PER_TEST) {
+				commands.add(tracedCommand);
+			}
+		}
+
+		private void stepFinished(StepFrame step) {
+			String stepName = step.stepDescription != null ? step.operation + " (" + step.stepDescription + ")" : step.operation;
+			commandsPerStep.merge(stepName, step.commandCount, Integer::sum);
+		}
+
+		public String getTestName() {
+			return testName;
+		}
+
+		public int getCommandCount() {
+			return commandCount;
+		}
+
+		public long getCommandNanos() {
+			return commandNanos;
+		}
+
+		/**
+		 * @return the first commands of the test in the order they were sent, at most 10000
+		 */
+		public List<TracedCommand> getCommands() {
+			return commands;
+		}
+
+		/**
+		 * @return number of commands sent by each top level step, steps with the same operation and description summed up
+		 */
+		public Map<String, Integer> getCommandsPerStep() {
+			return commandsPerStep;
+		}
+
+		private String getTopSteps(int limit) {
+			return commandsPerStep.entrySet().stream()
+					.sorted(Map.Entry.<String, Integer>comparingByValue().reversed())
+					.limit(limit)
+					.map(entry -> entry.getKey() + "=" + entry.getValue())
+					.toList()
+					.toString();
+		}
+	}
+}
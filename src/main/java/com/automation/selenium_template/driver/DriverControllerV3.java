@@ -1,21 +1,46 @@
 package com.automation.selenium_template.driver;
 
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Base64;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import javax.imageio.ImageIO;
 
 import org.apache.commons.lang3.StringUtils;
 import org.openqa.selenium.Alert;
 import org.openqa.selenium.By;
 import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.NotFoundException;
 import org.openqa.selenium.OutputType;
+import org.openqa.selenium.Rectangle;
+import org.openqa.selenium.StaleElementReferenceException;
 import org.openqa.selenium.TakesScreenshot;
 import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.WindowType;
+import org.openqa.selenium.chromium.HasCdp;
 import org.openqa.selenium.interactions.Actions;
 import org.openqa.selenium.support.ui.ExpectedCondition;
 import org.openqa.selenium.support.ui.ExpectedConditions;
@@ -24,16 +49,133 @@ import org.openqa.selenium.support.ui.WebDriverWait;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.slf4j.event.Level;
+import org.slf4j.helpers.FormattingTuple;
+import org.slf4j.helpers.MessageFormatter;
+
+import com.automation.selenium_template.driver.WaitResult.Outcome;
+import com.automation.selenium_template.jfr.LocatorFallbackEvent;
+import com.automation.selenium_template.jfr.OperationEvent;
+import com.automation.selenium_template.jfr.ScreenshotEvent;
+import com.automation.selenium_template.jfr.WaitPollEvent;
+import com.automation.selenium_template.metrics.RuntimeMetrics;
+import com.automation.selenium_template.reports.ReportEvent;
+import com.automation.selenium_template.reports.ReportStatus;
+import com.automation.selenium_template.reports.ReportUtil;
+import com.automation.selenium_template.reports.ScreenshotPipeline;
 
 public class DriverControllerV3 {
 	
 	private WebDriver webDriver;
 	private Duration defaultExplicitWaitDuration;
+	private int tableChunkSize = TableExtractor.DEFAULT_CHUNK_SIZE;
+	private boolean scriptSelectEnabled;
+	private ScreenshotPipeline screenshotPipeline;
+	private String currentWindowHandle;
+	private List<Object> currentFramePath = new ArrayList<>();
+	private boolean frameContextKnown;
+	private final AtomicLong contextSwitchesPerformed = new AtomicLong();
+	private final AtomicLong contextSwitchesSkipped = new AtomicLong();
+	private final List<StepListener> stepListeners = new CopyOnWriteArrayList<>();
+	private int stepDepth;
+	private int stepAttempts;
+	private int stepFallbacks;
+	private ReportUtil reportUtil;
+	// report context of the thread the running operation was submitted by, null to capture the current thread's
+	private Object reportContext;
+	private ReportStatus minimumReportStatus = ReportStatus.INFO;
+	private RuntimeMetrics runtimeMetrics;
+	// counted as active session from the first top level operation until quit
+	private boolean sessionActive;
+	private boolean sessionQuit;
+	// most severe result logged by the running top level operation, counted once it finishes
+	private ReportStatus stepReportStatus;
 	private static Logger logger = LoggerFactory.getLogger(DriverController.class);
 	
+	private static final int MAX_CROSS_ORIGIN_FRAME_DEPTH = 5;
+	private static final long WAIT_POLL_INTERVAL_MILLIS = 500;
+	private static final Object[] NO_ARGUMENTS = {};
+	
+	private static final String FRAME_SEARCH_SCRIPT = """
+			var using = arguments[0], value = arguments[1], crossOrigin = [];
+			function find(doc) {
+				switch (using) {
+					case 'css selector': return doc.querySelector(value);
+					case 'xpath': return doc.evaluate(value, doc, null, XPathResult.FIRST_ORDERED_NODE_TYPE, null).singleNodeValue;
+					case 'tag name': return doc.getElementsByTagName(value)[0] || null;
+					case 'link text':
+					case 'partial link text':
+						var links = doc.getElementsByTagName('a');
+						for (var i = 0; i < links.length; i++) {
+							var text = (links[i].innerText || links[i].textContent).trim();
+							if (using === 'link text' ? text === value : text.indexOf(value) >= 0) return links[i];
+						}
+						return null;
+					default: return null;
+				}
+			}
+			function walk(win, path) {
+				var doc;
+				try {
+					doc = win.document;
+					doc.documentElement;
+				} catch (e) {
+					crossOrigin.push(path);
+					return null;
+				}
+				if (find(doc)) return path;
+				for (var i = 0; i < win.frames.length; i++) {
+					var found = walk(win.frames[i], path.concat([i]));
+					if (found) return found;
+				}
+				return null;
+			}
+			return {path: walk(window, []), crossOrigin: crossOrigin};
+			""";
+	
+	private static final String ELEMENT_PAGE_RECT_SCRIPT = """
+			var rect = arguments[0].getBoundingClientRect();
+			return [rect.left + window.scrollX, rect.top + window.scrollY, rect.width, rect.height, window.devicePixelRatio];
+			""";
+	
+	private static final String VIEWPORT_METRICS_SCRIPT = "return [window.devicePixelRatio, window.scrollX, window.scrollY];";
+	
+	private static final String SELECT_OPTION_SCRIPT = """
+			var select = arguments[0], matchBy = arguments[1], match = arguments[2];
+			if (!select || select.tagName.toLowerCase() !== 'select') return -1;
+			function normalize(text) { return text.replace(/\\s+/g, ' ').trim(); }
+			if (matchBy === 'text') match = normalize(match);
+			var options = select.options, selected = 0;
+			for (var i = 0; i < options.length; i++) {
+				var option = options[i];
+				if (option.disabled) continue;
+				if ((matchBy === 'text' ? normalize(option.text) : option.value) !== match) continue;
+				option.selected = true;
+				selected++;
+				if (!select.multiple) break;
+			}
+			if (selected > 0) {
+				select.dispatchEvent(new Event('input', {bubbles: true}));
+				select.dispatchEvent(new Event('change', {bubbles: true}));
+			}
+			return selected;
+			""";
+	
 	public DriverControllerV3(WebDriver webDriver) {
 		super();
 		this.webDriver = webDriver;
+		// no session yet, nothing to end or start
+		this.runtimeMetrics = RuntimeMetrics.getDefault();
+	}
+	
+	/**
+	 * @param webDriver the web driver to control
+	 * @param reportUtil report util every logged step result is also reported to
+	 * @param minimumReportStatus least severe status reported, less severe results are neither formatted nor reported
+	 */
+	public DriverControllerV3(WebDriver webDriver, ReportUtil reportUtil, ReportStatus minimumReportStatus) {
+		this(webDriver);
+		this.reportUtil = reportUtil;
+		this.minimumReportStatus = minimumReportStatus != null ? minimumReportStatus : ReportStatus.INFO;
 	}
 	
 	
@@ -45,6 +187,7 @@ public class DriverControllerV3 {
 
 	public void setWebDriver(WebDriver webDriver) {
 		this.webDriver = webDriver;
+		invalidateContext();
 	}
 	
 	public Duration getDefaultExplicitWaitDuration() {
@@ -55,6 +198,121 @@ public class DriverControllerV3 {
 		this.defaultExplicitWaitDuration = defaultExplicitWaitDuration;
 	}
 	
+	public int getTableChunkSize() {
+		return tableChunkSize;
+	}
+	
+	public void setTableChunkSize(int tableChunkSize) {
+		this.tableChunkSize = tableChunkSize;
+	}
+	
+	public boolean isScriptSelectEnabled() {
+		return scriptSelectEnabled;
+	}
+	
+	/**
+	 * Select options of native select elements with a single script call instead of {@link Select}, which reads the options one by one.
+	 * {@link Select} is still used when the element is not a native select or no enabled option matches.
+	 * @param scriptSelectEnabled true to enable script based selection
+	 */
+	public void setScriptSelectEnabled(boolean scriptSelectEnabled) {
+		this.scriptSelectEnabled = scriptSelectEnabled;
+	}
+	
+	public ScreenshotPipeline getScreenshotPipeline() {
+		return screenshotPipeline;
+	}
+	
+	public void setScreenshotPipeline(ScreenshotPipeline screenshotPipeline) {
+		this.screenshotPipeline = screenshotPipeline;
+	}
+	
+	/**
+	 * Number of window and frame switch commands sent to the browser.
+	 * @return switch commands sent
+	 */
+	public long getContextSwitchesPerformed() {
+		return contextSwitchesPerformed.get();
+	}
+	
+	/**
+	 * Number of window and frame switch commands not sent because the driver was already in the target context.
+	 * @return round trips saved
+	 */
+	public long getContextSwitchesSkipped() {
+		return contextSwitchesSkipped.get();
+	}
+	
+	public ReportUtil getReportUtil() {
+		return reportUtil;
+	}
+	
+	public void setReportUtil(ReportUtil reportUtil) {
+		this.reportUtil = reportUtil;
+	}
+	
+	public ReportStatus getMinimumReportStatus() {
+		return minimumReportStatus;
+	}
+	
+	/**
+	 * @param minimumReportStatus least severe status reported, null for the default INFO
+	 */
+	public void setMinimumReportStatus(ReportStatus minimumReportStatus) {
+		this.minimumReportStatus = minimumReportStatus != null ? minimumReportStatus : ReportStatus.INFO;
+	}
+	
+	public RuntimeMetrics getRuntimeMetrics() {
+		return runtimeMetrics;
+	}
+	
+	/**
+	 * @param runtimeMetrics live metrics the session, its steps, waits and results are counted in, null to count nothing.
+	 * The session is counted as active from its first operation until it is quit.
+	 */
+	public void setRuntimeMetrics(RuntimeMetrics runtimeMetrics) {
+		if(sessionActive && this.runtimeMetrics != null) {
+			this.runtimeMetrics.sessionEnded();
+		}
+		this.runtimeMetrics = runtimeMetrics;
+		sessionActive = sessionActive && runtimeMetrics != null;
+		if(sessionActive) {
+			runtimeMetrics.sessionStarted();
+		}
+	}
+	
+	public void addStepListener(StepListener stepListener) {
+		if(stepListener != null) {
+			stepListeners.add(stepListener);
+		}
+	}
+	
+	public void removeStepListener(StepListener stepListener) {
+		stepListeners.remove(stepListener);
+	}
+	
+	/**
+	 * Wrap the web driver with the command tracer and register the tracer as step listener, so every command sent to the browser
+	 * is linked to the operation that sent it. Call before any operation, later steps would otherwise be traced partially.
+	 * @param commandTracer the tracer to record the commands with
+	 */
+	public void enableCommandTracing(CommandTracer commandTracer) {
+		if(commandTracer != null) {
+			setWebDriver(commandTracer.decorate(webDriver));
+			addStepListener(commandTracer);
+		}
+	}
+	
+	/**
+	 * Forget the tracked window and frame context, e.g. after switching context directly on the web driver.
+	 * The next switch is then always sent to the browser.
+	 */
+	public void invalidateContext() {
+		currentWindowHandle = null;
+		currentFramePath.clear();
+		frameContextKnown = false;
+	}
+	
 	
 	// operations
 	
@@ -65,17 +323,23 @@ public class DriverControllerV3 {
 	 * @return true if operation is successful otherwise false
 	 */
 	public boolean get(String stepDescription, String url) {
-		if(StringUtils.isNotBlank(url)) {
-			try {
-				webDriver.get(url);
-				log(Level.INFO, stepDescription, "Successfully loaded url: {}", url);
-			}catch (Exception e) {
-				log(Level.ERROR, stepDescription, "Exception occured while loading url", e);
+		return step("get", stepDescription, url, () -> {
+			if(StringUtils.isNotBlank(url)) {
+				try {
+					webDriver.get(url);
+					// navigation always returns to the top level browsing context
+					currentFramePath.clear();
+					frameContextKnown = true;
+					log(Level.INFO, stepDescription, "Successfully loaded url: {}", url);
+					return true;
+				}catch (Exception e) {
+					log(Level.ERROR, stepDescription, "Exception occured while loading url", e);
+				}
+			}else {
+				log(Level.ERROR, stepDescription, "Blank url: {}", url);
 			}
-		}else {
-			log(Level.ERROR, stepDescription, "Blank url: {}", url);
-		}
-		return false;
+			return false;
+		});
 	}
 	
 	/**
@@ -84,13 +348,17 @@ public class DriverControllerV3 {
 	 * @return true if operation is successful otherwise false
 	 */
 	public boolean close(String stepDescription) {
-		try {
-			webDriver.close();
-			log(Level.INFO, stepDescription, "Successfully closed current window");
-		}catch (Exception e) {
-			log(Level.ERROR, stepDescription, "Exception occured while closing current window", e);
-		}
-		return false;
+		return step("close", stepDescription, null, () -> {
+			try {
+				webDriver.close();
+				invalidateContext();
+				log(Level.INFO, stepDescription, "Successfully closed current window");
+				return true;
+			}catch (Exception e) {
+				log(Level.ERROR, stepDescription, "Exception occured while closing current window", e);
+			}
+			return false;
+		});
 	}
 	
 	/**
@@ -99,13 +367,22 @@ public class DriverControllerV3 {
 	 * @return true if operation is successful otherwise false
 	 */
 	public boolean quit(String stepDescription) {
-		try {
-			webDriver.quit();
-			log(Level.INFO, stepDescription, "Successfully quit web driver");
-		}catch (Exception e) {
-			log(Level.ERROR, stepDescription, "Exception occured while quitting web driver", e);
-		}
-		return false;
+		return step("quit", stepDescription, null, () -> {
+			try {
+				webDriver.quit();
+				invalidateContext();
+				if(sessionActive) {
+					runtimeMetrics.sessionEnded();
+				}
+				sessionActive = false;
+				sessionQuit = true;
+				log(Level.INFO, stepDescription, "Successfully quit web driver");
+				return true;
+			}catch (Exception e) {
+				log(Level.ERROR, stepDescription, "Exception occured while quitting web driver", e);
+			}
+			return false;
+		});
 	}
 	
 	/**
@@ -115,13 +392,15 @@ public class DriverControllerV3 {
 	 * @return true if operation is successful otherwise false
 	 */
 	public boolean click(String stepDescription, String locatorString) {
-		if(StringUtils.isNotBlank(locatorString)) {
-			WebElement webElement = waitForVisibilityOfElement(stepDescription, locatorString, defaultExplicitWaitDuration);
-			return performClickOperation(stepDescription, webElement);
-		}else {
-			log(Level.ERROR, stepDescription, "Blank locator string: {}", locatorString);
-		}
-		return false;
+		return step("click", stepDescription, locatorString, () -> {
+			if(StringUtils.isNotBlank(locatorString)) {
+				WebElement webElement = waitForVisibilityOfElement(stepDescription, locatorString, defaultExplicitWaitDuration);
+				return performClickOperation(stepDescription, webElement);
+			}else {
+				log(Level.ERROR, stepDescription, "Blank locator string: {}", locatorString);
+			}
+			return false;
+		});
 	}
 	
 	/**
@@ -131,13 +410,15 @@ public class DriverControllerV3 {
 	 * @return true if operation is successful otherwise false
 	 */
 	public boolean click(String stepDescription, By by) {
-		if(by != null) {
-			WebElement webElement = waitForVisibilityOfElement(stepDescription, by, defaultExplicitWaitDuration);
-			return performClickOperation(stepDescription, webElement);
-		}else {
-			log(Level.ERROR, stepDescription, "Null locator: {}", by);
-		}
-		return false;
+		return step("click", stepDescription, by, () -> {
+			if(by != null) {
+				WebElement webElement = waitForVisibilityOfElement(stepDescription, by, defaultExplicitWaitDuration);
+				return performClickOperation(stepDescription, webElement);
+			}else {
+				log(Level.ERROR, stepDescription, "Null locator: {}", by);
+			}
+			return false;
+		});
 	}
 	
 	/**
@@ -147,13 +428,15 @@ public class DriverControllerV3 {
 	 * @return true if operation is successful otherwise false
 	 */
 	public boolean click(String stepDescription, WebElement webElement) {
-		if(webElement != null) {
-			webElement = waitForVisibilityOfElement(stepDescription, webElement, defaultExplicitWaitDuration);
-			return performClickOperation(stepDescription, webElement);
-		}else {
-			log(Level.ERROR, stepDescription, "Null web element: {}", webElement);
-		}
-		return false;
+		return step("click", stepDescription, webElement, () -> {
+			if(webElement != null) {
+				WebElement visibleWebElement = waitForVisibilityOfElement(stepDescription, webElement, defaultExplicitWaitDuration);
+				return performClickOperation(stepDescription, visibleWebElement);
+			}else {
+				log(Level.ERROR, stepDescription, "Null web element: {}", webElement);
+			}
+			return false;
+		});
 	}
 	
 	/**
@@ -182,13 +465,15 @@ public class DriverControllerV3 {
 	 * @return true if operation is successful otherwise false
 	 */
 	public boolean clickUsingActions(String stepDescription, String locatorString) {
-		if(StringUtils.isNotBlank(locatorString)) {
-			WebElement webElement = waitForVisibilityOfElement(stepDescription, locatorString, defaultExplicitWaitDuration);
-			return performClickUsingActionsOperation(stepDescription, webElement);
-		}else {
-			log(Level.ERROR, stepDescription, "Blank locator string: {}", locatorString);
-		}
-		return false;
+		return step("clickUsingActions", stepDescription, locatorString, () -> {
+			if(StringUtils.isNotBlank(locatorString)) {
+				WebElement webElement = waitForVisibilityOfElement(stepDescription, locatorString, defaultExplicitWaitDuration);
+				return performClickUsingActionsOperation(stepDescription, webElement);
+			}else {
+				log(Level.ERROR, stepDescription, "Blank locator string: {}", locatorString);
+			}
+			return false;
+		});
 	}
 	
 	/**
@@ -198,13 +483,15 @@ public class DriverControllerV3 {
 	 * @return true if operation is successful otherwise false
 	 */
 	public boolean clickUsingActions(String stepDescription, By by) {
-		if(by != null) {
-			WebElement webElement = waitForVisibilityOfElement(stepDescription, by, defaultExplicitWaitDuration);
-			return performClickUsingActionsOperation(stepDescription, webElement);
-		}else {
-			log(Level.ERROR, stepDescription, "Null locator: {}", by);
-		}
-		return false;
+		return step("clickUsingActions", stepDescription, by, () -> {
+			if(by != null) {
+				WebElement webElement = waitForVisibilityOfElement(stepDescription, by, defaultExplicitWaitDuration);
+				return performClickUsingActionsOperation(stepDescription, webElement);
+			}else {
+				log(Level.ERROR, stepDescription, "Null locator: {}", by);
+			}
+			return false;
+		});
 	}
 	
 	/**
@@ -214,13 +501,15 @@ public class DriverControllerV3 {
 	 * @return true if operation is successful otherwise false
 	 */
 	public boolean clickUsingActions(String stepDescription, WebElement webElement) {
-		if(webElement != null) {
-			webElement = waitForVisibilityOfElement(stepDescription, webElement, defaultExplicitWaitDuration);
-			return performClickUsingActionsOperation(stepDescription, webElement);
-		}else {
-			log(Level.ERROR, stepDescription, "Null web element: {}", webElement);
-		}
-		return false;
+		return step("clickUsingActions", stepDescription, webElement, () -> {
+			if(webElement != null) {
+				WebElement visibleWebElement = waitForVisibilityOfElement(stepDescription, webElement, defaultExplicitWaitDuration);
+				return performClickUsingActionsOperation(stepDescription, visibleWebElement);
+			}else {
+				log(Level.ERROR, stepDescription, "Null web element: {}", webElement);
+			}
+			return false;
+		});
 	}
 	
 	/**
@@ -250,13 +539,15 @@ public class DriverControllerV3 {
 	 * @return true if operation is successful otherwise false
 	 */
 	public boolean clickUsingJSExecutor(String stepDescription, String locatorString) {
-		if(StringUtils.isNotBlank(locatorString)) {
-			WebElement webElement = waitForPresenceOfElement(stepDescription, locatorString, defaultExplicitWaitDuration);
-			return performClickUsingJSExecutorOperation(stepDescription, webElement);
-		}else {
-			log(Level.ERROR, stepDescription, "Blank locator string: {}", locatorString);
-		}
-		return false;
+		return step("clickUsingJSExecutor", stepDescription, locatorString, () -> {
+			if(StringUtils.isNotBlank(locatorString)) {
+				WebElement webElement = waitForPresenceOfElement(stepDescription, locatorString, defaultExplicitWaitDuration);
+				return performClickUsingJSExecutorOperation(stepDescription, webElement);
+			}else {
+				log(Level.ERROR, stepDescription, "Blank locator string: {}", locatorString);
+			}
+			return false;
+		});
 	}
 	
 	/**
@@ -266,13 +557,15 @@ public class DriverControllerV3 {
 	 * @return true if operation is successful otherwise false
 	 */
 	public boolean clickUsingJSExecutor(String stepDescription, By by) {
-		if(by != null) {
-			WebElement webElement = waitForPresenceOfElement(stepDescription, by, defaultExplicitWaitDuration);
-			return performClickUsingJSExecutorOperation(stepDescription, webElement);
-		}else {
-			log(Level.ERROR, stepDescription, "Null locator: {}", by);
-		}
-		return false;
+		return step("clickUsingJSExecutor", stepDescription, by, () -> {
+			if(by != null) {
+				WebElement webElement = waitForPresenceOfElement(stepDescription, by, defaultExplicitWaitDuration);
+				return performClickUsingJSExecutorOperation(stepDescription, webElement);
+			}else {
+				log(Level.ERROR, stepDescription, "Null locator: {}", by);
+			}
+			return false;
+		});
 	}
 	
 	/**
@@ -282,13 +575,15 @@ public class DriverControllerV3 {
 	 * @return true if operation is successful otherwise false
 	 */
 	public boolean clickUsingJSExecutor(String stepDescription, WebElement webElement) {
-		if(webElement != null) {
-//			webElement = waitForVisibilityOfElement(stepDescription, webElement, defaultExplicitWaitDuration);
-			return performClickUsingJSExecutorOperation(stepDescription, webElement);
-		}else {
-			log(Level.ERROR, stepDescription, "Null web element: {}", webElement);
-		}
-		return false;
+		return step("clickUsingJSExecutor", stepDescription, webElement, () -> {
+			if(webElement != null) {
+	//			webElement = waitForVisibilityOfElement(stepDescription, webElement, defaultExplicitWaitDuration);
+				return performClickUsingJSExecutorOperation(stepDescription, webElement);
+			}else {
+				log(Level.ERROR, stepDescription, "Null web element: {}", webElement);
+			}
+			return false;
+		});
 	}
 	
 	/**
@@ -319,13 +614,15 @@ public class DriverControllerV3 {
 	 * @return true if operation is successful otherwise false
 	 */
 	public boolean sendKeys(String stepDescription, String locatorString, String value) {
-		if(StringUtils.isNotBlank(locatorString) && StringUtils.isNotBlank(value)) {
-			WebElement webElement = waitForVisibilityOfElement(stepDescription, locatorString, defaultExplicitWaitDuration);
-			return performSendKeysOperation(stepDescription, webElement, value);
-		}else {
-			log(Level.ERROR, stepDescription, "One or more of the required fields is blank. locatoString: {}, value: {}", locatorString, value);
-		}
-		return false;
+		return step("sendKeys", stepDescription, locatorString, () -> {
+			if(StringUtils.isNotBlank(locatorString) && StringUtils.isNotBlank(value)) {
+				WebElement webElement = waitForVisibilityOfElement(stepDescription, locatorString, defaultExplicitWaitDuration);
+				return performSendKeysOperation(stepDescription, webElement, value);
+			}else {
+				log(Level.ERROR, stepDescription, "One or more of the required fields is blank. locatoString: {}, value: {}", locatorString, value);
+			}
+			return false;
+		});
 	}
 	
 	/**
@@ -336,13 +633,15 @@ public class DriverControllerV3 {
 	 * @return true if operation is successful otherwise false
 	 */
 	public boolean sendKeys(String stepDescription, By by, String value) {
-		if(by != null && StringUtils.isNotBlank(value)) {
-			WebElement webElement = waitForVisibilityOfElement(stepDescription, by, defaultExplicitWaitDuration);
-			return performSendKeysOperation(stepDescription, webElement, value);
-		}else {
-			log(Level.ERROR, stepDescription, "One or more of the required fields is null or blank. by: {}, value: {}", by, value);
-		}
-		return false;
+		return step("sendKeys", stepDescription, by, () -> {
+			if(by != null && StringUtils.isNotBlank(value)) {
+				WebElement webElement = waitForVisibilityOfElement(stepDescription, by, defaultExplicitWaitDuration);
+				return performSendKeysOperation(stepDescription, webElement, value);
+			}else {
+				log(Level.ERROR, stepDescription, "One or more of the required fields is null or blank. by: {}, value: {}", by, value);
+			}
+			return false;
+		});
 	}
 	
 	/**
@@ -353,13 +652,15 @@ public class DriverControllerV3 {
 	 * @return true if operation is successful otherwise false
 	 */
 	public boolean sendKeys(String stepDescription, WebElement webElement, String value) {
-		if(webElement != null && StringUtils.isNotBlank(value)) {
-			webElement = waitForVisibilityOfElement(stepDescription, webElement, defaultExplicitWaitDuration);
-			return performSendKeysOperation(stepDescription, webElement, value);
-		}else {
-			log(Level.ERROR, stepDescription, "One or more of the required fields is null or blank. webElement: {}, value: {}", webElement, value);
-		}
-		return false;
+		return step("sendKeys", stepDescription, webElement, () -> {
+			if(webElement != null && StringUtils.isNotBlank(value)) {
+				WebElement visibleWebElement = waitForVisibilityOfElement(stepDescription, webElement, defaultExplicitWaitDuration);
+				return performSendKeysOperation(stepDescription, visibleWebElement, value);
+			}else {
+				log(Level.ERROR, stepDescription, "One or more of the required fields is null or blank. webElement: {}, value: {}", webElement, value);
+			}
+			return false;
+		});
 	}
 	
 	/**
@@ -390,13 +691,15 @@ public class DriverControllerV3 {
 	 * @return true if operation is successful otherwise false
 	 */
 	public boolean clearAndSendKeys(String stepDescription, String locatorString, String value) {
-		if(StringUtils.isNotBlank(locatorString) && StringUtils.isNotBlank(value)) {
-			WebElement webElement = waitForVisibilityOfElement(stepDescription, locatorString, defaultExplicitWaitDuration);
-			return performClearAndSendKeysOperation(stepDescription, webElement, value);
-		}else {
-			log(Level.ERROR, stepDescription, "One or more of the required fields is blank. locatoString: {}, value: {}", locatorString, value);
-		}
-		return false;
+		return step("clearAndSendKeys", stepDescription, locatorString, () -> {
+			if(StringUtils.isNotBlank(locatorString) && StringUtils.isNotBlank(value)) {
+				WebElement webElement = waitForVisibilityOfElement(stepDescription, locatorString, defaultExplicitWaitDuration);
+				return performClearAndSendKeysOperation(stepDescription, webElement, value);
+			}else {
+				log(Level.ERROR, stepDescription, "One or more of the required fields is blank. locatoString: {}, value: {}", locatorString, value);
+			}
+			return false;
+		});
 	}
 	
 	/**
@@ -407,13 +710,15 @@ public class DriverControllerV3 {
 	 * @return true if operation is successful otherwise false
 	 */
 	public boolean clearAndSendKeys(String stepDescription, By by, String value) {
-		if(by != null && StringUtils.isNotBlank(value)) {
-			WebElement webElement = waitForVisibilityOfElement(stepDescription, by, defaultExplicitWaitDuration);
-			return performClearAndSendKeysOperation(stepDescription, webElement, value);
-		}else {
-			log(Level.ERROR, stepDescription, "One or more of the required fields is null or blank. by: {}, value: {}", by, value);
-		}
-		return false;
+		return step("clearAndSendKeys", stepDescription, by, () -> {
+			if(by != null && StringUtils.isNotBlank(value)) {
+				WebElement webElement = waitForVisibilityOfElement(stepDescription, by, defaultExplicitWaitDuration);
+				return performClearAndSendKeysOperation(stepDescription, webElement, value);
+			}else {
+				log(Level.ERROR, stepDescription, "One or more of the required fields is null or blank. by: {}, value: {}", by, value);
+			}
+			return false;
+		});
 	}
 	
 	/**
@@ -424,13 +729,15 @@ public class DriverControllerV3 {
 	 * @return true if operation is successful otherwise false
 	 */
 	public boolean clearAndSendKeys(String stepDescription, WebElement webElement, String value) {
-		if(webElement != null && StringUtils.isNotBlank(value)) {
-			webElement = waitForVisibilityOfElement(stepDescription, webElement, defaultExplicitWaitDuration);
-			return performClearAndSendKeysOperation(stepDescription, webElement, value);
-		}else {
-			log(Level.ERROR, stepDescription, "One or more of the required fields is null or blank. webElement: {}, value: {}", webElement, value);
-		}
-		return false;
+		return step("clearAndSendKeys", stepDescription, webElement, () -> {
+			if(webElement != null && StringUtils.isNotBlank(value)) {
+				WebElement visibleWebElement = waitForVisibilityOfElement(stepDescription, webElement, defaultExplicitWaitDuration);
+				return performClearAndSendKeysOperation(stepDescription, visibleWebElement, value);
+			}else {
+				log(Level.ERROR, stepDescription, "One or more of the required fields is null or blank. webElement: {}, value: {}", webElement, value);
+			}
+			return false;
+		});
 	}
 	
 	/**
@@ -462,13 +769,15 @@ public class DriverControllerV3 {
 	 * @return true if operation is successful otherwise false
 	 */
 	public boolean selectByVisibleText(String stepDescription, String locatorString, String visibleText) {
-		if(StringUtils.isNotBlank(locatorString) && StringUtils.isNotBlank(visibleText)) {
-			WebElement webElement = waitForVisibilityOfElement(stepDescription, locatorString, defaultExplicitWaitDuration);
-			return performSelectByVisibleTextOperation(stepDescription, webElement, visibleText);
-		}else {
-			log(Level.ERROR, stepDescription, "One or more of the required fields is blank. locatoString: {}, visibleText: {}", locatorString, visibleText);
-		}
-		return false;
+		return step("selectByVisibleText", stepDescription, locatorString, () -> {
+			if(StringUtils.isNotBlank(locatorString) && StringUtils.isNotBlank(visibleText)) {
+				WebElement webElement = waitForVisibilityOfElement(stepDescription, locatorString, defaultExplicitWaitDuration);
+				return performSelectByVisibleTextOperation(stepDescription, webElement, visibleText);
+			}else {
+				log(Level.ERROR, stepDescription, "One or more of the required fields is blank. locatoString: {}, visibleText: {}", locatorString, visibleText);
+			}
+			return false;
+		});
 	}
 	
 	/**
@@ -479,13 +788,15 @@ public class DriverControllerV3 {
 	 * @return true if operation is successful otherwise false
 	 */
 	public boolean selectByVisibleText(String stepDescription, By by, String visibleText) {
-		if(by != null && StringUtils.isNotBlank(visibleText)) {
-			WebElement webElement = waitForVisibilityOfElement(stepDescription, by, defaultExplicitWaitDuration);
-			return performSelectByVisibleTextOperation(stepDescription, webElement, visibleText);
-		}else {
-			log(Level.ERROR, stepDescription, "One or more of the required fields is null or blank. by: {}, visibleText: {}", by, visibleText);
-		}
-		return false;
+		return step("selectByVisibleText", stepDescription, by, () -> {
+			if(by != null && StringUtils.isNotBlank(visibleText)) {
+				WebElement webElement = waitForVisibilityOfElement(stepDescription, by, defaultExplicitWaitDuration);
+				return performSelectByVisibleTextOperation(stepDescription, webElement, visibleText);
+			}else {
+				log(Level.ERROR, stepDescription, "One or more of the required fields is null or blank. by: {}, visibleText: {}", by, visibleText);
+			}
+			return false;
+		});
 	}
 	
 	/**
@@ -496,13 +807,15 @@ public class DriverControllerV3 {
 	 * @return true if operation is successful otherwise false
 	 */
 	public boolean selectByVisibleText(String stepDescription, WebElement webElement, String visibleText) {
-		if(webElement != null && StringUtils.isNotBlank(visibleText)) {
-			webElement = waitForVisibilityOfElement(stepDescription, webElement, defaultExplicitWaitDuration);
-			return performSelectByVisibleTextOperation(stepDescription, webElement, visibleText);
-		}else {
-			log(Level.ERROR, stepDescription, "One or more of the required fields is null or blank. webElement: {}, visibleText: {}", webElement, visibleText);
-		}
-		return false;
+		return step("selectByVisibleText", stepDescription, webElement, () -> {
+			if(webElement != null && StringUtils.isNotBlank(visibleText)) {
+				WebElement visibleWebElement = waitForVisibilityOfElement(stepDescription, webElement, defaultExplicitWaitDuration);
+				return performSelectByVisibleTextOperation(stepDescription, visibleWebElement, visibleText);
+			}else {
+				log(Level.ERROR, stepDescription, "One or more of the required fields is null or blank. webElement: {}, visibleText: {}", webElement, visibleText);
+			}
+			return false;
+		});
 	}
 	
 	/**
@@ -515,6 +828,10 @@ public class DriverControllerV3 {
 	private boolean performSelectByVisibleTextOperation(String stepDescription, WebElement webElement, String visibleText) {
 		if(webElement != null && StringUtils.isNotBlank(visibleText)) {
 			try {
+				if(scriptSelectEnabled && trySelectUsingScript(stepDescription, webElement, "text", visibleText)) {
+					log(Level.INFO, stepDescription, "Successfully selected option: {} by visible text on web element: {} using script", visibleText, webElement);
+					return true;
+				}
 				Select select = new Select(webElement);
 				select.selectByVisibleText(visibleText);
 				log(Level.INFO, stepDescription, "Successfully selected option: {} by visible text on web element", visibleText, webElement);
@@ -534,13 +851,15 @@ public class DriverControllerV3 {
 	 * @return true if operation is successful otherwise false
 	 */
 	public boolean selectByValue(String stepDescription, String locatorString, String value) {
-		if(StringUtils.isNotBlank(locatorString) && StringUtils.isNotBlank(value)) {
-			WebElement webElement = waitForVisibilityOfElement(stepDescription, locatorString, defaultExplicitWaitDuration);
-			return performSelectByValueOperation(stepDescription, webElement, value);
-		}else {
-			log(Level.ERROR, stepDescription, "One or more of the required fields is blank. locatoString: {}, value: {}", locatorString, value);
-		}
-		return false;
+		return step("selectByValue", stepDescription, locatorString, () -> {
+			if(StringUtils.isNotBlank(locatorString) && StringUtils.isNotBlank(value)) {
+				WebElement webElement = waitForVisibilityOfElement(stepDescription, locatorString, defaultExplicitWaitDuration);
+				return performSelectByValueOperation(stepDescription, webElement, value);
+			}else {
+				log(Level.ERROR, stepDescription, "One or more of the required fields is blank. locatoString: {}, value: {}", locatorString, value);
+			}
+			return false;
+		});
 	}
 	
 	/**
@@ -551,13 +870,15 @@ public class DriverControllerV3 {
 	 * @return true if operation is successful otherwise false
 	 */
 	public boolean selectByValue(String stepDescription, By by, String value) {
-		if(by != null && StringUtils.isNotBlank(value)) {
-			WebElement webElement = waitForVisibilityOfElement(stepDescription, by, defaultExplicitWaitDuration);
-			return performSelectByValueOperation(stepDescription, webElement, value);
-		}else {
-			log(Level.ERROR, stepDescription, "One or more of the required fields is null or blank. by: {}, value: {}", by, value);
-		}
-		return false;
+		return step("selectByValue", stepDescription, by, () -> {
+			if(by != null && StringUtils.isNotBlank(value)) {
+				WebElement webElement = waitForVisibilityOfElement(stepDescription, by, defaultExplicitWaitDuration);
+				return performSelectByValueOperation(stepDescription, webElement, value);
+			}else {
+				log(Level.ERROR, stepDescription, "One or more of the required fields is null or blank. by: {}, value: {}", by, value);
+			}
+			return false;
+		});
 	}
 	
 	/**
@@ -568,13 +889,15 @@ public class DriverControllerV3 {
 	 * @return true if operation is successful otherwise false
 	 */
 	public boolean selectByValue(String stepDescription, WebElement webElement, String value) {
-		if(webElement != null && StringUtils.isNotBlank(value)) {
-			webElement = waitForVisibilityOfElement(stepDescription, webElement, defaultExplicitWaitDuration);
-			return performSelectByValueOperation(stepDescription, webElement, value);
-		}else {
-			log(Level.ERROR, stepDescription, "One or more of the required fields is null or blank. webElement: {}, value: {}", webElement, value);
-		}
-		return false;
+		return step("selectByValue", stepDescription, webElement, () -> {
+			if(webElement != null && StringUtils.isNotBlank(value)) {
+				WebElement visibleWebElement = waitForVisibilityOfElement(stepDescription, webElement, defaultExplicitWaitDuration);
+				return performSelectByValueOperation(stepDescription, visibleWebElement, value);
+			}else {
+				log(Level.ERROR, stepDescription, "One or more of the required fields is null or blank. webElement: {}, value: {}", webElement, value);
+			}
+			return false;
+		});
 	}
 	
 	/**
@@ -587,6 +910,10 @@ public class DriverControllerV3 {
 	private boolean performSelectByValueOperation(String stepDescription, WebElement webElement, String value) {
 		if(webElement != null && StringUtils.isNotBlank(value)) {
 			try {
+				if(scriptSelectEnabled && trySelectUsingScript(stepDescription, webElement, "value", value)) {
+					log(Level.INFO, stepDescription, "Successfully selected option: {} by value on web element: {} using script", value, webElement);
+					return true;
+				}
 				Select select = new Select(webElement);
 				select.selectByValue(value);
 				log(Level.INFO, stepDescription, "Successfully selected option: {} by value on web element", value, webElement);
@@ -598,38 +925,67 @@ public class DriverControllerV3 {
 		return false;
 	}
 	
-	//
-	public boolean dragAndDrop(String stepDescription, String sourceLocatorString, String targetLocatorString, String value) {
-		if(StringUtils.isNotBlank(sourceLocatorString) && StringUtils.isNotBlank(targetLocatorString)) {
-			WebElement sourceWebElement = waitForVisibilityOfElement(stepDescription, sourceLocatorString, defaultExplicitWaitDuration);
-			WebElement targetWebElement = waitForVisibilityOfElement(stepDescription, targetLocatorString, defaultExplicitWaitDuration);
-			return performDragAndDropOperation(stepDescription, sourceWebElement, targetWebElement);
-		}else {
-			log(Level.ERROR, stepDescription, "One or more of the required fields is blank. sourceLocatorString: {}, targetLocatorString: {}", sourceLocatorString, targetLocatorString);
+	/**
+	 * Select the options of a native select element matching the given 'match' string in a single script call and fire input and change events.
+	 * All matching options are selected for multi selects, only the first one otherwise. Disabled options are never selected.
+	 * @param stepDescription short step description
+	 * @param webElement the select web element
+	 * @param matchBy "text" to match the whitespace normalized option text, "value" to match the option value
+	 * @param match the text or value to match against
+	 * @return true if at least one option got selected, false if the caller should fall back to {@link Select}
+	 */
+	private boolean trySelectUsingScript(String stepDescription, WebElement webElement, String matchBy, String match) {
+		try {
+			JavascriptExecutor javascriptExecutor = (JavascriptExecutor) webDriver;
+			Object selectedCount = javascriptExecutor.executeScript(SELECT_OPTION_SCRIPT, webElement, matchBy, match);
+			if(selectedCount instanceof Number count && count.intValue() > 0) {
+				return true;
+			}
+			log(Level.DEBUG, stepDescription, "Script select matched no option by {}: {}, falling back to Select", matchBy, match);
+		}catch (Exception e) {
+			log(Level.DEBUG, stepDescription, "Script select failed, falling back to Select: {}", e.getMessage());
 		}
 		return false;
 	}
 	
+	//
+	public boolean dragAndDrop(String stepDescription, String sourceLocatorString, String targetLocatorString, String value) {
+		return step("dragAndDrop", stepDescription, sourceLocatorString, () -> {
+			if(StringUtils.isNotBlank(sourceLocatorString) && StringUtils.isNotBlank(targetLocatorString)) {
+				WebElement sourceWebElement = waitForVisibilityOfElement(stepDescription, sourceLocatorString, defaultExplicitWaitDuration);
+				WebElement targetWebElement = waitForVisibilityOfElement(stepDescription, targetLocatorString, defaultExplicitWaitDuration);
+				return performDragAndDropOperation(stepDescription, sourceWebElement, targetWebElement);
+			}else {
+				log(Level.ERROR, stepDescription, "One or more of the required fields is blank. sourceLocatorString: {}, targetLocatorString: {}", sourceLocatorString, targetLocatorString);
+			}
+			return false;
+		});
+	}
+	
 	public boolean dragAndDrop(String stepDescription, By sourceBy, By targetBy, String value) {
-		if(sourceBy != null && targetBy != null) {
-			WebElement sourceWebElement = waitForVisibilityOfElement(stepDescription, sourceBy, defaultExplicitWaitDuration);
-			WebElement targetWebElement = waitForVisibilityOfElement(stepDescription, targetBy, defaultExplicitWaitDuration);
-			return performDragAndDropOperation(stepDescription, sourceWebElement, targetWebElement);
-		}else {
-			log(Level.ERROR, stepDescription, "One or more of the required fields is null. sourceBy: {}, targetBy: {}", sourceBy, targetBy);
-		}
-		return false;
+		return step("dragAndDrop", stepDescription, sourceBy, () -> {
+			if(sourceBy != null && targetBy != null) {
+				WebElement sourceWebElement = waitForVisibilityOfElement(stepDescription, sourceBy, defaultExplicitWaitDuration);
+				WebElement targetWebElement = waitForVisibilityOfElement(stepDescription, targetBy, defaultExplicitWaitDuration);
+				return performDragAndDropOperation(stepDescription, sourceWebElement, targetWebElement);
+			}else {
+				log(Level.ERROR, stepDescription, "One or more of the required fields is null. sourceBy: {}, targetBy: {}", sourceBy, targetBy);
+			}
+			return false;
+		});
 	}
 	
 	public boolean dragAndDrop(String stepDescription, WebElement sourceWebElement, WebElement targetWebElement, String value) {
-		if(sourceWebElement != null && targetWebElement != null) {
-			sourceWebElement = waitForVisibilityOfElement(stepDescription, sourceWebElement, defaultExplicitWaitDuration);
-			targetWebElement = waitForVisibilityOfElement(stepDescription, targetWebElement, defaultExplicitWaitDuration);
-			return performDragAndDropOperation(stepDescription, sourceWebElement, targetWebElement);
-		}else {
-			log(Level.ERROR, stepDescription, "One or more of the required fields is null. sourceWebElement: {}, targetWebElement: {}", sourceWebElement, targetWebElement);
-		}
-		return false;
+		return step("dragAndDrop", stepDescription, sourceWebElement, () -> {
+			if(sourceWebElement != null && targetWebElement != null) {
+				WebElement visibleSourceWebElement = waitForVisibilityOfElement(stepDescription, sourceWebElement, defaultExplicitWaitDuration);
+				WebElement visibleTargetWebElement = waitForVisibilityOfElement(stepDescription, targetWebElement, defaultExplicitWaitDuration);
+				return performDragAndDropOperation(stepDescription, visibleSourceWebElement, visibleTargetWebElement);
+			}else {
+				log(Level.ERROR, stepDescription, "One or more of the required fields is null. sourceWebElement: {}, targetWebElement: {}", sourceWebElement, targetWebElement);
+			}
+			return false;
+		});
 	}
 	
 	private boolean performDragAndDropOperation(String stepDescription, WebElement sourceWebElement, WebElement targetWebElement) {
@@ -648,33 +1004,39 @@ public class DriverControllerV3 {
 	
 	//
 	public String getAttribute(String stepDescription, String locatorString, String attribute) {
-		if(StringUtils.isNotBlank(locatorString) && StringUtils.isNotBlank(attribute)) {
-			WebElement webElement = waitForPresenceOfElement(stepDescription, locatorString, defaultExplicitWaitDuration);
-			return performGetAttributeOperation(stepDescription, webElement, attribute);
-		}else {
-			log(Level.ERROR, stepDescription, "One or more of the required fields is blank. locatorString: {}, attribute: {}", locatorString, attribute);
-		}
-		return null;
+		return step("getAttribute", stepDescription, locatorString, () -> {
+			if(StringUtils.isNotBlank(locatorString) && StringUtils.isNotBlank(attribute)) {
+				WebElement webElement = waitForPresenceOfElement(stepDescription, locatorString, defaultExplicitWaitDuration);
+				return performGetAttributeOperation(stepDescription, webElement, attribute);
+			}else {
+				log(Level.ERROR, stepDescription, "One or more of the required fields is blank. locatorString: {}, attribute: {}", locatorString, attribute);
+			}
+			return null;
+		});
 	}
 	
 	public String getAttribute(String stepDescription, By by, String attribute) {
-		if(by != null && StringUtils.isNotBlank(attribute)) {
-			WebElement webElement = waitForPresenceOfElement(stepDescription, by, defaultExplicitWaitDuration);
-			return performGetAttributeOperation(stepDescription, webElement, attribute);
-		}else {
-			log(Level.ERROR, stepDescription, "One or more of the required fields is null or blank. by: {}, attribute: {}", by, attribute);
-		}
-		return null;
+		return step("getAttribute", stepDescription, by, () -> {
+			if(by != null && StringUtils.isNotBlank(attribute)) {
+				WebElement webElement = waitForPresenceOfElement(stepDescription, by, defaultExplicitWaitDuration);
+				return performGetAttributeOperation(stepDescription, webElement, attribute);
+			}else {
+				log(Level.ERROR, stepDescription, "One or more of the required fields is null or blank. by: {}, attribute: {}", by, attribute);
+			}
+			return null;
+		});
 	}
 	
 	public String getAttribute(String stepDescription, WebElement webElement, String attribute) {
-		if(webElement != null && StringUtils.isNotBlank(attribute)) {
-			return performGetAttributeOperation(stepDescription, webElement, attribute);
-		}else {
-			log(Level.ERROR, stepDescription, "One or more of the required fields is null or blank. webElement: {}, attribute: {}", webElement, attribute);
-		}
-		return null;
-	}
+		return step("getAttribute", stepDescription, webElement, () -> {
+			if(webElement != null && StringUtils.isNotBlank(attribute)) {
+				return performGetAttributeOperation(stepDescription, webElement, attribute);
+			}else {
+				log(Level.ERROR, stepDescription, "One or more of the required fields is null or blank. webElement: {}, attribute: {}", webElement, attribute);
+			}
+			return null;
+		});
+	}
 	
 	private String performGetAttributeOperation(String stepDescription, WebElement webElement, String attribute) {
 		if(webElement != null && StringUtils.isNotBlank(attribute)) {
@@ -691,221 +1053,273 @@ public class DriverControllerV3 {
 	
 	//
 	public String getWindowHandle(String stepDescription) {
-		try {
-			String windowHandle = webDriver.getWindowHandle();
-			//logging and reporting
-			log(Level.INFO, stepDescription, "Successfully got window handle: {}", windowHandle);
-			return windowHandle;
-		}catch(Exception e) {
-			//logging and reporting
-			log(Level.ERROR, stepDescription, "Exception while getting window handle", e);
-			return null;
-		}
+		return step("getWindowHandle", stepDescription, null, () -> {
+			try {
+				String windowHandle = webDriver.getWindowHandle();
+				currentWindowHandle = windowHandle;
+				//logging and reporting
+				log(Level.INFO, stepDescription, "Successfully got window handle: {}", windowHandle);
+				return windowHandle;
+			}catch(Exception e) {
+				//logging and reporting
+				log(Level.ERROR, stepDescription, "Exception while getting window handle", e);
+				return null;
+			}
+		});
 	}
 	
 	//
 	public Set<String> getWindowHandles(String stepDescription) {
-		try {
-			Set<String> windowHandles = webDriver.getWindowHandles();
-			//logging and reporting
-			log(Level.INFO, stepDescription, "Successfully got window handles");
-			return windowHandles;
-		}catch(Exception e) {
-			//logging and reporting
-			log(Level.ERROR, stepDescription, "Exception while getting window handles", e);
-			return Set.of();
-		}
+		return step("getWindowHandles", stepDescription, null, () -> {
+			try {
+				Set<String> windowHandles = webDriver.getWindowHandles();
+				//logging and reporting
+				log(Level.INFO, stepDescription, "Successfully got window handles");
+				return windowHandles;
+			}catch(Exception e) {
+				//logging and reporting
+				log(Level.ERROR, stepDescription, "Exception while getting window handles", e);
+				return Set.of();
+			}
+		});
 	}
 	
 	//
 	public String getTitle(String stepDescription) {
-		try {
-			String title = webDriver.getTitle();
-			//logging and reporting
-			log(Level.INFO, stepDescription, "Successfully got title: {}", title);
-			return title;
-		}catch(Exception e) {
-			//logging and reporting
-			log(Level.ERROR, stepDescription, "Exception while getting title", e);
-			return null;
-		}
+		return step("getTitle", stepDescription, null, () -> {
+			try {
+				String title = webDriver.getTitle();
+				//logging and reporting
+				log(Level.INFO, stepDescription, "Successfully got title: {}", title);
+				return title;
+			}catch(Exception e) {
+				//logging and reporting
+				log(Level.ERROR, stepDescription, "Exception while getting title", e);
+				return null;
+			}
+		});
 	}
 	
 	//
 	public String getCurrentUrl(String stepDescription) {
-		try {
-			String url = webDriver.getCurrentUrl();
-			//logging and reporting
-			log(Level.INFO, stepDescription, "Successfully got current page url: {}", url);
-			return url;
-		}catch(Exception e) {
-			//logging and reporting
-			log(Level.ERROR, stepDescription, "Exception while getting current page url", e);
-			return null;
-		}
-	}
-	
-	//
-	public boolean switchToWindow(String stepDescription, String windowHandle) {
-		if(StringUtils.isNotBlank(windowHandle)) {
+		return step("getCurrentUrl", stepDescription, null, () -> {
 			try {
-				webDriver.switchTo().window(windowHandle);
+				String url = webDriver.getCurrentUrl();
 				//logging and reporting
-				log(Level.INFO, stepDescription, "Successfully switched to window");
-				return true;
+				log(Level.INFO, stepDescription, "Successfully got current page url: {}", url);
+				return url;
 			}catch(Exception e) {
 				//logging and reporting
-				log(Level.ERROR, stepDescription, "Exception while switching to window", e);
+				log(Level.ERROR, stepDescription, "Exception while getting current page url", e);
+				return null;
 			}
-		}else {
-			log(Level.ERROR, stepDescription, "Blank window handle: {}", windowHandle);
-		}
-		return false;
+		});
+	}
+	
+	/**
+	 * Switch to the top level browsing context of the window with the given 'windowHandle'. No command is sent if the driver is already there.
+	 * @param stepDescription short step description
+	 * @param windowHandle handle of the window to switch to
+	 * @return true if operation is successful otherwise false
+	 */
+	public boolean switchToWindow(String stepDescription, String windowHandle) {
+		return step("switchToWindow", stepDescription, windowHandle, () -> {
+			if(StringUtils.isNotBlank(windowHandle)) {
+				if(windowHandle.equals(currentWindowHandle) && frameContextKnown && currentFramePath.isEmpty()) {
+					contextSwitchesSkipped.incrementAndGet();
+					log(Level.DEBUG, stepDescription, "Already on window, skipped switch");
+					return true;
+				}
+				try {
+					webDriver.switchTo().window(windowHandle);
+					contextSwitchesPerformed.incrementAndGet();
+					currentWindowHandle = windowHandle;
+					currentFramePath.clear();
+					frameContextKnown = true;
+					//logging and reporting
+					log(Level.INFO, stepDescription, "Successfully switched to window");
+					return true;
+				}catch(Exception e) {
+					//logging and reporting
+					log(Level.ERROR, stepDescription, "Exception while switching to window", e);
+				}
+			}else {
+				log(Level.ERROR, stepDescription, "Blank window handle: {}", windowHandle);
+			}
+			return false;
+		});
 	}
 	
 	//
 	public boolean switchToNewWindow(String stepDescription, WindowType windowType) {
-		if(windowType != null) {
+		return step("switchToNewWindow", stepDescription, windowType, () -> {
+			if(windowType != null) {
+				try {
+					webDriver.switchTo().newWindow(windowType);
+					contextSwitchesPerformed.incrementAndGet();
+					currentWindowHandle = null;
+					currentFramePath.clear();
+					frameContextKnown = true;
+					//logging and reporting
+					log(Level.INFO, stepDescription, "Successfully switched to new window");
+					return true;
+				}catch(Exception e) {
+					//logging and reporting
+					log(Level.ERROR, stepDescription, "Exception while switching to new window", e);
+				}
+			}else {
+				log(Level.ERROR, stepDescription, "Null window type: {}", windowType);
+			}
+			return false;
+		});
+	}
+	
+	//
+	public Alert switchToAlert(String stepDescription) {
+		return step("switchToAlert", stepDescription, null, () -> {
 			try {
-				webDriver.switchTo().newWindow(windowType);
+				WebDriverWait wait = new WebDriverWait(webDriver, defaultExplicitWaitDuration);
+				Alert alert = wait.until(ExpectedConditions.alertIsPresent());
 				//logging and reporting
-				log(Level.INFO, stepDescription, "Successfully switched to new window");
-				return true;
+				log(Level.INFO, stepDescription, "Successfully switched to alert: {}", alert);
+				return alert;
 			}catch(Exception e) {
 				//logging and reporting
-				log(Level.ERROR, stepDescription, "Exception while switching to new window", e);
+				log(Level.ERROR, stepDescription, "Exception while switching to alert", e);
 			}
-		}else {
-			log(Level.ERROR, stepDescription, "Null window type: {}", windowType);
-		}
-		return false;
+			return null;
+		});
 	}
 	
-	//
-	public Alert switchToAlert(String stepDescription) {
-		try {
-			WebDriverWait wait = new WebDriverWait(webDriver, defaultExplicitWaitDuration);
-			Alert alert = wait.until(ExpectedConditions.alertIsPresent());
-			//logging and reporting
-			log(Level.INFO, stepDescription, "Successfully switched to alert: {}", alert);
-			return alert;
-		}catch(Exception e) {
-			//logging and reporting
-			log(Level.ERROR, stepDescription, "Exception while switching to alert", e);
-		}
-		return null;
+	public boolean sendKeysToAlert(String stepDescription, String value) {
+		return step("sendKeysToAlert", stepDescription, value, () -> {
+			if(StringUtils.isNotBlank(value)) {
+				try {
+					Alert alert = switchToAlert(stepDescription);
+					alert.sendKeys(value);
+					//logging and reporting
+					log(Level.INFO, stepDescription, "Successfully sent keys: {} to alert: {}", value, alert);
+					return true;
+				}catch(Exception e) {
+					//logging and reporting
+					log(Level.ERROR, stepDescription, "Exception while sending keys to alert", e);
+				}
+			}else {
+				log(Level.ERROR, stepDescription, "Blank value: {}", value);
+			}
+			return false;
+		});
 	}
 	
-	public boolean sendKeysToAlert(String stepDescription, String value) {
-		if(StringUtils.isNotBlank(value)) {
+	public boolean acceptAlert(String stepDescription) {
+		return step("acceptAlert", stepDescription, null, () -> {
 			try {
 				Alert alert = switchToAlert(stepDescription);
-				alert.sendKeys(value);
+				alert.accept();
 				//logging and reporting
-				log(Level.INFO, stepDescription, "Successfully sent keys: {} to alert: {}", value, alert);
+				log(Level.INFO, stepDescription, "Successfully accepted alert");
 				return true;
 			}catch(Exception e) {
 				//logging and reporting
-				log(Level.ERROR, stepDescription, "Exception while sending keys to alert", e);
+				log(Level.ERROR, stepDescription, "Exception while accepting for alert", e);
 			}
-		}else {
-			log(Level.ERROR, stepDescription, "Blank value: {}", value);
-		}
-		return false;
-	}
-	
-	public boolean acceptAlert(String stepDescription) {
-		try {
-			Alert alert = switchToAlert(stepDescription);
-			alert.accept();
-			//logging and reporting
-			log(Level.INFO, stepDescription, "Successfully accepted alert");
-			return true;
-		}catch(Exception e) {
-			//logging and reporting
-			log(Level.ERROR, stepDescription, "Exception while accepting for alert", e);
-		}
-		return false;
+			return false;
+		});
 	}
 	
 	public boolean dismissAlert(String stepDescription) {
-		try {
-			Alert alert = switchToAlert(stepDescription);
-			alert.dismiss();
-			//logging and reporting
-			log(Level.INFO, stepDescription, "Successfully dismissed alert");
-			return true;
-		}catch(Exception e) {
-			//logging and reporting
-			log(Level.ERROR, stepDescription, "Exception while dismissing for alert", e);
-		}
-		return false;
+		return step("dismissAlert", stepDescription, null, () -> {
+			try {
+				Alert alert = switchToAlert(stepDescription);
+				alert.dismiss();
+				//logging and reporting
+				log(Level.INFO, stepDescription, "Successfully dismissed alert");
+				return true;
+			}catch(Exception e) {
+				//logging and reporting
+				log(Level.ERROR, stepDescription, "Exception while dismissing for alert", e);
+			}
+			return false;
+		});
 	}
 	
 	//
 	public boolean switchToIFrameByIndex(String stepDescription, int index) {
-		if(index > 0) {
-			try {
-				webDriver.switchTo().frame(index);
-				log(Level.INFO, stepDescription, "Successfully switched to iframe with index: {}", index);
-				return true;
-			}catch (Exception e) {
-				log(Level.ERROR, stepDescription, "Exception occured while switching to iframe", e);
+		return step("switchToIFrameByIndex", stepDescription, index, () -> {
+			if(index >= 0) {
+				try {
+					webDriver.switchTo().frame(index);
+					enteredFrame(index);
+					log(Level.INFO, stepDescription, "Successfully switched to iframe with index: {}", index);
+					return true;
+				}catch (Exception e) {
+					log(Level.ERROR, stepDescription, "Exception occured while switching to iframe", e);
+				}
+			}else {
+				log(Level.ERROR, stepDescription, "Invalid index: {}", index);
 			}
-		}else {
-			log(Level.ERROR, stepDescription, "Invalid index: {}", index);
-		}
-		return false;
+			return false;
+		});
 	}
 	
 	public boolean switchToIFrameByNameOrId(String stepDescription, String nameOrId) {
-		if(StringUtils.isNotBlank(nameOrId)) {
-			try {
-				webDriver.switchTo().frame(nameOrId);
-				log(Level.INFO, stepDescription, "Successfully switched to iframe with name or id: {}", nameOrId);
-				return true;
-			}catch (Exception e) {
-				log(Level.ERROR, stepDescription, "Exception occured while switching to iframe", e);
+		return step("switchToIFrameByNameOrId", stepDescription, nameOrId, () -> {
+			if(StringUtils.isNotBlank(nameOrId)) {
+				try {
+					webDriver.switchTo().frame(nameOrId);
+					enteredFrame(nameOrId);
+					log(Level.INFO, stepDescription, "Successfully switched to iframe with name or id: {}", nameOrId);
+					return true;
+				}catch (Exception e) {
+					log(Level.ERROR, stepDescription, "Exception occured while switching to iframe", e);
+				}
+			}else {
+				log(Level.ERROR, stepDescription, "Blank name of id: {}", nameOrId);
 			}
-		}else {
-			log(Level.ERROR, stepDescription, "Blank name of id: {}", nameOrId);
-		}
-		return false;
+			return false;
+		});
 	}
 	
 	public boolean switchToIFrame(String stepDescription, String locatorString) {
-		if(StringUtils.isNotBlank(locatorString)) {
-			WebElement webElement = waitForPresenceOfElement(stepDescription, locatorString, defaultExplicitWaitDuration);
-			return performSwitchToIFrameOperation(stepDescription, webElement);
-		}else {
-			log(Level.ERROR, stepDescription, "Blank locator string: {}", locatorString);
-		}
-		return false;
+		return step("switchToIFrame", stepDescription, locatorString, () -> {
+			if(StringUtils.isNotBlank(locatorString)) {
+				WebElement webElement = waitForPresenceOfElement(stepDescription, locatorString, defaultExplicitWaitDuration);
+				return performSwitchToIFrameOperation(stepDescription, webElement);
+			}else {
+				log(Level.ERROR, stepDescription, "Blank locator string: {}", locatorString);
+			}
+			return false;
+		});
 	}
 	
 	public boolean switchToIFrame(String stepDescription, By by) {
-		if(by != null) {
-			WebElement webElement = waitForPresenceOfElement(stepDescription, by, defaultExplicitWaitDuration);
-			return performSwitchToIFrameOperation(stepDescription, webElement);
-		}else {
-			log(Level.ERROR, stepDescription, "Null locator: {}", by);
-		}
-		return false;
+		return step("switchToIFrame", stepDescription, by, () -> {
+			if(by != null) {
+				WebElement webElement = waitForPresenceOfElement(stepDescription, by, defaultExplicitWaitDuration);
+				return performSwitchToIFrameOperation(stepDescription, webElement);
+			}else {
+				log(Level.ERROR, stepDescription, "Null locator: {}", by);
+			}
+			return false;
+		});
 	}
 	
 	public boolean switchToIFrame(String stepDescription, WebElement webElement) {
-		if(webElement != null) {
-			return performSwitchToIFrameOperation(stepDescription, webElement);
-		}else {
-			log(Level.ERROR, stepDescription, "Null web element: {}", webElement);
-		}
-		return false;
+		return step("switchToIFrame", stepDescription, webElement, () -> {
+			if(webElement != null) {
+				return performSwitchToIFrameOperation(stepDescription, webElement);
+			}else {
+				log(Level.ERROR, stepDescription, "Null web element: {}", webElement);
+			}
+			return false;
+		});
 	}
 	
 	private boolean performSwitchToIFrameOperation(String stepDescription, WebElement webElement) {
 		if(webElement != null) {
 			try {
 				webDriver.switchTo().frame(webElement);
+				enteredFrame(webElement);
 				log(Level.INFO, stepDescription, "Successfully switched to iframe: {}", webElement);
 				return true;
 			}catch (Exception e) {
@@ -915,393 +1329,643 @@ public class DriverControllerV3 {
 		return false;
 	}
 	
-	//
+	/**
+	 * Switch to the top level browsing context of the current window. No command is sent if the driver is already there.
+	 * @param stepDescription short step description
+	 * @return true if operation is successful otherwise false
+	 */
 	public boolean switchToDefaultContent(String stepDescription) {
-		try {
-			webDriver.switchTo().defaultContent();
-			log(Level.INFO, stepDescription, "Successfully switched to default content");
-			return true;
-		}catch (Exception e) {
-			log(Level.ERROR, stepDescription, "Exception occurred while switching to default content", e);
+		return step("switchToDefaultContent", stepDescription, null, () -> {
+			if(frameContextKnown && currentFramePath.isEmpty()) {
+				contextSwitchesSkipped.incrementAndGet();
+				log(Level.DEBUG, stepDescription, "Already in default content, skipped switch");
+				return true;
+			}
+			try {
+				webDriver.switchTo().defaultContent();
+				contextSwitchesPerformed.incrementAndGet();
+				currentFramePath.clear();
+				frameContextKnown = true;
+				log(Level.INFO, stepDescription, "Successfully switched to default content");
+				return true;
+			}catch (Exception e) {
+				log(Level.ERROR, stepDescription, "Exception occurred while switching to default content", e);
+			}
+			return false;
+		});
+	}
+	
+	/**
+	 * Switch to the frame reached by following the given 'framePath' from the top level browsing context of the current window.
+	 * Unlike the relative frame switches this is idempotent, so only the part of the path the driver is not already in is switched.
+	 * @param stepDescription short step description
+	 * @param framePath frames from the outermost to the innermost, each an {@link Integer} index, a {@link String} name or id, or a {@link WebElement}
+	 * @return true if operation is successful otherwise false
+	 */
+	public boolean switchToFramePath(String stepDescription, List<?> framePath) {
+		return step("switchToFramePath", stepDescription, framePath, () -> {
+			// immutable lists throw on contains(null)
+			if(framePath != null && framePath.stream().noneMatch(Objects::isNull)) {
+				int startIndex = 0;
+				if(frameContextKnown && currentFramePath.size() <= framePath.size() && currentFramePath.equals(framePath.subList(0, currentFramePath.size()))) {
+					startIndex = currentFramePath.size();
+					// a naive switch would go back to default content and through the whole path
+					contextSwitchesSkipped.addAndGet(startIndex + 1);
+				}else if(!switchToDefaultContent(stepDescription)) {
+					return false;
+				}
+				try {
+					for(Object frame : framePath.subList(startIndex, framePath.size())) {
+						if(frame instanceof Integer index) {
+							webDriver.switchTo().frame(index);
+						}else if(frame instanceof String nameOrId) {
+							webDriver.switchTo().frame(nameOrId);
+						}else if(frame instanceof WebElement webElement) {
+							webDriver.switchTo().frame(webElement);
+						}else {
+							throw new IllegalArgumentException("Unsupported frame reference: " + frame);
+						}
+						enteredFrame(frame);
+					}
+					log(Level.INFO, stepDescription, "Successfully switched to frame path: {}", framePath);
+					return true;
+				}catch (Exception e) {
+					frameContextKnown = false;
+					log(Level.ERROR, stepDescription, "Exception occurred while switching to frame path", e);
+				}
+			}else {
+				log(Level.ERROR, stepDescription, "Null frame path or frame reference: {}", framePath);
+			}
+			return false;
+		});
+	}
+	
+	private void enteredFrame(Object frame) {
+		contextSwitchesPerformed.incrementAndGet();
+		if(frameContextKnown) {
+			currentFramePath.add(frame);
 		}
-		return false;
 	}
 	
 	
 	// explicit waits
 	
 	public WebElement waitForPresenceOfElement(String stepDescription, String locatorString, Duration duration) {
-		if(StringUtils.isNotBlank(locatorString)) {
-			List<By> locators = getLocators(locatorString);
-			Optional<WebElement> webElementOptional = locators.stream()
-					.map(locator -> tryToWaitForPresenceOfElement(stepDescription, locator, duration != null ? duration : defaultExplicitWaitDuration))
-					.filter(webElement -> webElement != null)
-					.findFirst();
-			if(webElementOptional.isPresent()) {
-				return webElementOptional.get();
+		return step("waitForPresenceOfElement", stepDescription, locatorString, () -> {
+			if(StringUtils.isNotBlank(locatorString)) {
+				WaitResult<WebElement> waitResult = waitForFirstLocator(stepDescription, locatorString, this::presenceOfElement, duration);
+				if(waitResult.isSatisfied()) {
+					return waitResult.value();
+				}else {
+					//logging and reporting
+					logWaitFailure(stepDescription, waitResult, "presence of element", locatorString);
+				}
 			}else {
-				//logging and reporting
-				log(Level.ERROR, stepDescription, "No element present by locator string: {}", locatorString);
+				log(Level.ERROR, stepDescription, "Blank locator string: {}", locatorString);
 			}
-		}else {
-			log(Level.ERROR, null, "Blank locator string: {}", locatorString, duration);
-		}
-		return null;
+			return null;
+		});
 	}
 	
-	private WebElement tryToWaitForPresenceOfElement(String stepDescription, By by, Duration duration) {
-		if(by != null && duration != null) {
-			try {
-				WebDriverWait wait = new WebDriverWait(webDriver, duration != null ? duration : defaultExplicitWaitDuration);
-				return wait.until(ExpectedConditions.presenceOfElementLocated(by));
-			}catch(Exception e) {
-				//logging and reporting
-				log(Level.ERROR, stepDescription, "Exception occured while waiting for presence of element {}", e);
+	public WebElement waitForPresenceOfElement(String stepDescription, By by, Duration duration) {
+		return step("waitForPresenceOfElement", stepDescription, by, () -> {
+			if(by != null) {
+				WaitResult<WebElement> waitResult = waitUntil(presenceOfElement(by), duration);
+				if(waitResult.isSatisfied()) {
+					return waitResult.value();
+				}else {
+					//logging and reporting
+					logWaitFailure(stepDescription, waitResult, "presence of element", by);
+				}
+			}else {
+				log(Level.ERROR, stepDescription, "Null locator: {}", by);
 			}
-		}else {
-			log(Level.ERROR, stepDescription, "Null locator: {}", by);
-		}
-		return null;
+			return null;
+		});
 	}
 	
-	public WebElement waitForPresenceOfElement(String stepDescription, By by, Duration duration) {
-		if(by != null) {
-			try {
-				WebDriverWait wait = new WebDriverWait(webDriver, duration != null ? duration : defaultExplicitWaitDuration);
-				return wait.until(ExpectedConditions.presenceOfElementLocated(by));
-			}catch(Exception e) {
-				//logging and reporting
-				log(Level.ERROR, stepDescription, "Exception occured while waiting for presence of element", e);
+	public WebElement waitForVisibilityOfElement(String stepDescription, String locatorString, Duration duration) {
+		return step("waitForVisibilityOfElement", stepDescription, locatorString, () -> {
+			if(StringUtils.isNotBlank(locatorString)) {
+				WaitResult<WebElement> waitResult = waitForFirstLocator(stepDescription, locatorString, this::visibilityOfElement, duration);
+				if(waitResult.isSatisfied()) {
+					return waitResult.value();
+				}else {
+					//logging and reporting
+					logWaitFailure(stepDescription, waitResult, "visibility of element", locatorString);
+				}
+			}else {
+				log(Level.ERROR, stepDescription, "Blank locator string: {}", locatorString);
 			}
-		}else {
-			log(Level.ERROR, stepDescription, "Null locator: {}", by, duration);
-		}
-		return null;
+			return null;
+		});
 	}
 	
-	public WebElement waitForVisibilityOfElement(String stepDescription, String locatorString, Duration duration) {
-		if(StringUtils.isNotBlank(locatorString)) {
-			Optional<WebElement> webElementOptional = getLocators(locatorString).stream()
-					.map(locator -> tryWaitForVisibilityOfElement(stepDescription, locator, duration != null ? duration : defaultExplicitWaitDuration))
-					.filter(webElement -> webElement != null)
-					.findFirst();
-			if(webElementOptional.isPresent()) {
-				return webElementOptional.get();
+	public WebElement waitForVisibilityOfElement(String stepDescription, By by, Duration duration) {
+		return step("waitForVisibilityOfElement", stepDescription, by, () -> {
+			if(by != null) {
+				WaitResult<WebElement> waitResult = waitUntil(visibilityOfElement(by), duration);
+				if(waitResult.isSatisfied()) {
+					return waitResult.value();
+				}else {
+					//logging and reporting
+					logWaitFailure(stepDescription, waitResult, "visibility of element", by);
+				}
 			}else {
-				//logging and reporting
-				log(Level.ERROR, stepDescription, "No visible element found by locator string: {}", locatorString);
+				log(Level.ERROR, stepDescription, "Null locator: {}", by);
 			}
-		}else {
-			log(Level.ERROR, stepDescription, "Blank locator string: {}", locatorString);
-		}
-		return null;
+			return null;
+		});
 	}
 	
-	private WebElement tryWaitForVisibilityOfElement(String stepDescription, By by, Duration duration) {
-		if(by != null) {
-			try {
-				WebDriverWait wait = new WebDriverWait(webDriver, duration);
-				return wait.until(ExpectedConditions.visibilityOfElementLocated(by));
-			}catch(Exception e) {
-				//logging and reporting
-				log(Level.ERROR, stepDescription, "Exception occurred while waiting for visibility of element {}", e);
+	public WebElement waitForVisibilityOfElement(String stepDescription, WebElement webElement, Duration duration) {
+		return step("waitForVisibilityOfElement", stepDescription, webElement, () -> {
+			if(webElement != null) {
+				WaitResult<WebElement> waitResult = waitUntil(ExpectedConditions.visibilityOf(webElement), duration);
+				if(waitResult.isSatisfied()) {
+					return waitResult.value();
+				}else {
+					//logging and reporting
+					logWaitFailure(stepDescription, waitResult, "visibility of element", webElement);
+				}
+			}else {
+				log(Level.ERROR, stepDescription, "Null web element: {}", webElement);
 			}
-		}else {
-			log(Level.ERROR, stepDescription, "Null locator: {}", by);
-		}
-		return null;
+			return null;
+		});
 	}
 	
-	public WebElement waitForVisibilityOfElement(String stepDescription, By by, Duration duration) {
-		if(by != null) {
-			try {
-				WebDriverWait wait = new WebDriverWait(webDriver, duration != null ? duration : defaultExplicitWaitDuration);
-				return wait.until(ExpectedConditions.visibilityOfElementLocated(by));
-			}catch(Exception e) {
-				//logging and reporting
-				log(Level.ERROR, stepDescription, "Exception occurred while waiting for visibility of element", e);
+	public boolean waitForInvisibilityOfElement(String stepDescription, String locatorString, Duration duration) {
+		return step("waitForInvisibilityOfElement", stepDescription, locatorString, () -> {
+			if(StringUtils.isNotBlank(locatorString)) {
+				WaitResult<Boolean> waitResult = waitForFirstLocator(stepDescription, locatorString, this::invisibilityOfElement, duration);
+				if(!waitResult.isSatisfied()) {
+					//logging and reporting
+					logWaitFailure(stepDescription, waitResult, "invisibility of element", locatorString);
+				}
+				return waitResult.isSatisfied();
+			}else {
+				log(Level.ERROR, stepDescription, "Blank locator string: {}", locatorString);
 			}
-		}else {
-			log(Level.ERROR, stepDescription, "Null locator: {}", by);
-		}
-		return null;
+			return false;
+		});
 	}
 	
-	public WebElement waitForVisibilityOfElement(String stepDescription, WebElement webElement, Duration duration) {
-		if(webElement != null) {
-			try {
-				WebDriverWait wait = new WebDriverWait(webDriver, duration != null ? duration : defaultExplicitWaitDuration);
-				return wait.until(ExpectedConditions.visibilityOf(webElement));
-			}catch(Exception e) {
-				//logging and reporting
-				log(Level.ERROR, stepDescription, "Exception occurred while waiting for invisibility of element", e);
+	public boolean waitForInvisibilityOfElement(String stepDescription, By by, Duration duration) {
+		return step("waitForInvisibilityOfElement", stepDescription, by, () -> {
+			if(by != null) {
+				WaitResult<Boolean> waitResult = waitUntil(invisibilityOfElement(by), duration);
+				if(!waitResult.isSatisfied()) {
+					//logging and reporting
+					logWaitFailure(stepDescription, waitResult, "invisibility of element", by);
+				}
+				return waitResult.isSatisfied();
+			}else {
+				log(Level.ERROR, stepDescription, "Null locator: {}", by);
 			}
-		}else {
-			log(Level.ERROR, stepDescription, "Null web element: {}", webElement);
-		}
-		return null;
+			return false;
+		});
 	}
 	
-	public boolean waitForInvisibilityOfElement(String stepDescription, String locatorString, Duration duration) {
-		if(StringUtils.isNotBlank(locatorString)) {
-			Optional<By> locatorOptional = getLocators(locatorString).stream()
-					.filter(locator -> tryWaitForInvisibilityOfElement(stepDescription, locator, duration != null ? duration : defaultExplicitWaitDuration))
-					.findFirst();
-			if(locatorOptional.isEmpty()) {
-				//logging and reporting
-				log(Level.ERROR, stepDescription, "No invisible element found by locator string: {}", locatorString);
+	public boolean waitForInvisibilityOfElement(String stepDescription, WebElement webElement, Duration duration) {
+		return step("waitForInvisibilityOfElement", stepDescription, webElement, () -> {
+			if(webElement != null) {
+				WaitResult<Boolean> waitResult = waitUntil(ExpectedConditions.invisibilityOf(webElement), duration);
+				if(!waitResult.isSatisfied()) {
+					//logging and reporting
+					logWaitFailure(stepDescription, waitResult, "invisibility of element", webElement);
+				}
+				return waitResult.isSatisfied();
+			}else {
+				log(Level.ERROR, stepDescription, "Null web element: {}", webElement);
 			}
-			return locatorOptional.isPresent();
-		}else {
-			log(Level.ERROR, stepDescription, "Blank locator string: {}", locatorString);
-		}
-		return false;
+			return false;
+		});
 	}
 	
-	private boolean tryWaitForInvisibilityOfElement(String stepDescription, By by, Duration duration) {
-		if(by != null) {
-			try {
-				WebDriverWait wait = new WebDriverWait(webDriver, duration);
-				return wait.until(ExpectedConditions.invisibilityOfElementLocated(by));
-			}catch(Exception e) {
-				//logging and reporting
-				log(Level.ERROR, stepDescription, "Exception occurred while waiting for invisibility of element {}", e);
+	public boolean waitForAttributeToBe(String stepDescription, String locatorString, String attribute, String value, Duration duration) {
+		return step("waitForAttributeToBe", stepDescription, locatorString, () -> {
+			if(StringUtils.isNotBlank(locatorString) && StringUtils.isNotBlank(attribute) && StringUtils.isNotBlank(value)) {
+				WaitResult<Boolean> waitResult = waitForFirstLocator(stepDescription, locatorString, locator -> attributeOfElement(locator, attribute, value, false), duration);
+				if(!waitResult.isSatisfied()) {
+					//logging and reporting
+					logWaitFailure(stepDescription, waitResult, "attribute " + attribute + " to be " + value, locatorString);
+				}
+				return waitResult.isSatisfied();
+			}else {
+				log(Level.ERROR, stepDescription, "One or more of the required fields is blank. locatorString: {}, attribute: {}, value: {}", locatorString, attribute, value);
 			}
-		}else {
-			log(Level.ERROR, stepDescription, "Null locator: {}", by);
-		}
-		return false;
+			return false;
+		});
 	}
 	
-	public boolean waitForInvisibilityOfElement(String stepDescription, By by, Duration duration) {
-		if(by != null) {
-			try {
-				WebDriverWait wait = new WebDriverWait(webDriver, duration != null ? duration : defaultExplicitWaitDuration);
-				return wait.until(ExpectedConditions.invisibilityOfElementLocated(by));
-			}catch(Exception e) {
-				//logging and reporting
-				log(Level.ERROR, stepDescription, "Exception occurred while waiting for invisibility of element", e);
+	public boolean waitForAttributeToBe(String stepDescription, By by, String attribute, String value, Duration duration) {
+		return step("waitForAttributeToBe", stepDescription, by, () -> {
+			if(by != null && StringUtils.isNotBlank(attribute) && StringUtils.isNotBlank(value)) {
+				WaitResult<Boolean> waitResult = waitUntil(attributeOfElement(by, attribute, value, false), duration);
+				if(!waitResult.isSatisfied()) {
+					//logging and reporting
+					logWaitFailure(stepDescription, waitResult, "attribute " + attribute + " to be " + value, by);
+				}
+				return waitResult.isSatisfied();
+			}else {
+				log(Level.ERROR, stepDescription, "One or more of the required fields is null or blank. by: {}, attribute: {}, value: {}", by, attribute, value);
 			}
-		}else {
-			log(Level.ERROR, stepDescription, "Null locator: {}", by);
-		}
-		return false;
+			return false;
+		});
+	}
+
+	public boolean waitForAttributeToBe(String stepDescription, WebElement webElement, String attribute, String value, Duration duration) {
+		return step("waitForAttributeToBe", stepDescription, webElement, () -> {
+			if(webElement != null && StringUtils.isNotBlank(attribute) && StringUtils.isNotBlank(value)) {
+				WaitResult<Boolean> waitResult = waitUntil(ExpectedConditions.attributeToBe(webElement, attribute, value), duration);
+				if(!waitResult.isSatisfied()) {
+					//logging and reporting
+					logWaitFailure(stepDescription, waitResult, "attribute " + attribute + " to be " + value, webElement);
+				}
+				return waitResult.isSatisfied();
+			}else {
+				log(Level.ERROR, stepDescription, "One or more of the required fields is null or blank. webElement: {}, attribute: {}, value: {}", webElement, attribute, value);
+			}
+			return false;
+		});
 	}
 	
-	public boolean waitForInvisibilityOfElement(String stepDescription, WebElement webElement, Duration duration) {
-		if(webElement != null) {
-			try {
-				WebDriverWait wait = new WebDriverWait(webDriver, duration != null ? duration : defaultExplicitWaitDuration);
-				return wait.until(ExpectedConditions.invisibilityOf(webElement));
-			}catch(Exception e) {
-				//logging and reporting
-				log(Level.ERROR, stepDescription, "Exception occurred while waiting for visibility of element", e);
+	public boolean waitForAttributeToContain(String stepDescription, String locatorString, String attribute, String value, Duration duration) {
+		return step("waitForAttributeToContain", stepDescription, locatorString, () -> {
+			if(StringUtils.isNotBlank(locatorString) && StringUtils.isNotBlank(attribute) && StringUtils.isNotBlank(value)) {
+				WaitResult<Boolean> waitResult = waitForFirstLocator(stepDescription, locatorString, locator -> attributeOfElement(locator, attribute, value, true), duration);
+				if(!waitResult.isSatisfied()) {
+					//logging and reporting
+					logWaitFailure(stepDescription, waitResult, "attribute " + attribute + " to contain " + value, locatorString);
+				}
+				return waitResult.isSatisfied();
+			}else {
+				log(Level.ERROR, stepDescription, "One or more of the required fields is blank. locatorString: {}, attribute: {}, value: {}", locatorString, attribute, value);
 			}
-		}else {
-			log(Level.ERROR, stepDescription, "Null web element: {}", webElement);
-		}
-		return false;
+			return false;
+		});
 	}
 	
-	public boolean waitForAttributeToBe(String stepDescription, String locatorString, String attribute, String value, Duration duration) {
-		if(StringUtils.isNotBlank(locatorString) && StringUtils.isNotBlank(attribute) && StringUtils.isNotBlank(value)) {
-			try {
-				Optional<By> locatorOptional = getLocators(locatorString).stream()
-						.filter(locator -> tryToWaitForAttributeToBe(stepDescription, locator, attribute, value, duration != null ? duration : defaultExplicitWaitDuration))
-						.findFirst();
-				if(locatorOptional.isPresent()) {
+	public boolean waitForAttributeToContain(String stepDescription, By by, String attribute, String value, Duration duration) {
+		return step("waitForAttributeToContain", stepDescription, by, () -> {
+			if(by != null && StringUtils.isNotBlank(attribute) && StringUtils.isNotBlank(value)) {
+				WaitResult<Boolean> waitResult = waitUntil(attributeOfElement(by, attribute, value, true), duration);
+				if(!waitResult.isSatisfied()) {
 					//logging and reporting
-					log(Level.ERROR, stepDescription, "No element found with {} = {} by locator string: {}", attribute, value, locatorString);
+					logWaitFailure(stepDescription, waitResult, "attribute " + attribute + " to contain " + value, by);
 				}
-				locatorOptional.isPresent();
-			}catch (Exception e) {
-				//logging and reporting
-				log(Level.ERROR, stepDescription, String.format("Exception occurred while waiting for attribute {} to be {}", attribute, value), e);
+				return waitResult.isSatisfied();
+			}else {
+				log(Level.ERROR, stepDescription, "One or more of the required fields is null or blank. by: {}, attribute: {}, value: {}", by, attribute, value);
 			}
-		}else {
-			log(Level.ERROR, stepDescription, "One or more of the required fields is blank. locatorString: {}, attribute: {}, value: {}", locatorString, attribute, value);
+			return false;
+		});
+	}
+	
+	public boolean waitForAttributeToContain(String stepDescription, WebElement webElement, String attribute, String value, Duration duration) {
+		return step("waitForAttributeToContain", stepDescription, webElement, () -> {
+			if(webElement != null && StringUtils.isNotBlank(attribute) && StringUtils.isNotBlank(value)) {
+				WaitResult<Boolean> waitResult = waitUntil(ExpectedConditions.attributeContains(webElement, attribute, value), duration);
+				if(!waitResult.isSatisfied()) {
+					//logging and reporting
+					logWaitFailure(stepDescription, waitResult, "attribute " + attribute + " to contain " + value, webElement);
+				}
+				return waitResult.isSatisfied();
+			}else {
+				log(Level.ERROR, stepDescription, "One or more of the required fields is null or blank. webElement: {}, attribute: {}, value: {}", webElement, attribute, value);
+			}
+			return false;
+		});
+	}
+	
+	public <T> T waitForCustomCondition(String stepDescription, ExpectedCondition<T> expectedCondition, Duration duration) {
+		return step("waitForCustomCondition", stepDescription, expectedCondition, () -> {
+			if(expectedCondition != null) {
+				WaitResult<T> waitResult = waitUntil(expectedCondition, duration);
+				if(waitResult.isSatisfied()) {
+					return waitResult.value();
+				}else {
+					//logging and reporting
+					logWaitFailure(stepDescription, waitResult, "custom expected condition", expectedCondition);
+				}
+			}else {
+				log(Level.ERROR, stepDescription, "Null custom expected condition: {}", expectedCondition);
+			}
+			return null;
+		});
+	}
+	
+	
+	// wait engine
+	
+	/**
+	 * Wait for the condition on each locator of the locator string in turn until one is satisfied. Misses are only logged at debug level.
+	 * @return the satisfied result, otherwise the result of the last locator tried
+	 */
+	private <T> WaitResult<T> waitForFirstLocator(String stepDescription, String locatorString, Function<By, Function<WebDriver, T>> condition, Duration duration) {
+		WaitResult<T> waitResult = new WaitResult<>(Outcome.FAILED, null, 0, 0, null);
+		By previousLocator = null;
+		List<By> locators = getLocators(locatorString);
+		for(int i = 0; i < locators.size(); i++) {
+			By locator = locators.get(i);
+			if(previousLocator != null) {
+				stepFallbacks++;
+				LocatorFallbackEvent.emit(previousLocator, locator, i);
+			}
+			previousLocator = locator;
+			waitResult = waitUntil(condition.apply(locator), duration);
+			if(waitResult.isSatisfied()) {
+				break;
+			}
+			log(Level.DEBUG, stepDescription, "Locator {} not satisfied after {} polls: {}", locator, waitResult.polls(), waitResult.outcome());
 		}
-		return false;
+		return waitResult;
 	}
 	
-	private boolean tryToWaitForAttributeToBe(String stepDescription, By by, String attribute, String value, Duration duration) {
-		if(by != null && StringUtils.isNotBlank(attribute) && StringUtils.isNotBlank(value)) {
+	/**
+	 * Evaluate the condition until it returns something other than null or false, or the duration elapsed. Never throws:
+	 * {@link NotFoundException}s are ignored while polling like {@link WebDriverWait} does and any other exception ends the wait as failed.
+	 * @param condition the condition to evaluate
+	 * @param duration how long to wait, null for the default explicit wait duration
+	 * @return the outcome of the wait
+	 */
+	private <T> WaitResult<T> waitUntil(Function<? super WebDriver, T> condition, Duration duration) {
+		Duration timeout = duration != null ? duration : defaultExplicitWaitDuration != null ? defaultExplicitWaitDuration : Duration.ZERO;
+		long startNanos = System.nanoTime();
+		int polls = 0;
+		Exception ignoredException = null;
+		while(true) {
+			polls++;
+			stepAttempts++;
+			WaitPollEvent waitPollEvent = new WaitPollEvent();
+			waitPollEvent.begin();
 			try {
-				WebDriverWait wait = new WebDriverWait(webDriver, duration != null ? duration : defaultExplicitWaitDuration);
-				return wait.until(ExpectedConditions.attributeToBe(by, attribute, value));
+				T value = condition.apply(webDriver);
+				if(value != null && !Boolean.FALSE.equals(value)) {
+					waitPollEvent.finish(polls, true);
+					return waitFinished(new WaitResult<>(Outcome.SATISFIED, value, polls, System.nanoTime() - startNanos, null));
+				}
+			}catch (NotFoundException e) {
+				ignoredException = e;
 			}catch (Exception e) {
-				//logging and reporting
-				log(Level.ERROR, stepDescription, String.format("Exception occurred while waiting for attribute {} to be {}", attribute, value), e);
+				waitPollEvent.finish(polls, false);
+				return waitFinished(new WaitResult<>(Outcome.FAILED, null, polls, System.nanoTime() - startNanos, e));
+			}
+			waitPollEvent.finish(polls, false);
+			long remainingMillis = timeout.toMillis() - TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+			if(remainingMillis <= 0) {
+				return waitFinished(new WaitResult<>(Outcome.TIMED_OUT, null, polls, System.nanoTime() - startNanos, ignoredException));
+			}
+			try {
+				Thread.sleep(Math.min(WAIT_POLL_INTERVAL_MILLIS, remainingMillis));
+			}catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return waitFinished(new WaitResult<>(Outcome.FAILED, null, polls, System.nanoTime() - startNanos, e));
 			}
-		}else {
-			log(Level.ERROR, stepDescription, "One or more of the required fields is null or blank. by: {}, attribute: {}, value: {}", by, attribute, value);
 		}
-		return false;
 	}
 	
-	public boolean waitForAttributeToBe(String stepDescription, By by, String attribute, String value, Duration duration) {
-		if(by != null && StringUtils.isNotBlank(attribute) && StringUtils.isNotBlank(value)) {
-			try {
-				WebDriverWait wait = new WebDriverWait(webDriver, duration != null ? duration : defaultExplicitWaitDuration);
-				return wait.until(ExpectedConditions.attributeToBe(by, attribute, value));
-			}catch (Exception e) {
-				//logging and reporting
-				log(Level.ERROR, stepDescription, String.format("Exception occurred while waiting for attribute {} to be {}", attribute, value), e);
+	private <T> WaitResult<T> waitFinished(WaitResult<T> waitResult) {
+		if(runtimeMetrics != null) {
+			runtimeMetrics.waitFinished(waitResult.elapsedNanos(), waitResult.outcome() == Outcome.TIMED_OUT);
+		}
+		return waitResult;
+	}
+	
+	/**
+	 * Look the locators up in order until one gives a usable result. Every lookup counts as an attempt of the current step
+	 * and every locator after the first as a fallback.
+	 */
+	private <T> Optional<T> firstLocatorResult(List<By> locators, Function<By, T> lookup, Predicate<T> usable) {
+		for(int i = 0; i < locators.size(); i++) {
+			if(i > 0) {
+				stepFallbacks++;
+				LocatorFallbackEvent.emit(locators.get(i - 1), locators.get(i), i);
+			}
+			stepAttempts++;
+			T result = lookup.apply(locators.get(i));
+			if(usable.test(result)) {
+				return Optional.of(result);
 			}
+		}
+		return Optional.empty();
+	}
+	
+	private void logWaitFailure(String stepDescription, WaitResult<?> waitResult, String condition, Object target) {
+		if(waitResult.outcome() == Outcome.TIMED_OUT) {
+			log(Level.ERROR, stepDescription, "Timed out after {} polls waiting for {}: {}", waitResult.polls(), condition, target, waitResult.exception());
 		}else {
-			log(Level.ERROR, stepDescription, "One or more of the required fields is null or blank. by: {}, attribute: {}, value: {}", by, attribute, value);
+			log(Level.ERROR, stepDescription, "Exception occurred while waiting for {}: {}", condition, target, waitResult.exception());
 		}
-		return false;
 	}
-
-	public boolean waitForAttributeToBe(String stepDescription, WebElement webElement, String attribute, String value, Duration duration) {
-		if(webElement != null && StringUtils.isNotBlank(attribute) && StringUtils.isNotBlank(value)) {
+	
+	// conditions polling with findElements, which returns an empty list instead of throwing when nothing matches
+	
+	private Function<WebDriver, WebElement> presenceOfElement(By by) {
+		return driver -> {
+			List<WebElement> webElements = driver.findElements(by);
+			return webElements.isEmpty() ? null : webElements.get(0);
+		};
+	}
+	
+	private Function<WebDriver, WebElement> visibilityOfElement(By by) {
+		return driver -> {
+			List<WebElement> webElements = driver.findElements(by);
 			try {
-				WebDriverWait wait = new WebDriverWait(webDriver, duration != null ? duration : defaultExplicitWaitDuration);
-				return wait.until(ExpectedConditions.attributeToBe(webElement, attribute, value));
-			}catch (Exception e) {
-				//logging and reporting
-				log(Level.ERROR, stepDescription, String.format("Exception occurred while waiting for attribute {} to be {}", attribute, value), e);
+				return !webElements.isEmpty() && webElements.get(0).isDisplayed() ? webElements.get(0) : null;
+			}catch (StaleElementReferenceException e) {
+				return null;
 			}
-		}else {
-			log(Level.ERROR, stepDescription, "One or more of the required fields is null or blank. webElement: {}, attribute: {}, value: {}", webElement, attribute, value);
-		}
-		return false;
+		};
 	}
 	
-	public boolean waitForAttributeToContain(String stepDescription, String locatorString, String attribute, String value, Duration duration) {
-		if(StringUtils.isNotBlank(locatorString) && StringUtils.isNotBlank(attribute) && StringUtils.isNotBlank(value)) {
+	private Function<WebDriver, Boolean> invisibilityOfElement(By by) {
+		return driver -> {
+			List<WebElement> webElements = driver.findElements(by);
+			try {
+				return webElements.isEmpty() || !webElements.get(0).isDisplayed();
+			}catch (StaleElementReferenceException e) {
+				return true;
+			}
+		};
+	}
+	
+	private Function<WebDriver, Boolean> attributeOfElement(By by, String attribute, String value, boolean contains) {
+		return driver -> {
+			List<WebElement> webElements = driver.findElements(by);
+			if(webElements.isEmpty()) {
+				return false;
+			}
 			try {
-				Optional<By> locatorOptional = getLocators(locatorString).stream()
-						.filter(locator -> tryToWaitForAttributeToContain(stepDescription, locator, attribute, value, duration != null ? duration : defaultExplicitWaitDuration))
-						.findFirst();
-				if(locatorOptional.isPresent()) {
+				String currentValue = webElements.get(0).getAttribute(attribute);
+				if(StringUtils.isEmpty(currentValue)) {
+					currentValue = webElements.get(0).getCssValue(attribute);
+				}
+				return currentValue != null && (contains ? currentValue.contains(value) : currentValue.equals(value));
+			}catch (StaleElementReferenceException e) {
+				return false;
+			}
+		};
+	}
+
+	// find elements
+	
+	public WebElement findElement(String locatorString) {
+		return step("findElement", null, locatorString, () -> {
+			if(StringUtils.isNotBlank(locatorString)) {
+				List<By> locators = getLocators(locatorString);
+				Optional<WebElement> webElementOptional = firstLocatorResult(locators, locator -> findElement(locator), webElement -> webElement != null);
+				if(webElementOptional.isPresent()) {
+					return webElementOptional.get();
+				}else {
 					//logging and reporting
-					log(Level.ERROR, stepDescription, "No element found with {} = {} by locator string: {}", attribute, value, locatorString);
+					log(Level.ERROR, null, "No web element found with locator string: {}", locatorString);
 				}
-				locatorOptional.isPresent();
-			}catch (Exception e) {
-				//logging and reporting
-				log(Level.ERROR, stepDescription, String.format("Exception occurred while waiting for attribute {} to be {}", attribute, value), e);
+			}else {
+				log(Level.ERROR, null, "Blank locator string: {}", locatorString);
 			}
-		}else {
-			log(Level.ERROR, stepDescription, "One or more of the required fields is blank. locatorString: {}, attribute: {}, value: {}", locatorString, attribute, value);
-		}
-		return false;
+			return null;
+		});
 	}
 	
-	private boolean tryToWaitForAttributeToContain(String stepDescription, By by, String attribute, String value, Duration duration) {
-		if(by != null && StringUtils.isNotBlank(attribute) && StringUtils.isNotBlank(value)) {
-			try {
-				WebDriverWait wait = new WebDriverWait(webDriver, duration != null ? duration : defaultExplicitWaitDuration);
-				return wait.until(ExpectedConditions.attributeToBe(by, attribute, value));
-			}catch (Exception e) {
-				//logging and reporting
-				log(Level.ERROR, stepDescription, String.format("Exception occurred while waiting for attribute {} to be {}", attribute, value), e);
+	public WebElement findElement(By by) {
+		return step("findElement", null, by, () -> {
+			if(by != null) {
+				try {
+					return webDriver.findElement(by);
+				}catch(Exception e) {
+					//logging and reporting
+					log(Level.ERROR, null, "Exception occurred while finding web element", e);
+				}
+			}else {
+				log(Level.ERROR, null, "Null locator: {}", by);
 			}
-		}else {
-			log(Level.ERROR, stepDescription, "One or more of the required fields is null or blank. by: {}, attribute: {}, value: {}", by, attribute, value);
-		}
-		return false;
+			return null;
+		});
 	}
 	
-	public boolean waitForAttributeToContain(String stepDescription, By by, String attribute, String value, Duration duration) {
-		if(by != null && StringUtils.isNotBlank(attribute) && StringUtils.isNotBlank(value)) {
-			try {
-				WebDriverWait wait = new WebDriverWait(webDriver, duration != null ? duration : defaultExplicitWaitDuration);
-				return wait.until(ExpectedConditions.attributeToBe(by, attribute, value));
-			}catch (Exception e) {
-				//logging and reporting
-				log(Level.ERROR, stepDescription, String.format("Exception occurred while waiting for attribute {} to be {}", attribute, value), e);
+	/**
+	 * Find the first web element using the given 'locatorString' string in the current window or any of its nested frames.
+	 * Same origin frames are searched in the browser with a single script call, cross origin frames are entered one by one.
+	 * On success the driver is left switched to the frame containing the element, otherwise in the frame it was in before.
+	 * @param stepDescription short step description
+	 * @param locatorString the string to find the element with
+	 * @return the web element, null if not found in any frame
+	 */
+	public WebElement findElementAcrossFrames(String stepDescription, String locatorString) {
+		return step("findElementAcrossFrames", stepDescription, locatorString, () -> {
+			if(StringUtils.isNotBlank(locatorString)) {
+				Optional<WebElement> webElementOptional = firstLocatorResult(getLocators(locatorString), locator -> tryFindingElementAcrossFrames(stepDescription, locator), webElement -> webElement != null);
+				if(webElementOptional.isPresent()) {
+					return webElementOptional.get();
+				}else {
+					//logging and reporting
+					log(Level.ERROR, stepDescription, "No web element found in any frame with locator string: {}", locatorString);
+				}
+			}else {
+				log(Level.ERROR, stepDescription, "Blank locator string: {}", locatorString);
 			}
-		}else {
-			log(Level.ERROR, stepDescription, "One or more of the required fields is null or blank. by: {}, attribute: {}, value: {}", by, attribute, value);
-		}
-		return false;
+			return null;
+		});
 	}
 	
-	public boolean waitForAttributeToContain(String stepDescription, WebElement webElement, String attribute, String value, Duration duration) {
-		if(webElement != null && StringUtils.isNotBlank(attribute) && StringUtils.isNotBlank(value)) {
-			try {
-				WebDriverWait wait = new WebDriverWait(webDriver, duration != null ? duration : defaultExplicitWaitDuration);
-				return wait.until(ExpectedConditions.attributeContains(webElement, attribute, value));
-			}catch (Exception e) {
-				//logging and reporting
-				log(Level.ERROR, stepDescription, String.format("Exception occurred while waiting for attribute {} to contain {}", attribute, value), e);
+	/**
+	 * Find the first web element using the given 'by' locator in the current window or any of its nested frames.
+	 * Same origin frames are searched in the browser with a single script call, cross origin frames are entered one by one.
+	 * On success the driver is left switched to the frame containing the element, otherwise in the frame it was in before.
+	 * @param stepDescription short step description
+	 * @param by the locator to find the element with
+	 * @return the web element, null if not found in any frame
+	 */
+	public WebElement findElementAcrossFrames(String stepDescription, By by) {
+		return step("findElementAcrossFrames", stepDescription, by, () -> {
+			if(by != null) {
+				WebElement webElement = tryFindingElementAcrossFrames(stepDescription, by);
+				if(webElement == null) {
+					//logging and reporting
+					log(Level.ERROR, stepDescription, "No web element found in any frame with locator: {}", by);
+				}
+				return webElement;
+			}else {
+				log(Level.ERROR, stepDescription, "Null locator: {}", by);
 			}
-		}else {
-			log(Level.ERROR, stepDescription, "One or more of the required fields is null or blank. webElement: {}, attribute: {}, value: {}", webElement, attribute, value);
-		}
-		return false;
+			return null;
+		});
 	}
 	
-	public <T> T waitForCustomCondition(String stepDescription, ExpectedCondition<T> expectedCondition, Duration duration) {
-		if(expectedCondition != null) {
+	private WebElement tryFindingElementAcrossFrames(String stepDescription, By by) {
+		if(by instanceof By.Remotable remotable) {
+			// frames the search started in, to go back to on a miss, the top level browsing context if they are not known
+			List<Object> startFramePath = frameContextKnown ? new ArrayList<>(currentFramePath) : List.of();
 			try {
-				WebDriverWait wait = new WebDriverWait(webDriver, duration != null ? duration : defaultExplicitWaitDuration);
-				return wait.until(expectedCondition);
+				By.Remotable.Parameters parameters = remotable.getRemoteParameters();
+				List<Object> framePath = searchFramePath(stepDescription, parameters, List.of(), 0);
+				if(framePath != null && switchToFramePath(stepDescription, framePath)) {
+					WebElement webElement = webDriver.findElement(by);
+					log(Level.INFO, stepDescription, "Successfully found web element: {} in frame path: {}", webElement, framePath);
+					return webElement;
+				}
 			}catch(Exception e) {
 				//logging and reporting
-				log(Level.ERROR, stepDescription, "Exception occurred while waiting for custom expected condition", e);
+				log(Level.ERROR, stepDescription, "Exception occurred while finding web element across frames", e);
 			}
+			switchToFramePath(stepDescription, startFramePath);
 		}else {
-			log(Level.ERROR, stepDescription, "Null custom expected condition: {}", expectedCondition);
+			log(Level.ERROR, stepDescription, "Locator can not be searched across frames: {}", by);
 		}
 		return null;
 	}
-
-	// find elements
 	
-	public WebElement findElement(String locatorString) {
-		if(StringUtils.isNotBlank(locatorString)) {
-			List<By> locators = getLocators(locatorString);
-			Optional<WebElement> webElementOptional = locators.stream()
-					.map(locator -> findElement(locator))
-					.filter(webElement -> webElement != null)
-					.findFirst();
-			if(webElementOptional.isPresent()) {
-				return webElementOptional.get();
-			}else {
-				//logging and reporting
-				log(Level.ERROR, null, "No web element found with locator string: {}", locatorString);
+	/**
+	 * Search the frame tree below the given 'basePath' with {@link #FRAME_SEARCH_SCRIPT}, entering cross origin frames one by one.
+	 * @return frame path from the top level browsing context to the frame containing the element, null if not found
+	 */
+	private List<Object> searchFramePath(String stepDescription, By.Remotable.Parameters parameters, List<Object> basePath, int crossOriginDepth) {
+		if(!switchToFramePath(stepDescription, basePath)) {
+			return null;
+		}
+		JavascriptExecutor javascriptExecutor = (JavascriptExecutor) webDriver;
+		Object result = javascriptExecutor.executeScript(FRAME_SEARCH_SCRIPT, parameters.using(), parameters.value());
+		if(result instanceof Map<?, ?> searchResult) {
+			if(searchResult.get("path") instanceof List<?> path) {
+				return concatFramePath(basePath, path);
+			}
+			if(crossOriginDepth < MAX_CROSS_ORIGIN_FRAME_DEPTH && searchResult.get("crossOrigin") instanceof List<?> crossOriginPaths) {
+				for(Object crossOriginPath : crossOriginPaths) {
+					log(Level.DEBUG, stepDescription, "Searching cross origin frame: {}", crossOriginPath);
+					List<Object> framePath = searchFramePath(stepDescription, parameters, concatFramePath(basePath, (List<?>) crossOriginPath), crossOriginDepth + 1);
+					if(framePath != null) {
+						return framePath;
+					}
+				}
 			}
-		}else {
-			log(Level.ERROR, null, "Blank locator string: {}", locatorString);
 		}
 		return null;
 	}
 	
-	public WebElement findElement(By by) {
-		if(by != null) {
-			try {
-				return webDriver.findElement(by);
-			}catch(Exception e) {
-				//logging and reporting
-				log(Level.ERROR, null, "Exception occurred while finding web element", e);
-			}
-		}else {
-			log(Level.ERROR, null, "Null locator: {}", by);
-		}
-		return null;
+	private List<Object> concatFramePath(List<Object> basePath, List<?> relativePath) {
+		List<Object> framePath = new ArrayList<>(basePath);
+		relativePath.forEach(index -> framePath.add(((Number) index).intValue()));
+		return framePath;
 	}
 	
 	public List<WebElement> findElements(String locatorString) {
-		if(StringUtils.isNotBlank(locatorString)) {
-			List<By> locators = getLocators(locatorString);
-			Optional<List<WebElement>> webElementListOptional = locators.stream()
-					.map(locator -> tryFindingWebElements(locator))
-					.filter(webElements -> !webElements.isEmpty())
-					.findFirst();
-			if(webElementListOptional.isPresent()) {
-				return webElementListOptional.get();
+		return step("findElements", null, locatorString, () -> {
+			if(StringUtils.isNotBlank(locatorString)) {
+				List<By> locators = getLocators(locatorString);
+				Optional<List<WebElement>> webElementListOptional = firstLocatorResult(locators, locator -> tryFindingWebElements(locator), webElements -> !webElements.isEmpty());
+				if(webElementListOptional.isPresent()) {
+					return webElementListOptional.get();
+				}else {
+					//logging and reporting
+					log(Level.ERROR, null, "No web elements found with locator string: {}", locatorString);
+				}
 			}else {
-				//logging and reporting
-				log(Level.ERROR, null, "No web elements found with locator string: {}", locatorString);
+				log(Level.ERROR, null, "Blank locator string: {}", locatorString);
 			}
-		}else {
-			log(Level.ERROR, null, "Blank locator string: {}", locatorString);
-		}
-		return List.of();
+			return List.of();
+		});
 	}
 	
 	private List<WebElement> tryFindingWebElements(By by) {
@@ -1319,69 +1983,71 @@ public class DriverControllerV3 {
 	}
 	
 	public List<WebElement> findElements(By by) {
-		if(by != null) {
-			try {
-				return webDriver.findElements(by);
-			}catch(Exception e) {
-				//logging and reporting
-				log(Level.ERROR, null, "Exception occurred while finding web elements with locator", e);
+		return step("findElements", null, by, () -> {
+			if(by != null) {
+				try {
+					return webDriver.findElements(by);
+				}catch(Exception e) {
+					//logging and reporting
+					log(Level.ERROR, null, "Exception occurred while finding web elements with locator", e);
+				}
+			}else {
+				log(Level.ERROR, null, "Null locator {}", by);
 			}
-		}else {
-			log(Level.ERROR, null, "Null locator {}", by);
-		}
-		return List.of();
+			return List.of();
+		});
 	}
 	
 	public WebElement findChildWebElement(WebElement parentWebElement, String locatorString) {
-		if(parentWebElement != null && StringUtils.isNotBlank(locatorString)) {
-			List<By> locators = getLocators(locatorString);
-			Optional<WebElement> webElementOptional = locators.stream()
-					.map(locator -> findChildWebElement(parentWebElement, locator))
-					.filter(webElement -> webElement != null)
-					.findFirst();
-			if(webElementOptional.isPresent()) {
-				return webElementOptional.get();
+		return step("findChildWebElement", null, locatorString, () -> {
+			if(parentWebElement != null && StringUtils.isNotBlank(locatorString)) {
+				List<By> locators = getLocators(locatorString);
+				Optional<WebElement> webElementOptional = firstLocatorResult(locators, locator -> findChildWebElement(parentWebElement, locator), webElement -> webElement != null);
+				if(webElementOptional.isPresent()) {
+					return webElementOptional.get();
+				}else {
+					//logging and reporting
+					log(Level.ERROR, null, "No child web element found with locator string: {}", locatorString);
+				}
 			}else {
-				//logging and reporting
-				log(Level.ERROR, null, "No child web element found with locator string: {}", locatorString);
+				log(Level.ERROR, null, "One or more of the required fields is null or blank. parentWebElement: {}, locatorString: {}", parentWebElement, locatorString);
 			}
-		}else {
-			log(Level.ERROR, null, "One or more of the required fields is null or blank. parentWebElement: {}, locatorString: {}", parentWebElement, locatorString);
-		}
-		return null;
+			return null;
+		});
 	}
 	
 	public WebElement findChildWebElement(WebElement parentWebElement, By by) {
-		if(parentWebElement != null && by != null) {
-			try {
-				return parentWebElement.findElement(by);
-			}catch(Exception e) {
-				//logging and reporting
-				log(Level.ERROR, null, "Exception occurred while finding child web elements", e);
+		return step("findChildWebElement", null, by, () -> {
+			if(parentWebElement != null && by != null) {
+				try {
+					return parentWebElement.findElement(by);
+				}catch(Exception e) {
+					//logging and reporting
+					log(Level.ERROR, null, "Exception occurred while finding child web elements", e);
+				}
+			}else {
+				log(Level.ERROR, null, "One or more of the required fields is null. parentWebElement: {}, by: {}", parentWebElement, by);
 			}
-		}else {
-			log(Level.ERROR, null, "One or more of the required fields is null. parentWebElement: {}, by: {}", parentWebElement, by);
-		}
-		return null;
+			return null;
+		});
 	}
 	
 	public List<WebElement> findChildWebElements(WebElement parentWebElement, String locatorString) {
-		if(parentWebElement != null && StringUtils.isNotBlank(locatorString)) {
-			List<By> locators = getLocators(locatorString);
-			Optional<List<WebElement>> webElementListOptional = locators.stream()
-					.map(locator -> tryFindingChildWebElements(parentWebElement, locator))
-					.filter(webElements -> !webElements.isEmpty())
-					.findFirst();
-			if(webElementListOptional.isPresent()) {
-				return webElementListOptional.get();
+		return step("findChildWebElements", null, locatorString, () -> {
+			if(parentWebElement != null && StringUtils.isNotBlank(locatorString)) {
+				List<By> locators = getLocators(locatorString);
+				Optional<List<WebElement>> webElementListOptional = firstLocatorResult(locators, locator -> tryFindingChildWebElements(parentWebElement, locator), webElements -> !webElements.isEmpty());
+				if(webElementListOptional.isPresent()) {
+					return webElementListOptional.get();
+				}else {
+					//logging and reporting
+					log(Level.ERROR, null, "No child web elements found with locator string: {}", locatorString);
+				}
 			}else {
-				//logging and reporting
-				log(Level.ERROR, null, "No child web elements found with locator string: {}", locatorString);
+				log(Level.ERROR, null, "One or more of the required fields is null or blank. parentWebElement: {}, locatorString: {}", parentWebElement, locatorString);
 			}
-		}else {
-			log(Level.ERROR, null, "One or more of the required fields is null or blank. parentWebElement: {}, locatorString: {}", parentWebElement, locatorString);
-		}
-		return List.of();
+			return List.of();
+		});
 	}
 	
 	private List<WebElement> tryFindingChildWebElements(WebElement parentWebElement, By by) {
@@ -1399,30 +2065,312 @@ public class DriverControllerV3 {
 	}
 	
 	public List<WebElement> findChildWebElements(WebElement parentWebElement, By by) {
-		if(parentWebElement != null && by != null) {
-			try {
-				return parentWebElement.findElements(by);
-			}catch(Exception e) {
-				//logging and reporting
-				log(Level.ERROR, null, "Exception occurred while finding child web elements", e);
+		return step("findChildWebElements", null, by, () -> {
+			if(parentWebElement != null && by != null) {
+				try {
+					return parentWebElement.findElements(by);
+				}catch(Exception e) {
+					//logging and reporting
+					log(Level.ERROR, null, "Exception occurred while finding child web elements", e);
+				}
+			}else {
+				log(Level.ERROR, null, "One or more of the required fields is null. parentWebElement: {}, by: {}", parentWebElement, by);
 			}
-		}else {
-			log(Level.ERROR, null, "One or more of the required fields is null. parentWebElement: {}, by: {}", parentWebElement, by);
+			return List.of();
+		});
+	}
+	
+	
+	// tables
+	
+	/**
+	 * Lazily stream the rows of the table found using the given 'locatorString' string that is present on the DOM, reading 'tableChunkSize' rows per script call.
+	 * @param stepDescription short step description
+	 * @param locatorString the string to find the table with
+	 * @return lazy stream of rows, empty if the table is not found. A chunk that cannot be read while streaming throws a {@link WebDriverException}
+	 */
+	public Stream<TableExtractor.Row> streamTableRows(String stepDescription, String locatorString) {
+		return step("streamTableRows", stepDescription, locatorString, () -> {
+			if(StringUtils.isNotBlank(locatorString)) {
+				WebElement webElement = waitForPresenceOfElement(stepDescription, locatorString, defaultExplicitWaitDuration);
+				return performStreamTableRowsOperation(stepDescription, webElement);
+			}else {
+				log(Level.ERROR, stepDescription, "Blank locator string: {}", locatorString);
+			}
+			return Stream.empty();
+		});
+	}
+	
+	/**
+	 * Lazily stream the rows of the table found using the given 'by' locator that is present on the DOM, reading 'tableChunkSize' rows per script call.
+	 * @param stepDescription short step description
+	 * @param by the locator to find the table with
+	 * @return lazy stream of rows, empty if the table is not found. A chunk that cannot be read while streaming throws a {@link WebDriverException}
+	 */
+	public Stream<TableExtractor.Row> streamTableRows(String stepDescription, By by) {
+		return step("streamTableRows", stepDescription, by, () -> {
+			if(by != null) {
+				WebElement webElement = waitForPresenceOfElement(stepDescription, by, defaultExplicitWaitDuration);
+				return performStreamTableRowsOperation(stepDescription, webElement);
+			}else {
+				log(Level.ERROR, stepDescription, "Null locator: {}", by);
+			}
+			return Stream.empty();
+		});
+	}
+	
+	private Stream<TableExtractor.Row> performStreamTableRowsOperation(String stepDescription, WebElement webElement) {
+		if(webElement != null) {
+			TableExtractor tableExtractor = new TableExtractor(webDriver);
+			tableExtractor.setChunkSize(tableChunkSize);
+			log(Level.INFO, stepDescription, "Successfully opened row stream on table: {}", webElement);
+			return tableExtractor.streamTable(webElement);
 		}
-		return List.of();
+		return Stream.empty();
+	}
+	
+	/**
+	 * Lazily stream the rows of the virtualized grid whose scroll container is found using the given 'locatorString' string, scrolling it inside the browser chunk by chunk.
+	 * @param stepDescription short step description
+	 * @param locatorString the string to find the scroll container with
+	 * @param rowSelector css selector of the rendered rows relative to the container
+	 * @param cellSelector css selector of the cells relative to a row, null to use the row children
+	 * @param keyAttribute attribute holding the row index, e.g. aria-rowindex
+	 * @return lazy stream of rows, empty if the grid is not found. A chunk that cannot be read while streaming throws a {@link WebDriverException}
+	 */
+	public Stream<TableExtractor.Row> streamGridRows(String stepDescription, String locatorString, String rowSelector, String cellSelector, String keyAttribute) {
+		return step("streamGridRows", stepDescription, locatorString, () -> {
+			if(StringUtils.isNotBlank(locatorString) && StringUtils.isNotBlank(rowSelector) && StringUtils.isNotBlank(keyAttribute)) {
+				WebElement webElement = waitForPresenceOfElement(stepDescription, locatorString, defaultExplicitWaitDuration);
+				if(webElement != null) {
+					TableExtractor tableExtractor = new TableExtractor(webDriver);
+					tableExtractor.setChunkSize(tableChunkSize);
+					log(Level.INFO, stepDescription, "Successfully opened row stream on grid: {}", webElement);
+					return tableExtractor.streamGrid(webElement, rowSelector, cellSelector, keyAttribute);
+				}
+			}else {
+				log(Level.ERROR, stepDescription, "One or more of the required fields is blank. locatorString: {}, rowSelector: {}, keyAttribute: {}", locatorString, rowSelector, keyAttribute);
+			}
+			return Stream.empty();
+		});
 	}
 	
 	
 	// screenshot
 	
 	public File getScreenshot() {
-		return ((TakesScreenshot) webDriver).getScreenshotAs(OutputType.FILE);
+		return step("getScreenshot", null, null, () -> {
+			return ((TakesScreenshot) webDriver).getScreenshotAs(OutputType.FILE);
+		});
+	}
+	
+	/**
+	 * Capture the current viewport as PNG bytes, without going through a temporary file.
+	 * @param stepDescription short step description
+	 * @return PNG bytes, null if the capture failed
+	 */
+	public byte[] getScreenshotAsBytes(String stepDescription) {
+		return step("getScreenshotAsBytes", stepDescription, null, () -> {
+			ScreenshotEvent screenshotEvent = new ScreenshotEvent();
+			screenshotEvent.begin();
+			try {
+				byte[] screenshot = ((TakesScreenshot) webDriver).getScreenshotAs(OutputType.BYTES);
+				screenshotEvent.finish("viewport", screenshot.length);
+				log(Level.DEBUG, stepDescription, "Successfully captured screenshot of {} bytes", screenshot.length);
+				return screenshot;
+			}catch (Exception e) {
+				screenshotEvent.finish("viewport", 0);
+				log(Level.ERROR, stepDescription, "Exception occurred while capturing screenshot", e);
+			}
+			return null;
+		});
+	}
+	
+	/**
+	 * Capture only the web element found using the given 'locatorString' string that is present on the DOM.
+	 * @param stepDescription short step description
+	 * @param locatorString the string to find the element with
+	 * @param downscaleToCssPixels true to capture at one image pixel per CSS pixel instead of the device pixel ratio
+	 * @return PNG bytes, null if the element is not found or the capture failed
+	 */
+	public byte[] getElementScreenshot(String stepDescription, String locatorString, boolean downscaleToCssPixels) {
+		return step("getElementScreenshot", stepDescription, locatorString, () -> {
+			if(StringUtils.isNotBlank(locatorString)) {
+				WebElement webElement = waitForPresenceOfElement(stepDescription, locatorString, defaultExplicitWaitDuration);
+				return performGetElementScreenshotOperation(stepDescription, webElement, downscaleToCssPixels);
+			}else {
+				log(Level.ERROR, stepDescription, "Blank locator string: {}", locatorString);
+			}
+			return null;
+		});
+	}
+	
+	/**
+	 * Capture only the web element found using the given 'by' locator that is present on the DOM.
+	 * @param stepDescription short step description
+	 * @param by the locator to find the element with
+	 * @param downscaleToCssPixels true to capture at one image pixel per CSS pixel instead of the device pixel ratio
+	 * @return PNG bytes, null if the element is not found or the capture failed
+	 */
+	public byte[] getElementScreenshot(String stepDescription, By by, boolean downscaleToCssPixels) {
+		return step("getElementScreenshot", stepDescription, by, () -> {
+			if(by != null) {
+				WebElement webElement = waitForPresenceOfElement(stepDescription, by, defaultExplicitWaitDuration);
+				return performGetElementScreenshotOperation(stepDescription, webElement, downscaleToCssPixels);
+			}else {
+				log(Level.ERROR, stepDescription, "Null locator: {}", by);
+			}
+			return null;
+		});
+	}
+	
+	/**
+	 * Capture only the given web element.
+	 * @param stepDescription short step description
+	 * @param webElement the web element to capture
+	 * @param downscaleToCssPixels true to capture at one image pixel per CSS pixel instead of the device pixel ratio
+	 * @return PNG bytes, null if the capture failed
+	 */
+	public byte[] getElementScreenshot(String stepDescription, WebElement webElement, boolean downscaleToCssPixels) {
+		return step("getElementScreenshot", stepDescription, webElement, () -> {
+			if(webElement != null) {
+				return performGetElementScreenshotOperation(stepDescription, webElement, downscaleToCssPixels);
+			}else {
+				log(Level.ERROR, stepDescription, "Null web element: {}", webElement);
+			}
+			return null;
+		});
+	}
+	
+	/**
+	 * Capture the web element. Chromium browsers crop and scale in the browser through the DevTools protocol,
+	 * other browsers use the element screenshot command and are downscaled on the JVM side.
+	 */
+	private byte[] performGetElementScreenshotOperation(String stepDescription, WebElement webElement, boolean downscaleToCssPixels) {
+		if(webElement != null) {
+			ScreenshotEvent screenshotEvent = new ScreenshotEvent();
+			screenshotEvent.begin();
+			try {
+				byte[] screenshot;
+				if(webDriver instanceof HasCdp) {
+					List<?> pageRect = (List<?>) ((JavascriptExecutor) webDriver).executeScript(ELEMENT_PAGE_RECT_SCRIPT, webElement);
+					double devicePixelRatio = ((Number) pageRect.get(4)).doubleValue();
+					screenshot = captureClipUsingCdp(((Number) pageRect.get(0)).doubleValue(), ((Number) pageRect.get(1)).doubleValue(),
+							((Number) pageRect.get(2)).doubleValue(), ((Number) pageRect.get(3)).doubleValue(), downscaleToCssPixels ? 1 / devicePixelRatio : 1);
+				}else {
+					screenshot = webElement.getScreenshotAs(OutputType.BYTES);
+					if(downscaleToCssPixels) {
+						List<?> viewportMetrics = (List<?>) ((JavascriptExecutor) webDriver).executeScript(VIEWPORT_METRICS_SCRIPT);
+						screenshot = cropAndScale(screenshot, null, 1 / ((Number) viewportMetrics.get(0)).doubleValue());
+					}
+				}
+				screenshotEvent.finish("element", screenshot.length);
+				log(Level.INFO, stepDescription, "Successfully captured screenshot of {} bytes of web element: {}", screenshot.length, webElement);
+				return screenshot;
+			}catch (Exception e) {
+				screenshotEvent.finish("element", 0);
+				log(Level.ERROR, stepDescription, "Exception occurred while capturing screenshot of web element", e);
+			}
+		}
+		return null;
+	}
+	
+	/**
+	 * Capture only the given region of the page.
+	 * Chromium browsers crop and scale in the browser through the DevTools protocol, other browsers capture the viewport and crop it on the JVM side.
+	 * @param stepDescription short step description
+	 * @param region region to capture in CSS pixels relative to the top left corner of the page
+	 * @param downscaleToCssPixels true to capture at one image pixel per CSS pixel instead of the device pixel ratio
+	 * @return PNG bytes, null if the capture failed
+	 */
+	public byte[] getRegionScreenshot(String stepDescription, Rectangle region, boolean downscaleToCssPixels) {
+		return step("getRegionScreenshot", stepDescription, region, () -> {
+			if(region != null && region.getWidth() > 0 && region.getHeight() > 0) {
+				ScreenshotEvent screenshotEvent = new ScreenshotEvent();
+				screenshotEvent.begin();
+				try {
+					List<?> viewportMetrics = (List<?>) ((JavascriptExecutor) webDriver).executeScript(VIEWPORT_METRICS_SCRIPT);
+					double devicePixelRatio = ((Number) viewportMetrics.get(0)).doubleValue();
+					byte[] screenshot;
+					if(webDriver instanceof HasCdp) {
+						screenshot = captureClipUsingCdp(region.getX(), region.getY(), region.getWidth(), region.getHeight(), downscaleToCssPixels ? 1 / devicePixelRatio : 1);
+					}else {
+						double scrollX = ((Number) viewportMetrics.get(1)).doubleValue();
+						double scrollY = ((Number) viewportMetrics.get(2)).doubleValue();
+						Rectangle viewportRegion = new Rectangle((int) Math.round((region.getX() - scrollX) * devicePixelRatio), (int) Math.round((region.getY() - scrollY) * devicePixelRatio),
+								(int) Math.round(region.getHeight() * devicePixelRatio), (int) Math.round(region.getWidth() * devicePixelRatio));
+						screenshot = cropAndScale(((TakesScreenshot) webDriver).getScreenshotAs(OutputType.BYTES), viewportRegion, downscaleToCssPixels ? 1 / devicePixelRatio : 1);
+					}
+					screenshotEvent.finish("region", screenshot.length);
+					log(Level.INFO, stepDescription, "Successfully captured screenshot of {} bytes of region: {}", screenshot.length, region);
+					return screenshot;
+				}catch (Exception e) {
+					screenshotEvent.finish("region", 0);
+					log(Level.ERROR, stepDescription, "Exception occurred while capturing screenshot of region", e);
+				}
+			}else {
+				log(Level.ERROR, stepDescription, "Null or empty region: {}", region);
+			}
+			return null;
+		});
+	}
+	
+	private byte[] captureClipUsingCdp(double x, double y, double width, double height, double scale) {
+		Map<String, Object> clip = Map.of("x", x, "y", y, "width", width, "height", height, "scale", scale);
+		Map<String, Object> result = ((HasCdp) webDriver).executeCdpCommand("Page.captureScreenshot",
+				Map.of("format", "png", "clip", clip, "captureBeyondViewport", true));
+		return Base64.getDecoder().decode((String) result.get("data"));
+	}
+	
+	/**
+	 * Crop the given PNG to 'region' in image pixels, null to keep all of it, and resize it by 'scale'.
+	 */
+	private byte[] cropAndScale(byte[] pngBytes, Rectangle region, double scale) throws IOException {
+		BufferedImage image = ImageIO.read(new ByteArrayInputStream(pngBytes));
+		if(region != null) {
+			int x = Math.max(0, Math.min(region.getX(), image.getWidth() - 1));
+			int y = Math.max(0, Math.min(region.getY(), image.getHeight() - 1));
+			image = image.getSubimage(x, y, Math.max(1, Math.min(region.getWidth(), image.getWidth() - x)), Math.max(1, Math.min(region.getHeight(), image.getHeight() - y)));
+		}
+		if(scale < 1) {
+			image = ScreenshotPipeline.resize(image, scale);
+		}
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		ImageIO.write(image, "png", outputStream);
+		return outputStream.toByteArray();
+	}
+	
+	/**
+	 * Capture the current viewport and hand it to the 'screenshotPipeline' for encoding and writing in the background.
+	 * Only the capture itself runs on the calling thread.
+	 * @param stepDescription short step description
+	 * @param name base name of the screenshot file
+	 * @return future completed with the written file, completed exceptionally if the capture failed or no pipeline is set
+	 */
+	public CompletableFuture<Path> takeScreenshot(String stepDescription, String name) {
+		return step("takeScreenshot", stepDescription, null, () -> {
+			if(screenshotPipeline != null) {
+				byte[] screenshot = getScreenshotAsBytes(stepDescription);
+				if(screenshot != null) {
+					return screenshotPipeline.submit(name, screenshot);
+				}
+				return CompletableFuture.failedFuture(new IllegalStateException("Screenshot capture failed"));
+			}else {
+				log(Level.ERROR, stepDescription, "Null screenshot pipeline: {}", screenshotPipeline);
+			}
+			return CompletableFuture.failedFuture(new IllegalStateException("No screenshot pipeline set"));
+		});
 	}
 	
 	
 	// locator string
 	
-	private List<By> getLocators(String locatorString) {
+	/**
+	 * Parse a locator string, e.g. 'css~#submit;xpath~//button', into its locators in order. Package private for the benchmarks.
+	 * @param locatorString the locator string
+	 * @return the valid locators, empty if there are none
+	 */
+	List<By> getLocators(String locatorString) {
 		if(StringUtils.isNotBlank(locatorString)) {
 			List<String> locatorPairStrings = Arrays.asList(locatorString.split(";"));
 			List<List<String>> locatorPairs = locatorPairStrings.stream()
@@ -1444,7 +2392,7 @@ public class DriverControllerV3 {
 		}
 	}
 	
-	private By getLocator(String locatorKey, String locatorValue) {
+	By getLocator(String locatorKey, String locatorValue) {
 		if(StringUtils.isNotBlank(locatorKey) && StringUtils.isNotBlank(locatorValue)) {
 			By byLocator = null;
 			switch (locatorKey) {
@@ -1498,8 +2446,186 @@ public class DriverControllerV3 {
 		return List.of();
 	}
 	
+	// steps
+	
+	/**
+	 * Capture the report and step listener context of the calling thread, e.g. its running test.
+	 * @return the context to run operations with on another thread
+	 */
+	ThreadContext captureThreadContext() {
+		Map<StepListener, Object> listenerContexts = new IdentityHashMap<>();
+		for(StepListener stepListener : stepListeners) {
+			listenerContexts.put(stepListener, stepListener.captureContext());
+		}
+		return new ThreadContext(reportUtil != null ? reportUtil.captureReportContext() : null, listenerContexts);
+	}
+	
+	/**
+	 * Run operations on the current thread as if on the thread the context was captured on, so they are reported and traced as part of its test.
+	 * @param threadContext context captured by {@link #captureThreadContext()}
+	 * @param operations the operations to run
+	 * @return the result of the operations
+	 */
+	<T> T callInThreadContext(ThreadContext threadContext, Supplier<T> operations) {
+		Object outerReportContext = reportContext;
+		Map<StepListener, Object> outerListenerContexts = new IdentityHashMap<>();
+		reportContext = threadContext.reportContext();
+		threadContext.listenerContexts().forEach((stepListener, context) -> outerListenerContexts.put(stepListener, stepListener.restoreContext(context)));
+		try {
+			return operations.get();
+		}finally {
+			outerListenerContexts.forEach(StepListener::restoreContext);
+			reportContext = outerReportContext;
+		}
+	}
+	
+	/**
+	 * Run the given operation, notify the step listeners of its outcome and duration and record it as flight recorder event.
+	 * The operation failed if it returns null or false or throws, an empty collection is a successful absence check.
+	 */
+	private <T> T step(String operation, String stepDescription, Object locator, Supplier<T> action) {
+		OperationEvent operationEvent = new OperationEvent();
+		operationEvent.begin();
+		long startNanos = System.nanoTime();
+		int depth = stepDepth++;
+		if(depth == 0 && runtimeMetrics != null && !sessionActive && !sessionQuit) {
+			runtimeMetrics.sessionStarted();
+			sessionActive = true;
+		}
+		int outerAttempts = stepAttempts;
+		int outerFallbacks = stepFallbacks;
+		stepAttempts = 0;
+		stepFallbacks = 0;
+		for(StepListener stepListener : stepListeners) {
+			try {
+				stepListener.stepStarted(operation, stepDescription, depth);
+			}catch (Exception e) {
+				log(Level.ERROR, stepDescription, "Exception occurred in step listener", e);
+			}
+		}
+		T result = null;
+		try {
+			result = action.get();
+			return result;
+		}finally {
+			stepDepth--;
+			int attempts = stepAttempts;
+			int fallbacks = stepFallbacks;
+			// an operation's attempts and fallbacks include those of the operations it called
+			stepAttempts = outerAttempts + attempts;
+			stepFallbacks = outerFallbacks + fallbacks;
+			boolean successful = isSuccessful(result);
+			operationEvent.finish(operation, stepDescription, locator, successful, depth, attempts, fallbacks);
+			if(depth == 0) {
+				if(runtimeMetrics != null) {
+					runtimeMetrics.stepFinished(successful);
+					if(stepReportStatus != null) {
+						runtimeMetrics.resultLogged(stepReportStatus);
+					}
+				}
+				stepReportStatus = null;
+			}
+			if(!stepListeners.isEmpty()) {
+				StepEvent stepEvent = new StepEvent(System.currentTimeMillis(), Thread.currentThread().getName(), operation, stepDescription,
+						locator != null ? locator.toString() : null, successful, System.nanoTime() - startNanos, depth, attempts, fallbacks);
+				for(StepListener stepListener : stepListeners) {
+					try {
+						stepListener.stepFinished(stepEvent);
+					}catch (Exception e) {
+						log(Level.ERROR, stepDescription, "Exception occurred in step listener", e);
+					}
+				}
+			}
+		}
+	}
+	
+	private boolean isSuccessful(Object result) {
+		if(result instanceof Boolean booleanResult) {
+			return booleanResult;
+		}
+		return result != null;
+	}
+	
+	/**
+	 * Log and report a step result. Nothing is formatted unless the logger or the report util takes the level, and the
+	 * fixed arity overloads do not even allocate the argument array for such results, only primitive arguments are boxed.
+	 * Only the results of top level operations, and those logged outside any operation, are reported.
+	 * A trailing exception argument is logged and reported as the step exception.
+	 */
+	private void log(Level level, String stepDescription, String message) {
+		if(resultLogged(level)) {
+			logResult(level, stepDescription, message, NO_ARGUMENTS);
+		}
+	}
+	
+	private void log(Level level, String stepDescription, String message, Object argument) {
+		if(resultLogged(level)) {
+			logResult(level, stepDescription, message, new Object[] {argument});
+		}
+	}
+	
+	private void log(Level level, String stepDescription, String message, Object argument1, Object argument2) {
+		if(resultLogged(level)) {
+			logResult(level, stepDescription, message, new Object[] {argument1, argument2});
+		}
+	}
+	
 	private void log(Level level, String stepDescription, String message, Object... arguments) {
-		message = StringUtils.isNotBlank(stepDescription) ? String.format("%s: %s", stepDescription, message) : message;
-		logger.atLevel(level).log(message, arguments);
+		if(resultLogged(level)) {
+			logResult(level, stepDescription, message, arguments);
+		}
+	}
+	
+	/**
+	 * Count the result in the runtime metrics.
+	 * @return true if the logger or the report util takes the result
+	 */
+	private boolean resultLogged(Level level) {
+		if(runtimeMetrics != null) {
+			ReportStatus resultStatus = getReportStatus(level);
+			// nested operations log into the result of their top level operation
+			if(stepDepth == 0) {
+				runtimeMetrics.resultLogged(resultStatus);
+			}else if(stepReportStatus == null || resultStatus.isAtLeast(stepReportStatus)) {
+				stepReportStatus = resultStatus;
+			}
+		}
+		return logger.isEnabledForLevel(level) || isReported(level);
+	}
+	
+	// the operations a top level operation is made of are only logged, one UI action is one report entry
+	private boolean isReported(Level level) {
+		return reportUtil != null && stepDepth <= 1 && getReportStatus(level).isAtLeast(minimumReportStatus);
+	}
+	
+	private void logResult(Level level, String stepDescription, String message, Object[] arguments) {
+		if(logger.isEnabledForLevel(level)) {
+			logger.atLevel(level).log(StringUtils.isNotBlank(stepDescription) ? stepDescription + ": " + message : message, arguments);
+		}
+		if(isReported(level)) {
+			FormattingTuple formattingTuple = MessageFormatter.arrayFormat(message, arguments);
+			Exception exception = formattingTuple.getThrowable() instanceof Exception e ? e : null;
+			try {
+				reportUtil.report(new ReportEvent(getReportStatus(level), stepDescription, formattingTuple.getMessage(), null, exception,
+						reportContext != null ? reportContext : reportUtil.captureReportContext(), System.currentTimeMillis()));
+			}catch (Exception e) {
+				logger.error("Exception occurred while reporting step: {}", stepDescription, e);
+			}
+		}
+	}
+	
+	private ReportStatus getReportStatus(Level level) {
+		switch (level) {
+			case ERROR: return ReportStatus.ERROR;
+			case WARN: return ReportStatus.WARNINIG;
+			case INFO: return ReportStatus.PASS;
+			default: return ReportStatus.DEBUG;
+		}
+	}
+	
+	/**
+	 * Report context and step listener contexts of a thread.
+	 */
+	record ThreadContext(Object reportContext, Map<StepListener, Object> listenerContexts) {
 	}
 }
@@ -0,0 +1,451 @@
+package com.automation.selenium_template.driver;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import org.openqa.selenium.Alert;
+import org.openqa.selenium.By;
+import org.openqa.selenium.Rectangle;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.WindowType;
+import org.openqa.selenium.support.ui.ExpectedCondition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Asynchronous facade over {@link DriverControllerV3}.
+ * Every operation is queued on a single thread executor owned by this session, so commands reach the browser
+ * in submission order while the calling thread is free to do JVM side work such as report writing or data preparation.
+ * Operations are reported and traced as part of the submitting thread's test, its report and step listener context is
+ * captured on submission and restored on the session thread around the operation.
+ * One instance must be created per web driver session and closed when the session is done.
+ */
+public class DriverControllerV3Async implements AutoCloseable {
+	
+	private static final AtomicInteger sessionCounter = new AtomicInteger();
+	private static Logger logger = LoggerFactory.getLogger(DriverControllerV3Async.class);
+	
+	private final DriverControllerV3 driverController;
+	private final ExecutorService sessionExecutor;
+	
+	public DriverControllerV3Async(DriverControllerV3 driverController) {
+		super();
+		this.driverController = driverController;
+		String threadName = "driver-session-" + sessionCounter.incrementAndGet();
+		this.sessionExecutor = Executors.newSingleThreadExecutor(runnable -> {
+			Thread thread = new Thread(runnable, threadName);
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+	
+	
+	// getters
+	
+	/**
+	 * The wrapped controller. It must only be used directly once all submitted operations are complete.
+	 * @return the wrapped controller
+	 */
+	public DriverControllerV3 getDriverController() {
+		return driverController;
+	}
+	
+	
+	// session executor
+	
+	/**
+	 * Queue any operation on the session executor, after all previously submitted operations.
+	 * @param <T> result type
+	 * @param operation the operation to run against the wrapped controller
+	 * @return future completed with the operation result, or exceptionally if the operation threw
+	 */
+	public <T> CompletableFuture<T> submit(Function<DriverControllerV3, T> operation) {
+		DriverControllerV3.ThreadContext threadContext = driverController.captureThreadContext();
+		return CompletableFuture.supplyAsync(() -> driverController.callInThreadContext(threadContext, () -> operation.apply(driverController)), sessionExecutor);
+	}
+	
+	/**
+	 * Wait for all operations submitted so far to complete.
+	 * @return future completed once the session executor reaches this point of the queue
+	 */
+	public CompletableFuture<Void> barrier() {
+		return CompletableFuture.runAsync(() -> {}, sessionExecutor);
+	}
+	
+	/**
+	 * Stop accepting operations and wait for the already submitted ones to complete.
+	 */
+	@Override
+	public void close() {
+		sessionExecutor.shutdown();
+		try {
+			if(!sessionExecutor.awaitTermination(1, TimeUnit.MINUTES)) {
+				logger.error("Timed out waiting for pending driver operations, {} dropped", sessionExecutor.shutdownNow().size());
+			}
+		}catch (InterruptedException e) {
+			sessionExecutor.shutdownNow();
+			Thread.currentThread().interrupt();
+		}
+	}
+	
+	
+	// operations
+	
+	public CompletableFuture<Boolean> get(String stepDescription, String url) {
+		return submit(driverController -> driverController.get(stepDescription, url));
+	}
+	
+	public CompletableFuture<Boolean> close(String stepDescription) {
+		return submit(driverController -> driverController.close(stepDescription));
+	}
+	
+	public CompletableFuture<Boolean> quit(String stepDescription) {
+		return submit(driverController -> driverController.quit(stepDescription));
+	}
+	
+	public CompletableFuture<Boolean> click(String stepDescription, String locatorString) {
+		return submit(driverController -> driverController.click(stepDescription, locatorString));
+	}
+	
+	public CompletableFuture<Boolean> click(String stepDescription, By by) {
+		return submit(driverController -> driverController.click(stepDescription, by));
+	}
+	
+	public CompletableFuture<Boolean> click(String stepDescription, WebElement webElement) {
+		return submit(driverController -> driverController.click(stepDescription, webElement));
+	}
+	
+	public CompletableFuture<Boolean> clickUsingActions(String stepDescription, String locatorString) {
+		return submit(driverController -> driverController.clickUsingActions(stepDescription, locatorString));
+	}
+	
+	public CompletableFuture<Boolean> clickUsingActions(String stepDescription, By by) {
+		return submit(driverController -> driverController.clickUsingActions(stepDescription, by));
+	}
+	
+	public CompletableFuture<Boolean> clickUsingActions(String stepDescription, WebElement webElement) {
+		return submit(driverController -> driverController.clickUsingActions(stepDescription, webElement));
+	}
+	
+	public CompletableFuture<Boolean> clickUsingJSExecutor(String stepDescription, String locatorString) {
+		return submit(driverController -> driverController.clickUsingJSExecutor(stepDescription, locatorString));
+	}
+	
+	public CompletableFuture<Boolean> clickUsingJSExecutor(String stepDescription, By by) {
+		return submit(driverController -> driverController.clickUsingJSExecutor(stepDescription, by));
+	}
+	
+	public CompletableFuture<Boolean> clickUsingJSExecutor(String stepDescription, WebElement webElement) {
+		return submit(driverController -> driverController.clickUsingJSExecutor(stepDescription, webElement));
+	}
+	
+	public CompletableFuture<Boolean> sendKeys(String stepDescription, String locatorString, String value) {
+		return submit(driverController -> driverController.sendKeys(stepDescription, locatorString, value));
+	}
+	
+	public CompletableFuture<Boolean> sendKeys(String stepDescription, By by, String value) {
+		return submit(driverController -> driverController.sendKeys(stepDescription, by, value));
+	}
+	
+	public CompletableFuture<Boolean> sendKeys(String stepDescription, WebElement webElement, String value) {
+		return submit(driverController -> driverController.sendKeys(stepDescription, webElement, value));
+	}
+	
+	public CompletableFuture<Boolean> clearAndSendKeys(String stepDescription, String locatorString, String value) {
+		return submit(driverController -> driverController.clearAndSendKeys(stepDescription, locatorString, value));
+	}
+	
+	public CompletableFuture<Boolean> clearAndSendKeys(String stepDescription, By by, String value) {
+		return submit(driverController -> driverController.clearAndSendKeys(stepDescription, by, value));
+	}
+	
+	public CompletableFuture<Boolean> clearAndSendKeys(String stepDescription, WebElement webElement, String value) {
+		return submit(driverController -> driverController.clearAndSendKeys(stepDescription, webElement, value));
+	}
+	
+	public CompletableFuture<Boolean> selectByVisibleText(String stepDescription, String locatorString, String visibleText) {
+		return submit(driverController -> driverController.selectByVisibleText(stepDescription, locatorString, visibleText));
+	}
+	
+	public CompletableFuture<Boolean> selectByVisibleText(String stepDescription, By by, String visibleText) {
+		return submit(driverController -> driverController.selectByVisibleText(stepDescription, by, visibleText));
+	}
+	
+	public CompletableFuture<Boolean> selectByVisibleText(String stepDescription, WebElement webElement, String visibleText) {
+		return submit(driverController -> driverController.selectByVisibleText(stepDescription, webElement, visibleText));
+	}
+	
+	public CompletableFuture<Boolean> selectByValue(String stepDescription, String locatorString, String value) {
+		return submit(driverController -> driverController.selectByValue(stepDescription, locatorString, value));
+	}
+	
+	public CompletableFuture<Boolean> selectByValue(String stepDescription, By by, String value) {
+		return submit(driverController -> driverController.selectByValue(stepDescription, by, value));
+	}
+	
+	public CompletableFuture<Boolean> selectByValue(String stepDescription, WebElement webElement, String value) {
+		return submit(driverController -> driverController.selectByValue(stepDescription, webElement, value));
+	}
+	
+	public CompletableFuture<Boolean> dragAndDrop(String stepDescription, String sourceLocatorString, String targetLocatorString, String value) {
+		return submit(driverController -> driverController.dragAndDrop(stepDescription, sourceLocatorString, targetLocatorString, value));
+	}
+	
+	public CompletableFuture<Boolean> dragAndDrop(String stepDescription, By sourceBy, By targetBy, String value) {
+		return submit(driverController -> driverController.dragAndDrop(stepDescription, sourceBy, targetBy, value));
+	}
+	
+	public CompletableFuture<Boolean> dragAndDrop(String stepDescription, WebElement sourceWebElement, WebElement targetWebElement, String value) {
+		return submit(driverController -> driverController.dragAndDrop(stepDescription, sourceWebElement, targetWebElement, value));
+	}
+	
+	public CompletableFuture<String> getAttribute(String stepDescription, String locatorString, String attribute) {
+		return submit(driverController -> driverController.getAttribute(stepDescription, locatorString, attribute));
+	}
+	
+	public CompletableFuture<String> getAttribute(String stepDescription, By by, String attribute) {
+		return submit(driverController -> driverController.getAttribute(stepDescription, by, attribute));
+	}
+	
+	public CompletableFuture<String> getAttribute(String stepDescription, WebElement webElement, String attribute) {
+		return submit(driverController -> driverController.getAttribute(stepDescription, webElement, attribute));
+	}
+	
+	public CompletableFuture<String> getWindowHandle(String stepDescription) {
+		return submit(driverController -> driverController.getWindowHandle(stepDescription));
+	}
+	
+	public CompletableFuture<Set<String>> getWindowHandles(String stepDescription) {
+		return submit(driverController -> driverController.getWindowHandles(stepDescription));
+	}
+	
+	public CompletableFuture<String> getTitle(String stepDescription) {
+		return submit(driverController -> driverController.getTitle(stepDescription));
+	}
+	
+	public CompletableFuture<String> getCurrentUrl(String stepDescription) {
+		return submit(driverController -> driverController.getCurrentUrl(stepDescription));
+	}
+	
+	public CompletableFuture<Boolean> switchToWindow(String stepDescription, String windowHandle) {
+		return submit(driverController -> driverController.switchToWindow(stepDescription, windowHandle));
+	}
+	
+	public CompletableFuture<Boolean> switchToNewWindow(String stepDescription, WindowType windowType) {
+		return submit(driverController -> driverController.switchToNewWindow(stepDescription, windowType));
+	}
+	
+	public CompletableFuture<Alert> switchToAlert(String stepDescription) {
+		return submit(driverController -> driverController.switchToAlert(stepDescription));
+	}
+	
+	public CompletableFuture<Boolean> sendKeysToAlert(String stepDescription, String value) {
+		return submit(driverController -> driverController.sendKeysToAlert(stepDescription, value));
+	}
+	
+	public CompletableFuture<Boolean> acceptAlert(String stepDescription) {
+		return submit(driverController -> driverController.acceptAlert(stepDescription));
+	}
+	
+	public CompletableFuture<Boolean> dismissAlert(String stepDescription) {
+		return submit(driverController -> driverController.dismissAlert(stepDescription));
+	}
+	
+	public CompletableFuture<Boolean> switchToIFrameByIndex(String stepDescription, int index) {
+		return submit(driverController -> driverController.switchToIFrameByIndex(stepDescription, index));
+	}
+	
+	public CompletableFuture<Boolean> switchToIFrameByNameOrId(String stepDescription, String nameOrId) {
+		return submit(driverController -> driverController.switchToIFrameByNameOrId(stepDescription, nameOrId));
+	}
+	
+	public CompletableFuture<Boolean> switchToIFrame(String stepDescription, String locatorString) {
+		return submit(driverController -> driverController.switchToIFrame(stepDescription, locatorString));
+	}
+	
+	public CompletableFuture<Boolean> switchToIFrame(String stepDescription, By by) {
+		return submit(driverController -> driverController.switchToIFrame(stepDescription, by));
+	}
+	
+	public CompletableFuture<Boolean> switchToIFrame(String stepDescription, WebElement webElement) {
+		return submit(driverController -> driverController.switchToIFrame(stepDescription, webElement));
+	}
+	
+	public CompletableFuture<Boolean> switchToDefaultContent(String stepDescription) {
+		return submit(driverController -> driverController.switchToDefaultContent(stepDescription));
+	}
+	
+	public CompletableFuture<Boolean> switchToFramePath(String stepDescription, List<?> framePath) {
+		return submit(driverController -> driverController.switchToFramePath(stepDescription, framePath));
+	}
+	
+	
+	// explicit waits
+	
+	public CompletableFuture<WebElement> waitForPresenceOfElement(String stepDescription, String locatorString, Duration duration) {
+		return submit(driverController -> driverController.waitForPresenceOfElement(stepDescription, locatorString, duration));
+	}
+	
+	public CompletableFuture<WebElement> waitForPresenceOfElement(String stepDescription, By by, Duration duration) {
+		return submit(driverController -> driverController.waitForPresenceOfElement(stepDescription, by, duration));
+	}
+	
+	public CompletableFuture<WebElement> waitForVisibilityOfElement(String stepDescription, String locatorString, Duration duration) {
+		return submit(driverController -> driverController.waitForVisibilityOfElement(stepDescription, locatorString, duration));
+	}
+	
+	public CompletableFuture<WebElement> waitForVisibilityOfElement(String stepDescription, By by, Duration duration) {
+		return submit(driverController -> driverController.waitForVisibilityOfElement(stepDescription, by, duration));
+	}
+	
+	public CompletableFuture<WebElement> waitForVisibilityOfElement(String stepDescription, WebElement webElement, Duration duration) {
+		return submit(driverController -> driverController.waitForVisibilityOfElement(stepDescription, webElement, duration));
+	}
+	
+	public CompletableFuture<Boolean> waitForInvisibilityOfElement(String stepDescription, String locatorString, Duration duration) {
+		return submit(driverController -> driverController.waitForInvisibilityOfElement(stepDescription, locatorString, duration));
+	}
+	
+	public CompletableFuture<Boolean> waitForInvisibilityOfElement(String stepDescription, By by, Duration duration) {
+		return submit(driverController -> driverController.waitForInvisibilityOfElement(stepDescription, by, duration));
+	}
+	
+	public CompletableFuture<Boolean> waitForInvisibilityOfElement(String stepDescription, WebElement webElement, Duration duration) {
+		return submit(driverController -> driverController.waitForInvisibilityOfElement(stepDescription, webElement, duration));
+	}
+	
+	public CompletableFuture<Boolean> waitForAttributeToBe(String stepDescription, String locatorString, String attribute, String value, Duration duration) {
+		return submit(driverController -> driverController.waitForAttributeToBe(stepDescription, locatorString, attribute, value, duration));
+	}
+	
+	public CompletableFuture<Boolean> waitForAttributeToBe(String stepDescription, By by, String attribute, String value, Duration duration) {
+		return submit(driverController -> driverController.waitForAttributeToBe(stepDescription, by, attribute, value, duration));
+	}
+	
+	public CompletableFuture<Boolean> waitForAttributeToBe(String stepDescription, WebElement webElement, String attribute, String value, Duration duration) {
+		return submit(driverController -> driverController.waitForAttributeToBe(stepDescription, webElement, attribute, value, duration));
+	}
+	
+	public CompletableFuture<Boolean> waitForAttributeToContain(String stepDescription, String locatorString, String attribute, String value, Duration duration) {
+		return submit(driverController -> driverController.waitForAttributeToContain(stepDescription, locatorString, attribute, value, duration));
+	}
+	
+	public CompletableFuture<Boolean> waitForAttributeToContain(String stepDescription, By by, String attribute, String value, Duration duration) {
+		return submit(driverController -> driverController.waitForAttributeToContain(stepDescription, by, attribute, value, duration));
+	}
+	
+	public CompletableFuture<Boolean> waitForAttributeToContain(String stepDescription, WebElement webElement, String attribute, String value, Duration duration) {
+		return submit(driverController -> driverController.waitForAttributeToContain(stepDescription, webElement, attribute, value, duration));
+	}
+	
+	public <T> CompletableFuture<T> waitForCustomCondition(String stepDescription, ExpectedCondition<T> expectedCondition, Duration duration) {
+		return submit(driverController -> driverController.waitForCustomCondition(stepDescription, expectedCondition, duration));
+	}
+	
+	
+	// find elements
+	
+	public CompletableFuture<WebElement> findElement(String locatorString) {
+		return submit(driverController -> driverController.findElement(locatorString));
+	}
+	
+	public CompletableFuture<WebElement> findElement(By by) {
+		return submit(driverController -> driverController.findElement(by));
+	}
+	
+	public CompletableFuture<WebElement> findElementAcrossFrames(String stepDescription, String locatorString) {
+		return submit(driverController -> driverController.findElementAcrossFrames(stepDescription, locatorString));
+	}
+	
+	public CompletableFuture<WebElement> findElementAcrossFrames(String stepDescription, By by) {
+		return submit(driverController -> driverController.findElementAcrossFrames(stepDescription, by));
+	}
+	
+	public CompletableFuture<List<WebElement>> findElements(String locatorString) {
+		return submit(driverController -> driverController.findElements(locatorString));
+	}
+	
+	public CompletableFuture<List<WebElement>> findElements(By by) {
+		return submit(driverController -> driverController.findElements(by));
+	}
+	
+	public CompletableFuture<WebElement> findChildWebElement(WebElement parentWebElement, String locatorString) {
+		return submit(driverController -> driverController.findChildWebElement(parentWebElement, locatorString));
+	}
+	
+	public CompletableFuture<WebElement> findChildWebElement(WebElement parentWebElement, By by) {
+		return submit(driverController -> driverController.findChildWebElement(parentWebElement, by));
+	}
+	
+	public CompletableFuture<List<WebElement>> findChildWebElements(WebElement parentWebElement, String locatorString) {
+		return submit(driverController -> driverController.findChildWebElements(parentWebElement, locatorString));
+	}
+	
+	public CompletableFuture<List<WebElement>> findChildWebElements(WebElement parentWebElement, By by) {
+		return submit(driverController -> driverController.findChildWebElements(parentWebElement, by));
+	}
+	
+	
+	// tables
+	
+	/**
+	 * Stream the rows of the table found using the given 'locatorString' string on the session thread and hand each row to the given consumer.
+	 * The consumer runs on the session thread and should not block.
+	 * @param stepDescription short step description
+	 * @param locatorString the string to find the table with
+	 * @param rowConsumer consumer of the rows
+	 * @return future completed with the number of rows read
+	 */
+	public CompletableFuture<Long> forEachTableRow(String stepDescription, String locatorString, Consumer<TableExtractor.Row> rowConsumer) {
+		return submit(driverController -> {
+			long[] rowCount = {0};
+			driverController.streamTableRows(stepDescription, locatorString).forEach(row -> {
+				rowConsumer.accept(row);
+				rowCount[0]++;
+			});
+			return rowCount[0];
+		});
+	}
+	
+	
+	// screenshot
+	
+	public CompletableFuture<File> getScreenshot() {
+		return submit(driverController -> driverController.getScreenshot());
+	}
+	
+	public CompletableFuture<byte[]> getScreenshotAsBytes(String stepDescription) {
+		return submit(driverController -> driverController.getScreenshotAsBytes(stepDescription));
+	}
+	
+	public CompletableFuture<byte[]> getElementScreenshot(String stepDescription, String locatorString, boolean downscaleToCssPixels) {
+		return submit(driverController -> driverController.getElementScreenshot(stepDescription, locatorString, downscaleToCssPixels));
+	}
+	
+	public CompletableFuture<byte[]> getElementScreenshot(String stepDescription, By by, boolean downscaleToCssPixels) {
+		return submit(driverController -> driverController.getElementScreenshot(stepDescription, by, downscaleToCssPixels));
+	}
+	
+	public CompletableFuture<byte[]> getElementScreenshot(String stepDescription, WebElement webElement, boolean downscaleToCssPixels) {
+		return submit(driverController -> driverController.getElementScreenshot(stepDescription, webElement, downscaleToCssPixels));
+	}
+	
+	public CompletableFuture<byte[]> getRegionScreenshot(String stepDescription, Rectangle region, boolean downscaleToCssPixels) {
+		return submit(driverController -> driverController.getRegionScreenshot(stepDescription, region, downscaleToCssPixels));
+	}
+	
+	public CompletableFuture<Path> takeScreenshot(String stepDescription, String name) {
+		return submit(driverController -> driverController.takeScreenshot(stepDescription, name)).thenCompose(future -> future);
+	}
+	
+}
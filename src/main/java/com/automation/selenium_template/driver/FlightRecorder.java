@@ -0,0 +1,179 @@
+package com.automation.selenium_template.driver;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.OutputType;
+import org.openqa.selenium.TakesScreenshot;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.json.Json;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * In memory ring buffer of the last steps of one session, written to disk only when a step fails.
+ * Each record holds the step event and, at a low sampling rate, a screenshot. A cheap digest of the DOM is taken of the failed step,
+ * and of every step if {@link #setDomDigestEnabled(boolean) enabled}.
+ * Only top level steps are recorded, the waits and lookups they are made of are part of their duration.
+ * Register it with {@link DriverControllerV3#addStepListener(StepListener)}.
+ */
+public class FlightRecorder implements StepListener {
+
+	public static final int DEFAULT_CAPACITY = 20;
+	private static final AtomicInteger dumpCounter = new AtomicInteger();
+	private static Logger logger = LoggerFactory.getLogger(FlightRecorder.class);
+
+	private static final String DOM_DIGEST_SCRIPT = """
+			var active = document.activeElement;
+			return [document.readyState, location.href, document.title, document.getElementsByTagName('*').length,
+				active ? active.tagName + (active.id ? '#' + active.id : '') : ''].join(' | ');
+			""";
+
+	private final WebDriver webDriver;
+	private final Path outputDirectory;
+	private final StepRecord[] records;
+	private int nextRecord;
+	private int recordCount;
+	private long stepCount;
+	private boolean domDigestEnabled;
+	private int screenshotSamplingInterval;
+
+	public FlightRecorder(WebDriver webDriver, Path outputDirectory) {
+		this(webDriver, outputDirectory, DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * @param webDriver driver of the recorded session, used for the DOM digests and screenshots
+	 * @param outputDirectory directory the records are written to on failure
+	 * @param capacity number of most recent steps to keep
+	 */
+	public FlightRecorder(WebDriver webDriver, Path outputDirectory, int capacity) {
+		super();
+		this.webDriver = webDriver;
+		this.outputDirectory = outputDirectory;
+		this.records = new StepRecord[Math.max(1, capacity)];
+	}
+
+
+	// getters and setters
+
+	public boolean isDomDigestEnabled() {
+		return domDigestEnabled;
+	}
+
+	/**
+	 * @param domDigestEnabled true to record a digest of the DOM after each step, costing one script call per step, by default only the failed step's
+	 */
+	public void setDomDigestEnabled(boolean domDigestEnabled) {
+		this.domDigestEnabled = domDigestEnabled;
+	}
+
+	public int getScreenshotSamplingInterval() {
+		return screenshotSamplingInterval;
+	}
+
+	/**
+	 * @param screenshotSamplingInterval record a screenshot every n-th step, 0 to only capture one on failure
+	 */
+	public void setScreenshotSamplingInterval(int screenshotSamplingInterval) {
+		this.screenshotSamplingInterval = Math.max(0, screenshotSamplingInterval);
+	}
+
+
+	// recording
+
+	@Override
+	public synchronized void stepFinished(StepEvent stepEvent) {
+		if(stepEvent.depth() > 0) {
+			return;
+		}
+		stepCount++;
+		boolean sampleScreenshot = !stepEvent.successful() || (screenshotSamplingInterval > 0 && stepCount % screenshotSamplingInterval == 0);
+		records[nextRecord] = new StepRecord(stepEvent, domDigestEnabled || !stepEvent.successful() ? getDomDigest() : null, sampleScreenshot ? getScreenshot() : null);
+		nextRecord = (nextRecord + 1) % records.length;
+		recordCount = Math.min(recordCount + 1, records.length);
+		if(!stepEvent.successful()) {
+			dump(stepEvent);
+		}
+	}
+
+	/**
+	 * Write the recorded steps, oldest first, as JSON lines next to their screenshots.
+	 * @param failedStepEvent the step that triggered the dump
+	 * @return the written file, null if it could not be written
+	 */
+	private Path dump(StepEvent failedStepEvent) {
+		String dumpName = String.format("flight-recorder-%d-%s-%03d", failedStepEvent.timestampMillis(),
+				failedStepEvent.threadName().replaceAll("[^A-Za-z0-9_-]", "_"), dumpCounter.incrementAndGet());
+		Path dumpFile = outputDirectory.resolve(dumpName + ".jsonl");
+		Json json = new Json();
+		try {
+			Files.createDirectories(outputDirectory);
+			try(BufferedWriter writer = Files.newBufferedWriter(dumpFile, StandardCharsets.UTF_8)) {
+				int firstRecord = (nextRecord - recordCount + records.length) % records.length;
+				for(int i = 0; i < recordCount; i++) {
+					StepRecord stepRecord = records[(firstRecord + i) % records.length];
+					String screenshotFileName = null;
+					if(stepRecord.screenshot() != null) {
+						screenshotFileName = String.format("%s-%02d.png", dumpName, i);
+						Files.write(outputDirectory.resolve(screenshotFileName), stepRecord.screenshot());
+					}
+					StringBuilder line = new StringBuilder();
+					json.newOutput(line).setPrettyPrint(false).write(toMap(stepRecord, screenshotFileName));
+					writer.write(line.toString());
+					writer.newLine();
+				}
+			}
+			logger.info("Flight recorder wrote last {} steps to: {}", recordCount, dumpFile);
+			return dumpFile;
+		}catch (IOException e) {
+			//logging and reporting
+			logger.error("Exception occurred while writing flight recorder dump: {}", dumpFile, e);
+		}
+		return null;
+	}
+
+	private Map<String, Object> toMap(StepRecord stepRecord, String screenshotFileName) {
+		StepEvent stepEvent = stepRecord.stepEvent();
+		Map<String, Object> map = new LinkedHashMap<>();
+		map.put("timestamp", Instant.ofEpochMilli(stepEvent.timestampMillis()).toString());
+		map.put("thread", stepEvent.threadName());
+		map.put("operation", stepEvent.operation());
+		map.put("stepDescription", stepEvent.stepDescription());
+		map.put("locator", stepEvent.locator());
+		map.put("successful", stepEvent.successful());
+		map.put("durationMillis", stepEvent.durationNanos() / 1_000_000.0);
+		map.put("domDigest", stepRecord.domDigest());
+		map.put("screenshot", screenshotFileName);
+		return map;
+	}
+
+	private String getDomDigest() {
+		try {
+			Object digest = ((JavascriptExecutor) webDriver).executeScript(DOM_DIGEST_SCRIPT);
+			return digest != null ? digest.toString() : null;
+		}catch (Exception e) {
+			return "unavailable: " + e.getClass().getSimpleName();
+		}
+	}
+
+	private byte[] getScreenshot() {
+		try {
+			return ((TakesScreenshot) webDriver).getScreenshotAs(OutputType.BYTES);
+		}catch (Exception e) {
+			logger.debug("Flight recorder could not capture screenshot: {}", e.getMessage());
+			return null;
+		}
+	}
+
+	private record StepRecord(StepEvent stepEvent, String domDigest, byte[] screenshot) {
+	}
+}
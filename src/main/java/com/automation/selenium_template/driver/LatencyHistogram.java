@@ -0,0 +1,102 @@
+package com.automation.selenium_template.driver;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock free latency histogram in the style of HdrHistogram: each power of two range of nanoseconds is split into
+ * 64 linear sub buckets, so any recorded value is reported within about 1.6% of its true value with a fixed footprint
+ * of about 20 KB, covering latencies up to several hours.
+ */
+public class LatencyHistogram {
+
+	private static final int SUB_BUCKET_BITS = 6;
+	private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+	private static final int MAX_MAGNITUDE = 45;
+
+	private final AtomicLongArray counts = new AtomicLongArray(SUB_BUCKET_COUNT + (MAX_MAGNITUDE - SUB_BUCKET_BITS + 1) * SUB_BUCKET_COUNT);
+	private final AtomicLong totalCount = new AtomicLong();
+	private final AtomicLong totalNanos = new AtomicLong();
+	private final AtomicLong minNanos = new AtomicLong(Long.MAX_VALUE);
+	private final AtomicLong maxNanos = new AtomicLong();
+
+
+	// recording
+
+	/**
+	 * @param nanos latency to record, negative values are recorded as 0
+	 */
+	public void record(long nanos) {
+		long value = Math.max(0, nanos);
+		counts.incrementAndGet(indexOf(value));
+		totalCount.incrementAndGet();
+		totalNanos.addAndGet(value);
+		minNanos.accumulateAndGet(value, Math::min);
+		maxNanos.accumulateAndGet(value, Math::max);
+	}
+
+	private static int indexOf(long value) {
+		if(value < SUB_BUCKET_COUNT) {
+			return (int) value;
+		}
+		int magnitude = Math.min(63 - Long.numberOfLeadingZeros(value), MAX_MAGNITUDE);
+		if(magnitude == MAX_MAGNITUDE && value >>> MAX_MAGNITUDE > 1) {
+			return SUB_BUCKET_COUNT + (MAX_MAGNITUDE - SUB_BUCKET_BITS + 1) * SUB_BUCKET_COUNT - 1;
+		}
+		int subBucket = (int) (value >>> (magnitude - SUB_BUCKET_BITS)) - SUB_BUCKET_COUNT;
+		return SUB_BUCKET_COUNT + (magnitude - SUB_BUCKET_BITS) * SUB_BUCKET_COUNT + subBucket;
+	}
+
+	private static long highestValueAt(int index) {
+		if(index < SUB_BUCKET_COUNT) {
+			return index;
+		}
+		int magnitude = (index - SUB_BUCKET_COUNT) / SUB_BUCKET_COUNT + SUB_BUCKET_BITS;
+		int subBucket = (index - SUB_BUCKET_COUNT) % SUB_BUCKET_COUNT;
+		return ((long) (SUB_BUCKET_COUNT + subBucket + 1) << (magnitude - SUB_BUCKET_BITS)) - 1;
+	}
+
+
+	// statistics
+
+	public long getCount() {
+		return totalCount.get();
+	}
+
+	public long getTotalNanos() {
+		return totalNanos.get();
+	}
+
+	public long getMinNanos() {
+		return totalCount.get() > 0 ? minNanos.get() : 0;
+	}
+
+	public long getMaxNanos() {
+		return maxNanos.get();
+	}
+
+	public double getMeanNanos() {
+		long count = totalCount.get();
+		return count > 0 ? (double) totalNanos.get() / count : 0;
+	}
+
+	/**
+	 * @param percentile percentile between 0 and 100, e.g. 99
+	 * @return the latency at or below which the given percentage of the recorded latencies lie, 0 if nothing was recorded
+	 */
+	public long getValueAtPercentile(double percentile) {
+		long count = totalCount.get();
+		if(count == 0) {
+			return 0;
+		}
+		long targetCount = Math.max(1, (long) Math.ceil(Math.min(100, Math.max(0, percentile)) / 100 * count));
+		long seenCount = 0;
+		for(int i = 0; i < counts.length(); i++) {
+			seenCount += counts.get(i);
+			if(seenCount >= targetCount) {
+				return Math.min(highestValueAt(i), maxNanos.get());
+			}
+		}
+		return maxNanos.get();
+	}
+}
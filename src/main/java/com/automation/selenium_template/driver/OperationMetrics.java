@@ -0,0 +1,199 @@
+package com.automation.selenium_template.driver;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Latency histograms, outcome, attempt and fallback counts of the {@link DriverControllerV3} operations, per operation
+ * and per operation and locator. Register one instance with every controller of the suite using
+ * {@link DriverControllerV3#addStepListener(StepListener)} and export it at suite end with {@link #getSummary()} and {@link #writeCsv(Path)}.
+ * Operations called by other operations are recorded under their own name as well, so their time is also part of the calling operation.
+ */
+public class OperationMetrics implements StepListener {
+
+	public static final int DEFAULT_MAX_LOCATORS = 1000;
+	private static final String OTHER_LOCATORS = "(other locators)";
+	private static Logger logger = LoggerFactory.getLogger(OperationMetrics.class);
+
+	private final Map<String, Stats> operationStats = new ConcurrentHashMap<>();
+	private final Map<String, Stats> locatorStats = new ConcurrentHashMap<>();
+	private final int maxLocators;
+
+	public OperationMetrics() {
+		this(DEFAULT_MAX_LOCATORS);
+	}
+
+	/**
+	 * @param maxLocators number of distinct operation and locator pairs tracked, further pairs are recorded together
+	 */
+	public OperationMetrics(int maxLocators) {
+		super();
+		this.maxLocators = Math.max(0, maxLocators);
+	}
+
+
+	// recording
+
+	@Override
+	public void stepFinished(StepEvent stepEvent) {
+		operationStats.computeIfAbsent(stepEvent.operation(), Stats::new).record(stepEvent);
+		if(stepEvent.locator() != null) {
+			String locatorKey = stepEvent.operation() + " " + stepEvent.locator();
+			Stats stats = locatorStats.get(locatorKey);
+			if(stats == null) {
+				if(locatorStats.size() >= maxLocators) {
+					locatorKey = stepEvent.operation() + " " + OTHER_LOCATORS;
+				}
+				stats = locatorStats.computeIfAbsent(locatorKey, Stats::new);
+			}
+			stats.record(stepEvent);
+		}
+	}
+
+
+	// export
+
+	/**
+	 * @return statistics per operation, most total time first
+	 */
+	public List<Stats> getOperationStats() {
+		return sortByTotalTime(operationStats);
+	}
+
+	/**
+	 * @return statistics per operation and locator, most total time first
+	 */
+	public List<Stats> getLocatorStats() {
+		return sortByTotalTime(locatorStats);
+	}
+
+	/**
+	 * @param operation name of the operation, e.g. click
+	 * @return statistics of the operation, null if it was not recorded
+	 */
+	public Stats getOperationStats(String operation) {
+		return operationStats.get(operation);
+	}
+
+	private static List<Stats> sortByTotalTime(Map<String, Stats> stats) {
+		List<Stats> sortedStats = new ArrayList<>(stats.values());
+		sortedStats.sort(Comparator.comparingLong((Stats operation) -> operation.getHistogram().getTotalNanos()).reversed());
+		return sortedStats;
+	}
+
+	/**
+	 * Plain text table of the operations, most total time first, with latencies in milliseconds.
+	 * @return the summary table
+	 */
+	public String getSummary() {
+		StringBuilder summary = new StringBuilder();
+		summary.append(String.format("%-32s %8s %8s %10s %10s %10s %10s %12s %9s %9s%n",
+				"operation", "count", "failed", "p50 ms", "p90 ms", "p99 ms", "max ms", "total ms", "attempts", "fallbacks"));
+		for(Stats stats : getOperationStats()) {
+			LatencyHistogram histogram = stats.getHistogram();
+			summary.append(String.format("%-32s %8d %8d %10.1f %10.1f %10.1f %10.1f %12.1f %9d %9d%n", stats.getName(),
+					histogram.getCount(), stats.getFailures(), toMillis(histogram.getValueAtPercentile(50)), toMillis(histogram.getValueAtPercentile(90)),
+					toMillis(histogram.getValueAtPercentile(99)), toMillis(histogram.getMaxNanos()), toMillis(histogram.getTotalNanos()),
+					stats.getAttempts(), stats.getFallbacks()));
+		}
+		return summary.toString();
+	}
+
+	/**
+	 * Write the statistics per operation and per operation and locator as CSV, latencies in milliseconds.
+	 * @param file the file to write
+	 * @return true if operation is successful otherwise false
+	 */
+	public boolean writeCsv(Path file) {
+		try {
+			Path parent = file.toAbsolutePath().getParent();
+			if(parent != null) {
+				Files.createDirectories(parent);
+			}
+			try(BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+				writer.write("scope,name,count,failures,min_ms,mean_ms,p50_ms,p90_ms,p99_ms,p999_ms,max_ms,total_ms,attempts,fallbacks");
+				writer.newLine();
+				writeCsvRows(writer, "operation", getOperationStats());
+				writeCsvRows(writer, "locator", getLocatorStats());
+			}
+			return true;
+		}catch (IOException e) {
+			//logging and reporting
+			logger.error("Exception occurred while writing operation metrics: {}", file, e);
+		}
+		return false;
+	}
+
+	private void writeCsvRows(BufferedWriter writer, String scope, List<Stats> statsList) throws IOException {
+		for(Stats stats : statsList) {
+			LatencyHistogram histogram = stats.getHistogram();
+			writer.write(String.format("%s,\"%s\",%d,%d,%.3f,%.3f,%.3f,%.3f,%.3f,%.3f,%.3f,%.3f,%d,%d", scope, stats.getName().replace("\"", "\"\""),
+					histogram.getCount(), stats.getFailures(), toMillis(histogram.getMinNanos()), histogram.getMeanNanos() / 1_000_000,
+					toMillis(histogram.getValueAtPercentile(50)), toMillis(histogram.getValueAtPercentile(90)), toMillis(histogram.getValueAtPercentile(99)),
+					toMillis(histogram.getValueAtPercentile(99.9)), toMillis(histogram.getMaxNanos()), toMillis(histogram.getTotalNanos()),
+					stats.getAttempts(), stats.getFallbacks()));
+			writer.newLine();
+		}
+	}
+
+	private static double toMillis(long nanos) {
+		return nanos / 1_000_000.0;
+	}
+
+	/**
+	 * Statistics of one operation, or one operation on one locator.
+	 */
+	public static class Stats {
+
+		private final String name;
+		private final LatencyHistogram histogram = new LatencyHistogram();
+		private final LongAdder failures = new LongAdder();
+		private final LongAdder attempts = new LongAdder();
+		private final LongAdder fallbacks = new LongAdder();
+
+		private Stats(String name) {
+			this.name = name;
+		}
+
+		private void record(StepEvent stepEvent) {
+			histogram.record(stepEvent.durationNanos());
+			if(!stepEvent.successful()) {
+				failures.increment();
+			}
+			attempts.add(stepEvent.attempts());
+			fallbacks.add(stepEvent.fallbacks());
+		}
+
+		public String getName() {
+			return name;
+		}
+
+		public LatencyHistogram getHistogram() {
+			return histogram;
+		}
+
+		public long getFailures() {
+			return failures.sum();
+		}
+
+		public long getAttempts() {
+			return attempts.sum();
+		}
+
+		public long getFallbacks() {
+			return fallbacks.sum();
+		}
+	}
+}
@@ -0,0 +1,19 @@
+package com.automation.selenium_template.driver;
+
+/**
+ * Outcome of a single {@link DriverControllerV3} operation.
+ * @param timestampMillis epoch millis at which the operation finished
+ * @param threadName thread the operation ran on
+ * @param operation name of the operation, e.g. click
+ * @param stepDescription short step description, null for operations without one
+ * @param locator locator string, locator or web element the operation was called with, null if none
+ * @param successful true if the operation succeeded
+ * @param durationNanos duration of the operation including its waits
+ * @param depth 0 for operations called from outside the controller, greater for operations called by other operations
+ * @param attempts number of locator lookups and wait polls, including those of the operations it called
+ * @param fallbacks number of fallback locators of a locator string tried after the first, including those of the operations it called
+ */
+public record StepEvent(long timestampMillis, String threadName, String operation, String stepDescription, String locator,
+		boolean successful, long durationNanos, int depth, int attempts, int fallbacks) {
+
+}
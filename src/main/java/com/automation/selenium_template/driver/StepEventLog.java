@@ -0,0 +1,195 @@
+package com.automation.selenium_template.driver;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Appends every step as one compact JSON line to memory mapped segment files, for analysis after the run with {@link StepEventLogReader}.
+ * Appending only copies the encoded line into the mapped segment, the operating system writes it back to disk, so there is no system call per step.
+ * A new segment is mapped when the current one is full. The unused tail of a segment is zero filled until {@link #close()} trims it.
+ * Register it with {@link DriverControllerV3#addStepListener(StepListener)}, one log can be shared by all sessions.
+ */
+public class StepEventLog implements StepListener, AutoCloseable {
+
+	public static final int DEFAULT_SEGMENT_SIZE = 64 * 1024 * 1024;
+	public static final String SEGMENT_PREFIX = "step-events-";
+	public static final String SEGMENT_SUFFIX = ".jsonl";
+	public static final String DIRECTORY_PROPERTY = "step.events.dir";
+	private static Logger logger = LoggerFactory.getLogger(StepEventLog.class);
+
+	private final ThreadLocal<StringBuilder> lineBuilder = ThreadLocal.withInitial(() -> new StringBuilder(256));
+	private final Path outputDirectory;
+	private final int segmentSize;
+	private final long runStartMillis = System.currentTimeMillis();
+	private FileChannel segmentChannel;
+	private MappedByteBuffer segmentBuffer;
+	private int segmentCount;
+	private long eventsWritten;
+	private long eventsDropped;
+	private boolean closed;
+
+	public StepEventLog(Path outputDirectory) {
+		this(outputDirectory, DEFAULT_SEGMENT_SIZE);
+	}
+
+	/**
+	 * @param outputDirectory directory the segments are written to
+	 * @param segmentSize size in bytes each segment is mapped with
+	 */
+	public StepEventLog(Path outputDirectory, int segmentSize) {
+		super();
+		this.outputDirectory = outputDirectory;
+		this.segmentSize = Math.max(4096, segmentSize);
+	}
+
+
+	// getters
+
+	/**
+	 * @return the directory given by the system property 'step.events.dir', by default 'target/step-events', set per worker JVM by the shard launcher
+	 */
+	public static Path getDefaultDirectory() {
+		return Path.of(System.getProperty(DIRECTORY_PROPERTY, "target/step-events"));
+	}
+
+	public Path getOutputDirectory() {
+		return outputDirectory;
+	}
+
+	public synchronized long getEventsWritten() {
+		return eventsWritten;
+	}
+
+	/**
+	 * Number of events not written because a segment could not be mapped or the log was closed.
+	 * @return events dropped
+	 */
+	public synchronized long getEventsDropped() {
+		return eventsDropped;
+	}
+
+
+	// append
+
+	@Override
+	public void stepFinished(StepEvent stepEvent) {
+		append(encode(stepEvent));
+	}
+
+	private synchronized void append(byte[] line) {
+		if(closed) {
+			eventsDropped++;
+			return;
+		}
+		if(segmentBuffer == null || segmentBuffer.remaining() < line.length) {
+			if(!nextSegment(line.length)) {
+				eventsDropped++;
+				return;
+			}
+		}
+		segmentBuffer.put(line);
+		eventsWritten++;
+	}
+
+	private boolean nextSegment(int minimumSize) {
+		closeSegment();
+		Path segment = outputDirectory.resolve(String.format("%s%d-%05d%s", SEGMENT_PREFIX, runStartMillis, ++segmentCount, SEGMENT_SUFFIX));
+		try {
+			Files.createDirectories(outputDirectory);
+			segmentChannel = FileChannel.open(segment, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+			segmentBuffer = segmentChannel.map(FileChannel.MapMode.READ_WRITE, 0, Math.max(segmentSize, minimumSize));
+			return true;
+		}catch (IOException e) {
+			//logging and reporting
+			logger.error("Exception occurred while mapping step event segment: {}", segment, e);
+			segmentBuffer = null;
+		}
+		return false;
+	}
+
+	private void closeSegment() {
+		if(segmentChannel != null) {
+			int size = segmentBuffer != null ? segmentBuffer.position() : 0;
+			try {
+				if(segmentBuffer != null) {
+					segmentBuffer.force();
+				}
+				// not possible on every platform while the segment is still mapped, readers stop at the zero filled tail then
+				segmentChannel.truncate(size);
+			}catch (IOException e) {
+				logger.debug("Step event segment not trimmed: {}", e.getMessage());
+			}finally {
+				try {
+					segmentChannel.close();
+				}catch (IOException e) {
+					logger.error("Exception occurred while closing step event segment", e);
+				}
+				segmentChannel = null;
+				segmentBuffer = null;
+			}
+		}
+	}
+
+	/**
+	 * Write back and trim the current segment. Later steps are dropped.
+	 */
+	@Override
+	public synchronized void close() {
+		if(!closed) {
+			closed = true;
+			closeSegment();
+		}
+	}
+
+
+	// encoding
+
+	private byte[] encode(StepEvent stepEvent) {
+		StringBuilder line = lineBuilder.get();
+		line.setLength(0);
+		line.append("{\"timestamp\":").append(stepEvent.timestampMillis());
+		appendString(line.append(",\"thread\":"), stepEvent.threadName());
+		appendString(line.append(",\"operation\":"), stepEvent.operation());
+		appendString(line.append(",\"stepDescription\":"), stepEvent.stepDescription());
+		appendString(line.append(",\"locator\":"), stepEvent.locator());
+		line.append(",\"successful\":").append(stepEvent.successful());
+		line.append(",\"durationNanos\":").append(stepEvent.durationNanos());
+		line.append(",\"depth\":").append(stepEvent.depth());
+		line.append(",\"attempts\":").append(stepEvent.attempts());
+		line.append(",\"fallbacks\":").append(stepEvent.fallbacks()).append("}\n");
+		return line.toString().getBytes(StandardCharsets.UTF_8);
+	}
+
+	private static void appendString(StringBuilder line, String value) {
+		if(value == null) {
+			line.append("null");
+			return;
+		}
+		line.append('"');
+		for(int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			switch (c) {
+				case '"': line.append("\\\""); break;
+				case '\\': line.append("\\\\"); break;
+				case '\n': line.append("\\n"); break;
+				case '\r': line.append("\\r"); break;
+				case '\t': line.append("\\t"); break;
+				default:
+					if(c < 0x20) {
+						line.append(String.format("\\u%04x", (int) c));
+					}else {
+						line.append(c);
+					}
+			}
+		}
+		line.append('"');
+	}
+}
@@ -0,0 +1,76 @@
+package com.automation.selenium_template.driver;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import org.openqa.selenium.json.Json;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Reads the segments written by {@link StepEventLog} back as step events, e.g.
+ * 'StepEventLogReader.read(directory).filter(stepEvent -> !stepEvent.successful())'.
+ */
+public class StepEventLogReader {
+
+	private static Logger logger = LoggerFactory.getLogger(StepEventLogReader.class);
+
+	private StepEventLogReader() {
+	}
+
+	/**
+	 * List the segments in the given directory in the order they were written.
+	 * @param directory the output directory of the step event log
+	 * @return the segment files, empty if the directory could not be read
+	 */
+	public static List<Path> listSegments(Path directory) {
+		try(Stream<Path> files = Files.list(directory)) {
+			return files.filter(file -> {
+				String fileName = file.getFileName().toString();
+				return fileName.startsWith(StepEventLog.SEGMENT_PREFIX) && fileName.endsWith(StepEventLog.SEGMENT_SUFFIX);
+			}).sorted().toList();
+		}catch (IOException e) {
+			//logging and reporting
+			logger.error("Exception occurred while listing step event segments: {}", directory, e);
+		}
+		return List.of();
+	}
+
+	/**
+	 * Lazily stream the step events of all segments in the given directory. Close the stream when done.
+	 * @param directory the output directory of the step event log
+	 * @return the step events in the order they were written
+	 */
+	public static Stream<StepEvent> read(Path directory) {
+		Json json = new Json();
+		return listSegments(directory).stream()
+				.flatMap(StepEventLogReader::lines)
+				.filter(line -> !line.isBlank() && line.charAt(0) != '\0')
+				.map(line -> toStepEvent(json.toType(line, Json.MAP_TYPE)));
+	}
+
+	private static Stream<String> lines(Path segment) {
+		try {
+			return Files.lines(segment, StandardCharsets.UTF_8);
+		}catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	private static StepEvent toStepEvent(Map<String, Object> map) {
+		return new StepEvent(toLong(map.get("timestamp")), (String) map.get("thread"), (String) map.get("operation"),
+				(String) map.get("stepDescription"), (String) map.get("locator"), Boolean.TRUE.equals(map.get("successful")),
+				toLong(map.get("durationNanos")), (int) toLong(map.get("depth")),
+				(int) toLong(map.get("attempts")), (int) toLong(map.get("fallbacks")));
+	}
+
+	private static long toLong(Object value) {
+		return value instanceof Number number ? number.longValue() : 0;
+	}
+}
@@ -0,0 +1,39 @@
+package com.automation.selenium_template.driver;
+
+/**
+ * Listener notified by {@link DriverControllerV3} after each of its operations.
+ * Listeners run on the thread of the operation, so they should be cheap or hand work off to another thread.
+ */
+public interface StepListener {
+	
+	/**
+	 * Called before an operation runs, for listeners linking what happens during the operation to it.
+	 * Every call is followed by a {@link #stepFinished(StepEvent)} call for the same operation.
+	 * @param operation name of the operation, e.g. click
+	 * @param stepDescription short step description, null for operations without one
+	 * @param depth 0 for operations called from outside the controller, greater for operations called by other operations
+	 */
+	public default void stepStarted(String operation, String stepDescription, int depth) {
+	}
+	
+	public void stepFinished(StepEvent stepEvent);
+	
+	/**
+	 * Capture what the listener keeps for the calling thread, e.g. its running test, so the operations the thread hands to
+	 * another thread, see {@link DriverControllerV3Async}, are attributed to it.
+	 * @return the context of the calling thread, null if the listener keeps nothing per thread
+	 */
+	public default Object captureContext() {
+		return null;
+	}
+	
+	/**
+	 * Make a context captured by {@link #captureContext()} the context of the current thread.
+	 * @param context the captured context
+	 * @return the context of the current thread before, to restore it with another call afterwards
+	 */
+	public default Object restoreContext(Object context) {
+		return null;
+	}
+	
+}
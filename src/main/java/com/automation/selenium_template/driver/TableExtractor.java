@@ -0,0 +1,288 @@
+package com.automation.selenium_template.driver;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import org.apache.commons.lang3.StringUtils;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.WebElement;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Streams the text content of large tables and virtualized grids in fixed size chunks.
+ * Each chunk is read inside the browser with a single script call, so only one chunk of plain strings
+ * is held on the JVM side at any time regardless of the number of rows. A chunk that cannot be read ends the stream
+ * with a {@link WebDriverException}, so a partially read table is never mistaken for a complete one.
+ */
+public class TableExtractor {
+
+	public static final int DEFAULT_CHUNK_SIZE = 500;
+	private static final int MAX_EMPTY_GRID_POLLS = 20;
+	private static Logger logger = LoggerFactory.getLogger(TableExtractor.class);
+
+	private static final String TABLE_CHUNK_SCRIPT = """
+			var root = arguments[0], rowSelector = arguments[1], cellSelector = arguments[2], offset = arguments[3], limit = arguments[4];
+			var rows = rowSelector ? root.querySelectorAll(rowSelector) : (root.rows || root.querySelectorAll('tr'));
+			var end = Math.min(rows.length, offset + limit), result = [];
+			for (var i = offset; i < end; i++) {
+				var cells = cellSelector ? rows[i].querySelectorAll(cellSelector) : (rows[i].cells || rows[i].children), values = [];
+				for (var j = 0; j < cells.length; j++) {
+					var text = cells[j].innerText;
+					values.push((text != null ? text : cells[j].textContent).trim());
+				}
+				result.push(values);
+			}
+			return {rows: result, total: rows.length};
+			""";
+
+	private static final String GRID_CHUNK_SCRIPT = """
+			var container = arguments[0], rowSelector = arguments[1], cellSelector = arguments[2], keyAttribute = arguments[3],
+				lastKey = arguments[4], limit = arguments[5], callback = arguments[arguments.length - 1], anchor, rendered;
+			function collect() {
+				var rows = container.querySelectorAll(rowSelector), result = [];
+				anchor = null;
+				rendered = 0;
+				for (var i = 0; i < rows.length; i++) {
+					var key = parseInt(rows[i].getAttribute(keyAttribute), 10);
+					if (isNaN(key)) continue;
+					rendered++;
+					if (key === lastKey) anchor = rows[i];
+					if (key <= lastKey) continue;
+					var cells = cellSelector ? rows[i].querySelectorAll(cellSelector) : rows[i].children, values = [];
+					for (var j = 0; j < cells.length; j++) {
+						var text = cells[j].innerText;
+						values.push((text != null ? text : cells[j].textContent).trim());
+					}
+					result.push({key: key, cells: values});
+				}
+				result.sort(function(a, b) { return a.key - b.key; });
+				return result.slice(0, limit);
+			}
+			// the end is reached when scrolled to the bottom with the last collected row rendered and none after it
+			function atEnd() {
+				return container.scrollTop + container.clientHeight >= container.scrollHeight - 1 && (anchor != null || (lastKey < 0 && rendered === 0));
+			}
+			function respond() {
+				var rows = collect();
+				callback({rows: rows, done: rows.length === 0 && atEnd()});
+			}
+			var rows = collect();
+			if (rows.length > 0 || atEnd()) {
+				callback({rows: rows, done: rows.length === 0});
+			} else if (anchor != null) {
+				// scroll once to just past the last collected row, polls while it is out of view only wait for the rows to render
+				container.scrollTop = container.scrollTop + anchor.getBoundingClientRect().bottom - container.getBoundingClientRect().top;
+				requestAnimationFrame(function() {
+					requestAnimationFrame(respond);
+				});
+			} else {
+				setTimeout(respond, 100);
+			}
+			""";
+
+	private WebDriver webDriver;
+	private int chunkSize = DEFAULT_CHUNK_SIZE;
+
+	public TableExtractor(WebDriver webDriver) {
+		super();
+		this.webDriver = webDriver;
+	}
+
+
+	// getters and setters
+
+	public int getChunkSize() {
+		return chunkSize;
+	}
+
+	public void setChunkSize(int chunkSize) {
+		this.chunkSize = chunkSize > 0 ? chunkSize : DEFAULT_CHUNK_SIZE;
+	}
+
+
+	// streams
+
+	/**
+	 * Lazily stream the rows of a table rendered fully in the DOM, using the table's own rows and cells.
+	 * @param tableWebElement the table (or tbody) web element
+	 * @return lazy stream of rows, empty if the root web element is null. A chunk that cannot be read throws a {@link WebDriverException}
+	 */
+	public Stream<Row> streamTable(WebElement tableWebElement) {
+		return streamTable(tableWebElement, null, null);
+	}
+
+	/**
+	 * Lazily stream the rows of a table rendered fully in the DOM.
+	 * @param rootWebElement the web element containing the rows
+	 * @param rowSelector css selector of the rows relative to the root, null to use the table rows
+	 * @param cellSelector css selector of the cells relative to a row, null to use the row cells
+	 * @return lazy stream of rows, empty if the root web element is null. A chunk that cannot be read throws a {@link WebDriverException}
+	 */
+	public Stream<Row> streamTable(WebElement rootWebElement, String rowSelector, String cellSelector) {
+		if(rootWebElement != null) {
+			return StreamSupport.stream(new TableSpliterator(rootWebElement, rowSelector, cellSelector), false);
+		}else {
+			logger.error("Null root web element: {}", rootWebElement);
+		}
+		return Stream.empty();
+	}
+
+	/**
+	 * Lazily stream the rows of a virtualized grid which only renders the rows within its viewport.
+	 * The container is scrolled inside the browser and rows are identified by their numeric key attribute. The container is scrolled
+	 * just past the last row read and then polled until the next rows are rendered, so rows fetched asynchronously are not skipped.
+	 * @param containerWebElement the scrollable container of the grid
+	 * @param rowSelector css selector of the rendered rows relative to the container
+	 * @param cellSelector css selector of the cells relative to a row, null to use the row children
+	 * @param keyAttribute attribute holding the row index, e.g. aria-rowindex
+	 * @return lazy stream of rows, empty if a required argument is missing. A chunk that cannot be read, or rows that are not
+	 * rendered within {@value #MAX_EMPTY_GRID_POLLS} polls, throw a {@link WebDriverException}
+	 */
+	public Stream<Row> streamGrid(WebElement containerWebElement, String rowSelector, String cellSelector, String keyAttribute) {
+		if(containerWebElement != null && StringUtils.isNotBlank(rowSelector) && StringUtils.isNotBlank(keyAttribute)) {
+			return StreamSupport.stream(new GridSpliterator(containerWebElement, rowSelector, cellSelector, keyAttribute), false);
+		}else {
+			logger.error("One or more of the required fields is null or blank. containerWebElement: {}, rowSelector: {}, keyAttribute: {}", containerWebElement, rowSelector, keyAttribute);
+		}
+		return Stream.empty();
+	}
+
+
+	// chunk readers
+
+	private static List<String> toCells(Object cells) {
+		List<String> values = new ArrayList<>();
+		if(cells instanceof List<?> cellList) {
+			for(Object cell : cellList) {
+				values.add(cell != null ? cell.toString() : "");
+			}
+		}
+		return values;
+	}
+
+	private class TableSpliterator extends Spliterators.AbstractSpliterator<Row> {
+
+		private final WebElement rootWebElement;
+		private final String rowSelector;
+		private final String cellSelector;
+		private final Deque<Row> buffer = new ArrayDeque<>();
+		private int offset;
+		private boolean done;
+
+		private TableSpliterator(WebElement rootWebElement, String rowSelector, String cellSelector) {
+			super(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL);
+			this.rootWebElement = rootWebElement;
+			this.rowSelector = rowSelector;
+			this.cellSelector = cellSelector;
+		}
+
+		@Override
+		public boolean tryAdvance(Consumer<? super Row> action) {
+			if(buffer.isEmpty() && !done) {
+				fetchChunk();
+			}
+			Row row = buffer.poll();
+			if(row != null) {
+				action.accept(row);
+				return true;
+			}
+			return false;
+		}
+
+		private void fetchChunk() {
+			Object result;
+			try {
+				result = ((JavascriptExecutor) webDriver).executeScript(TABLE_CHUNK_SCRIPT, rootWebElement, rowSelector, cellSelector, offset, chunkSize);
+			}catch (Exception e) {
+				throw new WebDriverException("Exception occurred while reading table rows from offset: " + offset, e);
+			}
+			if(!(result instanceof Map<?, ?> chunk && chunk.get("rows") instanceof List<?> rows)) {
+				throw new WebDriverException("Unexpected table chunk from offset: " + offset + ": " + result);
+			}
+			for(Object cells : rows) {
+				buffer.add(new Row(offset++, toCells(cells)));
+			}
+			done = rows.size() < chunkSize;
+		}
+	}
+
+	private class GridSpliterator extends Spliterators.AbstractSpliterator<Row> {
+
+		private final WebElement containerWebElement;
+		private final String rowSelector;
+		private final String cellSelector;
+		private final String keyAttribute;
+		private final Deque<Row> buffer = new ArrayDeque<>();
+		private long lastKey = Long.MIN_VALUE;
+		private int index;
+		private boolean done;
+
+		private GridSpliterator(WebElement containerWebElement, String rowSelector, String cellSelector, String keyAttribute) {
+			super(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL);
+			this.containerWebElement = containerWebElement;
+			this.rowSelector = rowSelector;
+			this.cellSelector = cellSelector;
+			this.keyAttribute = keyAttribute;
+		}
+
+		@Override
+		public boolean tryAdvance(Consumer<? super Row> action) {
+			int emptyPolls = 0;
+			while(buffer.isEmpty() && !done) {
+				if(!fetchChunk() && ++emptyPolls >= MAX_EMPTY_GRID_POLLS) {
+					throw new WebDriverException("No new grid rows rendered after " + emptyPolls + " polls, stopping at key: " + lastKey);
+				}
+			}
+			Row row = buffer.poll();
+			if(row != null) {
+				action.accept(row);
+				return true;
+			}
+			return false;
+		}
+
+		private boolean fetchChunk() {
+			Object result;
+			try {
+				result = ((JavascriptExecutor) webDriver).executeAsyncScript(GRID_CHUNK_SCRIPT, containerWebElement, rowSelector, cellSelector, keyAttribute, lastKey == Long.MIN_VALUE ? -1 : lastKey, chunkSize);
+			}catch (Exception e) {
+				throw new WebDriverException("Exception occurred while reading grid rows after key: " + lastKey, e);
+			}
+			if(result instanceof Map<?, ?> chunk) {
+				List<?> rows = chunk.get("rows") instanceof List<?> rowList ? rowList : List.of();
+				for(Object row : rows) {
+					if(row instanceof Map<?, ?> keyedRow && keyedRow.get("key") instanceof Number key) {
+						lastKey = key.longValue();
+						buffer.add(new Row(index++, toCells(keyedRow.get("cells"))));
+					}
+				}
+				done = Boolean.TRUE.equals(chunk.get("done"));
+				return !rows.isEmpty();
+			}
+			throw new WebDriverException("Unexpected grid chunk after key: " + lastKey + ": " + result);
+		}
+	}
+
+	/**
+	 * A single table row as plain strings.
+	 * @param index zero based position of the row within the stream
+	 * @param cells text content of the cells
+	 */
+	public record Row(int index, List<String> cells) {
+
+		public String cell(int cellIndex) {
+			return cellIndex >= 0 && cellIndex < cells.size() ? cells.get(cellIndex) : null;
+		}
+	}
+}
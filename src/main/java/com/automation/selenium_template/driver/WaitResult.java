@@ -0,0 +1,23 @@
+package com.automation.selenium_template.driver;
+
+/**
+ * Outcome of an explicit wait of {@link DriverControllerV3}. A wait that times out returns this instead of throwing,
+ * so trying the fallback locators of a locator string costs no exception and no log entry per miss.
+ * @param outcome how the wait ended
+ * @param value the value the condition returned, null unless satisfied
+ * @param polls number of times the condition was evaluated
+ * @param elapsedNanos time spent waiting
+ * @param exception the exception the wait failed with, or the last one ignored while polling, null if none
+ */
+record WaitResult<T>(Outcome outcome, T value, int polls, long elapsedNanos, Exception exception) {
+
+	enum Outcome {
+		SATISFIED,
+		TIMED_OUT,
+		FAILED
+	}
+
+	boolean isSatisfied() {
+		return outcome == Outcome.SATISFIED;
+	}
+}
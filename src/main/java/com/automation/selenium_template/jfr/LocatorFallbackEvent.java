@@ -0,0 +1,39 @@
+package com.automation.selenium_template.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight recorder event marking a fallback to the next locator of a locator string.
+ */
+@Name("selenium_template.LocatorFallback")
+@Label("Locator Fallback")
+@Category({"Selenium Template", "Driver"})
+@Description("A locator of a locator string gave no result and the next one is tried")
+@StackTrace(false)
+public class LocatorFallbackEvent extends Event {
+
+	@Label("Failed Locator")
+	String failedLocator;
+
+	@Label("Next Locator")
+	String nextLocator;
+
+	@Label("Locator Index")
+	@Description("Position of the next locator in the locator string, starting at 0")
+	int locatorIndex;
+
+	public static void emit(Object failedLocator, Object nextLocator, int locatorIndex) {
+		LocatorFallbackEvent event = new LocatorFallbackEvent();
+		if(event.shouldCommit()) {
+			event.failedLocator = String.valueOf(failedLocator);
+			event.nextLocator = String.valueOf(nextLocator);
+			event.locatorIndex = locatorIndex;
+			event.commit();
+		}
+	}
+}
@@ -0,0 +1,60 @@
+package com.automation.selenium_template.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight recorder event spanning one operation of the driver controller.
+ */
+@Name("selenium_template.Operation")
+@Label("Driver Operation")
+@Category({"Selenium Template", "Driver"})
+@Description("An operation of the driver controller including its waits and retries")
+@StackTrace(false)
+public class OperationEvent extends Event {
+
+	@Label("Operation")
+	String operation;
+
+	@Label("Step Description")
+	String stepDescription;
+
+	@Label("Locator")
+	String locator;
+
+	@Label("Successful")
+	boolean successful;
+
+	@Label("Depth")
+	@Description("0 for operations called from outside the controller")
+	int depth;
+
+	@Label("Attempts")
+	@Description("Locator lookups and wait polls")
+	int attempts;
+
+	@Label("Fallbacks")
+	@Description("Fallback locators tried after the first")
+	int fallbacks;
+
+	/**
+	 * End the event and commit it if it is enabled and over its threshold. The locator is only converted to a string then.
+	 */
+	public void finish(String operation, String stepDescription, Object locator, boolean successful, int depth, int attempts, int fallbacks) {
+		end();
+		if(shouldCommit()) {
+			this.operation = operation;
+			this.stepDescription = stepDescription;
+			this.locator = locator != null ? locator.toString() : null;
+			this.successful = successful;
+			this.depth = depth;
+			this.attempts = attempts;
+			this.fallbacks = fallbacks;
+			commit();
+		}
+	}
+}
@@ -0,0 +1,39 @@
+package com.automation.selenium_template.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight recorder event spanning the writing of report events or files, or a thread waiting for it.
+ */
+@Name("selenium_template.ReportFlush")
+@Label("Report Flush")
+@Category({"Selenium Template", "Reports"})
+@Description("A reporter writing a batch of events or its report file, or a thread waiting for it")
+@StackTrace(false)
+public class ReportFlushEvent extends Event {
+
+	@Label("Reporter")
+	String reporter;
+
+	@Label("Kind")
+	@Description("batch, flush or report")
+	String kind;
+
+	@Label("Events")
+	int events;
+
+	public void finish(String reporter, String kind, int events) {
+		end();
+		if(shouldCommit()) {
+			this.reporter = reporter;
+			this.kind = kind;
+			this.events = events;
+			commit();
+		}
+	}
+}
@@ -0,0 +1,37 @@
+package com.automation.selenium_template.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight recorder event spanning the capture, encoding or writing of a screenshot.
+ */
+@Name("selenium_template.Screenshot")
+@Label("Screenshot")
+@Category({"Selenium Template", "Screenshots"})
+@Description("Capture, encoding or writing of a screenshot")
+@StackTrace(false)
+public class ScreenshotEvent extends Event {
+
+	@Label("Phase")
+	@Description("viewport, element or region capture, encode or write")
+	String phase;
+
+	@Label("Size")
+	@DataAmount
+	long bytes;
+
+	public void finish(String phase, long bytes) {
+		end();
+		if(shouldCommit()) {
+			this.phase = phase;
+			this.bytes = bytes;
+			commit();
+		}
+	}
+}
@@ -0,0 +1,35 @@
+package com.automation.selenium_template.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight recorder event spanning one evaluation of an explicit wait condition.
+ */
+@Name("selenium_template.WaitPoll")
+@Label("Wait Poll")
+@Category({"Selenium Template", "Driver"})
+@Description("One evaluation of an explicit wait condition")
+@StackTrace(false)
+public class WaitPollEvent extends Event {
+
+	@Label("Poll")
+	@Description("1 for the first evaluation of the wait")
+	int poll;
+
+	@Label("Satisfied")
+	boolean satisfied;
+
+	public void finish(int poll, boolean satisfied) {
+		end();
+		if(shouldCommit()) {
+			this.poll = poll;
+			this.satisfied = satisfied;
+			commit();
+		}
+	}
+}
@@ -0,0 +1,47 @@
+package com.automation.selenium_template.metrics;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+
+/**
+ * TestNG listener serving the default {@link RuntimeMetrics} while suites run, on the port given by the system property 'metrics.port'.
+ * Nothing is served if the property is not set, e.g. run with '-Dmetrics.port=9464' and scrape 'http://localhost:9464/metrics'.
+ */
+public class MetricsListener implements ISuiteListener {
+
+	public static final String METRICS_PORT_PROPERTY = "metrics.port";
+	private static final Object serverLock = new Object();
+	private static MetricsServer metricsServer;
+	private static int runningSuites;
+	private static Logger logger = LoggerFactory.getLogger(MetricsListener.class);
+
+	@Override
+	public void onStart(ISuite suite) {
+		synchronized (serverLock) {
+			if(runningSuites++ == 0) {
+				String port = System.getProperty(METRICS_PORT_PROPERTY);
+				if(port != null && !port.isBlank()) {
+					try {
+						metricsServer = new MetricsServer(Integer.parseInt(port.trim()));
+						metricsServer.start();
+					}catch (NumberFormatException e) {
+						//logging and reporting
+						logger.error("Invalid metrics port: {}", port);
+					}
+				}
+			}
+		}
+	}
+
+	@Override
+	public void onFinish(ISuite suite) {
+		synchronized (serverLock) {
+			if(--runningSuites == 0 && metricsServer != null) {
+				metricsServer.close();
+				metricsServer = null;
+			}
+		}
+	}
+}
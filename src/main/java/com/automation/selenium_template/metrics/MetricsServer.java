@@ -0,0 +1,127 @@
+package com.automation.selenium_template.metrics;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Serves the {@link RuntimeMetrics} in the Prometheus text format at '/metrics' with the HTTP server of the JDK,
+ * so a long running suite can be watched or scraped while it runs. Binds to the loopback address unless given another address.
+ */
+public class MetricsServer implements AutoCloseable {
+
+	public static final String METRICS_PATH = "/metrics";
+	private static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+	private static Logger logger = LoggerFactory.getLogger(MetricsServer.class);
+
+	private final RuntimeMetrics runtimeMetrics;
+	private final InetSocketAddress address;
+	private HttpServer httpServer;
+	private ExecutorService executor;
+
+	/**
+	 * Server for the default metrics on the loopback address.
+	 * @param port port to listen on, 0 for any free port
+	 */
+	public MetricsServer(int port) {
+		this(RuntimeMetrics.getDefault(), new InetSocketAddress(InetAddress.getLoopbackAddress(), port));
+	}
+
+	/**
+	 * @param runtimeMetrics the metrics to serve
+	 * @param address address to listen on
+	 */
+	public MetricsServer(RuntimeMetrics runtimeMetrics, InetSocketAddress address) {
+		super();
+		this.runtimeMetrics = runtimeMetrics;
+		this.address = address;
+	}
+
+
+	// getters
+
+	/**
+	 * @return the port the server listens on, -1 if it is not started
+	 */
+	public synchronized int getPort() {
+		return httpServer != null ? httpServer.getAddress().getPort() : -1;
+	}
+
+
+	// operations
+
+	/**
+	 * Start listening. Does nothing if already started.
+	 * @return true if operation is successful otherwise false
+	 */
+	public synchronized boolean start() {
+		if(httpServer != null) {
+			return true;
+		}
+		try {
+			httpServer = HttpServer.create(address, 0);
+			httpServer.createContext(METRICS_PATH, this::handle);
+			executor = Executors.newSingleThreadExecutor(runnable -> {
+				Thread thread = new Thread(runnable, "metrics-server");
+				thread.setDaemon(true);
+				return thread;
+			});
+			httpServer.setExecutor(executor);
+			httpServer.start();
+			logger.info("Serving metrics at http://{}:{}{}", address.getHostString(), getPort(), METRICS_PATH);
+			return true;
+		}catch (IOException e) {
+			//logging and reporting
+			logger.error("Exception occurred while starting metrics server: {}", address, e);
+			httpServer = null;
+		}
+		return false;
+	}
+
+	/**
+	 * Stop listening, requests in progress are dropped.
+	 */
+	@Override
+	public synchronized void close() {
+		if(httpServer != null) {
+			httpServer.stop(0);
+			executor.shutdownNow();
+			httpServer = null;
+			executor = null;
+		}
+	}
+
+	private void handle(HttpExchange exchange) throws IOException {
+		try(exchange) {
+			String method = exchange.getRequestMethod();
+			if(!"GET".equals(method) && !"HEAD".equals(method)) {
+				exchange.getResponseHeaders().set("Allow", "GET, HEAD");
+				exchange.sendResponseHeaders(405, -1);
+				return;
+			}
+			byte[] body = runtimeMetrics.toPrometheusText().getBytes(StandardCharsets.UTF_8);
+			exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+			if("HEAD".equals(method)) {
+				exchange.sendResponseHeaders(200, -1);
+				return;
+			}
+			exchange.sendResponseHeaders(200, body.length);
+			try(OutputStream responseBody = exchange.getResponseBody()) {
+				responseBody.write(body);
+			}
+		}catch (Exception e) {
+			//logging and reporting
+			logger.error("Exception occurred while serving metrics", e);
+		}
+	}
+}
@@ -0,0 +1,240 @@
+package com.automation.selenium_template.metrics;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntSupplier;
+import java.util.function.LongSupplier;
+
+import com.automation.selenium_template.driver.DriverControllerV3;
+import com.automation.selenium_template.driver.LatencyHistogram;
+import com.automation.selenium_template.reports.AsyncReportUtil;
+import com.automation.selenium_template.reports.ReportStatus;
+
+/**
+ * Live counters of the running suite, updated by every {@link DriverControllerV3} and {@link AsyncReportUtil} through {@link #getDefault()}
+ * and rendered in the Prometheus text format by {@link #toPrometheusText()}, e.g. for {@link MetricsServer}.
+ * Updating a counter costs an uncontended atomic add, nothing is formatted until the metrics are scraped.
+ */
+public class RuntimeMetrics {
+
+	public static final int STEP_RATE_WINDOW_SECONDS = 60;
+	private static final double[] WAIT_QUANTILES = {0.5, 0.9, 0.99};
+	private static final RuntimeMetrics defaultMetrics = new RuntimeMetrics();
+
+	private final long startMillis = System.currentTimeMillis();
+	private final AtomicInteger activeSessions = new AtomicInteger();
+	private final LongAdder sessionsStarted = new LongAdder();
+	private final LongAdder stepsPassed = new LongAdder();
+	private final LongAdder stepsFailed = new LongAdder();
+	// steps finished per second of the last window, each slot stamped with the epoch second it counts
+	private final AtomicLongArray stepSlotSeconds = new AtomicLongArray(STEP_RATE_WINDOW_SECONDS + 1);
+	private final AtomicLongArray stepSlotCounts = new AtomicLongArray(STEP_RATE_WINDOW_SECONDS + 1);
+	private final LatencyHistogram waitLatency = new LatencyHistogram();
+	private final LongAdder waitsTimedOut = new LongAdder();
+	private final LongAdder[] resultsByStatus = new LongAdder[ReportStatus.values().length];
+	private final Map<String, Reporter> reporters = new ConcurrentHashMap<>();
+
+	public RuntimeMetrics() {
+		super();
+		for(int i = 0; i < resultsByStatus.length; i++) {
+			resultsByStatus[i] = new LongAdder();
+		}
+	}
+
+	/**
+	 * @return the metrics updated by the driver controllers and report utils unless they are given other metrics
+	 */
+	public static RuntimeMetrics getDefault() {
+		return defaultMetrics;
+	}
+
+
+	// recording
+
+	public void sessionStarted() {
+		activeSessions.incrementAndGet();
+		sessionsStarted.increment();
+	}
+
+	public void sessionEnded() {
+		activeSessions.decrementAndGet();
+	}
+
+	/**
+	 * Count a top level operation of a driver controller.
+	 * @param successful outcome of the operation
+	 */
+	public void stepFinished(boolean successful) {
+		if(successful) {
+			stepsPassed.increment();
+		}else {
+			stepsFailed.increment();
+		}
+		long second = System.currentTimeMillis() / 1000;
+		int slot = (int) (second % stepSlotSeconds.length());
+		if(stepSlotSeconds.get(slot) != second) {
+			synchronized (stepSlotSeconds) {
+				if(stepSlotSeconds.get(slot) != second) {
+					stepSlotCounts.set(slot, 0);
+					stepSlotSeconds.set(slot, second);
+				}
+			}
+		}
+		stepSlotCounts.incrementAndGet(slot);
+	}
+
+	/**
+	 * @param elapsedNanos time the explicit wait took
+	 * @param timedOut true if the condition was not satisfied in time
+	 */
+	public void waitFinished(long elapsedNanos, boolean timedOut) {
+		waitLatency.record(elapsedNanos);
+		if(timedOut) {
+			waitsTimedOut.increment();
+		}
+	}
+
+	/**
+	 * @param reportStatus most severe status logged by a top level operation, or of a result logged outside any operation
+	 */
+	public void resultLogged(ReportStatus reportStatus) {
+		resultsByStatus[reportStatus.ordinal()].increment();
+	}
+
+	/**
+	 * Expose the queue of a reporter until it is unregistered.
+	 * @param worker unique name of the reporter's worker
+	 * @param reporter name of the report util writing the events
+	 * @param queueDepth number of events waiting in the queue
+	 * @param eventsDropped number of events dropped because the queue was full
+	 */
+	public void registerReporter(String worker, String reporter, IntSupplier queueDepth, LongSupplier eventsDropped) {
+		reporters.put(worker, new Reporter(reporter, queueDepth, eventsDropped));
+	}
+
+	public void unregisterReporter(String worker) {
+		reporters.remove(worker);
+	}
+
+
+	// getters
+
+	public int getActiveSessions() {
+		return activeSessions.get();
+	}
+
+	public long getStepsFinished() {
+		return stepsPassed.sum() + stepsFailed.sum();
+	}
+
+	public long getStepsFailed() {
+		return stepsFailed.sum();
+	}
+
+	/**
+	 * Steps finished per second over the last complete seconds of the window, or since start if that is shorter.
+	 * @return steps per second
+	 */
+	public double getStepsPerSecond() {
+		long currentSecond = System.currentTimeMillis() / 1000;
+		long windowSeconds = Math.min(STEP_RATE_WINDOW_SECONDS, currentSecond - startMillis / 1000);
+		if(windowSeconds <= 0) {
+			return 0;
+		}
+		long steps = 0;
+		for(int slot = 0; slot < stepSlotSeconds.length(); slot++) {
+			long second = stepSlotSeconds.get(slot);
+			if(second < currentSecond && second >= currentSecond - windowSeconds) {
+				steps += stepSlotCounts.get(slot);
+			}
+		}
+		return (double) steps / windowSeconds;
+	}
+
+	public LatencyHistogram getWaitLatency() {
+		return waitLatency;
+	}
+
+	public long getResultCount(ReportStatus reportStatus) {
+		return resultsByStatus[reportStatus.ordinal()].sum();
+	}
+
+	/**
+	 * @return events waiting in the queues of all registered reporters
+	 */
+	public int getReporterQueueDepth() {
+		return reporters.values().stream().mapToInt(reporter -> reporter.queueDepth().getAsInt()).sum();
+	}
+
+
+	// export
+
+	/**
+	 * Render the metrics in the Prometheus text exposition format, version 0.0.4.
+	 * Wait quantiles are computed over the whole run.
+	 * @return the metrics text
+	 */
+	public String toPrometheusText() {
+		StringBuilder text = new StringBuilder(2048);
+		appendHeader(text, "selenium_active_sessions", "gauge", "Driver controller sessions that ran an operation and were not quit yet.");
+		appendSample(text, "selenium_active_sessions", null, activeSessions.get());
+		appendHeader(text, "selenium_sessions_started_total", "counter", "Driver controller sessions that ran an operation.");
+		appendSample(text, "selenium_sessions_started_total", null, sessionsStarted.sum());
+		appendHeader(text, "selenium_steps_total", "counter", "Top level driver controller operations finished, by outcome.");
+		appendSample(text, "selenium_steps_total", "outcome=\"passed\"", stepsPassed.sum());
+		appendSample(text, "selenium_steps_total", "outcome=\"failed\"", stepsFailed.sum());
+		appendHeader(text, "selenium_steps_per_second", "gauge", "Top level operations finished per second over the last " + STEP_RATE_WINDOW_SECONDS + " seconds.");
+		appendSample(text, "selenium_steps_per_second", null, getStepsPerSecond());
+		appendHeader(text, "selenium_wait_duration_seconds", "summary", "Duration of explicit waits.");
+		for(double quantile : WAIT_QUANTILES) {
+			appendSample(text, "selenium_wait_duration_seconds", "quantile=\"" + quantile + "\"", waitLatency.getValueAtPercentile(quantile * 100) / 1e9);
+		}
+		appendSample(text, "selenium_wait_duration_seconds_sum", null, waitLatency.getTotalNanos() / 1e9);
+		appendSample(text, "selenium_wait_duration_seconds_count", null, waitLatency.getCount());
+		appendHeader(text, "selenium_wait_timeouts_total", "counter", "Explicit waits that timed out.");
+		appendSample(text, "selenium_wait_timeouts_total", null, waitsTimedOut.sum());
+		appendHeader(text, "selenium_step_results_total", "counter", "Top level steps by the most severe result they logged, by report status.");
+		for(ReportStatus reportStatus : ReportStatus.values()) {
+			appendSample(text, "selenium_step_results_total", "status=\"" + reportStatus.name() + "\"", resultsByStatus[reportStatus.ordinal()].sum());
+		}
+		appendHeader(text, "selenium_reporter_queue_depth", "gauge", "Report events waiting for the reporter worker.");
+		reporters.forEach((worker, reporter) -> appendSample(text, "selenium_reporter_queue_depth", reporter.labels(worker), reporter.queueDepth().getAsInt()));
+		appendHeader(text, "selenium_reporter_events_dropped_total", "counter", "Report events dropped because the reporter queue was full.");
+		reporters.forEach((worker, reporter) -> appendSample(text, "selenium_reporter_events_dropped_total", reporter.labels(worker), reporter.eventsDropped().getAsLong()));
+		return text.toString();
+	}
+
+	private static void appendHeader(StringBuilder text, String name, String type, String help) {
+		text.append("# HELP ").append(name).append(' ').append(help).append('\n');
+		text.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+	}
+
+	private static void appendSample(StringBuilder text, String name, String labels, double value) {
+		text.append(name);
+		if(labels != null) {
+			text.append('{').append(labels).append('}');
+		}
+		text.append(' ');
+		if(value == Math.rint(value) && Math.abs(value) < 1e15) {
+			text.append((long) value);
+		}else {
+			text.append(String.format(Locale.ROOT, "%.6g", value));
+		}
+		text.append('\n');
+	}
+
+	private static String escapeLabel(String value) {
+		return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+	}
+
+	private record Reporter(String reporter, IntSupplier queueDepth, LongSupplier eventsDropped) {
+
+		private String labels(String worker) {
+			return "reporter=\"" + escapeLabel(reporter) + "\",worker=\"" + escapeLabel(worker) + "\"";
+		}
+	}
+}
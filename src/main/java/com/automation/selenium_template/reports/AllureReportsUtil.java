@@ -1,27 +1,115 @@
 package com.automation.selenium_template.reports;
 
+import java.nio.file.Path;
+import java.util.UUID;
+
 import org.apache.commons.lang3.StringUtils;
 
 import io.qameta.allure.Allure;
+import io.qameta.allure.AllureLifecycle;
+import io.qameta.allure.model.Attachment;
 import io.qameta.allure.model.Status;
+import io.qameta.allure.model.StepResult;
+import io.qameta.allure.util.ResultsUtils;
 
 public class AllureReportsUtil implements ReportUtil {
+	
+	private AttachmentStore attachmentStore;
+	
+	public AllureReportsUtil() {
+		super();
+	}
+	
+	/**
+	 * @param attachmentStore store the screenshots are deduplicated into, its root directory must be the allure results directory
+	 */
+	public AllureReportsUtil(AttachmentStore attachmentStore) {
+		super();
+		this.attachmentStore = attachmentStore;
+	}
 
 	@Override
 	public void report(ReportStatus reportStatus, String stepDescription, String message, String screenShotPath) {
 		Status status = getStatus(reportStatus);
 		message = StringUtils.isNotBlank(stepDescription) ? String.format("%s: %s", stepDescription, message) : message;
-		Allure.step(message, status);
+		AllureLifecycle lifecycle = Allure.getLifecycle();
+		String uuid = UUID.randomUUID().toString();
+		lifecycle.startStep(uuid, new StepResult().setName(message).setStatus(status));
+		Attachment screenShot = storeScreenShot(screenShotPath);
+		if(screenShot != null) {
+			lifecycle.updateStep(uuid, step -> step.getAttachments().add(screenShot));
+		}
+		lifecycle.stopStep(uuid);
 	}
 
 	@Override
 	public void report(ReportStatus reportStatus, String stepDescription, String message, String screenShotPath,
 			Exception e) {
 		message = StringUtils.isNotBlank(stepDescription) ? String.format("%s: %s", stepDescription, message) : message;
-		Allure.step(message, () -> {throw e;});
+		Attachment screenShot = storeScreenShot(screenShotPath);
+		Allure.step(message, () -> {
+			if(screenShot != null) {
+				Allure.getLifecycle().updateStep(step -> step.getAttachments().add(screenShot));
+			}
+			throw e;
+		});
 		
 	}
 	
+	/**
+	 * The uuid of the running test case or step, so a step reported later on another thread is added to it.
+	 */
+	@Override
+	public Object captureReportContext() {
+		return Allure.getLifecycle().getCurrentTestCaseOrStep().orElse(null);
+	}
+	
+	/**
+	 * Add the event as a step of the test case or step captured when it was reported. The exception, if any, only sets
+	 * the step status and details and is not thrown.
+	 */
+	@Override
+	public void report(ReportEvent reportEvent) {
+		if(!(reportEvent.reportContext() instanceof String parentUuid)) {
+			ReportUtil.super.report(reportEvent);
+			return;
+		}
+		String message = StringUtils.isNotBlank(reportEvent.stepDescription()) ? String.format("%s: %s", reportEvent.stepDescription(), reportEvent.message()) : reportEvent.message();
+		StepResult stepResult = new StepResult().setName(message).setStart(reportEvent.timestampMillis());
+		if(reportEvent.exception() != null) {
+			stepResult.setStatus(ResultsUtils.getStatus(reportEvent.exception()).orElse(Status.BROKEN))
+				.setStatusDetails(ResultsUtils.getStatusDetails(reportEvent.exception()).orElse(null));
+		}else {
+			stepResult.setStatus(getStatus(reportEvent.reportStatus()));
+		}
+		AllureLifecycle lifecycle = Allure.getLifecycle();
+		String uuid = UUID.randomUUID().toString();
+		lifecycle.startStep(parentUuid, uuid, stepResult);
+		Attachment screenShot = storeScreenShot(reportEvent.screenShotPath());
+		if(screenShot != null) {
+			stepResult.getAttachments().add(screenShot);
+		}
+		lifecycle.stopStep(uuid);
+	}
+	
+	/**
+	 * Store the screenshot in the attachment store and reference it instead of copying it into the results again.
+	 * @return attachment referencing the stored screenshot, null if there is no screenshot or store
+	 */
+	private Attachment storeScreenShot(String screenShotPath) {
+		if(attachmentStore != null && StringUtils.isNotBlank(screenShotPath)) {
+			Path storedScreenShot = attachmentStore.store(Path.of(screenShotPath));
+			if(storedScreenShot != null) {
+				String fileName = storedScreenShot.getFileName().toString();
+				return new Attachment()
+						.setName("screenshot")
+						.setSource(fileName)
+						.setType(fileName.endsWith(".png") ? "image/png" : "image/jpeg");
+			}
+		}
+		return null;
+	}
+	
 	private Status getStatus(ReportStatus reportStatus) {
 		switch (reportStatus) {
 			case DEBUG:
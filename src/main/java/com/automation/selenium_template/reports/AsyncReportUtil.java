@@ -0,0 +1,249 @@
+package com.automation.selenium_template.reports;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.automation.selenium_template.jfr.ReportFlushEvent;
+import com.automation.selenium_template.metrics.RuntimeMetrics;
+
+/**
+ * {@link ReportUtil} decorator handing report calls to a background worker, so writing the report does not add latency to the steps.
+ * Calls are captured together with the delegate's {@link ReportUtil#captureReportContext() report context} into a bounded queue
+ * and reported by the worker in batches. When the queue is full the caller either waits or the event is dropped, see {@link OverflowPolicy}.
+ * Call {@link #flush()} at test end before the test result is written, e.g. with {@link ReportFlushListener}.
+ */
+public final class AsyncReportUtil implements ReportUtil, AutoCloseable {
+
+	public static final int DEFAULT_QUEUE_CAPACITY = 1024;
+	public static final int DEFAULT_BATCH_SIZE = 64;
+	private static final AtomicInteger workerCounter = new AtomicInteger();
+	private static final Set<AsyncReportUtil> openReportUtils = ConcurrentHashMap.newKeySet();
+	private static Logger logger = LoggerFactory.getLogger(AsyncReportUtil.class);
+
+	/**
+	 * What to do with a report call while the queue is full.
+	 */
+	public enum OverflowPolicy {
+		/** wait for the worker to make room, no event is lost */
+		BLOCK,
+		/** drop the event and count it, the caller never waits */
+		DROP
+	}
+
+	private final ReportUtil delegate;
+	private final BlockingQueue<ReportEvent> queue;
+	private final OverflowPolicy overflowPolicy;
+	private final int batchSize;
+	private final Thread workerThread;
+	private final Object progressLock = new Object();
+	private final AtomicLong eventsQueued = new AtomicLong();
+	private final AtomicLong eventsReported = new AtomicLong();
+	private final AtomicLong eventsDropped = new AtomicLong();
+	private final AtomicLong eventsFailed = new AtomicLong();
+	private volatile boolean closed;
+
+	public AsyncReportUtil(ReportUtil delegate) {
+		this(delegate, DEFAULT_QUEUE_CAPACITY, OverflowPolicy.BLOCK);
+	}
+
+	/**
+	 * @param delegate the report util the events are reported to by the worker
+	 * @param queueCapacity number of events that may wait for the worker
+	 * @param overflowPolicy what to do with a report call while the queue is full
+	 */
+	public AsyncReportUtil(ReportUtil delegate, int queueCapacity, OverflowPolicy overflowPolicy) {
+		super();
+		this.delegate = delegate;
+		this.queue = new ArrayBlockingQueue<>(Math.max(1, queueCapacity));
+		this.overflowPolicy = overflowPolicy != null ? overflowPolicy : OverflowPolicy.BLOCK;
+		this.batchSize = DEFAULT_BATCH_SIZE;
+		this.workerThread = new Thread(this::reportBatches, "report-worker-" + workerCounter.incrementAndGet());
+		this.workerThread.setDaemon(true);
+		this.workerThread.start();
+		openReportUtils.add(this);
+		RuntimeMetrics.getDefault().registerReporter(workerThread.getName(), delegate.getClass().getSimpleName(), this::getQueueDepth, eventsDropped::get);
+	}
+
+
+	// getters
+
+	public ReportUtil getDelegate() {
+		return delegate;
+	}
+
+	public OverflowPolicy getOverflowPolicy() {
+		return overflowPolicy;
+	}
+
+	public int getQueueDepth() {
+		return queue.size();
+	}
+
+	public long getEventsReported() {
+		return eventsReported.get();
+	}
+
+	/**
+	 * Number of events dropped because the queue was full, always 0 with {@link OverflowPolicy#BLOCK}.
+	 * @return events dropped
+	 */
+	public long getEventsDropped() {
+		return eventsDropped.get();
+	}
+
+	/**
+	 * Number of events the delegate threw on while reporting.
+	 * @return events failed
+	 */
+	public long getEventsFailed() {
+		return eventsFailed.get();
+	}
+
+
+	// report
+
+	@Override
+	public void report(ReportStatus reportStatus, String stepDescription, String message, String screenShotPath) {
+		report(reportStatus, stepDescription, message, screenShotPath, null);
+	}
+
+	/**
+	 * Queue the call. Unlike a direct report call the exception is never thrown, it is only reported.
+	 */
+	@Override
+	public void report(ReportStatus reportStatus, String stepDescription, String message, String screenShotPath,
+			Exception e) {
+		report(new ReportEvent(reportStatus, stepDescription, message, screenShotPath, e, delegate.captureReportContext(), System.currentTimeMillis()));
+	}
+
+	@Override
+	public Object captureReportContext() {
+		return delegate.captureReportContext();
+	}
+
+	@Override
+	public void report(ReportEvent reportEvent) {
+		if(closed) {
+			logger.error("Report util is closed, dropping report event: {}", reportEvent.stepDescription());
+			eventsDropped.incrementAndGet();
+			return;
+		}
+		// counted before it is queued, so a flush never misses an event the worker may already be reporting
+		eventsQueued.incrementAndGet();
+		if(overflowPolicy == OverflowPolicy.DROP) {
+			if(!queue.offer(reportEvent)) {
+				eventsQueued.decrementAndGet();
+				eventsDropped.incrementAndGet();
+			}
+		}else {
+			try {
+				queue.put(reportEvent);
+			}catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				eventsQueued.decrementAndGet();
+				eventsDropped.incrementAndGet();
+			}
+		}
+	}
+
+	/**
+	 * Block until all events queued so far are reported.
+	 */
+	public void flush() {
+		long target = eventsQueued.get();
+		int pendingEvents = (int) (target - eventsReported.get() - eventsFailed.get());
+		if(pendingEvents <= 0) {
+			return;
+		}
+		ReportFlushEvent reportFlushEvent = new ReportFlushEvent();
+		reportFlushEvent.begin();
+		try {
+			synchronized (progressLock) {
+				// events counted but then dropped lower the target
+				while(eventsReported.get() + eventsFailed.get() < Math.min(target, eventsQueued.get()) && workerThread.isAlive()) {
+					try {
+						progressLock.wait(100);
+					}catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+						return;
+					}
+				}
+			}
+		}finally {
+			reportFlushEvent.finish(delegate.getClass().getSimpleName(), "flush", pendingEvents);
+		}
+	}
+
+	/**
+	 * Flush every report util that is not closed yet.
+	 */
+	public static void flushAll() {
+		for(AsyncReportUtil asyncReportUtil : openReportUtils) {
+			asyncReportUtil.flush();
+		}
+	}
+
+	/**
+	 * Report all queued events and stop the worker.
+	 */
+	@Override
+	public void close() {
+		if(!closed) {
+			flush();
+			closed = true;
+			openReportUtils.remove(this);
+			RuntimeMetrics.getDefault().unregisterReporter(workerThread.getName());
+			workerThread.interrupt();
+			try {
+				workerThread.join(TimeUnit.SECONDS.toMillis(10));
+			}catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			if(eventsDropped.get() > 0 || eventsFailed.get() > 0) {
+				logger.warn("Report util closed. reported: {}, dropped: {}, failed: {}", eventsReported.get(), eventsDropped.get(), eventsFailed.get());
+			}
+		}
+	}
+
+	private void reportBatches() {
+		List<ReportEvent> batch = new ArrayList<>(batchSize);
+		while(!closed || !queue.isEmpty()) {
+			try {
+				batch.add(queue.take());
+			}catch (InterruptedException e) {
+				if(queue.isEmpty()) {
+					break;
+				}
+			}
+			queue.drainTo(batch, batchSize - batch.size());
+			ReportFlushEvent reportFlushEvent = new ReportFlushEvent();
+			reportFlushEvent.begin();
+			for(ReportEvent reportEvent : batch) {
+				try {
+					delegate.report(reportEvent);
+					eventsReported.incrementAndGet();
+				}catch (Exception e) {
+					//logging and reporting
+					logger.error("Exception occurred while reporting: {}", reportEvent.stepDescription(), e);
+					eventsFailed.incrementAndGet();
+				}
+			}
+			reportFlushEvent.finish(delegate.getClass().getSimpleName(), "batch", batch.size());
+			batch.clear();
+			synchronized (progressLock) {
+				progressLock.notifyAll();
+			}
+		}
+	}
+
+}
@@ -0,0 +1,140 @@
+package com.automation.selenium_template.reports;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Content addressed store for report attachments such as screenshots, page sources and logs.
+ * Every blob is written once under the SHA-256 hash of its content and referenced by that file from any number of reports.
+ * Files are named '&lt;hash&gt;-attachment.&lt;extension&gt;' directly inside the root directory, so the allure results
+ * directory can be used as root and the stored files are picked up as regular allure attachments.
+ */
+public class AttachmentStore {
+
+	private static Logger logger = LoggerFactory.getLogger(AttachmentStore.class);
+
+	private final Path rootDirectory;
+	private final Set<String> storedFileNames = ConcurrentHashMap.newKeySet();
+	private final AtomicLong bytesWritten = new AtomicLong();
+	private final AtomicLong duplicatesSkipped = new AtomicLong();
+
+	public AttachmentStore(Path rootDirectory) {
+		super();
+		this.rootDirectory = rootDirectory;
+	}
+
+
+	// getters
+
+	public Path getRootDirectory() {
+		return rootDirectory;
+	}
+
+	public long getBytesWritten() {
+		return bytesWritten.get();
+	}
+
+	/**
+	 * Number of stored blobs that were already present and therefore not written again.
+	 * @return duplicates skipped
+	 */
+	public long getDuplicatesSkipped() {
+		return duplicatesSkipped.get();
+	}
+
+
+	// store
+
+	/**
+	 * Store the given content unless identical content is already stored.
+	 * @param content the blob to store
+	 * @param extension file extension without dot, e.g. png
+	 * @return the stored file, null if the content could not be stored
+	 */
+	public Path store(byte[] content, String extension) {
+		if(content != null) {
+			String hash = hash(content);
+			String fileName = hash + "-attachment" + (StringUtils.isNotBlank(extension) ? "." + extension : "");
+			Path target = rootDirectory.resolve(fileName);
+			if(storedFileNames.contains(fileName) || Files.exists(target)) {
+				storedFileNames.add(fileName);
+				duplicatesSkipped.incrementAndGet();
+				return target;
+			}
+			try {
+				Files.createDirectories(rootDirectory);
+				Path temporaryFile = Files.createTempFile(rootDirectory, "." + hash, ".tmp");
+				Files.write(temporaryFile, content);
+				try {
+					Files.move(temporaryFile, target, StandardCopyOption.ATOMIC_MOVE);
+					bytesWritten.addAndGet(content.length);
+				}catch (FileAlreadyExistsException e) {
+					// stored concurrently by another thread or process
+					Files.deleteIfExists(temporaryFile);
+					duplicatesSkipped.incrementAndGet();
+				}
+				storedFileNames.add(fileName);
+				return target;
+			}catch (IOException e) {
+				//logging and reporting
+				logger.error("Exception occurred while storing attachment: {}", fileName, e);
+			}
+		}else {
+			logger.error("Null attachment content: {}", content);
+		}
+		return null;
+	}
+
+	/**
+	 * Store the given text as UTF-8 unless identical text is already stored.
+	 * @param text the text to store, e.g. a page source or log
+	 * @param extension file extension without dot, e.g. html
+	 * @return the stored file, null if the text could not be stored
+	 */
+	public Path store(String text, String extension) {
+		return text != null ? store(text.getBytes(StandardCharsets.UTF_8), extension) : null;
+	}
+
+	/**
+	 * Store the content of the given file unless identical content is already stored. The file itself is left untouched.
+	 * @param file the file to store, e.g. a screenshot written by the driver
+	 * @return the stored file, null if the file could not be read or stored
+	 */
+	public Path store(Path file) {
+		if(file != null) {
+			try {
+				String fileName = file.getFileName().toString();
+				String extension = fileName.contains(".") ? fileName.substring(fileName.lastIndexOf('.') + 1) : null;
+				return store(Files.readAllBytes(file), extension);
+			}catch (IOException e) {
+				//logging and reporting
+				logger.error("Exception occurred while reading attachment: {}", file, e);
+			}
+		}else {
+			logger.error("Null attachment file: {}", file);
+		}
+		return null;
+	}
+
+	static String hash(byte[] content) {
+		try {
+			return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+		}catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException("SHA-256 not available", e);
+		}
+	}
+}
@@ -0,0 +1,113 @@
+package com.automation.selenium_template.reports;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.automation.selenium_template.reports.AsyncReportUtil.OverflowPolicy;
+
+/**
+ * {@link ReportUtil} publishing every step to several sinks, e.g. allure, extent and the log, in parallel.
+ * Each sink gets its own {@link AsyncReportUtil} worker and queue, so a slow or failing sink neither holds up the others nor the test.
+ * By default a sink whose queue is full drops events rather than blocking the test, see {@link #getSinks()} for the drop and failure counts.
+ */
+public class CompositeReportUtil implements ReportUtil, AutoCloseable {
+	
+	private static Logger logger = LoggerFactory.getLogger(CompositeReportUtil.class);
+	
+	private final List<AsyncReportUtil> sinks = new ArrayList<>();
+	
+	public CompositeReportUtil(ReportUtil... reportUtils) {
+		this(Arrays.asList(reportUtils), AsyncReportUtil.DEFAULT_QUEUE_CAPACITY, OverflowPolicy.DROP);
+	}
+	
+	/**
+	 * @param reportUtils the sinks, an {@link AsyncReportUtil} is used as is and any other report util gets its own
+	 * @param queueCapacity number of events that may wait for each sink
+	 * @param overflowPolicy what to do with an event for a sink whose queue is full
+	 */
+	public CompositeReportUtil(List<ReportUtil> reportUtils, int queueCapacity, OverflowPolicy overflowPolicy) {
+		super();
+		for(ReportUtil reportUtil : reportUtils) {
+			if(reportUtil != null) {
+				sinks.add(reportUtil instanceof AsyncReportUtil asyncReportUtil ? asyncReportUtil : new AsyncReportUtil(reportUtil, queueCapacity, overflowPolicy));
+			}
+		}
+	}
+	
+	
+	// getters
+	
+	/**
+	 * The sinks in the order they were given, each with its queue depth, drop and failure counts.
+	 * @return the sinks
+	 */
+	public List<AsyncReportUtil> getSinks() {
+		return List.copyOf(sinks);
+	}
+	
+	
+	// report
+	
+	@Override
+	public void report(ReportStatus reportStatus, String stepDescription, String message, String screenShotPath) {
+		report(reportStatus, stepDescription, message, screenShotPath, null);
+	}
+	
+	/**
+	 * Queue the call for every sink. The exception is never thrown, it is only reported.
+	 */
+	@Override
+	public void report(ReportStatus reportStatus, String stepDescription, String message, String screenShotPath,
+			Exception e) {
+		report(new ReportEvent(reportStatus, stepDescription, message, screenShotPath, e, captureReportContext(), System.currentTimeMillis()));
+	}
+	
+	/**
+	 * The report contexts of all sinks, in sink order.
+	 */
+	@Override
+	public Object captureReportContext() {
+		Object[] reportContexts = new Object[sinks.size()];
+		for(int i = 0; i < reportContexts.length; i++) {
+			reportContexts[i] = sinks.get(i).captureReportContext();
+		}
+		return reportContexts;
+	}
+	
+	@Override
+	public void report(ReportEvent reportEvent) {
+		Object[] reportContexts = reportEvent.reportContext() instanceof Object[] capturedContexts && capturedContexts.length == sinks.size() ? capturedContexts : null;
+		for(int i = 0; i < sinks.size(); i++) {
+			AsyncReportUtil sink = sinks.get(i);
+			try {
+				sink.report(reportEvent.withReportContext(reportContexts != null ? reportContexts[i] : sink.captureReportContext()));
+			}catch (Exception e) {
+				//logging and reporting
+				logger.error("Exception occurred while queueing report event for sink: {}", sink.getDelegate().getClass().getSimpleName(), e);
+			}
+		}
+	}
+	
+	/**
+	 * Block until all sinks reported the events queued so far.
+	 */
+	public void flush() {
+		for(AsyncReportUtil sink : sinks) {
+			sink.flush();
+		}
+	}
+	
+	@Override
+	public void close() {
+		for(AsyncReportUtil sink : sinks) {
+			sink.close();
+			logger.info("Report sink {} closed. reported: {}, dropped: {}, failed: {}", sink.getDelegate().getClass().getSimpleName(),
+					sink.getEventsReported(), sink.getEventsDropped(), sink.getEventsFailed());
+		}
+	}
+	
+}
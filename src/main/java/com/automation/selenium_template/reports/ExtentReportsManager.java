@@ -0,0 +1,185 @@
+package com.automation.selenium_template.reports;
+
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.automation.selenium_template.jfr.ReportFlushEvent;
+import com.aventstack.extentreports.ExtentReports;
+import com.aventstack.extentreports.ExtentTest;
+import com.aventstack.extentreports.reporter.ExtentSparkReporter;
+
+/**
+ * Owns the {@link ExtentReports} of a suite. The spark reporter is attached once and the report, which is rewritten
+ * completely on every flush, is flushed in the background once per interval when it changed or after a number of new tests,
+ * instead of after every test. Tests are changed through {@link #updateTest(Runnable)}, which shares a lock with the flush,
+ * so a flush never writes a test while it is being logged to and an unchanged report is not rewritten.
+ * {@link #close()} writes the final report, identical to flushing after every test.
+ */
+public final class ExtentReportsManager implements AutoCloseable {
+
+	public static final Duration DEFAULT_FLUSH_INTERVAL = Duration.ofSeconds(30);
+	public static final int DEFAULT_FLUSH_EVERY_TESTS = 100;
+	private static final AtomicInteger flusherCounter = new AtomicInteger();
+	private static Logger logger = LoggerFactory.getLogger(ExtentReportsManager.class);
+
+	private final ExtentReports extentReports = new ExtentReports();
+	private final String reportPath;
+	private final int flushEveryTests;
+	private final ScheduledExecutorService flushExecutor;
+	private final ReadWriteLock testLock = new ReentrantReadWriteLock();
+	private final AtomicInteger testsSinceFlush = new AtomicInteger();
+	private final AtomicLong flushCount = new AtomicLong();
+	private volatile boolean dirty;
+	private volatile boolean closed;
+
+	public ExtentReportsManager(String reportPath) {
+		this(reportPath, DEFAULT_FLUSH_INTERVAL, DEFAULT_FLUSH_EVERY_TESTS);
+	}
+
+	/**
+	 * @param reportPath path of the spark html report
+	 * @param flushInterval how often the report is flushed while tests are added, null or zero to only flush by test count
+	 * @param flushEveryTests number of new tests after which the report is flushed, 0 to only flush by interval
+	 */
+	public ExtentReportsManager(String reportPath, Duration flushInterval, int flushEveryTests) {
+		super();
+		this.reportPath = reportPath;
+		this.flushEveryTests = Math.max(0, flushEveryTests);
+		this.extentReports.attachReporter(new ExtentSparkReporter(reportPath));
+		this.flushExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "extent-flusher-" + flusherCounter.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		});
+		if(flushInterval != null && !flushInterval.isZero() && !flushInterval.isNegative()) {
+			long intervalMillis = flushInterval.toMillis();
+			flushExecutor.scheduleWithFixedDelay(this::flushIfDirty, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+		}
+	}
+
+
+	// getters
+
+	public ExtentReports getExtentReports() {
+		return extentReports;
+	}
+
+	public String getReportPath() {
+		return reportPath;
+	}
+
+	/**
+	 * Number of times the report was written, including the final flush.
+	 * @return flushes performed
+	 */
+	public long getFlushCount() {
+		return flushCount.get();
+	}
+
+
+	// tests
+
+	/**
+	 * Create a test in the report, scheduling a background flush when enough tests were added since the last one.
+	 * @param name test name
+	 * @return the created test
+	 */
+	public ExtentTest createTest(String name) {
+		return createTest(name, null);
+	}
+
+	/**
+	 * Create a test in the report, scheduling a background flush when enough tests were added since the last one.
+	 * @param name test name
+	 * @param description test description, may be null
+	 * @return the created test
+	 */
+	public ExtentTest createTest(String name, String description) {
+		ExtentTest extentTest;
+		testLock.readLock().lock();
+		try {
+			extentTest = extentReports.createTest(name, description);
+			dirty = true;
+		}finally {
+			testLock.readLock().unlock();
+		}
+		if(flushEveryTests > 0 && testsSinceFlush.incrementAndGet() >= flushEveryTests && !closed) {
+			testsSinceFlush.set(0);
+			try {
+				flushExecutor.execute(this::flush);
+			}catch (RejectedExecutionException e) {
+				logger.debug("Extent report is closing, the final flush writes the test: {}", name);
+			}
+		}
+		return extentTest;
+	}
+
+	/**
+	 * Change a test of the report, e.g. log to it, so the change is written by the next flush and never while a flush runs.
+	 * Tests may be updated concurrently with each other, only the flush is exclusive.
+	 * @param testUpdate change of an {@link ExtentTest} created by this manager
+	 */
+	public void updateTest(Runnable testUpdate) {
+		testLock.readLock().lock();
+		try {
+			testUpdate.run();
+			dirty = true;
+		}finally {
+			testLock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Write the report now on the calling thread, waiting for running test updates to finish.
+	 */
+	public void flush() {
+		testLock.writeLock().lock();
+		ReportFlushEvent reportFlushEvent = new ReportFlushEvent();
+		reportFlushEvent.begin();
+		try {
+			dirty = false;
+			extentReports.flush();
+			flushCount.incrementAndGet();
+		}catch (Exception e) {
+			dirty = true;
+			//logging and reporting
+			logger.error("Exception occurred while flushing extent report: {}", reportPath, e);
+		}finally {
+			reportFlushEvent.finish("ExtentReports", "report", 0);
+			testLock.writeLock().unlock();
+		}
+	}
+
+	private void flushIfDirty() {
+		if(dirty) {
+			flush();
+		}
+	}
+
+	/**
+	 * Stop the background flushes and write the final report.
+	 */
+	@Override
+	public void close() {
+		if(!closed) {
+			closed = true;
+			flushExecutor.shutdown();
+			try {
+				flushExecutor.awaitTermination(1, TimeUnit.MINUTES);
+			}catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			flush();
+		}
+	}
+}
@@ -0,0 +1,132 @@
+package com.automation.selenium_template.reports;
+
+import java.nio.file.Path;
+
+import org.apache.commons.lang3.StringUtils;
+
+import com.aventstack.extentreports.ExtentTest;
+import com.aventstack.extentreports.MediaEntityBuilder;
+import com.aventstack.extentreports.Status;
+import com.aventstack.extentreports.model.Media;
+
+/**
+ * {@link ReportUtil} logging to the {@link ExtentTest} set for the current thread, through the {@link ExtentReportsManager} if one is set.
+ */
+public class ExtentReportsUtil implements ReportUtil {
+	
+	private final ThreadLocal<ExtentTest> extentTest = new ThreadLocal<>();
+	private AttachmentStore attachmentStore;
+	private ExtentReportsManager extentReportsManager;
+	
+	public ExtentReportsUtil() {
+		super();
+	}
+	
+	/**
+	 * @param attachmentStore store the screenshots are deduplicated into
+	 */
+	public ExtentReportsUtil(AttachmentStore attachmentStore) {
+		super();
+		this.attachmentStore = attachmentStore;
+	}
+	
+	/**
+	 * @param extentReportsManager manager of the tests, so log entries are never written by a flush while being added
+	 * @param attachmentStore store the screenshots are deduplicated into, may be null
+	 */
+	public ExtentReportsUtil(ExtentReportsManager extentReportsManager, AttachmentStore attachmentStore) {
+		super();
+		this.extentReportsManager = extentReportsManager;
+		this.attachmentStore = attachmentStore;
+	}
+	
+	public ExtentTest getExtentTest() {
+		return extentTest.get();
+	}
+	
+	/**
+	 * Set the test the current thread reports to.
+	 * @param extentTest the test created for the running test method
+	 */
+	public void setExtentTest(ExtentTest extentTest) {
+		this.extentTest.set(extentTest);
+	}
+
+	@Override
+	public void report(ReportStatus reportStatus, String stepDescription, String message, String screenShotPath) {
+		ExtentTest test = extentTest.get();
+		if(test != null) {
+			Media screenShotMedia = getScreenShotMedia(screenShotPath);
+			updateTest(() -> test.log(getStatus(reportStatus), formatMessage(stepDescription, message), null, screenShotMedia));
+		}
+	}
+
+	@Override
+	public void report(ReportStatus reportStatus, String stepDescription, String message, String screenShotPath,
+			Exception e) {
+		ExtentTest test = extentTest.get();
+		if(test != null) {
+			Media screenShotMedia = getScreenShotMedia(screenShotPath);
+			updateTest(() -> test.log(getStatus(reportStatus), formatMessage(stepDescription, message), e, screenShotMedia));
+		}
+	}
+	
+	/**
+	 * The test of the current thread, so an event reported later on another thread is logged to it.
+	 */
+	@Override
+	public Object captureReportContext() {
+		return extentTest.get();
+	}
+	
+	@Override
+	public void report(ReportEvent reportEvent) {
+		ExtentTest test = reportEvent.reportContext() instanceof ExtentTest capturedTest ? capturedTest : extentTest.get();
+		if(test != null) {
+			Media screenShotMedia = getScreenShotMedia(reportEvent.screenShotPath());
+			updateTest(() -> test.log(getStatus(reportEvent.reportStatus()), formatMessage(reportEvent.stepDescription(), reportEvent.message()),
+					reportEvent.exception(), screenShotMedia));
+		}
+	}
+	
+	private void updateTest(Runnable testUpdate) {
+		if(extentReportsManager != null) {
+			extentReportsManager.updateTest(testUpdate);
+		}else {
+			testUpdate.run();
+		}
+	}
+	
+	private String formatMessage(String stepDescription, String message) {
+		return StringUtils.isNotBlank(stepDescription) ? String.format("<b>%s</b><br>%s", stepDescription, message) : message;
+	}
+	
+	/**
+	 * Reference the screenshot from the attachment store if one is set, otherwise from where it was taken.
+	 * @return screenshot media, null if there is no screenshot
+	 */
+	private Media getScreenShotMedia(String screenShotPath) {
+		if(StringUtils.isNotBlank(screenShotPath)) {
+			Path storedScreenShot = attachmentStore != null ? attachmentStore.store(Path.of(screenShotPath)) : null;
+			return MediaEntityBuilder.createScreenCaptureFromPath(storedScreenShot != null ? storedScreenShot.toString() : screenShotPath).build();
+		}
+		return null;
+	}
+	
+	private Status getStatus(ReportStatus reportStatus) {
+		switch (reportStatus) {
+			case DEBUG:
+			case INFO: return Status.INFO;
+			case PASS: return Status.PASS;
+			
+			case WARNINIG: return Status.WARNING;
+			case ERROR:
+			case FAIL:
+			case FATAL: return Status.FAIL;
+			
+			case SKIP: return Status.SKIP;
+			default: return Status.INFO;
+		}
+	}
+
+}
@@ -0,0 +1,50 @@
+package com.automation.selenium_template.reports;
+
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.event.Level;
+
+/**
+ * {@link ReportUtil} writing the steps to the log, e.g. as a sink of {@link CompositeReportUtil} next to the html reports.
+ */
+public class LogReportUtil implements ReportUtil {
+	
+	private static Logger logger = LoggerFactory.getLogger(LogReportUtil.class);
+
+	@Override
+	public void report(ReportStatus reportStatus, String stepDescription, String message, String screenShotPath) {
+		report(reportStatus, stepDescription, message, screenShotPath, null);
+	}
+
+	@Override
+	public void report(ReportStatus reportStatus, String stepDescription, String message, String screenShotPath,
+			Exception e) {
+		Level level = getLevel(reportStatus);
+		if(logger.isEnabledForLevel(level)) {
+			logger.atLevel(level).setCause(e).log("[{}] {}{}{}", reportStatus, StringUtils.isNotBlank(stepDescription) ? stepDescription + ": " : "",
+					message, StringUtils.isNotBlank(screenShotPath) ? " (screenshot: " + screenShotPath + ")" : "");
+		}
+	}
+	
+	@Override
+	public void report(ReportEvent reportEvent) {
+		report(reportEvent.reportStatus(), reportEvent.stepDescription(), reportEvent.message(), reportEvent.screenShotPath(), reportEvent.exception());
+	}
+	
+	private Level getLevel(ReportStatus reportStatus) {
+		switch (reportStatus) {
+			case DEBUG: return Level.DEBUG;
+			case INFO:
+			case PASS:
+			case SKIP: return Level.INFO;
+			
+			case WARNINIG: return Level.WARN;
+			case ERROR:
+			case FAIL:
+			case FATAL: return Level.ERROR;
+			default: return Level.INFO;
+		}
+	}
+
+}
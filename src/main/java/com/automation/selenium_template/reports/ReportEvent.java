@@ -0,0 +1,23 @@
+package com.automation.selenium_template.reports;
+
+/**
+ * A report call captured for delivery on another thread.
+ * @param reportStatus status of the step
+ * @param stepDescription short step description
+ * @param message step message
+ * @param screenShotPath path of the screenshot to attach, null if none
+ * @param exception exception to report, null if none
+ * @param reportContext context captured on the reporting thread by {@link ReportUtil#captureReportContext()}
+ * @param timestampMillis epoch millis at which the step was reported
+ */
+public record ReportEvent(ReportStatus reportStatus, String stepDescription, String message, String screenShotPath,
+		Exception exception, Object reportContext, long timestampMillis) {
+
+	/**
+	 * @param reportContext context of another report util
+	 * @return copy of this event with the given report context
+	 */
+	public ReportEvent withReportContext(Object reportContext) {
+		return new ReportEvent(reportStatus, stepDescription, message, screenShotPath, exception, reportContext, timestampMillis);
+	}
+}
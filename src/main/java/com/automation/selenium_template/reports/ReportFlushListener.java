@@ -0,0 +1,21 @@
+package com.automation.selenium_template.reports;
+
+import org.testng.IInvokedMethod;
+import org.testng.IInvokedMethodListener;
+import org.testng.ITestResult;
+
+/**
+ * TestNG listener flushing the {@link AsyncReportUtil}s right after each test method, before reporters such as allure
+ * write the test result. An '@AfterMethod' is too late for that, it runs after the result is written.
+ * Register it with '@Listeners' or in the suite xml.
+ */
+public class ReportFlushListener implements IInvokedMethodListener {
+
+	@Override
+	public void afterInvocation(IInvokedMethod method, ITestResult testResult) {
+		if(method.isTestMethod()) {
+			AsyncReportUtil.flushAll();
+		}
+	}
+
+}
@@ -1,14 +1,36 @@
 package com.automation.selenium_template.reports;
 
 public enum ReportStatus {
-	DEBUG,
-	ERROR,
-	FAIL,
-	FATAL,
-	INFO,
-	PASS,
-	SKIP,
-	WARNINIG;
+	DEBUG(0),
+	ERROR(4),
+	FAIL(5),
+	FATAL(6),
+	INFO(1),
+	PASS(2),
+	SKIP(2),
+	WARNINIG(3);
+	
+	private final int severity;
+	
+	private ReportStatus(int severity) {
+		this.severity = severity;
+	}
+	
+	/**
+	 * Severity used to filter reports, from DEBUG (lowest) over INFO, PASS and SKIP, WARNINIG, ERROR and FAIL to FATAL (highest).
+	 * @return the severity
+	 */
+	public int getSeverity() {
+		return severity;
+	}
+	
+	/**
+	 * @param minimumReportStatus the threshold
+	 * @return true if this status is at least as severe as the threshold
+	 */
+	public boolean isAtLeast(ReportStatus minimumReportStatus) {
+		return minimumReportStatus == null || severity >= minimumReportStatus.severity;
+	}
 
 	@Override
 	public String toString() {
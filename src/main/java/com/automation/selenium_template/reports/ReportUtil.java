@@ -5,4 +5,30 @@ public interface ReportUtil {
 	public void report(ReportStatus reportStatus, String stepDescription, String message, String screenShotPath);
 	public void report(ReportStatus reportStatus, String stepDescription, String message, String screenShotPath, Exception e);
 	
+	/**
+	 * Capture whatever the reporter needs from the calling thread, e.g. the running test, to report an event later on another thread.
+	 * @return the report context, null if the reporter does not depend on the calling thread
+	 */
+	public default Object captureReportContext() {
+		return null;
+	}
+	
+	/**
+	 * Report an event captured earlier, possibly on another thread. Unlike the direct report calls this never throws the reported exception.
+	 * @param reportEvent the captured event
+	 */
+	public default void report(ReportEvent reportEvent) {
+		if(reportEvent.exception() != null) {
+			try {
+				report(reportEvent.reportStatus(), reportEvent.stepDescription(), reportEvent.message(), reportEvent.screenShotPath(), reportEvent.exception());
+			}catch (Exception e) {
+				if(e != reportEvent.exception()) {
+					throw e;
+				}
+			}
+		}else {
+			report(reportEvent.reportStatus(), reportEvent.stepDescription(), reportEvent.message(), reportEvent.screenShotPath());
+		}
+	}
+	
 }
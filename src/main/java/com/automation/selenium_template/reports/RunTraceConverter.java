@@ -0,0 +1,151 @@
+package com.automation.selenium_template.reports;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.automation.selenium_template.reports.RunTraceReader.TracedStep;
+import com.automation.selenium_template.reports.RunTraceReader.TracedTest;
+import com.aventstack.extentreports.ExtentReports;
+import com.aventstack.extentreports.ExtentTest;
+import com.aventstack.extentreports.reporter.ExtentSparkReporter;
+
+import io.qameta.allure.FileSystemResultsWriter;
+import io.qameta.allure.model.Stage;
+import io.qameta.allure.model.Status;
+import io.qameta.allure.model.StatusDetails;
+import io.qameta.allure.model.StepResult;
+import io.qameta.allure.model.TestResult;
+import io.qameta.allure.util.ResultsUtils;
+
+/**
+ * Expands a run trace written by {@link RunTraceWriter} into allure results and an extent report after the run, e.g.
+ * 'java -cp ... com.automation.selenium_template.reports.RunTraceConverter target/run-trace.bin allure-results target/report.html'.
+ */
+public class RunTraceConverter {
+
+	private static Logger logger = LoggerFactory.getLogger(RunTraceConverter.class);
+
+	private RunTraceConverter() {
+	}
+
+	/**
+	 * @param args the run trace, the allure results directory and optionally the extent html report to write
+	 */
+	public static void main(String[] args) throws IOException {
+		if(args.length < 2) {
+			System.err.println("Usage: RunTraceConverter <run trace> <allure results directory> [<extent html report>]");
+			System.exit(2);
+		}
+		List<TracedTest> tracedTests = RunTraceReader.read(Path.of(args[0]));
+		toAllure(tracedTests, Path.of(args[1]));
+		if(args.length > 2) {
+			toExtent(tracedTests, args[2]);
+		}
+		logger.info("Converted {} traced tests", tracedTests.size());
+	}
+
+
+	// allure
+
+	/**
+	 * Write one allure test result per traced test.
+	 * @param tracedTests the tests read by {@link RunTraceReader}
+	 * @param resultsDirectory the allure results directory
+	 */
+	public static void toAllure(List<TracedTest> tracedTests, Path resultsDirectory) throws IOException {
+		Files.createDirectories(resultsDirectory);
+		FileSystemResultsWriter resultsWriter = new FileSystemResultsWriter(resultsDirectory);
+		for(TracedTest tracedTest : tracedTests) {
+			String fullName = tracedTest.fullName() != null ? tracedTest.fullName() : tracedTest.name();
+			String className = StringUtils.substringBeforeLast(fullName, ".");
+			TestResult testResult = new TestResult()
+					.setUuid(UUID.randomUUID().toString())
+					.setHistoryId(AttachmentStore.hash(fullName.getBytes(StandardCharsets.UTF_8)))
+					.setTestCaseId(AttachmentStore.hash(fullName.getBytes(StandardCharsets.UTF_8)))
+					.setName(tracedTest.name())
+					.setFullName(fullName)
+					.setStatus(getAllureStatus(tracedTest.status()))
+					.setStage(Stage.FINISHED)
+					.setStart(tracedTest.startMillis())
+					.setStop(tracedTest.stopMillis())
+					.setSteps(toAllureSteps(tracedTest.steps()));
+			if(tracedTest.message() != null) {
+				testResult.setStatusDetails(new StatusDetails().setMessage(tracedTest.message()));
+			}
+			testResult.getLabels().add(ResultsUtils.createSuiteLabel(StringUtils.substringAfterLast(className, ".")));
+			testResult.getLabels().add(ResultsUtils.createTestClassLabel(className));
+			testResult.getLabels().add(ResultsUtils.createTestMethodLabel(tracedTest.name()));
+			resultsWriter.write(testResult);
+		}
+	}
+
+	private static List<StepResult> toAllureSteps(List<TracedStep> tracedSteps) {
+		List<StepResult> stepResults = new ArrayList<>(tracedSteps.size());
+		for(TracedStep tracedStep : tracedSteps) {
+			stepResults.add(new StepResult()
+					.setName(getStepName(tracedStep))
+					.setStatus(tracedStep.successful() ? Status.PASSED : Status.FAILED)
+					.setStage(Stage.FINISHED)
+					.setStart(tracedStep.startMillis())
+					.setStop(tracedStep.stopMillis())
+					.setSteps(toAllureSteps(tracedStep.children())));
+		}
+		return stepResults;
+	}
+
+	private static Status getAllureStatus(byte status) {
+		switch (status) {
+			case RunTraceWriter.STATUS_PASSED: return Status.PASSED;
+			case RunTraceWriter.STATUS_FAILED: return Status.FAILED;
+			case RunTraceWriter.STATUS_SKIPPED: return Status.SKIPPED;
+			default: return Status.BROKEN;
+		}
+	}
+
+
+	// extent
+
+	/**
+	 * Write an extent spark report with one test per traced test and its top level steps as logs.
+	 * @param tracedTests the tests read by {@link RunTraceReader}
+	 * @param reportPath path of the spark html report
+	 */
+	public static void toExtent(List<TracedTest> tracedTests, String reportPath) {
+		ExtentReports extentReports = new ExtentReports();
+		extentReports.attachReporter(new ExtentSparkReporter(reportPath));
+		for(TracedTest tracedTest : tracedTests) {
+			ExtentTest extentTest = extentReports.createTest(tracedTest.name(), tracedTest.fullName());
+			for(TracedStep tracedStep : tracedTest.steps()) {
+				extentTest.log(tracedStep.successful() ? com.aventstack.extentreports.Status.PASS : com.aventstack.extentreports.Status.FAIL,
+						String.format("<b>%s</b><br>%s", StringUtils.defaultString(tracedStep.stepDescription()), getOperation(tracedStep)));
+			}
+			switch (tracedTest.status()) {
+				case RunTraceWriter.STATUS_PASSED: extentTest.pass(StringUtils.defaultIfBlank(tracedTest.message(), "Passed")); break;
+				case RunTraceWriter.STATUS_SKIPPED: extentTest.skip(StringUtils.defaultIfBlank(tracedTest.message(), "Skipped")); break;
+				default: extentTest.fail(StringUtils.defaultIfBlank(tracedTest.message(), "Failed"));
+			}
+			extentTest.getModel().setStartTime(new Date(tracedTest.startMillis()));
+			extentTest.getModel().setEndTime(new Date(tracedTest.stopMillis()));
+		}
+		extentReports.flush();
+	}
+
+	private static String getOperation(TracedStep tracedStep) {
+		return tracedStep.locator() != null ? tracedStep.operation() + " " + tracedStep.locator() : tracedStep.operation();
+	}
+
+	private static String getStepName(TracedStep tracedStep) {
+		String operation = getOperation(tracedStep);
+		return StringUtils.isNotBlank(tracedStep.stepDescription()) ? tracedStep.stepDescription() + ": " + operation : operation;
+	}
+}
@@ -0,0 +1,132 @@
+package com.automation.selenium_template.reports;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+import org.testng.ITestListener;
+import org.testng.ITestResult;
+
+import com.automation.selenium_template.driver.DriverControllerV3;
+import com.automation.selenium_template.driver.StepEvent;
+import com.automation.selenium_template.driver.StepListener;
+
+/**
+ * TestNG listener recording the tests of the run into a {@link RunTraceWriter run trace}, by default 'target/run-trace.bin',
+ * or the file given by the system property 'run.trace.file'. Register {@link #stepListener()} with each
+ * {@link DriverControllerV3} to record its steps, they are attributed to the test running on the same thread.
+ */
+public class RunTraceListener implements ISuiteListener, ITestListener {
+
+	public static final String TRACE_FILE_PROPERTY = "run.trace.file";
+	private static final ThreadLocal<Integer> currentTestId = new ThreadLocal<>();
+	private static final Object writerLock = new Object();
+	private static volatile RunTraceWriter runTraceWriter;
+	private static int runningSuites;
+	private static Logger logger = LoggerFactory.getLogger(RunTraceListener.class);
+
+	/**
+	 * @return step listener recording the steps into the trace of the running suite, does nothing while no suite runs
+	 */
+	public static StepListener stepListener() {
+		return new StepListener() {
+
+			@Override
+			public void stepFinished(StepEvent stepEvent) {
+				RunTraceWriter writer = runTraceWriter;
+				if(writer != null) {
+					Integer testId = currentTestId.get();
+					writer.stepFinished(testId != null ? testId : 0, stepEvent);
+				}
+			}
+
+			@Override
+			public Object captureContext() {
+				return currentTestId.get();
+			}
+
+			@Override
+			public Object restoreContext(Object context) {
+				Integer previousTestId = currentTestId.get();
+				if(context instanceof Integer testId) {
+					currentTestId.set(testId);
+				}else {
+					currentTestId.remove();
+				}
+				return previousTestId;
+			}
+		};
+	}
+
+	@Override
+	public void onStart(ISuite suite) {
+		synchronized (writerLock) {
+			if(runningSuites++ == 0) {
+				Path traceFile = Path.of(System.getProperty(TRACE_FILE_PROPERTY, "target/run-trace.bin"));
+				try {
+					runTraceWriter = new RunTraceWriter(traceFile);
+				}catch (IOException e) {
+					//logging and reporting
+					logger.error("Exception occurred while creating run trace: {}", traceFile, e);
+				}
+			}
+		}
+	}
+
+	@Override
+	public void onFinish(ISuite suite) {
+		synchronized (writerLock) {
+			if(--runningSuites == 0 && runTraceWriter != null) {
+				runTraceWriter.close();
+				logger.info("Run trace written to: {}", runTraceWriter.getTraceFile());
+				runTraceWriter = null;
+			}
+		}
+	}
+
+	@Override
+	public void onTestStart(ITestResult result) {
+		RunTraceWriter writer = runTraceWriter;
+		if(writer != null) {
+			currentTestId.set(writer.testStarted(result.getName(), result.getMethod().getQualifiedName(), result.getStartMillis()));
+		}
+	}
+
+	@Override
+	public void onTestSuccess(ITestResult result) {
+		testFinished(result, RunTraceWriter.STATUS_PASSED);
+	}
+
+	@Override
+	public void onTestFailure(ITestResult result) {
+		testFinished(result, result.getThrowable() instanceof AssertionError ? RunTraceWriter.STATUS_FAILED : RunTraceWriter.STATUS_BROKEN);
+	}
+
+	@Override
+	public void onTestSkipped(ITestResult result) {
+		testFinished(result, RunTraceWriter.STATUS_SKIPPED);
+	}
+
+	@Override
+	public void onTestFailedButWithinSuccessPercentage(ITestResult result) {
+		testFinished(result, RunTraceWriter.STATUS_PASSED);
+	}
+
+	@Override
+	public void onTestFailedWithTimeout(ITestResult result) {
+		testFinished(result, RunTraceWriter.STATUS_BROKEN);
+	}
+
+	private void testFinished(ITestResult result, byte status) {
+		RunTraceWriter writer = runTraceWriter;
+		Integer testId = currentTestId.get();
+		currentTestId.remove();
+		if(writer != null && testId != null) {
+			String message = result.getThrowable() != null ? result.getThrowable().toString() : null;
+			writer.testFinished(testId, status, message, result.getEndMillis() > 0 ? result.getEndMillis() : System.currentTimeMillis());
+		}
+	}
+}
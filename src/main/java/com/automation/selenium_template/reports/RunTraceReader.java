@@ -0,0 +1,185 @@
+package com.automation.selenium_template.reports;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads a run trace written by {@link RunTraceWriter} back into tests and their nested steps.
+ * Steps are recorded when they finish, so the steps one level deeper that finished before a step are its children.
+ * Steps outside tests are nested per thread they ran on.
+ */
+public class RunTraceReader {
+
+	public static final String OUTSIDE_TESTS_NAME = "Steps outside tests";
+
+	private RunTraceReader() {
+	}
+
+	/**
+	 * @param traceFile the run trace
+	 * @return the traced tests in start order. A test still running when the trace ended has status BROKEN.
+	 * Steps run outside any test are collected in a test per thread named {@link #OUTSIDE_TESTS_NAME} followed by the thread name,
+	 * BROKEN if one of its top level steps failed
+	 * @throws IOException if the file could not be read or is no run trace
+	 */
+	public static List<TracedTest> read(Path traceFile) throws IOException {
+		Map<Integer, String> strings = new HashMap<>();
+		Map<Integer, TestBuilder> tests = new LinkedHashMap<>();
+		// steps outside tests are keyed by negative ids, one per thread
+		Map<String, Integer> outsideTestIds = new HashMap<>();
+		try(DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(traceFile), 64 * 1024))) {
+			if(input.readInt() != RunTraceWriter.MAGIC || input.readUnsignedByte() != RunTraceWriter.VERSION) {
+				throw new IOException("Not a run trace: " + traceFile);
+			}
+			while(true) {
+				int recordType;
+				try {
+					recordType = input.readByte();
+				}catch (EOFException e) {
+					break;
+				}
+				try {
+					switch (recordType) {
+						case RunTraceWriter.RECORD_STRING: {
+							int id = (int) readVarLong(input);
+							strings.put(id, input.readUTF());
+							break;
+						}
+						case RunTraceWriter.RECORD_TEST_START: {
+							int testId = (int) readVarLong(input);
+							TestBuilder test = new TestBuilder(strings.get((int) readVarLong(input)), strings.get((int) readVarLong(input)), readVarLong(input));
+							tests.put(testId, test);
+							break;
+						}
+						case RunTraceWriter.RECORD_STEP: {
+							int testId = (int) readVarLong(input);
+							boolean successful = input.readBoolean();
+							String description = strings.get((int) readVarLong(input));
+							String operation = strings.get((int) readVarLong(input));
+							String locator = strings.get((int) readVarLong(input));
+							long stopMillis = readVarLong(input);
+							long durationNanos = readVarLong(input);
+							int depth = (int) readVarLong(input);
+							long startMillis = stopMillis - durationNanos / 1_000_000;
+							if(testId == 0) {
+								String threadName = strings.get((int) readVarLong(input));
+								testId = outsideTestIds.computeIfAbsent(threadName, key -> -(outsideTestIds.size() + 1));
+								if(!tests.containsKey(testId)) {
+									String name = String.format("%s (%s)", OUTSIDE_TESTS_NAME, threadName);
+									TestBuilder outsideTest = new TestBuilder(name, name, startMillis);
+									outsideTest.status = RunTraceWriter.STATUS_PASSED;
+									tests.put(testId, outsideTest);
+								}
+							}
+							TestBuilder test = tests.get(testId);
+							if(test != null) {
+								if(testId < 0 && depth == 0 && !successful) {
+									test.status = RunTraceWriter.STATUS_BROKEN;
+								}
+								test.addStep(new TracedStep(description, operation, locator, successful, startMillis, stopMillis,
+										test.pendingSteps.getOrDefault(depth + 1, List.of())), depth);
+							}
+							break;
+						}
+						case RunTraceWriter.RECORD_TEST_STOP: {
+							TestBuilder test = tests.get((int) readVarLong(input));
+							byte status = input.readByte();
+							String message = strings.get((int) readVarLong(input));
+							long stopMillis = readVarLong(input);
+							if(test != null) {
+								test.status = status;
+								test.message = message;
+								test.stopMillis = stopMillis;
+							}
+							break;
+						}
+						default: throw new IOException("Unknown run trace record: " + recordType);
+					}
+				}catch (EOFException e) {
+					// trace of a run that did not finish writing, keep what was complete
+					break;
+				}
+			}
+		}
+		List<TracedTest> tracedTests = new ArrayList<>();
+		for(TestBuilder test : tests.values()) {
+			tracedTests.add(test.build());
+		}
+		return tracedTests;
+	}
+
+	private static long readVarLong(DataInputStream input) throws IOException {
+		long value = 0;
+		for(int shift = 0; shift < 64; shift += 7) {
+			int b = input.readUnsignedByte();
+			value |= (long) (b & 0x7F) << shift;
+			if((b & 0x80) == 0) {
+				return value;
+			}
+		}
+		throw new IOException("Malformed variable length integer");
+	}
+
+	private static class TestBuilder {
+
+		private final String name;
+		private final String fullName;
+		private long startMillis;
+		private final Map<Integer, List<TracedStep>> pendingSteps = new HashMap<>();
+		private byte status = RunTraceWriter.STATUS_BROKEN;
+		private String message;
+		private long stopMillis;
+
+		private TestBuilder(String name, String fullName, long startMillis) {
+			this.name = name;
+			this.fullName = fullName;
+			this.startMillis = startMillis;
+		}
+
+		private void addStep(TracedStep step, int depth) {
+			// its children are complete now
+			pendingSteps.remove(depth + 1);
+			pendingSteps.computeIfAbsent(depth, key -> new ArrayList<>()).add(step);
+			// steps outside tests are written innermost first, the outermost starts their test
+			startMillis = Math.min(startMillis, step.startMillis());
+			stopMillis = Math.max(stopMillis, step.stopMillis());
+		}
+
+		private TracedTest build() {
+			return new TracedTest(name, fullName, status, message, startMillis, Math.max(startMillis, stopMillis), pendingSteps.getOrDefault(0, List.of()));
+		}
+	}
+
+	/**
+	 * @param name test name
+	 * @param fullName unique name of the test
+	 * @param status one of the STATUS constants of {@link RunTraceWriter}
+	 * @param message failure or skip message, may be null
+	 * @param startMillis epoch millis the test started at
+	 * @param stopMillis epoch millis the test finished at
+	 * @param steps the top level steps
+	 */
+	public record TracedTest(String name, String fullName, byte status, String message, long startMillis, long stopMillis, List<TracedStep> steps) {
+	}
+
+	/**
+	 * @param stepDescription short step description
+	 * @param operation the driver operation
+	 * @param locator the locator the step ran on, may be null
+	 * @param successful true if the step succeeded
+	 * @param startMillis epoch millis the step started at
+	 * @param stopMillis epoch millis the step finished at
+	 * @param children the steps it was made of
+	 */
+	public record TracedStep(String stepDescription, String operation, String locator, boolean successful, long startMillis, long stopMillis, List<TracedStep> children) {
+	}
+}
@@ -0,0 +1,199 @@
+package com.automation.selenium_template.reports;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.automation.selenium_template.driver.StepEvent;
+
+/**
+ * Writes test and step events sequentially into a compact binary run trace, to be expanded into allure results
+ * and an extent report after the run by {@link RunTraceConverter}.
+ * Every string is written once and referenced by id afterwards and numbers are written as variable length integers,
+ * so a step costs a few bytes in a buffer instead of a JSON document.
+ * <p>
+ * Format: the int magic 'RTRC' and a version byte, followed by records, each starting with its type byte:
+ * STRING (id, utf), TEST_START (test id, name id, full name id, start millis), STEP (test id, successful,
+ * description id, operation id, locator id, stop millis, duration nanos, depth and, for test id 0 only, thread name id)
+ * and TEST_STOP (test id, status, message id, stop millis).
+ * String id 0 is null, test id 0 collects steps run outside any test, read back as one test per thread named after {@link RunTraceReader#OUTSIDE_TESTS_NAME}.
+ * Steps of a test run on its thread, steps outside tests may run on several threads at once, so their thread is recorded to nest them.
+ */
+public class RunTraceWriter implements AutoCloseable {
+
+	static final int MAGIC = 0x52545243;
+	static final int VERSION = 2;
+	static final byte RECORD_STRING = 1;
+	static final byte RECORD_TEST_START = 2;
+	static final byte RECORD_STEP = 3;
+	static final byte RECORD_TEST_STOP = 4;
+	public static final byte STATUS_PASSED = 0;
+	public static final byte STATUS_FAILED = 1;
+	public static final byte STATUS_BROKEN = 2;
+	public static final byte STATUS_SKIPPED = 3;
+	private static Logger logger = LoggerFactory.getLogger(RunTraceWriter.class);
+
+	private final Path traceFile;
+	private final DataOutputStream output;
+	private final Map<String, Integer> stringIds = new HashMap<>();
+	private int nextTestId = 1;
+	private boolean closed;
+
+	/**
+	 * @param traceFile the file to write, replaced if it exists
+	 * @throws IOException if the file could not be created
+	 */
+	public RunTraceWriter(Path traceFile) throws IOException {
+		super();
+		this.traceFile = traceFile;
+		Path parent = traceFile.toAbsolutePath().getParent();
+		if(parent != null) {
+			Files.createDirectories(parent);
+		}
+		this.output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(traceFile), 64 * 1024));
+		output.writeInt(MAGIC);
+		output.writeByte(VERSION);
+	}
+
+
+	// getters
+
+	public Path getTraceFile() {
+		return traceFile;
+	}
+
+
+	// records
+
+	/**
+	 * @param name test name
+	 * @param fullName unique name of the test, e.g. the qualified method name
+	 * @param startMillis epoch millis the test started at
+	 * @return id of the test to record its steps and result with, 0 if it could not be written
+	 */
+	public synchronized int testStarted(String name, String fullName, long startMillis) {
+		if(closed) {
+			return 0;
+		}
+		int testId = nextTestId++;
+		try {
+			int nameId = stringId(name);
+			int fullNameId = stringId(fullName);
+			output.writeByte(RECORD_TEST_START);
+			writeVarLong(testId);
+			writeVarLong(nameId);
+			writeVarLong(fullNameId);
+			writeVarLong(startMillis);
+			return testId;
+		}catch (IOException e) {
+			//logging and reporting
+			logger.error("Exception occurred while writing test start: {}", fullName, e);
+		}
+		return 0;
+	}
+
+	/**
+	 * @param testId id returned by {@link #testStarted(String, String, long)}, 0 if the step ran outside any test
+	 * @param stepEvent the finished step
+	 */
+	public synchronized void stepFinished(int testId, StepEvent stepEvent) {
+		if(closed) {
+			return;
+		}
+		try {
+			int descriptionId = stringId(stepEvent.stepDescription());
+			int operationId = stringId(stepEvent.operation());
+			int locatorId = stringId(stepEvent.locator());
+			int threadNameId = testId == 0 ? stringId(stepEvent.threadName()) : 0;
+			output.writeByte(RECORD_STEP);
+			writeVarLong(testId);
+			output.writeBoolean(stepEvent.successful());
+			writeVarLong(descriptionId);
+			writeVarLong(operationId);
+			writeVarLong(locatorId);
+			writeVarLong(stepEvent.timestampMillis());
+			writeVarLong(stepEvent.durationNanos());
+			writeVarLong(stepEvent.depth());
+			if(testId == 0) {
+				writeVarLong(threadNameId);
+			}
+		}catch (IOException e) {
+			//logging and reporting
+			logger.error("Exception occurred while writing step: {}", stepEvent.operation(), e);
+		}
+	}
+
+	/**
+	 * @param testId id returned by {@link #testStarted(String, String, long)}
+	 * @param status one of the STATUS constants
+	 * @param message failure or skip message, may be null
+	 * @param stopMillis epoch millis the test finished at
+	 */
+	public synchronized void testFinished(int testId, byte status, String message, long stopMillis) {
+		if(closed || testId == 0) {
+			return;
+		}
+		try {
+			int messageId = stringId(message);
+			output.writeByte(RECORD_TEST_STOP);
+			writeVarLong(testId);
+			output.writeByte(status);
+			writeVarLong(messageId);
+			writeVarLong(stopMillis);
+		}catch (IOException e) {
+			//logging and reporting
+			logger.error("Exception occurred while writing test stop: {}", testId, e);
+		}
+	}
+
+	public synchronized void flush() {
+		try {
+			output.flush();
+		}catch (IOException e) {
+			logger.error("Exception occurred while flushing run trace: {}", traceFile, e);
+		}
+	}
+
+	@Override
+	public synchronized void close() {
+		if(!closed) {
+			closed = true;
+			try {
+				output.close();
+			}catch (IOException e) {
+				logger.error("Exception occurred while closing run trace: {}", traceFile, e);
+			}
+		}
+	}
+
+	private int stringId(String value) throws IOException {
+		if(value == null) {
+			return 0;
+		}
+		Integer id = stringIds.get(value);
+		if(id == null) {
+			id = stringIds.size() + 1;
+			stringIds.put(value, id);
+			output.writeByte(RECORD_STRING);
+			writeVarLong(id);
+			// writeUTF is limited to 64 KB, long messages are cut
+			output.writeUTF(value.length() > 16 * 1024 ? value.substring(0, 16 * 1024) : value);
+		}
+		return id;
+	}
+
+	private void writeVarLong(long value) throws IOException {
+		while((value & ~0x7FL) != 0) {
+			output.writeByte((int) ((value & 0x7F) | 0x80));
+			value >>>= 7;
+		}
+		output.writeByte((int) value);
+	}
+}
@@ -0,0 +1,288 @@
+package com.automation.selenium_template.reports;
+
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.automation.selenium_template.jfr.ScreenshotEvent;
+
+/**
+ * Takes PNG screenshot bytes off the test thread. Optional downscaling and recompression run on a bounded pool
+ * of encoder threads and the encoded images are written to the output directory in batches by a single writer thread.
+ * Submitting only blocks when more than 'maxPendingScreenshots' screenshots are waiting to be encoded or written.
+ */
+public class ScreenshotPipeline implements AutoCloseable {
+
+	public static final int DEFAULT_MAX_PENDING_SCREENSHOTS = 64;
+	public static final int DEFAULT_WRITE_BATCH_SIZE = 16;
+	private static Logger logger = LoggerFactory.getLogger(ScreenshotPipeline.class);
+
+	private final Path outputDirectory;
+	private final AttachmentStore attachmentStore;
+	private final double scale;
+	private final float jpegQuality;
+	private final int maxPendingScreenshots;
+	private final Semaphore pendingPermits;
+	private final ExecutorService encodingExecutor;
+	private final BlockingQueue<PendingWrite> writeQueue = new LinkedBlockingQueue<>();
+	private final Thread writerThread;
+	private final AtomicInteger sequence = new AtomicInteger();
+	private final AtomicLong bytesWritten = new AtomicLong();
+	private volatile boolean closed;
+
+	/**
+	 * Pipeline writing the screenshots unchanged as PNG files.
+	 * @param outputDirectory directory to write the screenshots to
+	 */
+	public ScreenshotPipeline(Path outputDirectory) {
+		this(outputDirectory, 1.0, 0f, Runtime.getRuntime().availableProcessors(), DEFAULT_MAX_PENDING_SCREENSHOTS);
+	}
+
+	/**
+	 * @param outputDirectory directory to write the screenshots to
+	 * @param scale factor to resize the screenshots by, 1 to keep the original size
+	 * @param jpegQuality JPEG quality between 0 and 1 to recompress the screenshots with, 0 to keep PNG
+	 * @param encoderThreads number of threads resizing and recompressing screenshots
+	 * @param maxPendingScreenshots number of screenshots that may wait for encoding and writing before submitting blocks
+	 */
+	public ScreenshotPipeline(Path outputDirectory, double scale, float jpegQuality, int encoderThreads, int maxPendingScreenshots) {
+		this(outputDirectory, null, scale, jpegQuality, encoderThreads, maxPendingScreenshots);
+	}
+	
+	/**
+	 * Pipeline writing the screenshots into the given attachment store, so identical screenshots are only written once.
+	 * @param attachmentStore store to write the screenshots to
+	 * @param scale factor to resize the screenshots by, 1 to keep the original size
+	 * @param jpegQuality JPEG quality between 0 and 1 to recompress the screenshots with, 0 to keep PNG
+	 * @param encoderThreads number of threads resizing and recompressing screenshots
+	 * @param maxPendingScreenshots number of screenshots that may wait for encoding and writing before submitting blocks
+	 */
+	public ScreenshotPipeline(AttachmentStore attachmentStore, double scale, float jpegQuality, int encoderThreads, int maxPendingScreenshots) {
+		this(attachmentStore.getRootDirectory(), attachmentStore, scale, jpegQuality, encoderThreads, maxPendingScreenshots);
+	}
+	
+	private ScreenshotPipeline(Path outputDirectory, AttachmentStore attachmentStore, double scale, float jpegQuality, int encoderThreads, int maxPendingScreenshots) {
+		super();
+		this.outputDirectory = outputDirectory;
+		this.attachmentStore = attachmentStore;
+		this.scale = scale > 0 && scale < 1 ? scale : 1.0;
+		this.jpegQuality = jpegQuality > 0 && jpegQuality <= 1 ? jpegQuality : 0f;
+		this.maxPendingScreenshots = Math.max(1, maxPendingScreenshots);
+		this.pendingPermits = new Semaphore(this.maxPendingScreenshots);
+		AtomicInteger encoderCounter = new AtomicInteger();
+		this.encodingExecutor = Executors.newFixedThreadPool(Math.max(1, encoderThreads), runnable -> {
+			Thread thread = new Thread(runnable, "screenshot-encoder-" + encoderCounter.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		});
+		this.writerThread = new Thread(this::writeBatches, "screenshot-writer");
+		this.writerThread.setDaemon(true);
+		this.writerThread.start();
+	}
+
+
+	// getters
+
+	public Path getOutputDirectory() {
+		return outputDirectory;
+	}
+
+	public long getBytesWritten() {
+		return bytesWritten.get();
+	}
+
+
+	// pipeline
+
+	/**
+	 * Queue a PNG screenshot for encoding and writing.
+	 * @param name base name of the screenshot file, a sequence number and extension are appended. Ignored when writing to an attachment store
+	 * @param pngBytes the screenshot as captured by the driver
+	 * @return future completed with the written file once it is on disk
+	 */
+	public CompletableFuture<Path> submit(String name, byte[] pngBytes) {
+		CompletableFuture<Path> future = new CompletableFuture<>();
+		if(closed || pngBytes == null) {
+			future.completeExceptionally(new IllegalStateException(closed ? "Screenshot pipeline is closed" : "Null screenshot bytes"));
+			return future;
+		}
+		String extension = jpegQuality > 0 ? "jpg" : "png";
+		String fileName = String.format("%s-%05d.%s", sanitize(name), sequence.incrementAndGet(), extension);
+		Path target = outputDirectory.resolve(fileName);
+		pendingPermits.acquireUninterruptibly();
+		encodingExecutor.execute(() -> {
+			ScreenshotEvent screenshotEvent = new ScreenshotEvent();
+			screenshotEvent.begin();
+			try {
+				byte[] encodedBytes = encode(pngBytes);
+				screenshotEvent.finish("encode", encodedBytes.length);
+				writeQueue.add(new PendingWrite(target, extension, encodedBytes, future));
+			}catch (Exception e) {
+				//logging and reporting
+				logger.error("Exception occurred while encoding screenshot: {}", fileName, e);
+				pendingPermits.release();
+				future.completeExceptionally(e);
+			}
+		});
+		return future;
+	}
+
+	/**
+	 * Block until all screenshots submitted so far are on disk.
+	 */
+	public void flush() {
+		try {
+			pendingPermits.acquire(maxPendingScreenshots);
+			pendingPermits.release(maxPendingScreenshots);
+		}catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * Write all pending screenshots and stop the pipeline threads.
+	 */
+	@Override
+	public void close() {
+		if(!closed) {
+			flush();
+			closed = true;
+			encodingExecutor.shutdown();
+			writerThread.interrupt();
+			try {
+				encodingExecutor.awaitTermination(10, TimeUnit.SECONDS);
+				writerThread.join(TimeUnit.SECONDS.toMillis(10));
+			}catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+
+	private byte[] encode(byte[] pngBytes) throws IOException {
+		if(scale == 1.0 && jpegQuality == 0f) {
+			return pngBytes;
+		}
+		BufferedImage image = ImageIO.read(new ByteArrayInputStream(pngBytes));
+		if(scale != 1.0) {
+			image = resize(image, scale);
+		}
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream(pngBytes.length / 2);
+		if(jpegQuality > 0) {
+			writeJpeg(image, outputStream);
+		}else {
+			ImageIO.write(image, "png", outputStream);
+		}
+		return outputStream.toByteArray();
+	}
+
+	/**
+	 * Resize the given image with bilinear interpolation into an opaque RGB image.
+	 * @param image the image to resize
+	 * @param scale factor to resize by
+	 * @return the resized image
+	 */
+	public static BufferedImage resize(BufferedImage image, double scale) {
+		int width = Math.max(1, (int) Math.round(image.getWidth() * scale));
+		int height = Math.max(1, (int) Math.round(image.getHeight() * scale));
+		BufferedImage resized = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+		Graphics2D graphics = resized.createGraphics();
+		graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+		graphics.drawImage(image, 0, 0, width, height, null);
+		graphics.dispose();
+		return resized;
+	}
+
+	private void writeJpeg(BufferedImage image, ByteArrayOutputStream outputStream) throws IOException {
+		if(image.getType() != BufferedImage.TYPE_INT_RGB) {
+			// JPEG has no alpha channel
+			image = resize(image, 1.0);
+		}
+		ImageWriter imageWriter = ImageIO.getImageWritersByFormatName("jpg").next();
+		try(ImageOutputStream imageOutputStream = ImageIO.createImageOutputStream(outputStream)) {
+			ImageWriteParam imageWriteParam = imageWriter.getDefaultWriteParam();
+			imageWriteParam.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+			imageWriteParam.setCompressionQuality(jpegQuality);
+			imageWriter.setOutput(imageOutputStream);
+			imageWriter.write(null, new IIOImage(image, null, null), imageWriteParam);
+		}finally {
+			imageWriter.dispose();
+		}
+	}
+
+	private void writeBatches() {
+		List<PendingWrite> batch = new ArrayList<>(DEFAULT_WRITE_BATCH_SIZE);
+		while(!closed || !writeQueue.isEmpty()) {
+			try {
+				batch.add(writeQueue.take());
+			}catch (InterruptedException e) {
+				if(writeQueue.isEmpty()) {
+					break;
+				}
+			}
+			writeQueue.drainTo(batch, DEFAULT_WRITE_BATCH_SIZE - batch.size());
+			try {
+				Files.createDirectories(outputDirectory);
+			}catch (IOException e) {
+				logger.error("Exception occurred while creating screenshot directory: {}", outputDirectory, e);
+			}
+			for(PendingWrite pendingWrite : batch) {
+				ScreenshotEvent screenshotEvent = new ScreenshotEvent();
+				screenshotEvent.begin();
+				try {
+					if(attachmentStore != null) {
+						Path storedScreenshot = attachmentStore.store(pendingWrite.bytes(), pendingWrite.extension());
+						if(storedScreenshot == null) {
+							throw new IOException("Screenshot could not be stored: " + pendingWrite.target());
+						}
+						pendingWrite.future().complete(storedScreenshot);
+					}else {
+						Files.write(pendingWrite.target(), pendingWrite.bytes());
+						bytesWritten.addAndGet(pendingWrite.bytes().length);
+						pendingWrite.future().complete(pendingWrite.target());
+					}
+				}catch (Exception e) {
+					//logging and reporting
+					logger.error("Exception occurred while writing screenshot: {}", pendingWrite.target(), e);
+					pendingWrite.future().completeExceptionally(e);
+				}finally {
+					screenshotEvent.finish("write", pendingWrite.bytes().length);
+					pendingPermits.release();
+				}
+			}
+			batch.clear();
+		}
+	}
+
+	private static String sanitize(String name) {
+		return StringUtils.isNotBlank(name) ? name.replaceAll("[^A-Za-z0-9._-]", "_") : "screenshot";
+	}
+
+	private record PendingWrite(Path target, String extension, byte[] bytes, CompletableFuture<Path> future) {
+	}
+}
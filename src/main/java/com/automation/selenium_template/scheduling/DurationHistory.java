@@ -0,0 +1,184 @@
+package com.automation.selenium_template.scheduling;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Historical duration of each test method, kept in a small text file with one 'qualified method name, tab, milliseconds' line per test.
+ * Each run's duration is folded in as an exponentially weighted average, so a test that got slower or faster is picked up within a few runs.
+ * The durations of all invocations of a method in a run, e.g. of a data provider, are summed up.
+ */
+public class DurationHistory {
+
+	public static final String DURATIONS_FILE_PROPERTY = "test.durations.file";
+	public static final String DEFAULT_DURATIONS_FILE = "test-durations.tsv";
+	public static final String RUN_DURATIONS_FILE_PROPERTY = "test.run.durations.file";
+	// weight of the latest run in the average
+	private static final double LATEST_RUN_WEIGHT = 0.5;
+	private static Logger logger = LoggerFactory.getLogger(DurationHistory.class);
+
+	private final Map<String, Long> durations = new ConcurrentHashMap<>();
+
+	public DurationHistory() {
+		super();
+	}
+
+	/**
+	 * @return the file given by the system property 'test.durations.file', by default 'test-durations.tsv' in the working directory
+	 */
+	public static Path getDefaultFile() {
+		return Path.of(System.getProperty(DURATIONS_FILE_PROPERTY, DEFAULT_DURATIONS_FILE));
+	}
+
+	/**
+	 * Read a history file. A missing or unreadable file gives an empty history, lines that cannot be parsed are skipped.
+	 * @param file the file to read
+	 * @return the history
+	 */
+	public static DurationHistory read(Path file) {
+		DurationHistory durationHistory = new DurationHistory();
+		if(!Files.isRegularFile(file)) {
+			logger.info("No test duration history yet: {}", file.toAbsolutePath());
+			return durationHistory;
+		}
+		try {
+			for(String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+				int tab = line.lastIndexOf('\t');
+				if(line.isBlank() || line.startsWith("#") || tab <= 0) {
+					continue;
+				}
+				try {
+					durationHistory.durations.put(line.substring(0, tab), Math.max(0, Long.parseLong(line.substring(tab + 1).trim())));
+				}catch (NumberFormatException e) {
+					//logging and reporting
+					logger.warn("Skipping invalid test duration line: {}", line);
+				}
+			}
+		}catch (IOException e) {
+			//logging and reporting
+			logger.error("Exception occurred while reading test duration history: {}", file, e);
+		}
+		return durationHistory;
+	}
+
+
+	// getters
+
+	/**
+	 * @param testName qualified name of the test method
+	 * @return the historical duration in milliseconds, -1 if the test has no history
+	 */
+	public long getDurationMillis(String testName) {
+		return durations.getOrDefault(testName, -1L);
+	}
+
+	/**
+	 * @param testName qualified name of the test method
+	 * @param defaultMillis duration assumed for a test without history
+	 * @return the historical duration in milliseconds, the default if the test has no history
+	 */
+	public long getDurationMillis(String testName, long defaultMillis) {
+		return durations.getOrDefault(testName, defaultMillis);
+	}
+
+	/**
+	 * @param className fully qualified name of a test class
+	 * @return sum of the historical durations of the class's test methods in milliseconds, -1 if none has history
+	 */
+	public long getClassDurationMillis(String className) {
+		String prefix = className + ".";
+		long classDuration = -1;
+		for(Map.Entry<String, Long> duration : durations.entrySet()) {
+			String testName = duration.getKey();
+			// methods of nested classes have another '.' after the prefix
+			if(testName.startsWith(prefix) && testName.indexOf('.', prefix.length()) < 0) {
+				classDuration = Math.max(classDuration, 0) + duration.getValue();
+			}
+		}
+		return classDuration;
+	}
+
+	/**
+	 * @param testNames qualified names of test methods
+	 * @return median historical duration of those of the tests with history, 0 if none has
+	 */
+	public long getMedianDurationMillis(Collection<String> testNames) {
+		List<Long> knownDurations = new ArrayList<>();
+		for(String testName : testNames) {
+			Long duration = durations.get(testName);
+			if(duration != null) {
+				knownDurations.add(duration);
+			}
+		}
+		if(knownDurations.isEmpty()) {
+			return 0;
+		}
+		knownDurations.sort(null);
+		return knownDurations.get(knownDurations.size() / 2);
+	}
+
+	public int size() {
+		return durations.size();
+	}
+
+
+	// operations
+
+	/**
+	 * Fold the total duration of a test in the latest run into its history.
+	 * @param testName qualified name of the test method
+	 * @param durationMillis total duration of the test's invocations in the run
+	 */
+	public void update(String testName, long durationMillis) {
+		long latest = Math.max(0, durationMillis);
+		durations.merge(testName, latest, (previous, current) -> Math.round(LATEST_RUN_WEIGHT * current + (1 - LATEST_RUN_WEIGHT) * previous));
+	}
+
+	/**
+	 * Fold the durations of a run recorded elsewhere, e.g. by a shard, into this history.
+	 * @param runDurations total duration of each test in the run, as written to the file of the system property 'test.run.durations.file'
+	 */
+	public void updateAll(DurationHistory runDurations) {
+		runDurations.durations.forEach(this::update);
+	}
+
+	/**
+	 * Write the history, replacing the file only once it is fully written.
+	 * @param file the file to write
+	 * @return true if operation is successful otherwise false
+	 */
+	public boolean write(Path file) {
+		Path absoluteFile = file.toAbsolutePath();
+		try {
+			Files.createDirectories(absoluteFile.getParent());
+			Path temporaryFile = Files.createTempFile(absoluteFile.getParent(), absoluteFile.getFileName().toString(), ".tmp");
+			try(BufferedWriter writer = Files.newBufferedWriter(temporaryFile, StandardCharsets.UTF_8)) {
+				writer.write("# test method\tduration in milliseconds");
+				writer.newLine();
+				for(Map.Entry<String, Long> duration : new TreeMap<>(durations).entrySet()) {
+					writer.write(duration.getKey() + "\t" + duration.getValue());
+					writer.newLine();
+				}
+			}
+			Files.move(temporaryFile, absoluteFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			return true;
+		}catch (IOException e) {
+			//logging and reporting
+			logger.error("Exception occurred while writing test duration history: {}", file, e);
+		}
+		return false;
+	}
+}
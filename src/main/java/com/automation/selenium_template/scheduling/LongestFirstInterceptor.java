@@ -0,0 +1,128 @@
+package com.automation.selenium_template.scheduling;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.IMethodInstance;
+import org.testng.IMethodInterceptor;
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+import org.testng.ITestContext;
+import org.testng.ITestListener;
+import org.testng.ITestResult;
+import org.testng.xml.XmlTest;
+
+/**
+ * TestNG listener ordering the test methods longest first by their {@link DurationHistory}, so a parallel suite starts its long tests
+ * early and does not end waiting on a few of them while the other threads idle. Methods with an explicit priority keep priority order,
+ * methods without history are assumed to take the median duration. The durations of this run are folded into the history file,
+ * {@link DurationHistory#getDefaultFile()}, when the last suite finishes, and written on their own to the file of the system property
+ * 'test.run.durations.file' if set.
+ * Each thread runs its own browser session, so balancing the threads also balances the sessions.
+ * Register it as a listener in the suite file or with surefire's 'listener' property.
+ */
+public class LongestFirstInterceptor implements IMethodInterceptor, ISuiteListener, ITestListener {
+
+	private static final Object historyLock = new Object();
+	private static final Map<String, LongAdder> runDurations = new ConcurrentHashMap<>();
+	private static DurationHistory durationHistory;
+	private static int runningSuites;
+	private static Logger logger = LoggerFactory.getLogger(LongestFirstInterceptor.class);
+
+
+	// ordering
+
+	@Override
+	public List<IMethodInstance> intercept(List<IMethodInstance> methods, ITestContext context) {
+		DurationHistory history = getDurationHistory();
+		Set<String> testNames = new LinkedHashSet<>();
+		for(IMethodInstance method : methods) {
+			testNames.add(method.getMethod().getQualifiedName());
+		}
+		long defaultMillis = history.getMedianDurationMillis(testNames);
+		List<IMethodInstance> orderedMethods = new ArrayList<>(methods);
+		orderedMethods.sort(Comparator.comparingInt((IMethodInstance method) -> method.getMethod().getPriority())
+				.thenComparing(Comparator.comparingLong((IMethodInstance method) ->
+						history.getDurationMillis(method.getMethod().getQualifiedName(), defaultMillis)).reversed()));
+		int threads = getThreadCount(context.getCurrentXmlTest());
+		LptAssignment<IMethodInstance> assignment = LptAssignment.assign(orderedMethods,
+				method -> history.getDurationMillis(method.getMethod().getQualifiedName(), defaultMillis), threads);
+		logger.info("Ordered {} test methods of {} longest first, estimated {} s on {} threads for {} s of tests", orderedMethods.size(),
+				context.getName(), assignment.getMakespan() / 1000, threads, assignment.getTotalDuration() / 1000);
+		return orderedMethods;
+	}
+
+	private static int getThreadCount(XmlTest xmlTest) {
+		if(xmlTest == null || xmlTest.getParallel() == null || !xmlTest.getParallel().isParallel()) {
+			return 1;
+		}
+		return Math.max(1, xmlTest.getThreadCount());
+	}
+
+	private static DurationHistory getDurationHistory() {
+		synchronized (historyLock) {
+			if(durationHistory == null) {
+				durationHistory = DurationHistory.read(DurationHistory.getDefaultFile());
+			}
+			return durationHistory;
+		}
+	}
+
+
+	// recording
+
+	@Override
+	public void onStart(ISuite suite) {
+		synchronized (historyLock) {
+			runningSuites++;
+		}
+	}
+
+	@Override
+	public void onFinish(ISuite suite) {
+		synchronized (historyLock) {
+			if(--runningSuites == 0 && !runDurations.isEmpty()) {
+				DurationHistory history = getDurationHistory();
+				DurationHistory runHistory = new DurationHistory();
+				runDurations.forEach((testName, duration) -> {
+					history.update(testName, duration.sum());
+					runHistory.update(testName, duration.sum());
+				});
+				runDurations.clear();
+				Path file = DurationHistory.getDefaultFile();
+				if(history.write(file)) {
+					logger.info("Test duration history of {} tests written to: {}", history.size(), file.toAbsolutePath());
+				}
+				// only this run's durations, for a shard launcher to fold into the shared history
+				String runFile = System.getProperty(DurationHistory.RUN_DURATIONS_FILE_PROPERTY);
+				if(runFile != null && !runFile.isBlank()) {
+					runHistory.write(Path.of(runFile));
+				}
+			}
+		}
+	}
+
+	@Override
+	public void onTestSuccess(ITestResult result) {
+		testFinished(result);
+	}
+
+	@Override
+	public void onTestFailure(ITestResult result) {
+		testFinished(result);
+	}
+
+	private static void testFinished(ITestResult result) {
+		runDurations.computeIfAbsent(result.getMethod().getQualifiedName(), key -> new LongAdder())
+				.add(Math.max(0, result.getEndMillis() - result.getStartMillis()));
+	}
+}
@@ -0,0 +1,103 @@
+package com.automation.selenium_template.scheduling;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.function.ToLongFunction;
+
+/**
+ * Longest processing time first assignment of items with known durations to a number of workers: the items are taken longest first
+ * and each goes to the worker with the least total duration so far. The result is within 4/3 of the shortest possible makespan,
+ * and in practice close to it once there are a few items per worker.
+ * @param <T> type of the assigned items
+ */
+public class LptAssignment<T> {
+
+	private final List<List<T>> workerItems;
+	private final long[] workerDurations;
+	private final long totalDuration;
+
+	private LptAssignment(List<List<T>> workerItems, long[] workerDurations, long totalDuration) {
+		this.workerItems = workerItems;
+		this.workerDurations = workerDurations;
+		this.totalDuration = totalDuration;
+	}
+
+	/**
+	 * @param <T> type of the assigned items
+	 * @param items the items to assign
+	 * @param duration duration of an item
+	 * @param workers number of workers, at least 1
+	 * @return the assignment, items of equal duration keep their order
+	 */
+	public static <T> LptAssignment<T> assign(List<T> items, ToLongFunction<T> duration, int workers) {
+		int workerCount = Math.max(1, workers);
+		List<T> longestFirst = new ArrayList<>(items);
+		longestFirst.sort(Comparator.comparingLong(duration).reversed());
+		List<List<T>> workerItems = new ArrayList<>(workerCount);
+		for(int i = 0; i < workerCount; i++) {
+			workerItems.add(new ArrayList<>());
+		}
+		long[] workerDurations = new long[workerCount];
+		// least loaded worker first, then fewest items so unknown durations of 0 are spread, then the lower index so the assignment is deterministic
+		PriorityQueue<Integer> workerQueue = new PriorityQueue<>(workerCount,
+				Comparator.<Integer>comparingLong(worker -> workerDurations[worker])
+						.thenComparingInt(worker -> workerItems.get(worker).size())
+						.thenComparingInt(worker -> worker));
+		for(int i = 0; i < workerCount; i++) {
+			workerQueue.add(i);
+		}
+		long totalDuration = 0;
+		for(T item : longestFirst) {
+			int worker = workerQueue.poll();
+			long itemDuration = Math.max(0, duration.applyAsLong(item));
+			workerItems.get(worker).add(item);
+			workerDurations[worker] += itemDuration;
+			totalDuration += itemDuration;
+			workerQueue.add(worker);
+		}
+		return new LptAssignment<>(workerItems, workerDurations, totalDuration);
+	}
+
+
+	// getters
+
+	/**
+	 * @return the items of each worker, longest first
+	 */
+	public List<List<T>> getWorkerItems() {
+		return Collections.unmodifiableList(workerItems);
+	}
+
+	/**
+	 * @param worker index of the worker
+	 * @return total duration of the items of the worker
+	 */
+	public long getWorkerDuration(int worker) {
+		return workerDurations[worker];
+	}
+
+	public int getWorkerCount() {
+		return workerDurations.length;
+	}
+
+	/**
+	 * @return total duration of the most loaded worker, the estimated wall time of running all items
+	 */
+	public long getMakespan() {
+		long makespan = 0;
+		for(long workerDuration : workerDurations) {
+			makespan = Math.max(makespan, workerDuration);
+		}
+		return makespan;
+	}
+
+	/**
+	 * @return total duration of all items
+	 */
+	public long getTotalDuration() {
+		return totalDuration;
+	}
+}
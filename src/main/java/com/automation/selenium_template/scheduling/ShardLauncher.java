@@ -0,0 +1,173 @@
+package com.automation.selenium_template.scheduling;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.automation.selenium_template.driver.StepEventLog;
+import com.automation.selenium_template.reports.RunTraceListener;
+
+/**
+ * Runs a TestNG suite split into balanced shards by the {@link ShardPlanner}, one worker JVM per shard on this machine, and merges
+ * their results with the {@link ShardResultMerger}. Each worker gets its own output directory 'shard-&lt;n&gt;' with its allure results,
+ * step events, run trace, test durations and a 'worker.log' of its output, and starts from the current duration history so the
+ * {@link LongestFirstInterceptor} can order its tests. The merged results are written to 'merged'.
+ * Worker JVMs get the class path of this JVM and the arguments of the system property 'shard.jvmArgs', e.g.
+ * 'java -cp ... -Dshard.jvmArgs="-Xmx1g" com.automation.selenium_template.scheduling.ShardLauncher testng.xml 4 target/shards'.
+ * Use a fresh output directory per run, results left in it by an earlier run are merged again.
+ */
+public class ShardLauncher {
+
+	public static final String JVM_ARGS_PROPERTY = "shard.jvmArgs";
+	public static final String SHARD_INDEX_PROPERTY = "shard.index";
+	public static final String SHARD_COUNT_PROPERTY = "shard.count";
+	public static final String MERGED_DIRECTORY = "merged";
+	private static Logger logger = LoggerFactory.getLogger(ShardLauncher.class);
+
+	private final Path outputDirectory;
+	private final List<String> jvmArgs;
+
+	/**
+	 * @param outputDirectory directory the manifests and the shard and merged output directories are written to
+	 * @param jvmArgs additional arguments of the worker JVMs
+	 */
+	public ShardLauncher(Path outputDirectory, List<String> jvmArgs) {
+		super();
+		this.outputDirectory = outputDirectory;
+		this.jvmArgs = List.copyOf(jvmArgs);
+	}
+
+	/**
+	 * @param args the suite file, the number of shards and optionally the output directory, by default 'target/shards'
+	 */
+	public static void main(String[] args) throws IOException, InterruptedException {
+		if(args.length < 2) {
+			System.err.println("Usage: ShardLauncher <suite xml> <shards> [<output directory>]");
+			System.exit(2);
+		}
+		Path outputDirectory = Path.of(args.length > 2 ? args[2] : "target/shards");
+		String jvmArgs = System.getProperty(JVM_ARGS_PROPERTY, "").trim();
+		ShardLauncher shardLauncher = new ShardLauncher(outputDirectory, jvmArgs.isEmpty() ? List.of() : List.of(jvmArgs.split("\\s+")));
+		System.exit(shardLauncher.run(Path.of(args[0]), Integer.parseInt(args[1])) ? 0 : 1);
+	}
+
+
+	// getters
+
+	/**
+	 * @param shard index of the shard
+	 * @return output directory of the shard
+	 */
+	public Path getShardDirectory(int shard) {
+		return outputDirectory.resolve(ShardPlanner.MANIFEST_PREFIX + shard);
+	}
+
+
+	// operations
+
+	/**
+	 * Plan the shards of the suite with the default duration history, run them and merge their results into the history and 'merged'.
+	 * @param suiteFile the TestNG suite file
+	 * @param shards number of shards
+	 * @return true if all shards passed and their results were merged otherwise false
+	 * @throws IOException if the suite cannot be read or the manifests cannot be written
+	 * @throws InterruptedException if interrupted while the workers run, the workers are stopped
+	 */
+	public boolean run(Path suiteFile, int shards) throws IOException, InterruptedException {
+		Path durationsFile = DurationHistory.getDefaultFile();
+		ShardPlanner shardPlanner = new ShardPlanner(DurationHistory.read(durationsFile));
+		List<Path> manifests = shardPlanner.writeManifests(shardPlanner.plan(suiteFile, shards), outputDirectory);
+		List<Integer> exitCodes = launch(manifests, durationsFile);
+		List<Path> shardDirectories = new ArrayList<>();
+		for(int shard = 0; shard < manifests.size(); shard++) {
+			shardDirectories.add(getShardDirectory(shard));
+		}
+		boolean merged = ShardResultMerger.merge(shardDirectories, outputDirectory.resolve(MERGED_DIRECTORY), durationsFile);
+		return merged && exitCodes.stream().allMatch(exitCode -> exitCode == 0);
+	}
+
+	/**
+	 * Run every manifest in its own worker JVM, all at once, and wait for them.
+	 * @param manifests the shard manifests
+	 * @param durationsFile duration history each worker starts from, it need not exist
+	 * @return exit code of each worker, 0 if all its tests passed
+	 * @throws IOException if a worker cannot be started, the workers already started are stopped
+	 * @throws InterruptedException if interrupted while the workers run, the workers are stopped
+	 */
+	public List<Integer> launch(List<Path> manifests, Path durationsFile) throws IOException, InterruptedException {
+		List<Process> workers = new ArrayList<>();
+		long startNanos = System.nanoTime();
+		try {
+			for(int shard = 0; shard < manifests.size(); shard++) {
+				workers.add(startWorker(shard, manifests.size(), manifests.get(shard), durationsFile));
+			}
+			List<Integer> exitCodes = new ArrayList<>();
+			for(int shard = 0; shard < workers.size(); shard++) {
+				int exitCode = workers.get(shard).waitFor();
+				exitCodes.add(exitCode);
+				if(exitCode != 0) {
+					logger.warn("Shard {} exited with {}, see {}", shard, exitCode, getShardDirectory(shard).resolve("worker.log").toAbsolutePath());
+				}
+			}
+			logger.info("{} shards finished in {} s with exit codes {}", workers.size(), (System.nanoTime() - startNanos) / 1_000_000_000, exitCodes);
+			return exitCodes;
+		}finally {
+			for(Process worker : workers) {
+				if(worker.isAlive()) {
+					worker.descendants().forEach(ProcessHandle::destroy);
+					worker.destroy();
+				}
+			}
+		}
+	}
+
+	private Process startWorker(int shard, int shardCount, Path manifest, Path durationsFile) throws IOException {
+		Path shardDirectory = getShardDirectory(shard).toAbsolutePath();
+		Files.createDirectories(shardDirectory);
+		Path shardDurationsFile = shardDirectory.resolve(ShardResultMerger.DURATIONS_FILE);
+		if(Files.isRegularFile(durationsFile)) {
+			Files.copy(durationsFile, shardDurationsFile, StandardCopyOption.REPLACE_EXISTING);
+		}
+		List<String> command = new ArrayList<>();
+		command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+		command.add("-cp");
+		command.add(getAbsoluteClassPath());
+		command.addAll(jvmArgs);
+		command.add("-D" + SHARD_INDEX_PROPERTY + "=" + shard);
+		command.add("-D" + SHARD_COUNT_PROPERTY + "=" + shardCount);
+		command.add("-Dallure.results.directory=" + shardDirectory.resolve(ShardResultMerger.ALLURE_RESULTS_DIRECTORY));
+		command.add("-D" + StepEventLog.DIRECTORY_PROPERTY + "=" + shardDirectory.resolve(ShardResultMerger.STEP_EVENTS_DIRECTORY));
+		command.add("-D" + RunTraceListener.TRACE_FILE_PROPERTY + "=" + shardDirectory.resolve("run-trace.bin"));
+		command.add("-D" + DurationHistory.DURATIONS_FILE_PROPERTY + "=" + shardDurationsFile);
+		command.add("-D" + DurationHistory.RUN_DURATIONS_FILE_PROPERTY + "=" + shardDirectory.resolve(ShardResultMerger.RUN_DURATIONS_FILE));
+		command.add("org.testng.TestNG");
+		command.add("-d");
+		command.add(shardDirectory.resolve("test-output").toString());
+		command.add(manifest.toAbsolutePath().toString());
+		Process worker = new ProcessBuilder(command)
+				.directory(shardDirectory.toFile())
+				.redirectErrorStream(true)
+				.redirectOutput(shardDirectory.resolve("worker.log").toFile())
+				.start();
+		logger.info("Started shard {} of {} in process {}: {}", shard, shardCount, worker.pid(), manifest);
+		return worker;
+	}
+
+	// workers run in their shard directory, relative class path entries would not resolve there
+	private static String getAbsoluteClassPath() {
+		List<String> classPath = new ArrayList<>();
+		for(String entry : System.getProperty("java.class.path").split(File.pathSeparator)) {
+			if(!entry.isEmpty()) {
+				classPath.add(Path.of(entry).toAbsolutePath().toString());
+			}
+		}
+		return String.join(File.pathSeparator, classPath);
+	}
+}
@@ -0,0 +1,218 @@
+package com.automation.selenium_template.scheduling;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.xml.XmlClass;
+import org.testng.xml.XmlInclude;
+import org.testng.xml.XmlPackage;
+import org.testng.xml.XmlSuite;
+import org.testng.xml.XmlTest;
+import org.testng.xml.internal.Parser;
+
+/**
+ * Splits a TestNG suite into shards of about equal duration by the {@link DurationHistory}, each a self contained suite file
+ * (shard manifest) that a worker JVM on this or another node runs with 'java -cp ... org.testng.TestNG shard-0.xml'.
+ * Test classes are the unit of sharding, so class level configuration methods and dependencies between methods stay in one JVM.
+ * Classes are assigned {@link LptAssignment longest first}, classes without history are assumed to take the median class duration.
+ * Suite and test settings, parameters, groups and listeners are copied into every shard. Tests of included suite files keep
+ * the parameters, parallel settings and groups of their own suite, the listeners of all suites are registered in every shard.
+ */
+public class ShardPlanner {
+
+	public static final String MANIFEST_PREFIX = "shard-";
+	private static Logger logger = LoggerFactory.getLogger(ShardPlanner.class);
+
+	private final DurationHistory durationHistory;
+
+	public ShardPlanner(DurationHistory durationHistory) {
+		super();
+		this.durationHistory = durationHistory;
+	}
+
+	/**
+	 * Write the shard manifests of a suite file for other nodes, with the default duration history.
+	 * @param args the suite file, the number of shards and the directory to write the manifests to
+	 */
+	public static void main(String[] args) throws IOException {
+		if(args.length < 3) {
+			System.err.println("Usage: ShardPlanner <suite xml> <shards> <manifest directory>");
+			System.exit(2);
+		}
+		ShardPlanner shardPlanner = new ShardPlanner(DurationHistory.read(DurationHistory.getDefaultFile()));
+		List<Path> manifests = shardPlanner.writeManifests(shardPlanner.plan(Path.of(args[0]), Integer.parseInt(args[1])), Path.of(args[2]));
+		logger.info("Wrote {} shard manifests to: {}", manifests.size(), Path.of(args[2]).toAbsolutePath());
+	}
+
+
+	// planning
+
+	/**
+	 * @param suiteFile the TestNG suite file, suites it includes are sharded with it
+	 * @param shards number of shards wanted
+	 * @return the shard suites, fewer than wanted if there are fewer test classes
+	 * @throws IOException if the suite file cannot be read
+	 */
+	public List<XmlSuite> plan(Path suiteFile, int shards) throws IOException {
+		List<XmlSuite> suites = new ArrayList<>();
+		// the parser returns the root suites only, the suite files they include are their child suites
+		addWithChildSuites(new Parser(suiteFile.toString()).parseToList(), suites);
+		if(suites.isEmpty()) {
+			throw new IOException("No suite found in: " + suiteFile);
+		}
+		return plan(suites, shards);
+	}
+
+	private static void addWithChildSuites(List<XmlSuite> xmlSuites, List<XmlSuite> suites) {
+		for(XmlSuite xmlSuite : xmlSuites) {
+			suites.add(xmlSuite);
+			addWithChildSuites(xmlSuite.getChildSuites(), suites);
+		}
+	}
+
+	/**
+	 * @param suites the parsed suites including the suites they include, the first one's name and settings are used for the shard suites
+	 * @param shards number of shards wanted
+	 * @return the shard suites, fewer than wanted if there are fewer test classes
+	 */
+	public List<XmlSuite> plan(List<XmlSuite> suites, int shards) {
+		List<ShardItem> items = new ArrayList<>();
+		int testIndex = 0;
+		for(XmlSuite suite : suites) {
+			for(XmlTest xmlTest : suite.getTests()) {
+				testIndex++;
+				List<XmlClass> xmlClasses = new ArrayList<>(xmlTest.getXmlClasses());
+				for(XmlPackage xmlPackage : xmlTest.getXmlPackages()) {
+					xmlClasses.addAll(xmlPackage.getXmlClasses());
+				}
+				for(XmlClass xmlClass : xmlClasses) {
+					items.add(new ShardItem(testIndex, xmlTest, xmlClass, getDurationMillis(xmlClass)));
+				}
+			}
+		}
+		List<Long> knownDurations = new ArrayList<>();
+		for(ShardItem item : items) {
+			if(item.durationMillis() >= 0) {
+				knownDurations.add(item.durationMillis());
+			}
+		}
+		knownDurations.sort(null);
+		long defaultMillis = knownDurations.isEmpty() ? 0 : knownDurations.get(knownDurations.size() / 2);
+		LptAssignment<ShardItem> assignment = LptAssignment.assign(items,
+				item -> item.durationMillis() >= 0 ? item.durationMillis() : defaultMillis, Math.min(Math.max(1, shards), Math.max(1, items.size())));
+		if(items.size() < shards) {
+			logger.warn("Only {} test classes for {} shards, planning {} shards", items.size(), shards, assignment.getWorkerCount());
+		}
+		List<XmlSuite> shardSuites = new ArrayList<>();
+		for(int shard = 0; shard < assignment.getWorkerCount(); shard++) {
+			shardSuites.add(toSuite(suites.get(0), shard, assignment.getWorkerItems().get(shard)));
+			logger.info("Shard {}: {} test classes, estimated {} s", shard, assignment.getWorkerItems().get(shard).size(),
+					assignment.getWorkerDuration(shard) / 1000);
+		}
+		logger.info("Planned {} shards, estimated {} s for {} s of tests", shardSuites.size(), assignment.getMakespan() / 1000,
+				assignment.getTotalDuration() / 1000);
+		return shardSuites;
+	}
+
+	private long getDurationMillis(XmlClass xmlClass) {
+		if(xmlClass.getIncludedMethods().isEmpty()) {
+			return durationHistory.getClassDurationMillis(xmlClass.getName());
+		}
+		long durationMillis = -1;
+		for(XmlInclude xmlInclude : xmlClass.getIncludedMethods()) {
+			long methodMillis = durationHistory.getDurationMillis(xmlClass.getName() + "." + xmlInclude.getName());
+			if(methodMillis >= 0) {
+				durationMillis = Math.max(durationMillis, 0) + methodMillis;
+			}
+		}
+		return durationMillis;
+	}
+
+	private static XmlSuite toSuite(XmlSuite suite, int shard, List<ShardItem> items) {
+		XmlSuite shardSuite = new XmlSuite();
+		shardSuite.setName(suite.getName());
+		shardSuite.setParameters(suite.getParameters());
+		shardSuite.setParallel(suite.getParallel());
+		shardSuite.setThreadCount(suite.getThreadCount());
+		shardSuite.setVerbose(suite.getVerbose());
+		// listeners and data provider threads are suite wide, those of the included suites apply to the whole shard
+		LinkedHashSet<String> listeners = new LinkedHashSet<>(suite.getListeners());
+		int dataProviderThreadCount = suite.getDataProviderThreadCount();
+		for(ShardItem item : items) {
+			listeners.addAll(item.xmlTest().getSuite().getListeners());
+			dataProviderThreadCount = Math.max(dataProviderThreadCount, item.xmlTest().getSuite().getDataProviderThreadCount());
+		}
+		shardSuite.setListeners(new ArrayList<>(listeners));
+		shardSuite.setDataProviderThreadCount(dataProviderThreadCount);
+		// the shard's classes of each original test, tests in their original order
+		Map<Integer, List<ShardItem>> testItems = new TreeMap<>();
+		for(ShardItem item : items) {
+			testItems.computeIfAbsent(item.testIndex(), key -> new ArrayList<>()).add(item);
+		}
+		List<String> testNames = new ArrayList<>();
+		for(List<ShardItem> shardItems : testItems.values()) {
+			XmlTest xmlTest = shardItems.get(0).xmlTest();
+			List<XmlClass> xmlClasses = new ArrayList<>();
+			for(ShardItem item : shardItems) {
+				xmlClasses.add((XmlClass) item.xmlClass().clone());
+			}
+			XmlTest shardTest = new XmlTest(shardSuite);
+			// test names must be unique within a suite, included suites may reuse them
+			String testName = testNames.contains(xmlTest.getName()) ? xmlTest.getSuite().getName() + " - " + xmlTest.getName() : xmlTest.getName();
+			testNames.add(testName);
+			shardTest.setName(testName);
+			// the parameters of the test and of the suites it is included from, parallel settings fall back to its own suite
+			shardTest.setParameters(xmlTest.getAllParameters());
+			shardTest.setParallel(xmlTest.getParallel());
+			shardTest.setThreadCount(xmlTest.getThreadCount());
+			shardTest.setPreserveOrder(xmlTest.getPreserveOrder());
+			shardTest.setIncludedGroups(getGroups(xmlTest.getIncludedGroups(), xmlTest.getSuite(), true));
+			shardTest.setExcludedGroups(getGroups(xmlTest.getExcludedGroups(), xmlTest.getSuite(), false));
+			shardTest.setXmlClasses(xmlClasses);
+		}
+		shardSuite.setFileName(MANIFEST_PREFIX + shard + ".xml");
+		return shardSuite;
+	}
+
+	// groups run by the test's own suite are not part of the test's groups
+	private static List<String> getGroups(List<String> testGroups, XmlSuite suite, boolean included) {
+		LinkedHashSet<String> groups = new LinkedHashSet<>(testGroups);
+		groups.addAll(included ? suite.getIncludedGroups() : suite.getExcludedGroups());
+		if(suite.getGroups() != null && suite.getGroups().getRun() != null) {
+			groups.addAll(included ? suite.getGroups().getRun().getIncludes() : suite.getGroups().getRun().getExcludes());
+		}
+		return new ArrayList<>(groups);
+	}
+
+	/**
+	 * @param shardSuites the planned shards
+	 * @param directory directory to write the manifests 'shard-0.xml', 'shard-1.xml', ... to
+	 * @return the written manifests
+	 * @throws IOException if a manifest cannot be written
+	 */
+	public List<Path> writeManifests(List<XmlSuite> shardSuites, Path directory) throws IOException {
+		Files.createDirectories(directory);
+		List<Path> manifests = new ArrayList<>();
+		for(int shard = 0; shard < shardSuites.size(); shard++) {
+			Path manifest = directory.resolve(MANIFEST_PREFIX + shard + ".xml");
+			Files.writeString(manifest, shardSuites.get(shard).toXml(), StandardCharsets.UTF_8);
+			manifests.add(manifest);
+		}
+		return manifests;
+	}
+
+	/**
+	 * A test class of a test of the suite with its historical duration, -1 if unknown.
+	 */
+	private record ShardItem(int testIndex, XmlTest xmlTest, XmlClass xmlClass, long durationMillis) {
+	}
+}
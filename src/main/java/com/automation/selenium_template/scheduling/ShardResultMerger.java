@@ -0,0 +1,150 @@
+package com.automation.selenium_template.scheduling;
+
+import java.io.IOException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.automation.selenium_template.driver.OperationMetrics;
+import com.automation.selenium_template.driver.StepEvent;
+import com.automation.selenium_template.driver.StepEventLog;
+import com.automation.selenium_template.driver.StepEventLogReader;
+
+/**
+ * Merges the output directories of the shards of a run, laid out as written by {@link ShardLauncher}, into one:
+ * the allure results into one results directory for a single report, the step event logs into one log and one
+ * {@link OperationMetrics} table, and the shards' test durations into the {@link DurationHistory} used to plan the next run.
+ * Results of shards run on other nodes are merged the same way once copied into one directory each.
+ */
+public class ShardResultMerger {
+
+	public static final String ALLURE_RESULTS_DIRECTORY = "allure-results";
+	public static final String STEP_EVENTS_DIRECTORY = "step-events";
+	public static final String DURATIONS_FILE = "test-durations.tsv";
+	public static final String RUN_DURATIONS_FILE = "run-durations.tsv";
+	public static final String OPERATION_METRICS_FILE = "operation-metrics.csv";
+	private static Logger logger = LoggerFactory.getLogger(ShardResultMerger.class);
+
+	private ShardResultMerger() {
+	}
+
+	/**
+	 * @param args the merged output directory followed by the output directories of the shards
+	 */
+	public static void main(String[] args) {
+		if(args.length < 2) {
+			System.err.println("Usage: ShardResultMerger <merged directory> <shard directory>...");
+			System.exit(2);
+		}
+		List<Path> shardDirectories = new ArrayList<>();
+		for(int i = 1; i < args.length; i++) {
+			shardDirectories.add(Path.of(args[i]));
+		}
+		System.exit(merge(shardDirectories, Path.of(args[0]), DurationHistory.getDefaultFile()) ? 0 : 1);
+	}
+
+	/**
+	 * Merge the shard output directories.
+	 * @param shardDirectories output directories of the shards
+	 * @param mergedDirectory directory to write the merged allure results, step events and operation metrics to
+	 * @param durationsFile duration history to update with the shards' durations
+	 * @return true if operation is successful otherwise false
+	 */
+	public static boolean merge(List<Path> shardDirectories, Path mergedDirectory, Path durationsFile) {
+		boolean successful = mergeAllureResults(shardDirectories, mergedDirectory.resolve(ALLURE_RESULTS_DIRECTORY));
+		successful &= mergeStepEvents(shardDirectories, mergedDirectory);
+		DurationHistory durationHistory = DurationHistory.read(durationsFile);
+		// only the durations measured in this run, each shard's copy of the history would undo the updates of the others
+		for(Path shardDirectory : shardDirectories) {
+			Path runDurationsFile = shardDirectory.resolve(RUN_DURATIONS_FILE);
+			if(Files.isRegularFile(runDurationsFile)) {
+				durationHistory.updateAll(DurationHistory.read(runDurationsFile));
+			}
+		}
+		successful &= durationHistory.write(durationsFile);
+		return successful;
+	}
+
+	/**
+	 * Copy the allure results of all shards into one directory. Result files have unique names, files with the same name
+	 * in several shards, e.g. deduplicated attachments or the environment, are taken from the first shard.
+	 * @param shardDirectories output directories of the shards
+	 * @param mergedResultsDirectory the merged allure results directory
+	 * @return true if operation is successful otherwise false
+	 */
+	public static boolean mergeAllureResults(List<Path> shardDirectories, Path mergedResultsDirectory) {
+		int copied = 0;
+		try {
+			Files.createDirectories(mergedResultsDirectory);
+			for(Path shardDirectory : shardDirectories) {
+				Path resultsDirectory = shardDirectory.resolve(ALLURE_RESULTS_DIRECTORY);
+				if(!Files.isDirectory(resultsDirectory)) {
+					logger.warn("No allure results in shard: {}", shardDirectory);
+					continue;
+				}
+				try(Stream<Path> files = Files.list(resultsDirectory)) {
+					for(Path file : (Iterable<Path>) files::iterator) {
+						try {
+							Files.copy(file, mergedResultsDirectory.resolve(file.getFileName().toString()));
+							copied++;
+						}catch (FileAlreadyExistsException e) {
+							logger.debug("Keeping allure result of an earlier shard: {}", file.getFileName());
+						}
+					}
+				}
+			}
+			logger.info("Merged {} allure result files into: {}", copied, mergedResultsDirectory.toAbsolutePath());
+			return true;
+		}catch (IOException e) {
+			//logging and reporting
+			logger.error("Exception occurred while merging allure results into: {}", mergedResultsDirectory, e);
+		}
+		return false;
+	}
+
+	/**
+	 * Copy the step event segments of all shards into one step event log and write the operation metrics of all their steps.
+	 * @param shardDirectories output directories of the shards
+	 * @param mergedDirectory directory to write the merged step events and operation metrics to
+	 * @return true if operation is successful otherwise false
+	 */
+	public static boolean mergeStepEvents(List<Path> shardDirectories, Path mergedDirectory) {
+		Path mergedStepEvents = mergedDirectory.resolve(STEP_EVENTS_DIRECTORY);
+		OperationMetrics operationMetrics = new OperationMetrics();
+		try {
+			Files.createDirectories(mergedStepEvents);
+			for(int shard = 0; shard < shardDirectories.size(); shard++) {
+				Path stepEvents = shardDirectories.get(shard).resolve(STEP_EVENTS_DIRECTORY);
+				if(!Files.isDirectory(stepEvents)) {
+					continue;
+				}
+				for(Path segment : StepEventLogReader.listSegments(stepEvents)) {
+					// keep the segment prefix so the merged log reads like any other, shard by shard
+					String segmentName = segment.getFileName().toString();
+					Files.copy(segment, mergedStepEvents.resolve(StepEventLog.SEGMENT_PREFIX + ShardPlanner.MANIFEST_PREFIX
+							+ String.format("%04d-", shard) + segmentName.substring(StepEventLog.SEGMENT_PREFIX.length())), StandardCopyOption.REPLACE_EXISTING);
+				}
+				try(Stream<StepEvent> events = StepEventLogReader.read(stepEvents)) {
+					events.forEach(operationMetrics::stepFinished);
+				}
+			}
+			if(operationMetrics.getOperationStats().isEmpty()) {
+				logger.info("No step events in the shards");
+				return true;
+			}
+			logger.info("Operation metrics of all shards:\n{}", operationMetrics.getSummary());
+			return operationMetrics.writeCsv(mergedDirectory.resolve(OPERATION_METRICS_FILE));
+		}catch (IOException | RuntimeException e) {
+			//logging and reporting
+			logger.error("Exception occurred while merging step events into: {}", mergedStepEvents, e);
+		}
+		return false;
+	}
+}
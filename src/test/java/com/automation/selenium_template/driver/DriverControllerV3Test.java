@@ -0,0 +1,108 @@
+package com.automation.selenium_template.driver;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.openqa.selenium.ElementClickInterceptedException;
+import org.openqa.selenium.WebElement;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import com.automation.selenium_template.driver.fake.FakeWebDriver;
+import com.automation.selenium_template.driver.fake.FakeWebElement;
+
+public class DriverControllerV3Test {
+
+	private FakeWebDriver fakeWebDriver;
+	private DriverControllerV3 driverController;
+
+	@BeforeMethod
+	public void setUp() {
+		fakeWebDriver = new FakeWebDriver();
+		driverController = new DriverControllerV3(fakeWebDriver);
+		driverController.setRuntimeMetrics(null);
+		driverController.setDefaultExplicitWaitDuration(Duration.ofSeconds(2));
+	}
+
+	@Test
+	public void clickFallsBackToNextLocator() {
+		FakeWebElement button = new FakeWebElement("button").setAttribute("name", "submit").setText("Submit");
+		fakeWebDriver.addElement(button);
+		List<StepEvent> stepEvents = new CopyOnWriteArrayList<>();
+		driverController.addStepListener(stepEvents::add);
+
+		assertTrue(driverController.click("Click submit", "css~#submit;xpath~//button[normalize-space()='Submit']"));
+		assertEquals(button.getClickCount(), 1);
+		StepEvent clickEvent = stepEvents.get(stepEvents.size() - 1);
+		assertEquals(clickEvent.operation(), "click");
+		assertTrue(clickEvent.fallbacks() >= 1);
+	}
+
+	@Test
+	public void waitFindsElementAppearingLater() {
+		fakeWebDriver.addElement(new FakeWebElement("div").setId("spinner-done").appearAfter(Duration.ofMillis(700)));
+
+		assertNotNull(driverController.waitForVisibilityOfElement("Wait for content", "css~#spinner-done", Duration.ofSeconds(3)));
+	}
+
+	@Test
+	public void waitTimesOutForHiddenElement() {
+		fakeWebDriver.addElement(new FakeWebElement("div").setId("hidden").setDisplayed(false));
+
+		long startNanos = System.nanoTime();
+		assertNull(driverController.waitForVisibilityOfElement("Wait for hidden", "css~#hidden", Duration.ofMillis(600)));
+		assertTrue(System.nanoTime() - startNanos >= Duration.ofMillis(600).toNanos());
+	}
+
+	@Test
+	public void clickFailsOnceThenSucceeds() {
+		FakeWebElement button = new FakeWebElement("button").setId("submit");
+		fakeWebDriver.addElement(button)
+				.failNext("click", 1, () -> new ElementClickInterceptedException("element click intercepted"));
+
+		assertFalse(driverController.click("Click submit", "css~#submit"));
+		assertTrue(driverController.click("Click submit", "css~#submit"));
+		assertEquals(button.getClickCount(), 1);
+		assertEquals(fakeWebDriver.getCommandCount("click"), 2);
+	}
+
+	@Test
+	public void latencyIsRecordedInOperationMetrics() {
+		OperationMetrics operationMetrics = new OperationMetrics();
+		driverController.addStepListener(operationMetrics);
+		fakeWebDriver.addElement(new FakeWebElement("input").setId("name").setAttribute("value", "Jane"))
+				.setLatency("getAttribute", Duration.ofMillis(50));
+
+		assertEquals(driverController.getAttribute("Read name", "css~#name", "value"), "Jane");
+		OperationMetrics.Stats stats = operationMetrics.getOperationStats("getAttribute");
+		assertNotNull(stats);
+		assertEquals(stats.getHistogram().getCount(), 1);
+		assertTrue(stats.getHistogram().getMaxNanos() >= Duration.ofMillis(50).toNanos());
+	}
+
+	@Test
+	public void elementsInsideFramesAreFound() {
+		FakeWebElement frame = new FakeWebElement("iframe").setId("content");
+		frame.getFrameBody().appendChild(new FakeWebElement("a").setText("Help"));
+		fakeWebDriver.addElement(frame);
+
+		assertTrue(driverController.findElements("xpath~//a[text()='Help']").isEmpty());
+		assertTrue(driverController.switchToIFrame("Enter content", "css~#content"));
+		assertEquals(driverController.findElements("xpath~//a[text()='Help']").size(), 1);
+
+		// the fake runs no page scripts, the frame search answers with the frame path a browser would
+		fakeWebDriver.onScript("crossOrigin", arguments -> Map.of("path", List.of(0), "crossOrigin", List.of()));
+		assertTrue(driverController.switchToDefaultContent("Leave content"));
+		WebElement link = driverController.findElementAcrossFrames("Find help", "xpath~//a[text()='Help']");
+		assertNotNull(link);
+		assertEquals(link.getText(), "Help");
+	}
+}
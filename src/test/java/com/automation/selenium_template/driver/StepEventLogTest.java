@@ -0,0 +1,39 @@
+package com.automation.selenium_template.driver;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.testng.annotations.Test;
+
+public class StepEventLogTest {
+
+	@Test
+	public void stepEventsAreReadBackAcrossSegments() throws IOException {
+		Path directory = Files.createTempDirectory("step-events");
+		List<StepEvent> stepEvents = new ArrayList<>();
+		for(int i = 0; i < 200; i++) {
+			stepEvents.add(new StepEvent(1_000 + i, "worker \"" + (i % 3) + "\"", "sendKeys",
+					"Type\tline " + i + "\nwith \\ backslash, \r return and \u0001 control", i % 5 == 0 ? null : "xpath~//input[@name=\"q\"]",
+					i % 7 != 0, 1_000_000L * i, i % 3, 1 + i % 2, i % 4));
+		}
+		// a step longer than a segment gets a segment of its own size
+		stepEvents.add(new StepEvent(5_000, "main", "executeScript", "Long script", "x".repeat(6_000), true, 0, 0, 1, 0));
+
+		try(StepEventLog stepEventLog = new StepEventLog(directory, 4096)) {
+			stepEvents.forEach(stepEventLog::stepFinished);
+			assertEquals(stepEventLog.getEventsWritten(), (long) stepEvents.size());
+		}
+
+		assertTrue(StepEventLogReader.listSegments(directory).size() > 1);
+		try(Stream<StepEvent> readEvents = StepEventLogReader.read(directory)) {
+			assertEquals(readEvents.toList(), stepEvents);
+		}
+	}
+}
@@ -0,0 +1,617 @@
+package com.automation.selenium_template.driver.fake;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.InvalidSelectorException;
+
+/**
+ * Evaluates locators against the fake DOM: every {@link By} strategy of Selenium, CSS selectors with compound, descendant and child
+ * selectors, and XPath location paths with the child, descendant, self and parent steps and the predicates and functions tests commonly use.
+ * Anything else is rejected with an {@link InvalidSelectorException}, as a browser rejects an invalid selector.
+ */
+final class FakeSelectors {
+
+	private static final Pattern BY_PATTERN = Pattern.compile("By\\.(\\w+): (.*)", Pattern.DOTALL);
+	private static final Pattern CSS_TAG = Pattern.compile("\\*|[A-Za-z][\\w-]*");
+	private static final Pattern CSS_ID_OR_CLASS = Pattern.compile("([#.])((?:[\\w-]|\\\\.)+)");
+	private static final Pattern CSS_ATTRIBUTE = Pattern.compile("\\[\\s*([\\w-]+)\\s*(?:([~^$*|]?=)\\s*(\"[^\"]*\"|'[^']*'|[^\\]\\s]+)\\s*)?\\]");
+	private static final Pattern CSS_PSEUDO_CLASS = Pattern.compile(":([\\w-]+)(?:\\((\\d+)\\))?");
+
+	private FakeSelectors() {
+	}
+
+	/**
+	 * @param scope element to search the descendants of
+	 * @param by the locator
+	 * @return the present descendants of the scope matching the locator in document order
+	 */
+	static List<FakeWebElement> find(FakeWebElement scope, By by) {
+		Matcher matcher = BY_PATTERN.matcher(by.toString());
+		if(!matcher.matches()) {
+			throw new InvalidSelectorException("Unsupported locator: " + by);
+		}
+		String value = matcher.group(2);
+		switch (matcher.group(1)) {
+			case "id": return filter(scope, element -> value.equals(element.getAttributeValue("id")));
+			case "name": return filter(scope, element -> value.equals(element.getAttributeValue("name")));
+			case "className": return filter(scope, element -> hasClass(element, value));
+			case "tagName": return filter(scope, element -> element.tag().equalsIgnoreCase(value));
+			case "linkText": return filter(scope, element -> "a".equals(element.tag()) && element.getVisibleText().equals(value.trim()));
+			case "partialLinkText": return filter(scope, element -> "a".equals(element.tag()) && element.getVisibleText().contains(value));
+			case "cssSelector": return findByCss(scope, value);
+			case "xpath": return findByXPath(scope, value);
+			default: throw new InvalidSelectorException("Unsupported locator: " + by);
+		}
+	}
+
+	private static List<FakeWebElement> filter(FakeWebElement scope, Predicate<FakeWebElement> predicate) {
+		List<FakeWebElement> matches = new ArrayList<>();
+		for(FakeWebElement element : scope.getPresentDescendants()) {
+			if(predicate.test(element)) {
+				matches.add(element);
+			}
+		}
+		return matches;
+	}
+
+	private static boolean hasClass(FakeWebElement element, String className) {
+		String classes = element.getAttributeValue("class");
+		if(classes != null) {
+			for(String elementClass : classes.trim().split("\\s+")) {
+				if(elementClass.equals(className)) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+
+	// css
+
+	private static List<FakeWebElement> findByCss(FakeWebElement scope, String selectorGroup) {
+		List<List<CssPart>> selectors = new ArrayList<>();
+		for(String selector : splitTopLevel(selectorGroup, ',')) {
+			selectors.add(parseCssSelector(selector.trim(), selectorGroup));
+		}
+		return filter(scope, element -> {
+			for(List<CssPart> selector : selectors) {
+				if(matchesCss(element, selector, selector.size() - 1)) {
+					return true;
+				}
+			}
+			return false;
+		});
+	}
+
+	private record CssPart(boolean child, List<Predicate<FakeWebElement>> conditions) {
+	}
+
+	private static List<CssPart> parseCssSelector(String selector, String selectorGroup) {
+		if(selector.isEmpty()) {
+			throw new InvalidSelectorException("Invalid css selector: " + selectorGroup);
+		}
+		List<CssPart> parts = new ArrayList<>();
+		boolean child = false;
+		int position = 0;
+		while(position < selector.length()) {
+			char c = selector.charAt(position);
+			if(Character.isWhitespace(c)) {
+				position++;
+				continue;
+			}
+			if(c == '>') {
+				child = true;
+				position++;
+				continue;
+			}
+			int end = position;
+			int bracketDepth = 0;
+			char quote = 0;
+			while(end < selector.length()) {
+				char current = selector.charAt(end);
+				if(quote != 0) {
+					quote = current == quote ? 0 : quote;
+				}else if(current == '"' || current == '\'') {
+					quote = current;
+				}else if(current == '[' || current == '(') {
+					bracketDepth++;
+				}else if(current == ']' || current == ')') {
+					bracketDepth--;
+				}else if(bracketDepth == 0 && (Character.isWhitespace(current) || current == '>')) {
+					break;
+				}
+				end++;
+			}
+			parts.add(new CssPart(child, parseCssCompound(selector.substring(position, end), selectorGroup)));
+			child = false;
+			position = end;
+		}
+		if(parts.isEmpty() || child) {
+			throw new InvalidSelectorException("Invalid css selector: " + selectorGroup);
+		}
+		return parts;
+	}
+
+	private static List<Predicate<FakeWebElement>> parseCssCompound(String compound, String selectorGroup) {
+		List<Predicate<FakeWebElement>> conditions = new ArrayList<>();
+		int position = 0;
+		Matcher tagMatcher = CSS_TAG.matcher(compound);
+		if(tagMatcher.lookingAt()) {
+			String tag = tagMatcher.group();
+			if(!"*".equals(tag)) {
+				conditions.add(element -> element.tag().equalsIgnoreCase(tag));
+			}
+			position = tagMatcher.end();
+		}
+		while(position < compound.length()) {
+			Matcher idOrClassMatcher = CSS_ID_OR_CLASS.matcher(compound).region(position, compound.length());
+			Matcher attributeMatcher = CSS_ATTRIBUTE.matcher(compound).region(position, compound.length());
+			Matcher pseudoClassMatcher = CSS_PSEUDO_CLASS.matcher(compound).region(position, compound.length());
+			if(idOrClassMatcher.lookingAt()) {
+				String name = idOrClassMatcher.group(2).replaceAll("\\\\(.)", "$1");
+				if("#".equals(idOrClassMatcher.group(1))) {
+					conditions.add(element -> name.equals(element.getAttributeValue("id")));
+				}else {
+					conditions.add(element -> hasClass(element, name));
+				}
+				position = idOrClassMatcher.end();
+			}else if(attributeMatcher.lookingAt()) {
+				conditions.add(attributeCondition(attributeMatcher.group(1), attributeMatcher.group(2), unquote(attributeMatcher.group(3))));
+				position = attributeMatcher.end();
+			}else if(pseudoClassMatcher.lookingAt()) {
+				conditions.add(pseudoClassCondition(pseudoClassMatcher.group(1), pseudoClassMatcher.group(2), selectorGroup));
+				position = pseudoClassMatcher.end();
+			}else {
+				throw new InvalidSelectorException("Invalid css selector: " + selectorGroup);
+			}
+		}
+		return conditions;
+	}
+
+	private static Predicate<FakeWebElement> attributeCondition(String name, String operator, String value) {
+		return element -> {
+			String attribute = element.getAttributeValue(name);
+			if(attribute == null) {
+				return false;
+			}
+			if(operator == null) {
+				return true;
+			}
+			switch (operator) {
+				case "=": return attribute.equals(value);
+				case "*=": return attribute.contains(value);
+				case "^=": return attribute.startsWith(value);
+				case "$=": return attribute.endsWith(value);
+				case "~=": return List.of(attribute.trim().split("\\s+")).contains(value);
+				default: return attribute.equals(value) || attribute.startsWith(value + "-");
+			}
+		};
+	}
+
+	private static Predicate<FakeWebElement> pseudoClassCondition(String name, String argument, String selectorGroup) {
+		switch (name) {
+			case "checked": return FakeWebElement::isSelectedState;
+			case "disabled": return element -> !element.isEnabledState();
+			case "enabled": return FakeWebElement::isEnabledState;
+			case "first-child": return element -> element.getPresentSiblingIndex() == 1;
+			case "last-child": return element -> element.getPresentSiblingIndex() == element.getPresentSiblingCount();
+			case "nth-child":
+				if(argument != null) {
+					int index = Integer.parseInt(argument);
+					return element -> element.getPresentSiblingIndex() == index;
+				}
+				break;
+			default:
+				break;
+		}
+		throw new InvalidSelectorException("Unsupported pseudo class :" + name + " in css selector: " + selectorGroup);
+	}
+
+	private static boolean matchesCss(FakeWebElement element, List<CssPart> selector, int index) {
+		CssPart part = selector.get(index);
+		for(Predicate<FakeWebElement> condition : part.conditions()) {
+			if(!condition.test(element)) {
+				return false;
+			}
+		}
+		if(index == 0) {
+			return true;
+		}
+		FakeWebElement ancestor = element.getParentElement();
+		while(ancestor != null) {
+			if(matchesCss(ancestor, selector, index - 1)) {
+				return true;
+			}
+			if(part.child()) {
+				return false;
+			}
+			ancestor = ancestor.getParentElement();
+		}
+		return false;
+	}
+
+
+	// xpath
+
+	private static List<FakeWebElement> findByXPath(FakeWebElement scope, String expression) {
+		XPathParser parser = new XPathParser(expression);
+		List<XPathStep> steps = parser.parsePath();
+		parser.expectEnd();
+		Set<FakeWebElement> contexts = new LinkedHashSet<>();
+		contexts.add(steps.get(0).absolute() ? scope.getDocument() : scope);
+		for(XPathStep step : steps) {
+			Set<FakeWebElement> nextContexts = new LinkedHashSet<>();
+			for(FakeWebElement context : contexts) {
+				List<FakeWebElement> origins = step.descendant() ? context.getPresentSelfAndDescendants() : List.of(context);
+				for(FakeWebElement origin : origins) {
+					nextContexts.addAll(step.select(origin));
+				}
+			}
+			contexts = nextContexts;
+		}
+		// the results of an element locator are elements in document order, never the document itself
+		List<FakeWebElement> results = new ArrayList<>();
+		for(FakeWebElement element : scope.getDocument().getPresentDescendants()) {
+			if(contexts.contains(element)) {
+				results.add(element);
+			}
+		}
+		return results;
+	}
+
+	private interface XPathValue {
+		String evaluate(FakeWebElement element, int position, int size);
+	}
+
+	private interface XPathCondition {
+		boolean test(FakeWebElement element, int position, int size);
+	}
+
+	private record XPathStep(boolean absolute, boolean descendant, String nodeTest, List<XPathCondition> predicates) {
+
+		private List<FakeWebElement> select(FakeWebElement origin) {
+			List<FakeWebElement> candidates = new ArrayList<>();
+			if(".".equals(nodeTest)) {
+				candidates.add(origin);
+			}else if("..".equals(nodeTest)) {
+				if(origin.getParentElement() != null) {
+					candidates.add(origin.getParentElement());
+				}
+			}else {
+				for(FakeWebElement child : origin.getPresentChildren()) {
+					if("*".equals(nodeTest) || child.tag().equalsIgnoreCase(nodeTest)) {
+						candidates.add(child);
+					}
+				}
+			}
+			for(XPathCondition predicate : predicates) {
+				List<FakeWebElement> filtered = new ArrayList<>();
+				for(int i = 0; i < candidates.size(); i++) {
+					if(predicate.test(candidates.get(i), i + 1, candidates.size())) {
+						filtered.add(candidates.get(i));
+					}
+				}
+				candidates = filtered;
+			}
+			return candidates;
+		}
+	}
+
+	/**
+	 * Recursive descent parser of the supported XPath subset.
+	 */
+	private static final class XPathParser {
+
+		private final String expression;
+		private int position;
+
+		private XPathParser(String expression) {
+			this.expression = expression.trim();
+		}
+
+		private InvalidSelectorException invalid() {
+			return new InvalidSelectorException("Unsupported or invalid xpath at position " + position + ": " + expression);
+		}
+
+		private void skipWhitespace() {
+			while(position < expression.length() && Character.isWhitespace(expression.charAt(position))) {
+				position++;
+			}
+		}
+
+		private boolean consume(String token) {
+			skipWhitespace();
+			if(expression.startsWith(token, position)) {
+				position += token.length();
+				return true;
+			}
+			return false;
+		}
+
+		private void expect(String token) {
+			if(!consume(token)) {
+				throw invalid();
+			}
+		}
+
+		private void expectEnd() {
+			skipWhitespace();
+			if(position != expression.length()) {
+				throw invalid();
+			}
+		}
+
+		private List<XPathStep> parsePath() {
+			List<XPathStep> steps = new ArrayList<>();
+			boolean absolute = false;
+			boolean descendant = false;
+			if(consume("//")) {
+				absolute = true;
+				descendant = true;
+			}else if(consume("/")) {
+				absolute = true;
+			}
+			steps.add(parseStep(absolute, descendant));
+			while(true) {
+				if(consume("//")) {
+					steps.add(parseStep(false, true));
+				}else if(consume("/")) {
+					steps.add(parseStep(false, false));
+				}else {
+					return steps;
+				}
+			}
+		}
+
+		private XPathStep parseStep(boolean absolute, boolean descendant) {
+			skipWhitespace();
+			String nodeTest;
+			if(consume("..")) {
+				nodeTest = "..";
+			}else if(consume(".")) {
+				nodeTest = ".";
+			}else if(consume("*")) {
+				nodeTest = "*";
+			}else {
+				nodeTest = parseName();
+			}
+			List<XPathCondition> predicates = new ArrayList<>();
+			while(consume("[")) {
+				predicates.add(parseOr());
+				expect("]");
+			}
+			return new XPathStep(absolute, descendant, nodeTest, predicates);
+		}
+
+		private String parseName() {
+			skipWhitespace();
+			int start = position;
+			while(position < expression.length() && (Character.isLetterOrDigit(expression.charAt(position)) || expression.charAt(position) == '-'
+					|| expression.charAt(position) == '_')) {
+				position++;
+			}
+			if(start == position) {
+				throw invalid();
+			}
+			return expression.substring(start, position);
+		}
+
+		private XPathCondition parseOr() {
+			XPathCondition condition = parseAnd();
+			while(consumeKeyword("or")) {
+				XPathCondition left = condition;
+				XPathCondition right = parseAnd();
+				condition = (element, elementPosition, size) -> left.test(element, elementPosition, size) || right.test(element, elementPosition, size);
+			}
+			return condition;
+		}
+
+		private XPathCondition parseAnd() {
+			XPathCondition condition = parseComparison();
+			while(consumeKeyword("and")) {
+				XPathCondition left = condition;
+				XPathCondition right = parseComparison();
+				condition = (element, elementPosition, size) -> left.test(element, elementPosition, size) && right.test(element, elementPosition, size);
+			}
+			return condition;
+		}
+
+		private boolean consumeKeyword(String keyword) {
+			skipWhitespace();
+			int end = position + keyword.length();
+			if(expression.startsWith(keyword, position) && end < expression.length() && !Character.isLetterOrDigit(expression.charAt(end))
+					&& expression.charAt(end) != '-') {
+				position = end;
+				return true;
+			}
+			return false;
+		}
+
+		private XPathCondition parseComparison() {
+			skipWhitespace();
+			if(consume("not(")) {
+				XPathCondition negated = parseOr();
+				expect(")");
+				return (element, elementPosition, size) -> !negated.test(element, elementPosition, size);
+			}
+			if(consume("(")) {
+				XPathCondition grouped = parseOr();
+				expect(")");
+				return grouped;
+			}
+			if(consume("contains(")) {
+				XPathValue haystack = parseValue();
+				expect(",");
+				XPathValue needle = parseValue();
+				expect(")");
+				return (element, elementPosition, size) -> haystack.evaluate(element, elementPosition, size).contains(needle.evaluate(element, elementPosition, size));
+			}
+			if(consume("starts-with(")) {
+				XPathValue value = parseValue();
+				expect(",");
+				XPathValue prefix = parseValue();
+				expect(")");
+				return (element, elementPosition, size) -> value.evaluate(element, elementPosition, size).startsWith(prefix.evaluate(element, elementPosition, size));
+			}
+			int start = position;
+			if(position < expression.length() && Character.isDigit(expression.charAt(position))) {
+				int index = Integer.parseInt(parseNumber());
+				skipWhitespace();
+				if(position < expression.length() && expression.charAt(position) == ']') {
+					return (element, elementPosition, size) -> elementPosition == index;
+				}
+				position = start;
+			}
+			boolean attributeTest = expression.startsWith("@", position);
+			XPathValue left = parseValue();
+			boolean notEquals;
+			if(consume("!=")) {
+				notEquals = true;
+			}else if(consume("=")) {
+				notEquals = false;
+			}else if(attributeTest) {
+				String attribute = expression.substring(start + 1, position).trim();
+				return (element, elementPosition, size) -> element.getAttributeValue(attribute) != null;
+			}else {
+				throw invalid();
+			}
+			XPathValue right = parseValue();
+			return (element, elementPosition, size) -> {
+				String leftValue = left.evaluate(element, elementPosition, size);
+				String rightValue = right.evaluate(element, elementPosition, size);
+				boolean equal = isNumber(leftValue) && isNumber(rightValue)
+						? Double.parseDouble(leftValue) == Double.parseDouble(rightValue) : leftValue.equals(rightValue);
+				return equal != notEquals;
+			};
+		}
+
+		private XPathValue parseValue() {
+			skipWhitespace();
+			if(position >= expression.length()) {
+				throw invalid();
+			}
+			char c = expression.charAt(position);
+			if(c == '"' || c == '\'') {
+				int end = expression.indexOf(c, position + 1);
+				if(end < 0) {
+					throw invalid();
+				}
+				String literal = expression.substring(position + 1, end);
+				position = end + 1;
+				return (element, elementPosition, size) -> literal;
+			}
+			if(Character.isDigit(c)) {
+				String number = parseNumber();
+				return (element, elementPosition, size) -> number;
+			}
+			if(consume("@")) {
+				String attribute = parseName();
+				return (element, elementPosition, size) -> {
+					String value = element.getAttributeValue(attribute);
+					return value != null ? value : "";
+				};
+			}
+			if(consume("text()")) {
+				return (element, elementPosition, size) -> element.getOwnText();
+			}
+			if(consume("position()")) {
+				return (element, elementPosition, size) -> String.valueOf(elementPosition);
+			}
+			if(consume("last()")) {
+				return (element, elementPosition, size) -> String.valueOf(size);
+			}
+			if(consume("normalize-space(")) {
+				XPathValue value = consume(")") ? (element, elementPosition, size) -> element.getTextContent() : parseValueAndClose();
+				return (element, elementPosition, size) -> value.evaluate(element, elementPosition, size).trim().replaceAll("\\s+", " ");
+			}
+			if(consume("translate(")) {
+				XPathValue value = parseValue();
+				expect(",");
+				XPathValue from = parseValue();
+				expect(",");
+				XPathValue to = parseValue();
+				expect(")");
+				return (element, elementPosition, size) -> translate(value.evaluate(element, elementPosition, size), from.evaluate(element, elementPosition, size),
+						to.evaluate(element, elementPosition, size));
+			}
+			if(consume(".")) {
+				return (element, elementPosition, size) -> element.getTextContent();
+			}
+			throw invalid();
+		}
+
+		private XPathValue parseValueAndClose() {
+			XPathValue value = parseValue();
+			expect(")");
+			return value;
+		}
+
+		private String parseNumber() {
+			int start = position;
+			while(position < expression.length() && (Character.isDigit(expression.charAt(position)) || expression.charAt(position) == '.')) {
+				position++;
+			}
+			return expression.substring(start, position);
+		}
+	}
+
+	private static String translate(String value, String from, String to) {
+		StringBuilder translated = new StringBuilder(value.length());
+		for(int i = 0; i < value.length(); i++) {
+			int index = from.indexOf(value.charAt(i));
+			if(index < 0) {
+				translated.append(value.charAt(i));
+			}else if(index < to.length()) {
+				translated.append(to.charAt(index));
+			}
+		}
+		return translated.toString();
+	}
+
+	private static boolean isNumber(String value) {
+		return !value.isEmpty() && value.chars().allMatch(c -> Character.isDigit(c) || c == '.') && value.chars().filter(c -> c == '.').count() <= 1
+				&& !".".equals(value);
+	}
+
+
+	// helpers
+
+	private static List<String> splitTopLevel(String value, char separator) {
+		List<String> parts = new ArrayList<>();
+		int depth = 0;
+		char quote = 0;
+		int start = 0;
+		for(int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			if(quote != 0) {
+				quote = c == quote ? 0 : quote;
+			}else if(c == '"' || c == '\'') {
+				quote = c;
+			}else if(c == '[' || c == '(') {
+				depth++;
+			}else if(c == ']' || c == ')') {
+				depth--;
+			}else if(c == separator && depth == 0) {
+				parts.add(value.substring(start, i));
+				start = i + 1;
+			}
+		}
+		parts.add(value.substring(start));
+		return parts;
+	}
+
+	private static String unquote(String value) {
+		if(value != null && value.length() >= 2 && (value.startsWith("\"") || value.startsWith("'")) && value.endsWith(value.substring(0, 1))) {
+			return value.substring(1, value.length() - 1);
+		}
+		return value;
+	}
+}
@@ -0,0 +1,796 @@
+package com.automation.selenium_template.driver.fake;
+
+import java.net.URL;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import org.openqa.selenium.Alert;
+import org.openqa.selenium.By;
+import org.openqa.selenium.Cookie;
+import org.openqa.selenium.Dimension;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.NoAlertPresentException;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.NoSuchFrameException;
+import org.openqa.selenium.NoSuchSessionException;
+import org.openqa.selenium.NoSuchWindowException;
+import org.openqa.selenium.OutputType;
+import org.openqa.selenium.Point;
+import org.openqa.selenium.TakesScreenshot;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.WindowType;
+import org.openqa.selenium.logging.LogEntries;
+import org.openqa.selenium.logging.Logs;
+
+/**
+ * In process web driver backed by a simple DOM of {@link FakeWebElement}s, for deterministic unit tests and benchmarks without a browser.
+ * Build the page below {@link #getBody()}, script its timing on the elements, and inject per command latency with
+ * {@link #setLatency(String, Duration)} and failures with {@link #failNext(String, int, Supplier)} or {@link #setFailureRate(String, double, Supplier)}.
+ * Commands are named after the {@link WebDriver} and {@link WebElement} methods, e.g. 'findElements' or 'click', screenshots are 'screenshot'.
+ * Windows, frames, alerts and navigation between pages registered with {@link #addPage(String, Consumer)} are modelled, scripts only run
+ * when a handler is registered with {@link #onScript(String, Function)}, apart from 'arguments[0].click()'. {@link #manage()} only keeps the timeouts and window geometry, cookies and logs are not modelled.
+ */
+public class FakeWebDriver implements WebDriver, JavascriptExecutor, TakesScreenshot {
+
+	private static final String MAIN_WINDOW_HANDLE = "window-1";
+
+	private final Map<String, FakeWindow> windows = new LinkedHashMap<>();
+	private final Map<String, Consumer<FakeWebElement>> pages = new ConcurrentHashMap<>();
+	private final Map<String, Function<Object[], Object>> scriptHandlers = new LinkedHashMap<>();
+	private final Map<String, Duration> commandLatencies = new ConcurrentHashMap<>();
+	private final Map<String, Deque<Supplier<? extends RuntimeException>>> scheduledFailures = new ConcurrentHashMap<>();
+	private final Map<String, FailureRate> failureRates = new ConcurrentHashMap<>();
+	private final Map<String, AtomicLong> commandCounts = new ConcurrentHashMap<>();
+	private final AtomicLong commandCount = new AtomicLong();
+	private final Random random;
+	private volatile Duration defaultLatency = Duration.ZERO;
+	private FakeWindow currentWindow;
+	private FakeWebElement currentDocument;
+	private final Deque<FakeWebElement> frameStack = new ArrayDeque<>();
+	private FakeAlert alert;
+	private int windowCounter = 1;
+	private volatile boolean quit;
+	private Duration implicitWaitTimeout = Duration.ZERO;
+	private Duration scriptTimeout = Duration.ofSeconds(30);
+	private Duration pageLoadTimeout = Duration.ofSeconds(300);
+	private Dimension windowSize = new Dimension(1280, 800);
+	private Point windowPosition = new Point(0, 0);
+
+	public FakeWebDriver() {
+		this(0);
+	}
+
+	/**
+	 * @param seed seed of the random failure injection, the same seed fails the same commands
+	 */
+	public FakeWebDriver(long seed) {
+		this.random = new Random(seed);
+		currentWindow = new FakeWindow(MAIN_WINDOW_HANDLE, FakeWebElement.createDocument(this));
+		windows.put(MAIN_WINDOW_HANDLE, currentWindow);
+		currentDocument = currentWindow.document;
+	}
+
+	private record FailureRate(double rate, Supplier<? extends RuntimeException> failure) {
+	}
+
+	private static final class FakeWindow {
+
+		private final String handle;
+		private FakeWebElement document;
+		private String url = "about:blank";
+		private String title = "";
+		private final List<String> history = new ArrayList<>(List.of("about:blank"));
+		private int historyIndex;
+
+		private FakeWindow(String handle, FakeWebElement document) {
+			this.handle = handle;
+			this.document = document;
+		}
+	}
+
+
+	// page
+
+	/**
+	 * @return the body of the current window's top level document
+	 */
+	public FakeWebElement getBody() {
+		return getBody(currentWindow.document);
+	}
+
+	private static FakeWebElement getBody(FakeWebElement document) {
+		return document.getChildren().get(0).getChildren().get(1);
+	}
+
+	/**
+	 * Append elements to the body of the current window's top level document.
+	 * @param webElements the elements to append
+	 * @return this driver
+	 */
+	public FakeWebDriver addElement(FakeWebElement... webElements) {
+		getBody().appendChild(webElements);
+		return this;
+	}
+
+	public FakeWebDriver setTitle(String title) {
+		currentWindow.title = title;
+		return this;
+	}
+
+	/**
+	 * Register a page built into a fresh document whenever the url is loaded. Loading a url without a page keeps the current document.
+	 * @param url the url of the page
+	 * @param pageBuilder appends the elements of the page to the given body
+	 * @return this driver
+	 */
+	public FakeWebDriver addPage(String url, Consumer<FakeWebElement> pageBuilder) {
+		pages.put(url, pageBuilder);
+		return this;
+	}
+
+	/**
+	 * @param scriptFragment part of the script text identifying the script
+	 * @param handler computes the script result from the script arguments
+	 * @return this driver
+	 */
+	public synchronized FakeWebDriver onScript(String scriptFragment, Function<Object[], Object> handler) {
+		scriptHandlers.put(scriptFragment, handler);
+		return this;
+	}
+
+	/**
+	 * Open an alert in the current window, as a page script would.
+	 * @param text the alert text
+	 * @return this driver
+	 */
+	public FakeWebDriver openAlert(String text) {
+		alert = new FakeAlert(text);
+		return this;
+	}
+
+
+	// latency and failure injection
+
+	/**
+	 * @param latency time every command takes unless it has its own latency
+	 * @return this driver
+	 */
+	public FakeWebDriver setLatency(Duration latency) {
+		defaultLatency = latency != null ? latency : Duration.ZERO;
+		return this;
+	}
+
+	/**
+	 * @param command the command, e.g. 'findElements'
+	 * @param latency time the command takes
+	 * @return this driver
+	 */
+	public FakeWebDriver setLatency(String command, Duration latency) {
+		commandLatencies.put(command, latency != null ? latency : Duration.ZERO);
+		return this;
+	}
+
+	/**
+	 * Fail the next calls of a command, after its latency.
+	 * @param command the command, e.g. 'click'
+	 * @param times number of calls to fail
+	 * @param failure creates the exception thrown
+	 * @return this driver
+	 */
+	public FakeWebDriver failNext(String command, int times, Supplier<? extends RuntimeException> failure) {
+		Deque<Supplier<? extends RuntimeException>> failures = scheduledFailures.computeIfAbsent(command, key -> new ArrayDeque<>());
+		synchronized (failures) {
+			for(int i = 0; i < times; i++) {
+				failures.add(failure);
+			}
+		}
+		return this;
+	}
+
+	/**
+	 * Fail a random share of the calls of a command, reproducibly for the seed of the driver.
+	 * @param command the command, e.g. 'findElements'
+	 * @param rate share of calls to fail between 0 and 1, 0 to stop failing
+	 * @param failure creates the exception thrown
+	 * @return this driver
+	 */
+	public FakeWebDriver setFailureRate(String command, double rate, Supplier<? extends RuntimeException> failure) {
+		if(rate > 0) {
+			failureRates.put(command, new FailureRate(Math.min(1, rate), failure));
+		}else {
+			failureRates.remove(command);
+		}
+		return this;
+	}
+
+	/**
+	 * @return number of commands answered or failed so far
+	 */
+	public long getCommandCount() {
+		return commandCount.get();
+	}
+
+	/**
+	 * @param command the command, e.g. 'click'
+	 * @return number of calls of the command so far
+	 */
+	public long getCommandCount(String command) {
+		AtomicLong count = commandCounts.get(command);
+		return count != null ? count.get() : 0;
+	}
+
+	/**
+	 * Count the command, wait its latency and throw an injected failure if one is due.
+	 * @param command the command name
+	 */
+	void command(String command) {
+		if(quit && !"quit".equals(command)) {
+			throw new NoSuchSessionException("Session was quit, command: " + command);
+		}
+		commandCount.incrementAndGet();
+		commandCounts.computeIfAbsent(command, key -> new AtomicLong()).incrementAndGet();
+		Duration latency = commandLatencies.getOrDefault(command, defaultLatency);
+		if(!latency.isZero()) {
+			long deadline = System.nanoTime() + latency.toNanos();
+			for(long remaining = latency.toNanos(); remaining > 0; remaining = deadline - System.nanoTime()) {
+				LockSupport.parkNanos(remaining);
+			}
+		}
+		Deque<Supplier<? extends RuntimeException>> failures = scheduledFailures.get(command);
+		if(failures != null) {
+			Supplier<? extends RuntimeException> failure;
+			synchronized (failures) {
+				failure = failures.poll();
+			}
+			if(failure != null) {
+				throw failure.get();
+			}
+		}
+		FailureRate failureRate = failureRates.get(command);
+		if(failureRate != null) {
+			boolean fail;
+			synchronized (random) {
+				fail = random.nextDouble() < failureRate.rate();
+			}
+			if(fail) {
+				throw failureRate.failure().get();
+			}
+		}
+	}
+
+
+	// web driver
+
+	@Override
+	public void get(String url) {
+		command("get");
+		load(url, true);
+	}
+
+	private void load(String url, boolean addToHistory) {
+		Consumer<FakeWebElement> pageBuilder = pages.get(url);
+		if(pageBuilder != null) {
+			currentWindow.document = FakeWebElement.createDocument(this);
+			pageBuilder.accept(getBody(currentWindow.document));
+		}
+		if(addToHistory) {
+			currentWindow.history.subList(currentWindow.historyIndex + 1, currentWindow.history.size()).clear();
+			currentWindow.history.add(url);
+			currentWindow.historyIndex = currentWindow.history.size() - 1;
+		}
+		currentWindow.url = url;
+		currentDocument = currentWindow.document;
+		frameStack.clear();
+	}
+
+	@Override
+	public String getCurrentUrl() {
+		command("getCurrentUrl");
+		return currentWindow.url;
+	}
+
+	@Override
+	public String getTitle() {
+		command("getTitle");
+		return currentWindow.title;
+	}
+
+	@Override
+	public List<WebElement> findElements(By by) {
+		command("findElements");
+		return new ArrayList<>(FakeSelectors.find(currentDocument, by));
+	}
+
+	@Override
+	public WebElement findElement(By by) {
+		command("findElement");
+		List<FakeWebElement> webElements = FakeSelectors.find(currentDocument, by);
+		if(webElements.isEmpty()) {
+			throw new NoSuchElementException("no such element: Unable to locate element: " + by);
+		}
+		return webElements.get(0);
+	}
+
+	@Override
+	public String getPageSource() {
+		command("getPageSource");
+		StringBuilder pageSource = new StringBuilder();
+		appendSource(currentDocument.getChildren().get(0), pageSource);
+		return pageSource.toString();
+	}
+
+	private static void appendSource(FakeWebElement element, StringBuilder pageSource) {
+		pageSource.append('<').append(element.tag());
+		String id = element.getAttributeValue("id");
+		if(id != null) {
+			pageSource.append(" id=\"").append(id).append('"');
+		}
+		pageSource.append('>').append(element.getOwnText());
+		for(FakeWebElement child : element.getPresentChildren()) {
+			appendSource(child, pageSource);
+		}
+		pageSource.append("</").append(element.tag()).append('>');
+	}
+
+	@Override
+	public void close() {
+		command("close");
+		checkWindow();
+		windows.remove(currentWindow.handle);
+		if(windows.isEmpty()) {
+			quit = true;
+		}
+	}
+
+	@Override
+	public void quit() {
+		command("quit");
+		quit = true;
+	}
+
+	public boolean isQuit() {
+		return quit;
+	}
+
+	@Override
+	public Set<String> getWindowHandles() {
+		command("getWindowHandles");
+		return new LinkedHashSet<>(windows.keySet());
+	}
+
+	@Override
+	public String getWindowHandle() {
+		command("getWindowHandle");
+		checkWindow();
+		return currentWindow.handle;
+	}
+
+	private void checkWindow() {
+		if(!windows.containsKey(currentWindow.handle)) {
+			throw new NoSuchWindowException("no such window: target window already closed");
+		}
+	}
+
+	@Override
+	public TargetLocator switchTo() {
+		return new FakeTargetLocator();
+	}
+
+	@Override
+	public Navigation navigate() {
+		return new FakeNavigation();
+	}
+
+	@Override
+	public Options manage() {
+		return new FakeOptions();
+	}
+
+
+	// scripts and screenshots
+
+	@Override
+	public Object executeScript(String script, Object... args) {
+		command("executeScript");
+		return runScript(script, args);
+	}
+
+	@Override
+	public Object executeAsyncScript(String script, Object... args) {
+		command("executeAsyncScript");
+		return runScript(script, args);
+	}
+
+	private synchronized Object runScript(String script, Object[] args) {
+		for(Map.Entry<String, Function<Object[], Object>> scriptHandler : scriptHandlers.entrySet()) {
+			if(script.contains(scriptHandler.getKey())) {
+				return scriptHandler.getValue().apply(args);
+			}
+		}
+		if(script.contains("arguments[0].click()") && args.length > 0 && args[0] instanceof WebElement webElement) {
+			webElement.click();
+		}
+		return null;
+	}
+
+	@Override
+	public <X> X getScreenshotAs(OutputType<X> target) {
+		command("screenshot");
+		return target.convertFromPngBytes(FakeWebElement.getPng());
+	}
+
+	@Override
+	public String toString() {
+		return "FakeWebDriver";
+	}
+
+
+	// navigation, windows, frames and alerts
+
+	private class FakeNavigation implements Navigation {
+
+		@Override
+		public void back() {
+			command("back");
+			if(currentWindow.historyIndex > 0) {
+				currentWindow.historyIndex--;
+				load(currentWindow.history.get(currentWindow.historyIndex), false);
+			}
+		}
+
+		@Override
+		public void forward() {
+			command("forward");
+			if(currentWindow.historyIndex < currentWindow.history.size() - 1) {
+				currentWindow.historyIndex++;
+				load(currentWindow.history.get(currentWindow.historyIndex), false);
+			}
+		}
+
+		@Override
+		public void to(String url) {
+			get(url);
+		}
+
+		@Override
+		public void to(URL url) {
+			get(url.toString());
+		}
+
+		@Override
+		public void refresh() {
+			command("refresh");
+			load(currentWindow.url, false);
+		}
+	}
+
+	private class FakeTargetLocator implements TargetLocator {
+
+		@Override
+		public WebDriver frame(int index) {
+			command("switchToFrame");
+			List<FakeWebElement> frames = getFrames();
+			if(index < 0 || index >= frames.size()) {
+				throw new NoSuchFrameException("no such frame: index " + index);
+			}
+			return enterFrame(frames.get(index));
+		}
+
+		@Override
+		public WebDriver frame(String nameOrId) {
+			command("switchToFrame");
+			for(FakeWebElement frame : getFrames()) {
+				if(nameOrId.equals(frame.getAttributeValue("name")) || nameOrId.equals(frame.getAttributeValue("id"))) {
+					return enterFrame(frame);
+				}
+			}
+			throw new NoSuchFrameException("no such frame: " + nameOrId);
+		}
+
+		@Override
+		public WebDriver frame(WebElement frameElement) {
+			command("switchToFrame");
+			if(frameElement instanceof FakeWebElement frame && frame.getContentDocument() != null && frame.isAttached()) {
+				return enterFrame(frame);
+			}
+			throw new NoSuchFrameException("no such frame: " + frameElement);
+		}
+
+		private List<FakeWebElement> getFrames() {
+			List<FakeWebElement> frames = new ArrayList<>();
+			for(FakeWebElement element : currentDocument.getPresentDescendants()) {
+				if(element.getContentDocument() != null) {
+					frames.add(element);
+				}
+			}
+			return frames;
+		}
+
+		private WebDriver enterFrame(FakeWebElement frame) {
+			frameStack.push(currentDocument);
+			currentDocument = frame.getContentDocument();
+			return FakeWebDriver.this;
+		}
+
+		@Override
+		public WebDriver parentFrame() {
+			command("switchToParentFrame");
+			if(!frameStack.isEmpty()) {
+				currentDocument = frameStack.pop();
+			}
+			return FakeWebDriver.this;
+		}
+
+		@Override
+		public WebDriver window(String nameOrHandle) {
+			command("switchToWindow");
+			FakeWindow window = windows.get(nameOrHandle);
+			if(window == null) {
+				throw new NoSuchWindowException("no such window: " + nameOrHandle);
+			}
+			currentWindow = window;
+			currentDocument = window.document;
+			frameStack.clear();
+			return FakeWebDriver.this;
+		}
+
+		@Override
+		public WebDriver newWindow(WindowType typeHint) {
+			command("newWindow");
+			String handle = "window-" + ++windowCounter;
+			FakeWindow window = new FakeWindow(handle, FakeWebElement.createDocument(FakeWebDriver.this));
+			windows.put(handle, window);
+			currentWindow = window;
+			currentDocument = window.document;
+			frameStack.clear();
+			return FakeWebDriver.this;
+		}
+
+		@Override
+		public WebDriver defaultContent() {
+			command("switchToDefaultContent");
+			currentDocument = currentWindow.document;
+			frameStack.clear();
+			return FakeWebDriver.this;
+		}
+
+		@Override
+		public WebElement activeElement() {
+			command("getActiveElement");
+			return getBody(currentDocument);
+		}
+
+		@Override
+		public Alert alert() {
+			command("switchToAlert");
+			if(alert == null) {
+				throw new NoAlertPresentException("no such alert");
+			}
+			return alert;
+		}
+	}
+
+	private class FakeAlert implements Alert {
+
+		private final String text;
+
+		private FakeAlert(String text) {
+			this.text = text;
+		}
+
+		@Override
+		public void dismiss() {
+			command("dismissAlert");
+			close();
+		}
+
+		@Override
+		public void accept() {
+			command("acceptAlert");
+			close();
+		}
+
+		@Override
+		public String getText() {
+			command("getAlertText");
+			checkOpen();
+			return text;
+		}
+
+		@Override
+		public void sendKeys(String keysToSend) {
+			command("sendAlertText");
+			checkOpen();
+		}
+
+		private void close() {
+			checkOpen();
+			alert = null;
+		}
+
+		private void checkOpen() {
+			if(alert != this) {
+				throw new NoAlertPresentException("no such alert");
+			}
+		}
+	}
+
+
+	// options
+
+	private class FakeOptions implements Options {
+
+		@Override
+		public void addCookie(Cookie cookie) {
+			command("addCookie");
+		}
+
+		@Override
+		public void deleteCookieNamed(String name) {
+			command("deleteCookie");
+		}
+
+		@Override
+		public void deleteCookie(Cookie cookie) {
+			command("deleteCookie");
+		}
+
+		@Override
+		public void deleteAllCookies() {
+			command("deleteAllCookies");
+		}
+
+		@Override
+		public Set<Cookie> getCookies() {
+			command("getCookies");
+			return Set.of();
+		}
+
+		@Override
+		public Cookie getCookieNamed(String name) {
+			command("getCookie");
+			return null;
+		}
+
+		@Override
+		public Timeouts timeouts() {
+			return new FakeTimeouts();
+		}
+
+		@Override
+		public Window window() {
+			return new FakeWindowGeometry();
+		}
+
+		@Override
+		public Logs logs() {
+			return new Logs() {
+
+				@Override
+				public LogEntries get(String logType) {
+					return new LogEntries(List.of());
+				}
+
+				@Override
+				public Set<String> getAvailableLogTypes() {
+					return Set.of();
+				}
+			};
+		}
+	}
+
+	private class FakeTimeouts implements Timeouts {
+
+		@Override
+		@Deprecated
+		public Timeouts implicitlyWait(long time, TimeUnit unit) {
+			return implicitlyWait(Duration.of(time, unit.toChronoUnit()));
+		}
+
+		@Override
+		public Timeouts implicitlyWait(Duration duration) {
+			command("setTimeouts");
+			implicitWaitTimeout = duration;
+			return this;
+		}
+
+		@Override
+		public Duration getImplicitWaitTimeout() {
+			return implicitWaitTimeout;
+		}
+
+		@Override
+		@Deprecated
+		public Timeouts setScriptTimeout(long time, TimeUnit unit) {
+			return scriptTimeout(Duration.of(time, unit.toChronoUnit()));
+		}
+
+		@Override
+		public Timeouts scriptTimeout(Duration duration) {
+			command("setTimeouts");
+			scriptTimeout = duration;
+			return this;
+		}
+
+		@Override
+		public Duration getScriptTimeout() {
+			return scriptTimeout;
+		}
+
+		@Override
+		@Deprecated
+		public Timeouts pageLoadTimeout(long time, TimeUnit unit) {
+			return pageLoadTimeout(Duration.of(time, unit.toChronoUnit()));
+		}
+
+		@Override
+		public Timeouts pageLoadTimeout(Duration duration) {
+			command("setTimeouts");
+			pageLoadTimeout = duration;
+			return this;
+		}
+
+		@Override
+		public Duration getPageLoadTimeout() {
+			return pageLoadTimeout;
+		}
+	}
+
+	private class FakeWindowGeometry implements Window {
+
+		@Override
+		public Dimension getSize() {
+			command("getWindowSize");
+			return windowSize;
+		}
+
+		@Override
+		public void setSize(Dimension targetSize) {
+			command("setWindowSize");
+			windowSize = targetSize;
+		}
+
+		@Override
+		public Point getPosition() {
+			command("getWindowPosition");
+			return windowPosition;
+		}
+
+		@Override
+		public void setPosition(Point targetPosition) {
+			command("setWindowPosition");
+			windowPosition = targetPosition;
+		}
+
+		@Override
+		public void maximize() {
+			command("maximize");
+		}
+
+		@Override
+		public void minimize() {
+			command("minimize");
+		}
+
+		@Override
+		public void fullscreen() {
+			command("fullscreen");
+		}
+	}
+}
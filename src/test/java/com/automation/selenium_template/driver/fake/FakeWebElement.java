@@ -0,0 +1,611 @@
+package com.automation.selenium_template.driver.fake;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import javax.imageio.ImageIO;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.Dimension;
+import org.openqa.selenium.ElementNotInteractableException;
+import org.openqa.selenium.Keys;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.OutputType;
+import org.openqa.selenium.Point;
+import org.openqa.selenium.Rectangle;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.WebElement;
+
+/**
+ * Node of the fake DOM of a {@link FakeWebDriver}: a tag name, attributes, own text and child elements. Elements are visible and enabled
+ * unless set otherwise and can be scheduled to appear, disappear, show or hide a given time after the call, to script the timing of a page.
+ * Interactions are commands of the owning driver, so its latency and failure injection apply, and throw the exceptions a browser would:
+ * {@link StaleElementReferenceException} once the element left the DOM and {@link ElementNotInteractableException} while it is hidden.
+ * Frames ('iframe' and 'frame' elements) carry their own document, see {@link #getFrameBody()}.
+ */
+public class FakeWebElement implements WebElement {
+
+	static final String DOCUMENT_TAG = "#document";
+	private static final Set<String> HIDDEN_TAGS = Set.of("head", "script", "style", "title", "meta", "link", "template");
+	private static final byte[] PNG = createPng();
+
+	private final String tag;
+	private final Map<String, String> attributes = new LinkedHashMap<>();
+	private final List<FakeWebElement> children = new ArrayList<>();
+	private FakeWebElement parent;
+	private FakeWebElement contentDocument;
+	// set for documents only, the driver of a top level document or the element of a frame document
+	private FakeWebDriver driver;
+	private FakeWebElement frameElement;
+	private String text = "";
+	private boolean displayed = true;
+	private boolean enabled = true;
+	private boolean selected;
+	private volatile long presentFromNanos = Long.MIN_VALUE;
+	private volatile long presentUntilNanos = Long.MAX_VALUE;
+	private volatile long visibleFromNanos = Long.MIN_VALUE;
+	private volatile long visibleUntilNanos = Long.MAX_VALUE;
+	private Rectangle rect = new Rectangle(0, 0, 20, 100);
+	private Consumer<FakeWebElement> clickAction;
+	private int clickCount;
+
+	/**
+	 * @param tagName tag name of the element, e.g. 'button'
+	 */
+	public FakeWebElement(String tagName) {
+		this.tag = tagName.toLowerCase(Locale.ROOT);
+		if("iframe".equals(tag) || "frame".equals(tag)) {
+			contentDocument = createDocument(null);
+			contentDocument.frameElement = this;
+		}
+	}
+
+	static FakeWebElement createDocument(FakeWebDriver driver) {
+		FakeWebElement document = new FakeWebElement(DOCUMENT_TAG);
+		document.driver = driver;
+		document.appendChild(new FakeWebElement("html").appendChild(new FakeWebElement("head"), new FakeWebElement("body")));
+		return document;
+	}
+
+
+	// building
+
+	public FakeWebElement setId(String id) {
+		return setAttribute("id", id);
+	}
+
+	public FakeWebElement setText(String text) {
+		this.text = text != null ? text : "";
+		return this;
+	}
+
+	/**
+	 * @param name attribute name
+	 * @param value attribute value, null to remove the attribute
+	 * @return this element
+	 */
+	public FakeWebElement setAttribute(String name, String value) {
+		if(value != null) {
+			attributes.put(name, value);
+		}else {
+			attributes.remove(name);
+		}
+		return this;
+	}
+
+	public FakeWebElement setDisplayed(boolean displayed) {
+		this.displayed = displayed;
+		return this;
+	}
+
+	public FakeWebElement setEnabled(boolean enabled) {
+		this.enabled = enabled;
+		return this;
+	}
+
+	public FakeWebElement setSelected(boolean selected) {
+		this.selected = selected;
+		return this;
+	}
+
+	public FakeWebElement setRect(Rectangle rect) {
+		this.rect = rect;
+		return this;
+	}
+
+	/**
+	 * @param clickAction called after each successful click on the element, e.g. to reveal a dialog
+	 * @return this element
+	 */
+	public FakeWebElement onClick(Consumer<FakeWebElement> clickAction) {
+		this.clickAction = clickAction;
+		return this;
+	}
+
+	/**
+	 * @param childElements elements to append, moved if they already have a parent
+	 * @return this element
+	 */
+	public FakeWebElement appendChild(FakeWebElement... childElements) {
+		for(FakeWebElement child : childElements) {
+			if(child.parent != null) {
+				child.parent.children.remove(child);
+			}
+			child.parent = this;
+			children.add(child);
+		}
+		return this;
+	}
+
+	/**
+	 * Detach the element from the DOM now, references to it become stale.
+	 */
+	public void remove() {
+		if(parent != null) {
+			parent.children.remove(this);
+			parent = null;
+		}
+	}
+
+
+	// timing
+
+	/**
+	 * @param delay time from now until the element is part of the DOM
+	 * @return this element
+	 */
+	public FakeWebElement appearAfter(Duration delay) {
+		presentFromNanos = System.nanoTime() + delay.toNanos();
+		return this;
+	}
+
+	/**
+	 * @param delay time from now until the element leaves the DOM, references to it then become stale
+	 * @return this element
+	 */
+	public FakeWebElement disappearAfter(Duration delay) {
+		presentUntilNanos = System.nanoTime() + delay.toNanos();
+		return this;
+	}
+
+	/**
+	 * @param delay time from now until the element is displayed
+	 * @return this element
+	 */
+	public FakeWebElement showAfter(Duration delay) {
+		visibleFromNanos = System.nanoTime() + delay.toNanos();
+		return this;
+	}
+
+	/**
+	 * @param delay time from now until the element is hidden
+	 * @return this element
+	 */
+	public FakeWebElement hideAfter(Duration delay) {
+		visibleUntilNanos = System.nanoTime() + delay.toNanos();
+		return this;
+	}
+
+
+	// inspection
+
+	public int getClickCount() {
+		return clickCount;
+	}
+
+	/**
+	 * @return the value of an input, its 'value' attribute
+	 */
+	public String getValue() {
+		return attributes.getOrDefault("value", "");
+	}
+
+	public FakeWebElement getParent() {
+		return parent;
+	}
+
+	public List<FakeWebElement> getChildren() {
+		return Collections.unmodifiableList(children);
+	}
+
+	/**
+	 * @return the body of the document of this frame element, null for other elements
+	 */
+	public FakeWebElement getFrameBody() {
+		return contentDocument != null ? contentDocument.children.get(0).children.get(1) : null;
+	}
+
+	FakeWebElement getContentDocument() {
+		return contentDocument;
+	}
+
+	String tag() {
+		return tag;
+	}
+
+	String getAttributeValue(String name) {
+		return attributes.get(name);
+	}
+
+	String getOwnText() {
+		return text;
+	}
+
+	boolean isSelectedState() {
+		return selected;
+	}
+
+	boolean isEnabledState() {
+		return enabled;
+	}
+
+
+	// dom
+
+	private boolean isPresentNow(long now) {
+		return now >= presentFromNanos && now < presentUntilNanos;
+	}
+
+	/**
+	 * @return true if the element and all its ancestors are present and it is connected to a document
+	 */
+	boolean isAttached() {
+		long now = System.nanoTime();
+		FakeWebElement element = this;
+		while(element != null) {
+			if(!element.isPresentNow(now)) {
+				return false;
+			}
+			if(DOCUMENT_TAG.equals(element.tag)) {
+				return element.frameElement == null || element.frameElement.isAttached();
+			}
+			element = element.parent;
+		}
+		return false;
+	}
+
+	FakeWebElement getDocument() {
+		FakeWebElement element = this;
+		while(element.parent != null) {
+			element = element.parent;
+		}
+		return element;
+	}
+
+	/**
+	 * @return the parent element, null for the root element and detached elements
+	 */
+	FakeWebElement getParentElement() {
+		return parent != null && !DOCUMENT_TAG.equals(parent.tag) ? parent : null;
+	}
+
+	List<FakeWebElement> getPresentChildren() {
+		long now = System.nanoTime();
+		List<FakeWebElement> presentChildren = new ArrayList<>(children.size());
+		for(FakeWebElement child : children) {
+			if(child.isPresentNow(now)) {
+				presentChildren.add(child);
+			}
+		}
+		return presentChildren;
+	}
+
+	List<FakeWebElement> getPresentDescendants() {
+		List<FakeWebElement> descendants = new ArrayList<>();
+		collectPresentDescendants(this, System.nanoTime(), descendants);
+		return descendants;
+	}
+
+	List<FakeWebElement> getPresentSelfAndDescendants() {
+		List<FakeWebElement> elements = new ArrayList<>();
+		elements.add(this);
+		collectPresentDescendants(this, System.nanoTime(), elements);
+		return elements;
+	}
+
+	private static void collectPresentDescendants(FakeWebElement element, long now, List<FakeWebElement> descendants) {
+		for(FakeWebElement child : element.children) {
+			if(child.isPresentNow(now)) {
+				descendants.add(child);
+				collectPresentDescendants(child, now, descendants);
+			}
+		}
+	}
+
+	int getPresentSiblingIndex() {
+		return parent != null ? parent.getPresentChildren().indexOf(this) + 1 : 1;
+	}
+
+	int getPresentSiblingCount() {
+		return parent != null ? parent.getPresentChildren().size() : 1;
+	}
+
+	/**
+	 * @return own text followed by the text of all descendants, like the DOM 'textContent'
+	 */
+	String getTextContent() {
+		StringBuilder textContent = new StringBuilder(text);
+		for(FakeWebElement child : getPresentChildren()) {
+			textContent.append(child.getTextContent());
+		}
+		return textContent.toString();
+	}
+
+	/**
+	 * @return the rendered text, own and descendant text of displayed elements separated by single spaces
+	 */
+	String getVisibleText() {
+		if(!isDisplayedNow()) {
+			return "";
+		}
+		StringBuilder visibleText = new StringBuilder(text.trim());
+		for(FakeWebElement child : getPresentChildren()) {
+			String childText = child.getVisibleText();
+			if(!childText.isEmpty()) {
+				if(visibleText.length() > 0) {
+					visibleText.append(' ');
+				}
+				visibleText.append(childText);
+			}
+		}
+		return visibleText.toString().replaceAll("[ \\t]+", " ");
+	}
+
+	private boolean isDisplayedNow() {
+		long now = System.nanoTime();
+		FakeWebElement element = this;
+		while(element != null && !DOCUMENT_TAG.equals(element.tag)) {
+			if(!element.displayed || now < element.visibleFromNanos || now >= element.visibleUntilNanos || HIDDEN_TAGS.contains(element.tag)
+					|| "input".equals(element.tag) && "hidden".equals(element.attributes.get("type"))) {
+				return false;
+			}
+			element = element.parent;
+		}
+		return element != null;
+	}
+
+	private void command(String name) {
+		FakeWebDriver owner = getDocument().getOwner();
+		if(owner != null) {
+			owner.command(name);
+		}
+	}
+
+	private FakeWebDriver getOwner() {
+		if(driver != null) {
+			return driver;
+		}
+		return frameElement != null ? frameElement.getDocument().getOwner() : null;
+	}
+
+	private void checkAttached() {
+		if(!isAttached()) {
+			throw new StaleElementReferenceException("stale element reference: element is not attached to the page document: " + this);
+		}
+	}
+
+	private void checkInteractable() {
+		checkAttached();
+		if(!isDisplayedNow()) {
+			throw new ElementNotInteractableException("element not interactable: " + this);
+		}
+	}
+
+
+	// web element
+
+	@Override
+	public void click() {
+		command("click");
+		checkInteractable();
+		clickCount++;
+		if("option".equals(tag)) {
+			FakeWebElement select = parent;
+			while(select != null && !"select".equals(select.tag)) {
+				select = select.parent;
+			}
+			if(select != null && !select.attributes.containsKey("multiple")) {
+				for(FakeWebElement option : select.getPresentDescendants()) {
+					option.selected = false;
+				}
+				selected = true;
+			}else {
+				selected = !selected;
+			}
+		}else if("input".equals(tag) && "checkbox".equals(attributes.get("type"))) {
+			selected = !selected;
+		}else if("input".equals(tag) && "radio".equals(attributes.get("type"))) {
+			selected = true;
+		}
+		if(clickAction != null) {
+			clickAction.accept(this);
+		}
+	}
+
+	@Override
+	public void submit() {
+		command("submit");
+		checkAttached();
+	}
+
+	@Override
+	public void sendKeys(CharSequence... keysToSend) {
+		command("sendKeys");
+		checkInteractable();
+		if(!enabled) {
+			throw new ElementNotInteractableException("element not interactable: " + this + " is disabled");
+		}
+		StringBuilder value = new StringBuilder(getValue());
+		for(CharSequence keys : keysToSend) {
+			if(!(keys instanceof Keys)) {
+				value.append(keys);
+			}
+		}
+		attributes.put("value", value.toString());
+	}
+
+	@Override
+	public void clear() {
+		command("clear");
+		checkInteractable();
+		attributes.put("value", "");
+	}
+
+	@Override
+	public String getTagName() {
+		command("getTagName");
+		checkAttached();
+		return tag;
+	}
+
+	@Override
+	public String getAttribute(String name) {
+		command("getAttribute");
+		checkAttached();
+		return getPropertyValue(name);
+	}
+
+	@Override
+	public String getDomAttribute(String name) {
+		command("getDomAttribute");
+		checkAttached();
+		return attributes.get(name);
+	}
+
+	@Override
+	public String getDomProperty(String name) {
+		command("getDomProperty");
+		checkAttached();
+		if("index".equals(name)) {
+			return String.valueOf(parent != null ? parent.getPresentChildren().stream().filter(sibling -> sibling.tag.equals(tag)).toList().indexOf(this) : 0);
+		}
+		return getPropertyValue(name);
+	}
+
+	private String getPropertyValue(String name) {
+		switch (name) {
+			case "value": return "option".equals(tag) && !attributes.containsKey("value") ? getTextContent() : attributes.get("value");
+			case "textContent": return getTextContent();
+			case "innerText": return getVisibleText();
+			case "checked":
+			case "selected": return selected ? "true" : null;
+			case "disabled": return enabled ? null : "true";
+			default: return attributes.get(name);
+		}
+	}
+
+	@Override
+	public boolean isSelected() {
+		command("isSelected");
+		checkAttached();
+		return selected;
+	}
+
+	@Override
+	public boolean isEnabled() {
+		command("isEnabled");
+		checkAttached();
+		return enabled;
+	}
+
+	@Override
+	public String getText() {
+		command("getText");
+		checkAttached();
+		return getVisibleText();
+	}
+
+	@Override
+	public List<WebElement> findElements(By by) {
+		command("findElements");
+		checkAttached();
+		return new ArrayList<>(FakeSelectors.find(this, by));
+	}
+
+	@Override
+	public WebElement findElement(By by) {
+		command("findElement");
+		checkAttached();
+		List<FakeWebElement> webElements = FakeSelectors.find(this, by);
+		if(webElements.isEmpty()) {
+			throw new NoSuchElementException("no such element: Unable to locate element: " + by);
+		}
+		return webElements.get(0);
+	}
+
+	@Override
+	public boolean isDisplayed() {
+		command("isDisplayed");
+		checkAttached();
+		return isDisplayedNow();
+	}
+
+	@Override
+	public Point getLocation() {
+		command("getLocation");
+		checkAttached();
+		return rect.getPoint();
+	}
+
+	@Override
+	public Dimension getSize() {
+		command("getSize");
+		checkAttached();
+		return rect.getDimension();
+	}
+
+	@Override
+	public Rectangle getRect() {
+		command("getRect");
+		checkAttached();
+		return rect;
+	}
+
+	@Override
+	public String getCssValue(String propertyName) {
+		command("getCssValue");
+		checkAttached();
+		if("display".equals(propertyName)) {
+			return isDisplayedNow() ? "block" : "none";
+		}
+		return "";
+	}
+
+	@Override
+	public <X> X getScreenshotAs(OutputType<X> target) {
+		command("screenshot");
+		checkInteractable();
+		return target.convertFromPngBytes(PNG.clone());
+	}
+
+	@Override
+	public String toString() {
+		String id = attributes.get("id");
+		return "FakeWebElement<" + tag + (id != null ? "#" + id : "") + ">";
+	}
+
+	static byte[] getPng() {
+		return PNG.clone();
+	}
+
+	private static byte[] createPng() {
+		try {
+			ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+			ImageIO.write(new BufferedImage(1, 1, BufferedImage.TYPE_INT_RGB), "png", outputStream);
+			return outputStream.toByteArray();
+		}catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+}
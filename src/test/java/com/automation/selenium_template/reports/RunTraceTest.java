@@ -0,0 +1,115 @@
+package com.automation.selenium_template.reports;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import com.automation.selenium_template.driver.StepEvent;
+import com.automation.selenium_template.reports.RunTraceReader.TracedStep;
+import com.automation.selenium_template.reports.RunTraceReader.TracedTest;
+
+public class RunTraceTest {
+
+	private Path directory;
+
+	@BeforeMethod
+	public void setUp() throws IOException {
+		directory = Files.createTempDirectory("run-trace");
+	}
+
+	@Test
+	public void traceIsReadBackWithNestedSteps() throws IOException {
+		Path traceFile = writeTrace();
+
+		List<TracedTest> tracedTests = RunTraceReader.read(traceFile);
+		assertEquals(tracedTests.size(), 4);
+
+		TracedTest login = tracedTests.get(0);
+		assertEquals(login.name(), "login");
+		assertEquals(login.status(), RunTraceWriter.STATUS_PASSED);
+		assertNull(login.message());
+		assertEquals(login.steps().size(), 1);
+		TracedStep click = login.steps().get(0);
+		assertEquals(click.operation(), "click");
+		assertEquals(click.children().size(), 1);
+		assertEquals(click.children().get(0).operation(), "findElement");
+		assertNull(click.children().get(0).stepDescription());
+
+		TracedTest setup = tracedTests.get(1);
+		assertEquals(setup.name(), RunTraceReader.OUTSIDE_TESTS_NAME + " (setup-1)");
+		assertEquals(setup.status(), RunTraceWriter.STATUS_PASSED);
+		assertEquals(setup.steps().size(), 1);
+		assertEquals(setup.steps().get(0).operation(), "get");
+		assertEquals(setup.steps().get(0).children().size(), 1);
+		assertEquals(setup.steps().get(0).children().get(0).operation(), "waitForPageLoad");
+
+		TracedTest cleanup = tracedTests.get(2);
+		assertEquals(cleanup.name(), RunTraceReader.OUTSIDE_TESTS_NAME + " (setup-2)");
+		assertEquals(cleanup.status(), RunTraceWriter.STATUS_BROKEN);
+		assertEquals(cleanup.steps().size(), 1);
+		assertTrue(cleanup.steps().get(0).children().isEmpty());
+		assertNull(cleanup.steps().get(0).locator());
+
+		TracedTest checkout = tracedTests.get(3);
+		assertEquals(checkout.status(), RunTraceWriter.STATUS_FAILED);
+		assertEquals(checkout.message(), "Total is wrong");
+
+		Path resultsDirectory = directory.resolve("allure-results");
+		RunTraceConverter.toAllure(tracedTests, resultsDirectory);
+		try(Stream<Path> results = Files.list(resultsDirectory)) {
+			assertEquals(results.filter(result -> result.getFileName().toString().endsWith("-result.json")).count(), 4L);
+		}
+		Path reportPath = directory.resolve("report.html");
+		RunTraceConverter.toExtent(tracedTests, reportPath.toString());
+		assertTrue(Files.readString(reportPath).contains("Total is wrong"));
+	}
+
+	@Test
+	public void truncatedTraceKeepsCompleteRecords() throws IOException {
+		byte[] trace = Files.readAllBytes(writeTrace());
+		Path truncatedFile = directory.resolve("truncated.trace");
+		// cut into the stop record of the last test
+		Files.write(truncatedFile, Arrays.copyOf(trace, trace.length - 3));
+
+		List<TracedTest> tracedTests = RunTraceReader.read(truncatedFile);
+		assertEquals(tracedTests.size(), 4);
+		assertEquals(tracedTests.get(0).status(), RunTraceWriter.STATUS_PASSED);
+		TracedTest checkout = tracedTests.get(3);
+		assertEquals(checkout.name(), "checkout");
+		assertEquals(checkout.status(), RunTraceWriter.STATUS_BROKEN);
+		assertFalse(checkout.steps().isEmpty());
+	}
+
+	private Path writeTrace() throws IOException {
+		Path traceFile = directory.resolve("run.trace");
+		try(RunTraceWriter runTraceWriter = new RunTraceWriter(traceFile)) {
+			int login = runTraceWriter.testStarted("login", "com.example.LoginTests.login", 1_000);
+			runTraceWriter.stepFinished(login, step(1_100, "main", "findElement", null, "css~#submit", true, 1));
+			runTraceWriter.stepFinished(login, step(1_200, "main", "click", "Click submit", "css~#submit", true, 0));
+			runTraceWriter.testFinished(login, RunTraceWriter.STATUS_PASSED, null, 1_300);
+			// steps outside tests of two threads, finishing interleaved
+			runTraceWriter.stepFinished(0, step(2_100, "setup-1", "waitForPageLoad", null, null, true, 1));
+			runTraceWriter.stepFinished(0, step(2_150, "setup-2", "deleteAllCookies", "Clear cookies", null, false, 0));
+			runTraceWriter.stepFinished(0, step(2_200, "setup-1", "get", "Open shop", "https://example.com", true, 0));
+			int checkout = runTraceWriter.testStarted("checkout", "com.example.ShopTests.checkout", 3_000);
+			runTraceWriter.stepFinished(checkout, step(3_100, "main", "getText", "Read total", "css~#total", true, 0));
+			runTraceWriter.testFinished(checkout, RunTraceWriter.STATUS_FAILED, "Total is wrong", 3_200);
+		}
+		return traceFile;
+	}
+
+	private static StepEvent step(long stopMillis, String threadName, String operation, String stepDescription, String locator, boolean successful, int depth) {
+		return new StepEvent(stopMillis, threadName, operation, stepDescription, locator, successful, 50_000_000L, depth, 1, 0);
+	}
+}